@@ -0,0 +1,130 @@
+package benchmark;
+
+import model.dao.AvailabilityFieldDAO;
+import model.dao.AvailabilityIndex;
+import model.dao.FieldDAO;
+import model.dao.MatchDAO;
+import model.dao.UserDAO;
+import model.dao.dbms.ConnectionPool;
+import model.dao.dbms.DbmsDAOFactory;
+import model.dao.filesystem.MatchDAOFileSystem;
+import model.dao.mapped.MatchDAOMapped;
+import model.dao.memory.MemoryDAOFactory;
+import model.domain.Field;
+import model.domain.Sport;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * The storage backends under benchmark, each opened on a scratch directory.
+ * The relational database is an embedded H2 file database in MySQL mode;
+ * the file-system and memory-mapped stores keep users and fields in it, as
+ * their factories do with the configured database.
+ */
+public enum Backend {
+    MEMORY {
+        @Override
+        Store open(Path dir) {
+            MemoryDAOFactory factory = new MemoryDAOFactory();
+            FieldDAO fields = factory.getFieldDAO();
+            return new Store(factory.getUserDAO(), fields, factory.getMatchDAO(), fields::findAvailableFields,
+                    () -> {
+                    });
+        }
+    },
+    DBMS {
+        @Override
+        Store open(Path dir) {
+            ConnectionPool pool = openDatabase(dir);
+            DbmsDAOFactory factory = new DbmsDAOFactory(pool);
+            FieldDAO fields = factory.getFieldDAO();
+            return new Store(factory.getUserDAO(), fields, factory.getMatchDAO(), fields::findAvailableFields,
+                    pool::close);
+        }
+    },
+    FILE_SYSTEM {
+        @Override
+        Store open(Path dir) {
+            ConnectionPool pool = openDatabase(dir);
+            DbmsDAOFactory factory = new DbmsDAOFactory(pool);
+            MatchDAOFileSystem matches = new MatchDAOFileSystem(dir.resolve("matches.json"));
+            return withAvailabilityIndex(factory, matches, matches.getAvailability(), () -> {
+                matches.close();
+                pool.close();
+            });
+        }
+    },
+    MAPPED {
+        @Override
+        Store open(Path dir) {
+            ConnectionPool pool = openDatabase(dir);
+            DbmsDAOFactory factory = new DbmsDAOFactory(pool);
+            MatchDAOMapped matches = new MatchDAOMapped(dir.resolve("matches.bin"), dir.resolve("players.bin"),
+                    factory.getUserDAO(), factory.getFieldDAO());
+            return withAvailabilityIndex(factory, matches, matches.getAvailability(), () -> {
+                matches.close();
+                pool.close();
+            });
+        }
+    };
+
+    /**
+     * Answers free-field searches the way the application does for this
+     * backend.
+     */
+    @FunctionalInterface
+    interface AvailableFields {
+        List<Field> find(String city, Sport sport, LocalDate date, LocalTime time);
+    }
+
+    /**
+     * The DAOs of an opened backend and how to release it.
+     */
+    record Store(UserDAO users, FieldDAO fields, MatchDAO matches, AvailableFields availableFields,
+            Runnable closer) implements AutoCloseable {
+        @Override
+        public void close() {
+            closer.run();
+        }
+    }
+
+    abstract Store open(Path dir);
+
+    /**
+     * The file-system and memory-mapped stores hold no fields, so their
+     * factories answer free-field searches from the availability index the
+     * store keeps; the database's own search would not see their matches.
+     */
+    private static Store withAvailabilityIndex(DbmsDAOFactory factory, MatchDAO matches,
+            AvailabilityIndex availability, Runnable closer) {
+        FieldDAO fields = new AvailabilityFieldDAO(factory.getFieldDAO(), availability);
+        return new Store(factory.getUserDAO(), fields, matches, fields::findAvailableFields, closer);
+    }
+
+    private static ConnectionPool openDatabase(Path dir) {
+        String url = "jdbc:h2:file:" + dir.resolve("sporty").toAbsolutePath() + ";MODE=MySQL;NON_KEYWORDS=USER";
+        ConnectionPool pool = new ConnectionPool(new ConnectionPool.Settings(url, "sa", "", 4, 10_000, 600_000,
+                3_600_000, 1, 60_000));
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("CREATE TABLE user (id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) UNIQUE, "
+                    + "password VARCHAR(50), name VARCHAR(50), surname VARCHAR(50), role INT)");
+            stmt.execute("CREATE TABLE field (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100), "
+                    + "city VARCHAR(100), address VARCHAR(200), price_per_hour DOUBLE, sport INT, manager_id INT)");
+            stmt.execute("CREATE TABLE matches (id INT AUTO_INCREMENT PRIMARY KEY, organizer_id INT, field_id INT, "
+                    + "date DATE, time TIME, missing_players INT, status INT, joined_players TEXT)");
+            stmt.execute("CREATE TABLE notifications (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "recipient_username VARCHAR(50), title VARCHAR(100), message TEXT, is_read BOOLEAN, "
+                    + "created_at TIMESTAMP)");
+        } catch (SQLException e) {
+            pool.close();
+            throw new IllegalStateException("Could not create the benchmark database in " + dir, e);
+        }
+        return pool;
+    }
+}
@@ -0,0 +1,53 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * One backend loaded with a {@link Dataset} of the given size, shared by the
+ * threads of a trial. Every trial starts from a new scratch directory.
+ */
+@State(Scope.Benchmark)
+public class BackendState {
+    @Param({"MEMORY", "DBMS", "FILE_SYSTEM", "MAPPED"})
+    public Backend backend;
+
+    @Param({"1000", "100000", "1000000"})
+    public int matches;
+
+    Path dir;
+    Backend.Store store;
+    Dataset data;
+
+    @Setup(Level.Trial)
+    public void open() throws IOException {
+        dir = Files.createTempDirectory("sporty-bench-");
+        store = backend.open(dir);
+        data = Dataset.load(store, matches, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() throws IOException {
+        store.close();
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package benchmark;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import model.dao.filesystem.LocalDateAdapter;
+import model.dao.filesystem.LocalTimeAdapter;
+import model.dao.filesystem.MatchAdapter;
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Role;
+import model.domain.Sport;
+import model.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.reflect.Type;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The codec behind the file-system snapshot. A snapshot of {@link #matches} matches is written and read in memory by
+ * the reflective Gson the file store used to build and by
+ * {@link MatchAdapter}, pretty or compact, so only the encoding is timed.
+ * Run with {@code -Djmh.args="benchmark.CodecBenchmark -prof gc"} to see
+ * the allocation per operation next to the throughput.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class CodecBenchmark {
+    private static final Type MATCH_LIST = new TypeToken<List<Match>>() { }.getType();
+
+    @Param({"reflective", "streaming"})
+    public String codec;
+
+    @Param({"false", "true"})
+    public boolean prettyPrint;
+
+    @Param({"10000"})
+    public int matches;
+
+    private final MatchAdapter matchAdapter = new MatchAdapter();
+    private Gson gson;
+    private List<Match> snapshot;
+    private String encoded;
+
+    @Setup
+    public void encode() throws IOException {
+        GsonBuilder builder = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .registerTypeAdapter(LocalTime.class, new LocalTimeAdapter());
+        if (codec.equals("streaming")) {
+            builder.registerTypeAdapter(Match.class, matchAdapter);
+        }
+        if (prettyPrint) {
+            builder.setPrettyPrinting();
+        }
+        gson = builder.create();
+        snapshot = generate(matches);
+        encoded = writeSnapshot();
+    }
+
+    private static List<Match> generate(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        Sport[] sports = Sport.values();
+        List<Field> fields = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            User manager = new User(i + 1, "bench_manager" + i, "password", "Manager", String.valueOf(i),
+                    Role.FIELD_MANAGER);
+            fields.add(new Field(i + 1, "Field " + i, Dataset.CITIES[i % Dataset.CITIES.length], "Via " + i,
+                    40.0 + (i % 5) * 10, sports[i % sports.length], manager));
+        }
+        LocalDate firstDay = LocalDate.of(2030, 1, 1);
+        List<Match> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User organizer = new User(1_000 + random.nextInt(10_000), "bench_player" + i, "password", "Player",
+                    String.valueOf(i), Role.ORGANIZER);
+            Match match = new Match(i + 1, organizer, fields.get(random.nextInt(fields.size())),
+                    firstDay.plusDays(random.nextInt(365)), LocalTime.of(8 + random.nextInt(14), 0),
+                    1 + random.nextInt(3), MatchStatus.values()[random.nextInt(3)]);
+            List<Integer> joined = new ArrayList<>();
+            for (int j = random.nextInt(4); j > 0; j--) {
+                joined.add(1_000 + random.nextInt(10_000));
+            }
+            match.setJoinedPlayers(joined);
+            result.add(match);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the snapshot as the file store does: one array, each match
+     * through the codec under test.
+     */
+    @Benchmark
+    public String writeSnapshot() throws IOException {
+        StringWriter out = new StringWriter(encoded != null ? encoded.length() : 1 << 16);
+        if (codec.equals("streaming")) {
+            try (JsonWriter writer = gson.newJsonWriter(out)) {
+                writer.beginArray();
+                for (Match match : snapshot) {
+                    matchAdapter.write(writer, match);
+                }
+                writer.endArray();
+            }
+        } else {
+            gson.toJson(snapshot, MATCH_LIST, out);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Reads the snapshot one match at a time, as the file store loads it.
+     */
+    @Benchmark
+    public int readSnapshot() throws IOException {
+        int read = 0;
+        try (JsonReader reader = new JsonReader(new StringReader(encoded))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Match match = codec.equals("streaming") ? matchAdapter.read(reader)
+                        : gson.fromJson(reader, Match.class);
+                read += match.getId() != 0 ? 1 : 0;
+            }
+            reader.endArray();
+        }
+        return read;
+    }
+}
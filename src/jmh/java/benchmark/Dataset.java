@@ -0,0 +1,111 @@
+package benchmark;
+
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Role;
+import model.domain.Sport;
+import model.domain.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A reproducible data set loaded into a backend before a trial: players,
+ * field managers, fields spread over a few cities, and matches over the next
+ * year, 70% approved, 20% pending and 10% rejected, each joined by up to
+ * three players.
+ */
+final class Dataset {
+    static final String[] CITIES = {"Milano", "Roma", "Torino", "Napoli", "Bologna", "Firenze", "Genova", "Bari",
+            "Verona", "Padova"};
+    private static final int MANAGERS = 20;
+    private static final int CHUNK = 5_000;
+
+    final LocalDate firstDay = LocalDate.now().plusDays(1);
+    final List<User> players = new ArrayList<>();
+    final List<User> managers = new ArrayList<>();
+    final List<Field> fields = new ArrayList<>();
+    final List<Integer> matchIds = new ArrayList<>();
+
+    private Dataset() {
+    }
+
+    /**
+     * Saves the data set through the store's DAOs, matches in batches.
+     *
+     * @param matchCount the number of matches
+     * @param seed       the seed of the generated values
+     */
+    static Dataset load(Backend.Store store, int matchCount, long seed) {
+        Dataset data = new Dataset();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < MANAGERS; i++) {
+            User manager = new User(0, "bench_manager" + i, "password", "Manager", String.valueOf(i),
+                    Role.FIELD_MANAGER);
+            store.users().save(manager);
+            data.managers.add(manager);
+        }
+        int playerCount = Math.max(100, matchCount / 10);
+        for (int i = 0; i < playerCount; i++) {
+            User player = new User(0, "bench_player" + i, "password", "Player", String.valueOf(i), Role.PLAYER);
+            store.users().save(player);
+            data.players.add(player);
+        }
+        Sport[] sports = Sport.values();
+        int fieldCount = Math.max(20, matchCount / 500);
+        for (int i = 0; i < fieldCount; i++) {
+            data.fields.add(new Field(0, "Field " + i, CITIES[i % CITIES.length], "Via " + i, 40.0 + (i % 5) * 10,
+                    sports[i % sports.length], data.managers.get(i % MANAGERS)));
+        }
+        store.fields().saveAll(data.fields);
+
+        List<Match> chunk = new ArrayList<>(CHUNK);
+        for (int i = 0; i < matchCount; i++) {
+            chunk.add(data.newMatch(random));
+            if (chunk.size() == CHUNK || i == matchCount - 1) {
+                store.matches().saveAll(chunk);
+                chunk.forEach(match -> data.matchIds.add(match.getId()));
+                chunk = new ArrayList<>(CHUNK);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * @return a new, unsaved match on a random field and day
+     */
+    Match newMatch(SplittableRandom random) {
+        double roll = random.nextDouble();
+        MatchStatus status = roll < 0.7 ? MatchStatus.APPROVED
+                : roll < 0.9 ? MatchStatus.PENDING : MatchStatus.REJECTED;
+        Field field = fields.get(random.nextInt(fields.size()));
+        Match match = new Match(0, randomPlayer(random), field, firstDay.plusDays(random.nextInt(365)),
+                LocalTime.of(8 + random.nextInt(14), 0), 1 + random.nextInt(field.getSport().getRequiredPlayers() - 1),
+                status);
+        List<Integer> joined = new ArrayList<>();
+        for (int j = random.nextInt(4); j > 0; j--) {
+            int playerId = randomPlayer(random).getId();
+            if (!joined.contains(playerId)) {
+                joined.add(playerId);
+            }
+        }
+        match.setJoinedPlayers(joined);
+        return match;
+    }
+
+    User randomPlayer(SplittableRandom random) {
+        return players.get(random.nextInt(players.size()));
+    }
+
+    User randomManager(SplittableRandom random) {
+        return managers.get(random.nextInt(managers.size()));
+    }
+
+    int randomMatchId(SplittableRandom random) {
+        return matchIds.get(random.nextInt(matchIds.size()));
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark;
+
+import model.domain.Field;
+import model.domain.Sport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Free-field searches of {@link model.dao.FieldDAO#findAvailableFields} on
+ * every backend and data size, for a random city, sport and hour of the
+ * year the matches are spread over.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class FieldDAOBenchmark {
+    private static final Sport[] SPORTS = Sport.values();
+
+    private final SplittableRandom random = new SplittableRandom(7);
+
+    @Benchmark
+    public List<Field> findAvailableFields(BackendState state) {
+        return state.store.availableFields().find(
+                Dataset.CITIES[random.nextInt(Dataset.CITIES.length)],
+                SPORTS[random.nextInt(SPORTS.length)],
+                state.data.firstDay.plusDays(random.nextInt(365)),
+                LocalTime.of(8 + random.nextInt(14), 0));
+    }
+}
@@ -0,0 +1,46 @@
+package benchmark;
+
+import model.dao.UserDAO;
+import model.dao.memory.MemoryDAOFactory;
+import model.dao.metrics.InstrumentedDAOFactory;
+import model.domain.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The cost {@link InstrumentedDAOFactory} adds to a call: the same in-memory
+ * lookup with and without the decorator, from four threads so the shared
+ * counters see contention.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+    private final MemoryDAOFactory backend = new MemoryDAOFactory();
+    private final UserDAO plain = backend.getUserDAO();
+    private final UserDAO instrumented = new InstrumentedDAOFactory(backend, "memory").getUserDAO();
+
+    @Benchmark
+    public User findByIdPlain() {
+        return plain.findById(1);
+    }
+
+    @Benchmark
+    public User findByIdInstrumented() {
+        return instrumented.findById(1);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmark;
+
+import model.utils.JsonUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * The joined_players column codec, run once per match row read or written
+ * by the DBMS store. {@link JsonUtils} is compared with the stream and
+ * regex version it replaced, kept here as the baseline. Add
+ * {@code -prof gc} to the JMH arguments for the allocation per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JoinedPlayersBenchmark {
+    private final List<Integer> joinedPlayers = List.of(1_024, 20_517, 38_002, 77_419);
+    private final String json = JsonUtils.listToJson(joinedPlayers);
+
+    @Benchmark
+    public String toJson() {
+        return JsonUtils.listToJson(joinedPlayers);
+    }
+
+    @Benchmark
+    public List<Integer> fromJson() {
+        return JsonUtils.jsonToList(json);
+    }
+
+    @Benchmark
+    public String toJsonBaseline() {
+        return "[" + joinedPlayers.stream()
+                .map(String::valueOf)
+                .collect(Collectors.joining(",")) + "]";
+    }
+
+    @Benchmark
+    public List<Integer> fromJsonBaseline() {
+        String content = json.replaceAll("[\\[\\]]", "").trim();
+        return Arrays.stream(content.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(Integer::parseInt)
+                .toList();
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import exception.ValidationException;
+import model.domain.Match;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes of {@link model.dao.MatchDAO} on every backend and data
+ * size. Saves are deleted after each iteration, so the store keeps its size
+ * across iterations.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class MatchDAOBenchmark {
+    private static final int UPDATE_SAMPLE = 1_024;
+
+    private final SplittableRandom random = new SplittableRandom(7);
+    private final List<Integer> saved = new ArrayList<>();
+    private final List<Match> toUpdate = new ArrayList<>();
+    private int nextUpdate;
+
+    @Setup(Level.Trial)
+    public void sampleMatches(BackendState state) {
+        SplittableRandom sample = new SplittableRandom(11);
+        for (int i = 0; i < UPDATE_SAMPLE; i++) {
+            toUpdate.add(state.store.matches().findById(state.data.randomMatchId(sample)));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteSaved(BackendState state) {
+        saved.forEach(state.store.matches()::delete);
+        saved.clear();
+    }
+
+    @Benchmark
+    public List<Match> findApprovedMatches(BackendState state) {
+        return state.store.matches().findApprovedMatches();
+    }
+
+    @Benchmark
+    public List<Match> findByJoinedPlayer(BackendState state) {
+        return state.store.matches().findByJoinedPlayer(state.data.randomPlayer(random).getId());
+    }
+
+    @Benchmark
+    public List<Match> findPendingForManager(BackendState state) {
+        return state.store.matches().findPendingForManager(state.data.randomManager(random).getId());
+    }
+
+    @Benchmark
+    public int save(BackendState state) {
+        Match match = state.data.newMatch(random);
+        state.store.matches().save(match);
+        saved.add(match.getId());
+        return match.getId();
+    }
+
+    @Benchmark
+    public Match update(BackendState state) throws ValidationException {
+        Match match = toUpdate.get(nextUpdate++ % toUpdate.size());
+        match.setMissingPlayers(match.getMissingPlayers() > 0 ? 0 : 1);
+        state.store.matches().update(match);
+        return match;
+    }
+}
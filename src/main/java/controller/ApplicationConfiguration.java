@@ -1,8 +1,11 @@
 package controller;
 
 import model.dao.DAOFactory;
+import model.dao.cache.CachingDAOFactory;
 import model.dao.dbms.DbmsDAOFactory;
 import model.dao.filesystem.FileSystemDAOFactory;
+import model.dao.mapped.MappedDAOFactory;
+import model.dao.metrics.InstrumentedDAOFactory;
 import model.dao.memory.MemoryDAOFactory;
 import view.factory.CLIViewFactory;
 import view.factory.GraphicViewFactory;
@@ -43,7 +46,9 @@ public class ApplicationConfiguration {
     }
 
     /**
-     * Prompts user to select the persistence layer.
+     * Prompts user to select the persistence layer. The chosen backend is
+     * wrapped in an {@link InstrumentedDAOFactory} below the cache, so its
+     * metrics show the time spent in the backend itself.
      * 
      * @param scanner Scanner for user input
      * @return selected DAOFactory instance
@@ -59,13 +64,14 @@ public class ApplicationConfiguration {
 
         if ("1".equals(versionChoice)) {
             logger.info("App started in DEMO mode");
-            return new MemoryDAOFactory();
+            return new InstrumentedDAOFactory(new MemoryDAOFactory(), "memory");
         }
 
         // FULL version - select storage type
         System.out.println("Select storage:");
         System.out.println("1. FileSystem");
         System.out.println("2. Database (DBMS)");
+        System.out.println("3. Binary (memory-mapped)");
         System.out.print("> ");
 
         String storageChoice = scanner.nextLine().trim();
@@ -73,15 +79,21 @@ public class ApplicationConfiguration {
         return switch (storageChoice) {
             case "2" -> {
                 logger.info("App started with persistence: DBMS");
-                yield new DbmsDAOFactory();
+                yield new CachingDAOFactory(new InstrumentedDAOFactory(new DbmsDAOFactory(), "dbms"));
             }
             case "1" -> {
                 logger.info("App started with persistence: FILESYSTEM");
-                yield new FileSystemDAOFactory(new DbmsDAOFactory());
+                yield new CachingDAOFactory(new InstrumentedDAOFactory(
+                        new FileSystemDAOFactory(new DbmsDAOFactory()), "filesystem"));
+            }
+            case "3" -> {
+                logger.info("App started with persistence: MAPPED");
+                yield new CachingDAOFactory(new InstrumentedDAOFactory(
+                        new MappedDAOFactory(new DbmsDAOFactory()), "mapped"));
             }
             default -> {
                 logger.warning("Invalid storage choice, defaulting to DBMS");
-                yield new DbmsDAOFactory();
+                yield new CachingDAOFactory(new InstrumentedDAOFactory(new DbmsDAOFactory(), "dbms"));
             }
         };
     }
@@ -109,6 +121,15 @@ public class ApplicationConfiguration {
         return daoFactory;
     }
 
+    /**
+     * @return the instrumented layer of the DAO factory, or null if the
+     *         factory was not built by {@link #create()}
+     */
+    public InstrumentedDAOFactory getDaoMetrics() {
+        DAOFactory factory = daoFactory instanceof CachingDAOFactory caching ? caching.getDelegate() : daoFactory;
+        return factory instanceof InstrumentedDAOFactory instrumented ? instrumented : null;
+    }
+
     public ViewFactory getViewFactory() {
         return viewFactory;
     }
@@ -119,11 +140,15 @@ public class ApplicationConfiguration {
      * @return configuration info string
      */
     public String getConfigurationInfo() {
+        InstrumentedDAOFactory metrics = getDaoMetrics();
+        DAOFactory persistence = metrics != null ? metrics.getDelegate() : daoFactory;
         String persistenceInfo;
-        if (daoFactory instanceof MemoryDAOFactory) {
+        if (persistence instanceof MemoryDAOFactory) {
             persistenceInfo = "DEMO version (data will not be persisted)";
-        } else if (daoFactory instanceof DbmsDAOFactory) {
+        } else if (persistence instanceof DbmsDAOFactory) {
             persistenceInfo = "FULL version with DBMS persistence";
+        } else if (persistence instanceof MappedDAOFactory) {
+            persistenceInfo = "FULL version with memory-mapped binary persistence";
         } else {
             persistenceInfo = "FULL version with FILESYSTEM persistence";
         }
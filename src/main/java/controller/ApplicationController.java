@@ -5,6 +5,10 @@ import exception.ValidationException;
 import model.bean.MatchBean;
 import model.bean.UserBean;
 import model.dao.DAOFactory;
+import model.dao.maintenance.ExpiredMatchReaper;
+import model.dao.maintenance.NotificationDispatcher;
+import model.dao.metrics.DAOMetricsReporter;
+import model.dao.metrics.InstrumentedDAOFactory;
 import model.domain.Role;
 import model.domain.User;
 import view.View;
@@ -24,6 +28,9 @@ public class ApplicationController {
     private final Deque<View> viewStack = new ArrayDeque<>();
     private ViewFactory viewFactory;
     private DAOFactory daoFactory;
+    private ExpiredMatchReaper expiredMatchReaper;
+    private NotificationDispatcher notificationDispatcher;
+    private DAOMetricsReporter daoMetricsReporter;
 
     public ApplicationController() {
     }
@@ -39,9 +46,61 @@ public class ApplicationController {
         ApplicationConfiguration config = ApplicationConfiguration.create();
         this.daoFactory = config.getDaoFactory();
         this.viewFactory = config.getViewFactory();
+        startMaintenance();
+        startMetrics(config.getDaoMetrics());
         navigateToLogin();
     }
 
+    /**
+     * Starts deleting expired matches and delivering queued notifications in
+     * the background, as set by the {@code sporty.reaper.*} and
+     * {@code sporty.notifications.*} system properties.
+     */
+    private void startMaintenance() {
+        expiredMatchReaper = new ExpiredMatchReaper(daoFactory.getMatchDAO(),
+                ExpiredMatchReaper.Settings.fromProperties(System.getProperties()));
+        expiredMatchReaper.start();
+        notificationDispatcher = new NotificationDispatcher(daoFactory.getNotificationOutbox(),
+                daoFactory.getNotificationDAO(),
+                NotificationDispatcher.Settings.fromProperties(System.getProperties()));
+        notificationDispatcher.start();
+    }
+
+    /**
+     * Publishes the DAO metrics over JMX and logs them at the interval set
+     * by the {@code sporty.metrics.logIntervalMs} system property.
+     */
+    private void startMetrics(InstrumentedDAOFactory metrics) {
+        if (metrics == null) {
+            return;
+        }
+        metrics.registerMBeans();
+        daoMetricsReporter = new DAOMetricsReporter(metrics,
+                DAOMetricsReporter.Settings.fromProperties(System.getProperties()));
+        daoMetricsReporter.start();
+    }
+
+    /**
+     * @return the expired match cleanup, or null before {@link #start()}
+     */
+    public ExpiredMatchReaper getExpiredMatchReaper() {
+        return expiredMatchReaper;
+    }
+
+    /**
+     * @return the notification delivery, or null before {@link #start()}
+     */
+    public NotificationDispatcher getNotificationDispatcher() {
+        return notificationDispatcher;
+    }
+
+    /**
+     * @return the periodic DAO metrics dump, or null before {@link #start()}
+     */
+    public DAOMetricsReporter getDaoMetricsReporter() {
+        return daoMetricsReporter;
+    }
+
     public void navigateToLogin() {
         var controller = new LoginController(daoFactory);
         var view = viewFactory.createLoginView(controller);
@@ -3,25 +3,43 @@ package controller;
 import exception.ValidationException;
 import model.bean.FieldBean;
 import model.bean.MatchBean;
+import model.bean.SlotBean;
 import model.converter.FieldConverter;
 import model.dao.FieldDAO;
+import model.dao.FreeSlot;
+import model.dao.SlotQuery;
+import model.dao.async.AsyncDAOFactory;
+import model.dao.async.AsyncExecutor;
+import model.dao.async.AsyncFieldDAO;
 import model.domain.Field;
 import model.domain.Sport;
 import model.utils.Constants;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Controller for booking fields for matches.
  * Handles field search, availability checking, and field selection.
+ * When the requested time is taken, the earliest free slots of the following
+ * days are suggested instead.
  */
 public class BookFieldController {
+    public static final int SUGGESTED_SLOTS = 5;
+    public static final int SUGGESTION_WINDOW_DAYS = 7;
+    public static final int TEXT_SEARCH_LIMIT = 200;
+
     private final ApplicationController applicationController;
     private final FieldDAO fieldDAO;
+    private final AsyncFieldDAO asyncFieldDAO;
+    private final AsyncExecutor asyncExecutor;
     private final MatchBean currentMatchBean;
-    private List<FieldBean> availableFields;
+    private volatile List<FieldBean> availableFields;
     private FieldBean selectedField;
     private boolean standaloneMode;
 
@@ -34,6 +52,9 @@ public class BookFieldController {
     public BookFieldController(ApplicationController applicationController, MatchBean matchBean) {
         this.applicationController = applicationController;
         this.fieldDAO = applicationController.getDaoFactory().getFieldDAO();
+        AsyncDAOFactory asyncDAOs = new AsyncDAOFactory(applicationController.getDaoFactory());
+        this.asyncFieldDAO = asyncDAOs.getFieldDAO();
+        this.asyncExecutor = asyncDAOs.getExecutor();
         this.currentMatchBean = matchBean;
     }
 
@@ -74,13 +95,124 @@ public class BookFieldController {
         return availableFields;
     }
 
+    /**
+     * Non-blocking variant of {@link #searchAvailableFields()}.
+     */
+    public CompletableFuture<List<FieldBean>> searchAvailableFieldsAsync() {
+        if (currentMatchBean == null) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        return asyncFieldDAO.findAvailableFields(
+                currentMatchBean.getCity(),
+                currentMatchBean.getSport(),
+                currentMatchBean.getMatchDate(),
+                currentMatchBean.getMatchTime())
+                .thenApplyAsync(fields -> {
+                    this.availableFields = convertToFieldBeans(fields);
+                    return availableFields;
+                }, asyncExecutor);
+    }
+
+    /**
+     * Non-blocking variant of
+     * {@link #searchFieldsForDirectBooking(Sport, String, LocalDate, LocalTime, String)}.
+     */
+    public CompletableFuture<List<FieldBean>> searchFieldsForDirectBookingAsync(Sport sport, String city,
+            LocalDate date, LocalTime time, String nameOrAddress) {
+        CompletableFuture<List<Field>> available = asyncFieldDAO.findAvailableFields(city, sport, date, time);
+        CompletableFuture<List<Field>> matching = isBlank(nameOrAddress) ? CompletableFuture.completedFuture(null)
+                : asyncFieldDAO.searchByNameOrAddress(nameOrAddress, TEXT_SEARCH_LIMIT);
+        return available.thenCombineAsync(matching, (fields, matches) -> {
+            this.availableFields = convertToFieldBeans(matches != null ? rankByText(fields, matches) : fields);
+            return availableFields;
+        }, asyncExecutor);
+    }
+
+    public CompletableFuture<List<FieldBean>> searchFieldsForDirectBookingAsync(Sport sport, String city,
+            LocalDate date, LocalTime time) {
+        return searchFieldsForDirectBookingAsync(sport, city, date, time, null);
+    }
+
     public List<FieldBean> searchFieldsForDirectBooking(Sport sport, String city, LocalDate date,
             LocalTime time) {
+        return searchFieldsForDirectBooking(sport, city, date, time, null);
+    }
+
+    /**
+     * Searches the free fields of the sport in the city, optionally narrowed
+     * to those whose name or address resembles the given text, best match
+     * first. The city is matched ignoring case, accents and punctuation.
+     *
+     * @param nameOrAddress typo-tolerant text to look for, or null for all
+     *                      free fields
+     */
+    public List<FieldBean> searchFieldsForDirectBooking(Sport sport, String city, LocalDate date,
+            LocalTime time, String nameOrAddress) {
         var fields = fieldDAO.findAvailableFields(city, sport, date, time);
+        if (!isBlank(nameOrAddress)) {
+            fields = rankByText(fields, fieldDAO.searchByNameOrAddress(nameOrAddress, TEXT_SEARCH_LIMIT));
+        }
         this.availableFields = convertToFieldBeans(fields);
         return availableFields;
     }
 
+    private static boolean isBlank(String text) {
+        return text == null || text.isBlank();
+    }
+
+    /**
+     * Keeps the free fields among the text matches, in match order.
+     */
+    private static List<Field> rankByText(List<Field> available, List<Field> matches) {
+        Set<Integer> availableIds = available.stream().map(Field::getId).collect(Collectors.toSet());
+        return matches.stream().filter(field -> availableIds.contains(field.getId())).toList();
+    }
+
+    /**
+     * Finds the earliest free slots for the sport in the city, starting from
+     * the requested date and time (or now, if later) and looking
+     * {@value #SUGGESTION_WINDOW_DAYS} days ahead.
+     *
+     * @param maxPricePerHour the price ceiling, or null for any price
+     * @return up to {@value #SUGGESTED_SLOTS} slots, earliest first
+     */
+    public List<SlotBean> findSuggestedSlots(Sport sport, String city, LocalDate date, LocalTime time,
+            Double maxPricePerHour) {
+        return convertToSlotBeans(fieldDAO.findEarliestFreeSlots(
+                suggestionQuery(sport, city, date, time, maxPricePerHour)));
+    }
+
+    /**
+     * Non-blocking variant of
+     * {@link #findSuggestedSlots(Sport, String, LocalDate, LocalTime, Double)}.
+     */
+    public CompletableFuture<List<SlotBean>> findSuggestedSlotsAsync(Sport sport, String city, LocalDate date,
+            LocalTime time, Double maxPricePerHour) {
+        return asyncFieldDAO.findEarliestFreeSlots(suggestionQuery(sport, city, date, time, maxPricePerHour))
+                .thenApplyAsync(this::convertToSlotBeans, asyncExecutor);
+    }
+
+    private static SlotQuery suggestionQuery(Sport sport, String city, LocalDate date, LocalTime time,
+            Double maxPricePerHour) {
+        LocalDateTime requested = LocalDateTime.of(date, time);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime from = requested.isAfter(now) ? requested : now;
+        return SlotQuery.of(city, sport, from, from.plusDays(SUGGESTION_WINDOW_DAYS), maxPricePerHour,
+                SUGGESTED_SLOTS);
+    }
+
+    /**
+     * Books a suggested slot: the match moves to the slot's date and time and
+     * the slot's field is selected.
+     */
+    public void selectSuggestedSlot(SlotBean slot) {
+        if (currentMatchBean != null) {
+            currentMatchBean.setMatchDate(slot.getDate());
+            currentMatchBean.setMatchTime(slot.getTime());
+        }
+        setSelectedField(slot.getField());
+    }
+
     public void proceedToPayment() throws ValidationException {
         if (selectedField == null) {
             throw new ValidationException(Constants.ERROR_NO_FIELD_SELECTED);
@@ -102,6 +234,18 @@ public class BookFieldController {
                 .toList();
     }
 
+    private List<SlotBean> convertToSlotBeans(List<FreeSlot> slots) {
+        return slots.stream()
+                .map(slot -> {
+                    SlotBean bean = new SlotBean();
+                    bean.setField(FieldConverter.toBean(slot.field()));
+                    bean.setDate(slot.date());
+                    bean.setTime(slot.time());
+                    return bean;
+                })
+                .toList();
+    }
+
     public void updateMatchParameters(Sport sport, String city, LocalDate date,
             LocalTime time) {
         if (currentMatchBean == null) {
@@ -11,14 +11,22 @@ import model.converter.NotificationConverter;
 import model.dao.DAOFactory;
 import model.dao.FieldDAO;
 import model.dao.MatchDAO;
+import model.dao.MatchListing;
+import model.dao.MatchListingDAO;
 import model.dao.NotificationDAO;
-import model.dao.UserDAO;
+import model.dao.async.AsyncDAOFactory;
 import model.domain.Match;
 import model.domain.MatchStatus;
+import model.domain.Notification;
 import model.domain.User;
 import model.utils.Constants;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 /**
  * Controller for field manager operations.
@@ -26,11 +34,13 @@ import java.util.List;
  */
 public class FieldManagerController {
     private static final String ERROR_NOT_OWNER = Constants.ERROR_NOT_FIELD_OWNER;
+    private static final int NOTIFICATIONS_PAGE_SIZE = 50;
     private final User fieldManager;
     private final FieldDAO fieldDAO;
     private final MatchDAO matchDAO;
     private final NotificationDAO notificationDAO;
-    private final UserDAO userDAO;
+    private final MatchListingDAO matchListingDAO;
+    private final AsyncDAOFactory asyncDAOs;
 
     /**
      * Constructs a new FieldManagerController for the specified field manager.
@@ -48,24 +58,77 @@ public class FieldManagerController {
         this.fieldDAO = daoFactory.getFieldDAO();
         this.matchDAO = daoFactory.getMatchDAO();
         this.notificationDAO = daoFactory.getNotificationDAO();
-        this.userDAO = daoFactory.getUserDAO();
-        this.matchDAO.deleteExpiredMatches();
+        this.matchListingDAO = daoFactory.getMatchListingDAO();
+        this.asyncDAOs = new AsyncDAOFactory(daoFactory);
     }
 
     /**
-     * Retrieves all unread notifications for the field manager.
+     * Retrieves the newest unread notifications for the field manager, at
+     * most {@value #NOTIFICATIONS_PAGE_SIZE}; see
+     * {@link #countUnreadNotifications()} for how many there are in all.
+     * Older ones stay unread until a page shows them.
      *
-     * @return list of unread notification beans
+     * @return list of unread notification beans, newest first
      */
     public List<NotificationBean> getUnreadNotifications() {
-        return notificationDAO.findUnreadByUsername(fieldManager.getUsername())
-                .stream()
+        return toNotificationBeans(notificationDAO.findLatestUnread(fieldManager.getUsername(),
+                NOTIFICATIONS_PAGE_SIZE));
+    }
+
+    /**
+     * Retrieves the unread notifications that arrived after the last one
+     * already shown, at most {@value #NOTIFICATIONS_PAGE_SIZE}.
+     *
+     * @param lastSeenId the id of the newest notification already shown, 0 for none
+     * @return the new notification beans, oldest first
+     */
+    public List<NotificationBean> getNotificationsSince(int lastSeenId) {
+        return toNotificationBeans(notificationDAO.findSince(fieldManager.getUsername(), lastSeenId,
+                NOTIFICATIONS_PAGE_SIZE));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getNotificationsSince(int)}, for
+     * polling from the UI thread.
+     */
+    public CompletableFuture<List<NotificationBean>> getNotificationsSinceAsync(int lastSeenId) {
+        return asyncDAOs.getNotificationDAO().findSince(fieldManager.getUsername(), lastSeenId,
+                NOTIFICATIONS_PAGE_SIZE).thenApply(FieldManagerController::toNotificationBeans);
+    }
+
+    /**
+     * @return the number of unread notifications, without loading them
+     */
+    public int countUnreadNotifications() {
+        return notificationDAO.countUnread(fieldManager.getUsername());
+    }
+
+    /**
+     * Non-blocking variant of {@link #countUnreadNotifications()}.
+     */
+    public CompletableFuture<Integer> countUnreadNotificationsAsync() {
+        return asyncDAOs.getNotificationDAO().countUnread(fieldManager.getUsername());
+    }
+
+    private static List<NotificationBean> toNotificationBeans(List<Notification> notifications) {
+        return notifications.stream()
                 .map(NotificationConverter::toBean)
                 .toList();
     }
 
-    public void markNotificationsAsRead() {
-        notificationDAO.markAllAsRead(fieldManager.getUsername());
+    /**
+     * Marks as read the notifications of a page that was shown, leaving any
+     * the page did not hold unread.
+     *
+     * @param shown the notifications shown, as returned by {@link #getUnreadNotifications()}
+     */
+    public void markNotificationsAsRead(List<NotificationBean> shown) {
+        if (shown.isEmpty()) {
+            return;
+        }
+        int firstId = shown.stream().mapToInt(NotificationBean::getId).min().getAsInt();
+        int lastId = shown.stream().mapToInt(NotificationBean::getId).max().getAsInt();
+        notificationDAO.markReadBetween(fieldManager.getUsername(), firstId, lastId);
     }
 
     public void addNewField(FieldBean fieldBean) {
@@ -74,6 +137,19 @@ public class FieldManagerController {
         fieldDAO.save(field);
     }
 
+    /**
+     * Adds several fields at once, saved as a single batch.
+     *
+     * @param fieldBeans the fields to add
+     */
+    public void addNewFields(List<FieldBean> fieldBeans) {
+        var fields = fieldBeans.stream()
+                .map(FieldConverter::toEntity)
+                .toList();
+        fields.forEach(field -> field.setManager(fieldManager));
+        fieldDAO.saveAll(fields);
+    }
+
     public List<FieldBean> getMyFields() {
         return fieldDAO.findByManagerId(fieldManager.getId()).stream()
                 .map(FieldConverter::toBean)
@@ -81,23 +157,20 @@ public class FieldManagerController {
     }
 
     public List<MatchBean> getPendingRequests() {
-        return matchDAO.findPendingForManager(fieldManager.getId()).stream()
-                .map(match -> {
-                    var bean = MatchConverter.toBean(match);
-                    var field = match.getField();
-                    if (field != null) {
-                        bean.setFieldName(field.getName());
-                        bean.setSport(field.getSport());
-                    }
-                    var organizer = match.getOrganizer();
-                    if (organizer != null) {
-                        User fullOrganizer = userDAO.findById(organizer.getId());
-                        if (fullOrganizer != null) {
-                            bean.setOrganizerName(fullOrganizer.getName() + " " + fullOrganizer.getSurname());
-                        }
-                    }
-                    return bean;
-                })
+        return toRequestBeans(matchListingDAO.findPendingForManager(fieldManager.getId()));
+    }
+
+    /**
+     * Non-blocking variant of {@link #getPendingRequests()}.
+     */
+    public CompletableFuture<List<MatchBean>> getPendingRequestsAsync() {
+        return asyncDAOs.getMatchListingDAO().findPendingForManager(fieldManager.getId())
+                .thenApply(FieldManagerController::toRequestBeans);
+    }
+
+    private static List<MatchBean> toRequestBeans(List<MatchListing> listings) {
+        return listings.stream()
+                .map(MatchConverter::toBean)
                 .toList();
     }
 
@@ -111,27 +184,53 @@ public class FieldManagerController {
         matchDAO.updateStatus(matchId, MatchStatus.REJECTED);
     }
 
-    public MatchBean getRequestDetails(int matchId) throws AuthorizationException {
-        Match match = matchDAO.findById(matchId);
-        if (match == null) {
-            throw new AuthorizationException("Match not found: " + matchId);
-        }
+    /**
+     * Approves several pending requests with one batched status update.
+     *
+     * @param matchIds the IDs of the matches to approve
+     * @throws AuthorizationException if any match is not a pending request
+     *                                for one of this manager's fields
+     */
+    public void approveMatches(List<Integer> matchIds) throws AuthorizationException {
+        updateStatuses(matchIds, MatchStatus.APPROVED);
+    }
 
-        validateMatchOwnership(matchId);
+    /**
+     * Rejects several pending requests with one batched status update.
+     *
+     * @param matchIds the IDs of the matches to reject
+     * @throws AuthorizationException if any match is not a pending request
+     *                                for one of this manager's fields
+     */
+    public void rejectMatches(List<Integer> matchIds) throws AuthorizationException {
+        updateStatuses(matchIds, MatchStatus.REJECTED);
+    }
 
-        var bean = MatchConverter.toBean(match);
-        if (match.getField() != null) {
-            bean.setFieldName(match.getField().getName());
-            bean.setSport(match.getField().getSport());
-            bean.setPricePerHour(match.getField().getPricePerHour());
-        }
-        if (match.getOrganizer() != null) {
-            User organizer = userDAO.findById(match.getOrganizer().getId());
-            if (organizer != null) {
-                bean.setOrganizerName(organizer.getName() + " " + organizer.getSurname());
+    private void updateStatuses(List<Integer> matchIds, MatchStatus status) throws AuthorizationException {
+        Set<Integer> pendingIds = getPendingMatches().stream()
+                .map(Match::getId)
+                .collect(Collectors.toSet());
+        Map<Integer, MatchStatus> statuses = new LinkedHashMap<>();
+        for (Integer matchId : matchIds) {
+            if (!pendingIds.contains(matchId)) {
+                throw new AuthorizationException(
+                        "Match " + matchId + " does not belong to any of your fields or is not pending");
             }
+            statuses.put(matchId, status);
+        }
+        matchDAO.updateStatusAll(statuses);
+    }
+
+    public MatchBean getRequestDetails(int matchId) throws AuthorizationException {
+        MatchListing listing = matchListingDAO.findById(matchId);
+        if (listing == null) {
+            throw new AuthorizationException("Match not found: " + matchId);
+        }
+        if (listing.managerId() != fieldManager.getId() || listing.status() != MatchStatus.PENDING) {
+            throw new AuthorizationException(
+                    "Match " + matchId + " does not belong to any of your fields or is not pending");
         }
-        return bean;
+        return MatchConverter.toBean(listing);
     }
 
     private void validateMatchOwnership(int matchId) throws AuthorizationException {
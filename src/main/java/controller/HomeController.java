@@ -7,17 +7,20 @@ import model.bean.UserBean;
 import model.converter.MatchConverter;
 import model.converter.UserConverter;
 import model.dao.DAOFactory;
-import model.dao.FieldDAO;
-import model.dao.MatchDAO;
-import model.dao.UserDAO;
-import model.domain.Field;
-import model.domain.Match;
+import model.dao.MatchListing;
+import model.dao.MatchListingDAO;
+import model.dao.MatchQuery;
+import model.dao.Page;
+import model.dao.PageCursor;
+import model.dao.async.AsyncDAOFactory;
+import model.dao.async.AsyncMatchListingDAO;
 import model.domain.Sport;
 import model.domain.User;
 import view.homeview.HomeView;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the home view, managing match listing, filtering, and
@@ -26,13 +29,16 @@ import java.util.List;
  * capability.
  */
 public class HomeController {
+    private static final int MATCHES_PAGE_SIZE = 24;
+
     private final User currentUser;
     private final ApplicationController applicationController;
-    private final UserDAO userDAO;
-    private final FieldDAO fieldDAO;
-    private final MatchDAO matchDAO;
+    private final MatchListingDAO matchListingDAO;
+    private final AsyncDAOFactory asyncDAOs;
+    private final AsyncMatchListingDAO asyncMatchListingDAO;
     private boolean viewAsPlayer;
     private HomeView homeView;
+    private volatile String nextMatchesCursor;
 
     /**
      * Constructs a new HomeController for the specified user.
@@ -44,11 +50,10 @@ public class HomeController {
     public HomeController(User user, ApplicationController applicationController, DAOFactory daoFactory) {
         this.currentUser = user;
         this.applicationController = applicationController;
-        this.matchDAO = daoFactory.getMatchDAO();
-        this.fieldDAO = daoFactory.getFieldDAO();
-        this.userDAO = daoFactory.getUserDAO();
+        this.matchListingDAO = daoFactory.getMatchListingDAO();
+        this.asyncDAOs = new AsyncDAOFactory(daoFactory);
+        this.asyncMatchListingDAO = asyncDAOs.getMatchListingDAO();
         this.viewAsPlayer = user.isPlayer();
-        matchDAO.deleteExpiredMatches();
     }
 
     public void setHomeView(HomeView homeView) {
@@ -78,63 +83,113 @@ public class HomeController {
      * Players see approved matches they haven't joined yet.
      * Organizers see their own organized matches.
      *
-     * @return list of enriched match beans
+     * @return list of match beans
      * @throws DataAccessException if database access fails
      */
     public List<MatchBean> getMatches() {
         try {
-            List<MatchBean> matches;
-            List<Match> matchEntities;
-            if (viewAsPlayer) {
-                matchEntities = matchDAO.findApprovedMatches();
-                matchEntities = matchEntities.stream()
-                        .filter(m -> (m.getOrganizer() != null ? m.getOrganizer().getId() : 0) != currentUser.getId())
-                        .filter(m -> !m.isUserJoined(currentUser.getId())) // Filter out already joined matches
-                        .toList();
-            } else {
-                matchEntities = matchDAO.findByOrganizer(currentUser.getId());
-            }
-            matches = matchEntities.stream()
-                    .map(MatchConverter::toBean)
-                    .toList();
-            for (MatchBean match : matches) {
-                enrichMatchBean(match);
-            }
-            return matches;
+            return toBeans(matchListingDAO.find(visibleMatches()));
         } catch (DataAccessException e) {
             throw new DataAccessException("Error loading matches: " + e.getMessage(), e);
         }
     }
 
-    public MatchBean getMatchById(int matchId) {
-        Match matchEntity = matchDAO.findById(matchId);
-        if (matchEntity == null) {
-            return null;
+    /**
+     * Non-blocking variant of {@link #getMatches()}; the view mode is read
+     * when the call is made.
+     *
+     * @return a future completed with the match beans
+     */
+    public CompletableFuture<List<MatchBean>> getMatchesAsync() {
+        return asyncMatchListingDAO.find(visibleMatches()).thenApply(HomeController::toBeans);
+    }
+
+    /**
+     * The matches of the current view mode, as listed on the home screen.
+     */
+    private MatchQuery visibleMatches() {
+        if (!viewAsPlayer) {
+            return MatchQuery.all().withOrganizer(currentUser.getId());
         }
-        MatchBean matchBean = MatchConverter.toBean(matchEntity);
-        enrichMatchBean(matchBean);
-        return matchBean;
+        return MatchQuery.approved()
+                .excludingOrganizer(currentUser.getId())
+                .excludingJoinedUser(currentUser.getId());
+    }
+
+    /**
+     * Non-blocking variant of {@link #getFirstMatchesPage()}.
+     */
+    public CompletableFuture<List<MatchBean>> getFirstMatchesPageAsync() {
+        return asyncDAOs.getExecutor().supply(this::getFirstMatchesPage);
     }
 
-    private void enrichMatchBean(MatchBean match) {
-        Field field = fieldDAO.findById(match.getFieldId());
-        if (field != null) {
+    /**
+     * Non-blocking variant of {@link #getNextMatchesPage()}. The caller must
+     * not request another page before this one completes.
+     */
+    public CompletableFuture<List<MatchBean>> getNextMatchesPageAsync() {
+        return asyncDAOs.getExecutor().supply(this::getNextMatchesPage);
+    }
 
-            match.setCity(field.getCity());
-            match.setSport(field.getSport());
-            match.setFieldName(field.getName());
-            match.setFieldAddress(field.getAddress());
-            match.setPricePerHour(field.getPricePerHour());
+    private static List<MatchBean> toBeans(List<MatchListing> listings) {
+        return listings.stream()
+                .map(MatchConverter::toBean)
+                .toList();
+    }
 
+    /**
+     * Retrieves the first page of matches for the current view mode and
+     * restarts paging from it.
+     *
+     * @return the first page of match beans
+     * @throws DataAccessException if database access fails
+     */
+    public synchronized List<MatchBean> getFirstMatchesPage() {
+        nextMatchesCursor = null;
+        return loadMatchesPage(null);
+    }
+
+    /**
+     * Retrieves the page following the last one returned.
+     *
+     * @return the next page of match beans, empty if there is none
+     * @throws DataAccessException if database access fails
+     */
+    public synchronized List<MatchBean> getNextMatchesPage() {
+        if (nextMatchesCursor == null) {
+            return List.of();
         }
-        User organizer = userDAO.findById(match.getOrganizerId());
-        if (organizer != null) {
-            match.setOrganizerName(organizer.getName() + " " + organizer.getSurname());
+        return loadMatchesPage(nextMatchesCursor);
+    }
+
+    public boolean hasMoreMatches() {
+        return nextMatchesCursor != null;
+    }
+
+    /**
+     * Reads one screenful of listings, plus one row to know whether another
+     * page follows.
+     */
+    private List<MatchBean> loadMatchesPage(String cursor) {
+        try {
+            Page<MatchListing> page = Page.of(
+                    matchListingDAO.find(visibleMatches().after(cursor).withLimit(MATCHES_PAGE_SIZE + 1)),
+                    MATCHES_PAGE_SIZE, listing -> PageCursor.of(listing.key()));
+            nextMatchesCursor = page.nextCursor();
+            return toBeans(page.items());
+        } catch (DataAccessException e) {
+            throw new DataAccessException("Error loading matches: " + e.getMessage(), e);
         }
     }
 
+    public MatchBean getMatchById(int matchId) {
+        return MatchConverter.toBean(matchListingDAO.findById(matchId));
+    }
+
     /**
      * Filters matches by sport, city, and/or date.
+     * The criteria are added to the current view mode's listing query, so
+     * only matching listings are read.
      *
      * @param sport the sport type to filter by (null for all sports)
      * @param city  the city to filter by (null or empty for all cities)
@@ -142,11 +197,25 @@ public class HomeController {
      * @return filtered list of match beans
      */
     public List<MatchBean> filterMatches(Sport sport, String city, LocalDate date) {
-        return getMatches().stream()
-                .filter(match -> sport == null || match.getSport() == sport)
-                .filter(match -> city == null || city.trim().isEmpty() || matchesCity(match, city))
-                .filter(match -> date == null || match.getMatchDate().equals(date))
-                .toList();
+        try {
+            return toBeans(matchListingDAO.find(filteredMatches(sport, city, date)));
+        } catch (DataAccessException e) {
+            throw new DataAccessException("Error filtering matches: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #filterMatches(Sport, String, LocalDate)}.
+     */
+    public CompletableFuture<List<MatchBean>> filterMatchesAsync(Sport sport, String city, LocalDate date) {
+        return asyncMatchListingDAO.find(filteredMatches(sport, city, date)).thenApply(HomeController::toBeans);
+    }
+
+    private MatchQuery filteredMatches(Sport sport, String city, LocalDate date) {
+        return visibleMatches()
+                .withSport(sport)
+                .withCity(city)
+                .onDate(date);
     }
 
     public void viewMatchDetail(int matchId) {
@@ -173,23 +242,17 @@ public class HomeController {
 
     public List<MatchBean> getJoinedMatches() {
         try {
-            List<Match> matchEntities = matchDAO.findByJoinedPlayer(currentUser.getId());
-            List<MatchBean> matches = matchEntities.stream()
-                    .map(MatchConverter::toBean)
-                    .toList();
-            for (MatchBean match : matches) {
-                enrichMatchBean(match);
-            }
-            return matches;
+            return toBeans(matchListingDAO.findByJoinedPlayer(currentUser.getId()));
         } catch (DataAccessException e) {
             throw new DataAccessException("Error loading joined matches: " + e.getMessage(), e);
         }
     }
 
-    private boolean matchesCity(MatchBean match, String city) {
-        if (match.getCity() == null)
-            return false;
-        return match.getCity().equalsIgnoreCase(city.trim());
+    /**
+     * Non-blocking variant of {@link #getJoinedMatches()}.
+     */
+    public CompletableFuture<List<MatchBean>> getJoinedMatchesAsync() {
+        return asyncMatchListingDAO.findByJoinedPlayer(currentUser.getId()).thenApply(HomeController::toBeans);
     }
 
     public boolean isMatchFull(MatchBean match) {
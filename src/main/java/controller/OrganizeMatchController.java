@@ -152,7 +152,8 @@ public class OrganizeMatchController {
         currentMatchBean.setSport(sport);
         currentMatchBean.setMatchDate(date);
         currentMatchBean.setMatchTime(time);
-        currentMatchBean.setCity(city);
+        String canonical = model.utils.MapsAPI.canonicalCity(city);
+        currentMatchBean.setCity(canonical != null ? canonical : city);
         currentMatchBean.setMissingPlayers(additionalParticipants);
     }
 
@@ -8,8 +8,8 @@ import model.bean.FieldBean;
 import model.bean.MatchBean;
 import model.bean.PaymentBean;
 import model.converter.MatchConverter;
+import model.dao.JoinResult;
 import model.dao.MatchDAO;
-import model.dao.NotificationDAO;
 import model.domain.Field;
 import model.domain.Match;
 import model.domain.MatchStatus;
@@ -34,7 +34,6 @@ public class PaymentController {
     private static final Logger logger = Logger.getLogger(PaymentController.class.getName());
     private final ApplicationController applicationController;
     private final MatchDAO matchDAO;
-    private final NotificationDAO notificationDAO;
     private final MatchBean matchBean;
     private final FieldBean fieldBean;
     private final boolean bookingMode;
@@ -48,7 +47,6 @@ public class PaymentController {
     public PaymentController(ApplicationController applicationController, MatchBean matchBean) {
         this.applicationController = applicationController;
         this.matchDAO = applicationController.getDaoFactory().getMatchDAO();
-        this.notificationDAO = applicationController.getDaoFactory().getNotificationDAO();
         this.matchBean = matchBean;
         this.fieldBean = null;
         this.bookingMode = false;
@@ -62,7 +60,6 @@ public class PaymentController {
     public PaymentController(ApplicationController applicationController, FieldBean fieldBean, MatchBean contextBean) {
         this.applicationController = applicationController;
         this.matchDAO = applicationController.getDaoFactory().getMatchDAO();
-        this.notificationDAO = applicationController.getDaoFactory().getNotificationDAO();
         this.matchBean = contextBean;
         this.fieldBean = fieldBean;
         this.bookingMode = true;
@@ -76,7 +73,6 @@ public class PaymentController {
     public PaymentController(ApplicationController applicationController, MatchBean matchBean, User user) {
         this.applicationController = applicationController;
         this.matchDAO = applicationController.getDaoFactory().getMatchDAO();
-        this.notificationDAO = applicationController.getDaoFactory().getNotificationDAO();
         this.matchBean = matchBean;
         this.fieldBean = null;
         this.bookingMode = false;
@@ -202,6 +198,8 @@ public class PaymentController {
             } else {
                 return processMatchPayment();
             }
+        } catch (ValidationException e) {
+            throw e;
         } catch (Exception e) {
             logger.log(Level.SEVERE, getErrorMessage(), e);
             return false;
@@ -235,16 +233,16 @@ public class PaymentController {
                 match.setField(field);
             }
 
+            // Attach first: the observer reacts to the change to PENDING
+            match.attach(new MatchNotificationObserver(match));
             match.setStatus(MatchStatus.PENDING);
 
-            match.attach(new MatchNotificationObserver(match, notificationDAO));
-
             matchDAO.save(match);
 
             matchBean.setMatchId(match.getId());
             matchBean.setStatus(MatchStatus.PENDING);
 
-            logger.info("Match created with ID: " + match.getId() + " - Notification sent via Observer pattern");
+            logger.info("Match created with ID: " + match.getId() + " - Notification queued via Observer pattern");
         } catch (Exception e) {
             throw new ValidationException("Could not save match: " + e.getMessage());
         }
@@ -262,15 +260,16 @@ public class PaymentController {
         if (matchBean == null || joiningUser == null)
             throw new ValidationException("Match and user required for join");
 
+        JoinResult result = matchDAO.tryJoin(matchBean.getMatchId(), joiningUser.getId());
+
+        if (!result.isJoined())
+            throw new ValidationException(result.getMessage());
+
         Match match = matchDAO.findById(matchBean.getMatchId());
 
         if (match == null)
             throw new ValidationException(Constants.ERROR_MATCH_NOT_FOUND);
 
-        match.addJoinedPlayer(joiningUser.getId());
-
-        matchDAO.update(match);
-
         matchBean.setMissingPlayers(match.getMissingPlayers());
 
         matchBean.setJoinedPlayers(match.getJoinedPlayers());
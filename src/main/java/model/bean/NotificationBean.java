@@ -3,6 +3,7 @@ package model.bean;
 import java.time.LocalDateTime;
 
 public class NotificationBean {
+    private int id;
     private String recipient;
     private String sender;
     private String type;
@@ -11,6 +12,14 @@ public class NotificationBean {
     private LocalDateTime timestamp;
     private boolean read;
 
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
+
     public String getRecipient() {
         return recipient;
     }
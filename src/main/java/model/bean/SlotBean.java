@@ -0,0 +1,38 @@
+package model.bean;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public class SlotBean {
+    private FieldBean field;
+    private LocalDate date;
+    private LocalTime time;
+
+    public SlotBean() {
+        // Intentionally empty
+    }
+
+    public FieldBean getField() {
+        return field;
+    }
+
+    public void setField(FieldBean field) {
+        this.field = field;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(LocalDate date) {
+        this.date = date;
+    }
+
+    public LocalTime getTime() {
+        return time;
+    }
+
+    public void setTime(LocalTime time) {
+        this.time = time;
+    }
+}
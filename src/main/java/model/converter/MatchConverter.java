@@ -3,10 +3,13 @@ package model.converter;
 import exception.DataAccessException;
 import exception.ValidationException;
 import model.bean.MatchBean;
+import model.dao.MatchListing;
 import model.domain.Field;
 import model.domain.Match;
 import model.domain.User;
 
+import java.util.ArrayList;
+
 /**
  * Converter utility for transforming between Match domain entities and
  * MatchBean data transfer objects.
@@ -71,4 +74,33 @@ public class MatchConverter {
         // city, sport, pricePerHour, etc. will be populated by enrichMatchBean()
         return matchBean;
     }
-}
\ No newline at end of file
+
+    /**
+     * Converts a match listing to a fully populated MatchBean, field and
+     * organizer details included.
+     *
+     * @param listing the listing to convert
+     * @return the MatchBean, or null if listing is null
+     */
+    public static MatchBean toBean(MatchListing listing) {
+        if (listing == null) {
+            return null;
+        }
+        MatchBean matchBean = new MatchBean();
+        matchBean.setMatchId(listing.matchId());
+        matchBean.setOrganizerId(listing.organizerId());
+        matchBean.setOrganizerName(listing.organizerName());
+        matchBean.setFieldId(listing.fieldId());
+        matchBean.setFieldName(listing.fieldName());
+        matchBean.setFieldAddress(listing.fieldAddress());
+        matchBean.setCity(listing.city());
+        matchBean.setSport(listing.sport());
+        matchBean.setPricePerHour(listing.pricePerHour());
+        matchBean.setMatchDate(listing.date());
+        matchBean.setMatchTime(listing.time());
+        matchBean.setMissingPlayers(listing.missingPlayers());
+        matchBean.setStatus(listing.status());
+        matchBean.setJoinedPlayers(new ArrayList<>(listing.joinedPlayers()));
+        return matchBean;
+    }
+}
@@ -14,6 +14,7 @@ public class NotificationConverter {
             return null;
         }
         NotificationBean bean = new NotificationBean();
+        bean.setId(notification.getId());
         bean.setRecipient(notification.getRecipientUsername());
         bean.setTitle(notification.getTitle());
         bean.setMessage(notification.getMessage());
@@ -27,6 +28,7 @@ public class NotificationConverter {
             return null;
         }
         Notification notification = new Notification();
+        notification.setId(bean.getId());
         notification.setRecipientUsername(bean.getRecipient());
         notification.setTitle(bean.getTitle());
         notification.setMessage(bean.getMessage());
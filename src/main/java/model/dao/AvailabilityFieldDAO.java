@@ -0,0 +1,91 @@
+package model.dao;
+
+import model.domain.Field;
+import model.domain.Sport;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * FieldDAO decorator for stores that keep matches apart from the fields
+ * (file system, memory-mapped): the fields come from the delegate, whose
+ * own availability queries would check bookings the store does not hold,
+ * so free fields are found in the {@link AvailabilityIndex} the match
+ * store keeps current.
+ */
+public final class AvailabilityFieldDAO implements FieldDAO {
+    private final FieldDAO delegate;
+    private final AvailabilityIndex availability;
+
+    public AvailabilityFieldDAO(FieldDAO delegate, AvailabilityIndex availability) {
+        this.delegate = delegate;
+        this.availability = availability;
+    }
+
+    @Override
+    public List<Field> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public Page<Field> findAll(String cursor, int limit) {
+        return delegate.findAll(cursor, limit);
+    }
+
+    @Override
+    public Stream<Field> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public Field findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Field> findByCity(String city) {
+        return delegate.findByCity(city);
+    }
+
+    @Override
+    public Page<Field> findByCity(String city, String cursor, int limit) {
+        return delegate.findByCity(city, cursor, limit);
+    }
+
+    @Override
+    public List<Field> findAvailableFields(String city, Sport sport, LocalDate date, LocalTime time) {
+        return availability.filterFree(delegate.findByCity(city), sport, date, time);
+    }
+
+    @Override
+    public List<FreeSlot> findEarliestFreeSlots(SlotQuery query) {
+        return availability.findEarliestFreeSlots(delegate.findByCity(query.city()), query);
+    }
+
+    @Override
+    public List<Field> searchByNameOrAddress(String text, int limit) {
+        return delegate.searchByNameOrAddress(text, limit);
+    }
+
+    @Override
+    public List<Field> findByManagerId(int managerId) {
+        return delegate.findByManagerId(managerId);
+    }
+
+    @Override
+    public void save(Field field) {
+        delegate.save(field);
+    }
+
+    @Override
+    public void saveAll(List<Field> fields) {
+        delegate.saveAll(fields);
+    }
+
+    @Override
+    public void delete(int id) {
+        delegate.delete(id);
+    }
+}
@@ -0,0 +1,326 @@
+package model.dao;
+
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.Sport;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Occupied time of every field, for answering "which fields are free from
+ * t for the duration of the sport" without scanning matches.
+ * An approved match occupies its field from its start until
+ * {@link Match#getEndDateTime()}. Bookings are kept per field and start day,
+ * sorted by start, so a query looks only at the requested day and the days
+ * a long enough booking could run over from, and inside each day only at
+ * bookings starting less than the longest booking before the requested end.
+ * <p>
+ * Match writers keep the index current with {@link #put} and
+ * {@link #remove}. It is filled from its source on first use, and again
+ * after {@link #invalidate} or once older than its maximum age.
+ */
+public final class AvailabilityIndex {
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private final Supplier<Stream<Match>> source;
+    private final long maxAgeNanos;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentMap<DayKey, NavigableSet<Booking>> days = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Booking> bookings = new ConcurrentHashMap<>();
+    private final AtomicLong longestBooking = new AtomicLong();
+    private volatile boolean loaded;
+    private volatile long loadedAt;
+
+    private record DayKey(int fieldId, long epochDay) {
+    }
+
+    /**
+     * A booked interval [start, end), in minutes since the epoch.
+     */
+    private record Booking(int fieldId, long start, long end, int matchId) implements Comparable<Booking> {
+        static Booking probe(int fieldId, long start) {
+            return new Booking(fieldId, start, start, Integer.MIN_VALUE);
+        }
+
+        DayKey day() {
+            return new DayKey(fieldId, Math.floorDiv(start, MINUTES_PER_DAY));
+        }
+
+        @Override
+        public int compareTo(Booking other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Integer.compare(matchId, other.matchId);
+        }
+    }
+
+    /**
+     * @param source streams the matches to fill the index from; it is closed
+     *               after each load
+     */
+    public AvailabilityIndex(Supplier<Stream<Match>> source) {
+        this(source, Long.MAX_VALUE);
+    }
+
+    /**
+     * @param source       streams the matches to fill the index from
+     * @param maxAgeMillis how long a load is trusted before the next query
+     *                     reloads, to pick up writes made by other processes
+     */
+    public AvailabilityIndex(Supplier<Stream<Match>> source, long maxAgeMillis) {
+        this.source = source;
+        this.maxAgeNanos = maxAgeMillis == Long.MAX_VALUE ? Long.MAX_VALUE
+                : TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+    }
+
+    private static long minutes(LocalDateTime dateTime) {
+        return FreeSlotCollector.minutes(dateTime);
+    }
+
+    /**
+     * Records the match's booking if it is approved, or drops it otherwise.
+     * Called after the match was written, with its current state.
+     */
+    public void put(Match match) {
+        if (match == null) {
+            return;
+        }
+        withWriteAccess(() -> {
+            if (match.isApproved() && match.getField() != null && match.getDate() != null
+                    && match.getTime() != null) {
+                Booking booking = new Booking(match.getField().getId(),
+                        minutes(LocalDateTime.of(match.getDate(), match.getTime())),
+                        minutes(match.getEndDateTime()), match.getId());
+                bookings.compute(match.getId(), (id, old) -> {
+                    unlink(old);
+                    days.computeIfAbsent(booking.day(), day -> new ConcurrentSkipListSet<>()).add(booking);
+                    longestBooking.accumulateAndGet(booking.end() - booking.start(), Math::max);
+                    return booking;
+                });
+            } else {
+                bookings.computeIfPresent(match.getId(), (id, old) -> {
+                    unlink(old);
+                    return null;
+                });
+            }
+        });
+    }
+
+    /**
+     * Drops the booking of a deleted, rejected or no longer approved match.
+     */
+    public void remove(int matchId) {
+        withWriteAccess(() -> bookings.computeIfPresent(matchId, (id, old) -> {
+            unlink(old);
+            return null;
+        }));
+    }
+
+    /**
+     * Drops every booking that has ended by {@code now}.
+     */
+    public void removeEndedBy(LocalDateTime now) {
+        long cutoff = minutes(now);
+        withWriteAccess(() -> bookings.values().stream()
+                .filter(booking -> booking.end() <= cutoff)
+                .map(Booking::matchId)
+                .toList()
+                .forEach(matchId -> bookings.computeIfPresent(matchId, (id, old) -> {
+                    unlink(old);
+                    return null;
+                })));
+    }
+
+    /**
+     * Forgets every booking; the next query reloads from the source.
+     */
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return true if no booking of the field overlaps
+     *         [start, start + durationMinutes)
+     */
+    public boolean isFree(int fieldId, LocalDateTime start, int durationMinutes) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return isFreeLocked(fieldId, minutes(start), minutes(start) + Math.max(durationMinutes, 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the fields of the sport that are free for one match of it
+     * starting at the given date and time.
+     *
+     * @param candidates the fields to check, typically those of a city
+     * @return the free fields, in candidate order
+     */
+    public List<Field> filterFree(Collection<Field> candidates, Sport sport, LocalDate date, LocalTime time) {
+        ensureLoaded();
+        long start = minutes(LocalDateTime.of(date, time));
+        long end = start + Math.max(sport.getDuration(), 1);
+        List<Field> free = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Field field : candidates) {
+                if (field.getSport() == sport && isFreeLocked(field.getId(), start, end)) {
+                    free.add(field);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return free;
+    }
+
+    /**
+     * Finds the earliest free slots among the candidate fields, walking each
+     * field's bookings in the window once.
+     *
+     * @param candidates the fields to check, typically those of the query's
+     *                   city; fields of another sport or over the price
+     *                   ceiling are skipped
+     * @return up to {@code query.limit()} slots, earliest first
+     */
+    public List<FreeSlot> findEarliestFreeSlots(Collection<Field> candidates, SlotQuery query) {
+        ensureLoaded();
+        FreeSlotCollector collector = new FreeSlotCollector(query);
+        long from = minutes(query.from());
+        long to = minutes(query.to());
+        lock.readLock().lock();
+        try {
+            for (Field field : candidates) {
+                if (collector.accepts(field)) {
+                    collector.scan(field, bookingsBetween(field.getId(), from, to));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return collector.result();
+    }
+
+    private List<FreeSlotCollector.Interval> bookingsBetween(int fieldId, long from, long to) {
+        long earliestOverlappingStart = from - longestBooking.get();
+        List<FreeSlotCollector.Interval> intervals = new ArrayList<>();
+        for (long day = Math.floorDiv(earliestOverlappingStart, MINUTES_PER_DAY);
+                day <= Math.floorDiv(to - 1, MINUTES_PER_DAY); day++) {
+            NavigableSet<Booking> booked = days.get(new DayKey(fieldId, day));
+            if (booked != null) {
+                for (Booking booking : booked.subSet(Booking.probe(fieldId, earliestOverlappingStart), true,
+                        Booking.probe(fieldId, to), false)) {
+                    intervals.add(new FreeSlotCollector.Interval(booking.start(), booking.end()));
+                }
+            }
+        }
+        return intervals;
+    }
+
+    private boolean isFreeLocked(int fieldId, long start, long end) {
+        long earliestOverlappingStart = start - longestBooking.get();
+        long firstDay = Math.floorDiv(earliestOverlappingStart, MINUTES_PER_DAY);
+        long lastDay = Math.floorDiv(end - 1, MINUTES_PER_DAY);
+        for (long day = firstDay; day <= lastDay; day++) {
+            NavigableSet<Booking> booked = days.get(new DayKey(fieldId, day));
+            if (booked == null) {
+                continue;
+            }
+            // Only bookings that start before the requested end can overlap it
+            for (Booking booking : booked.subSet(Booking.probe(fieldId, earliestOverlappingStart), true,
+                    Booking.probe(fieldId, end), false)) {
+                if (booking.end() > start) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void unlink(Booking booking) {
+        if (booking != null) {
+            days.computeIfPresent(booking.day(), (day, booked) -> {
+                booked.remove(booking);
+                return booked.isEmpty() ? null : booked;
+            });
+        }
+    }
+
+    /**
+     * Applies a write unless the index is not loaded yet: the next load reads
+     * the write from the source anyway. Writes run concurrently with each
+     * other and with queries, and never during a load.
+     */
+    private void withWriteAccess(Runnable write) {
+        lock.readLock().lock();
+        try {
+            if (loaded) {
+                write.run();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isCurrent() {
+        return loaded && System.nanoTime() - loadedAt < maxAgeNanos;
+    }
+
+    private void ensureLoaded() {
+        if (!isCurrent()) {
+            load(false);
+        }
+    }
+
+    /**
+     * Fills the index from its source now. An owner whose writes are the
+     * only source of matches loads eagerly, so none of them is skipped.
+     */
+    public void load() {
+        load(true);
+    }
+
+    private void load(boolean force) {
+        lock.writeLock().lock();
+        try {
+            if (!force && isCurrent()) {
+                return;
+            }
+            days.clear();
+            bookings.clear();
+            longestBooking.set(0);
+            loaded = true;
+            try (Stream<Match> matches = source.get()) {
+                matches.filter(Match::isApproved).forEach(this::put);
+            } catch (RuntimeException e) {
+                loaded = false;
+                throw e;
+            }
+            loadedAt = System.nanoTime();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
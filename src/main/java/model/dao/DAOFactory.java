@@ -33,4 +33,20 @@ public interface DAOFactory {
      * @return a NotificationDAO implementation
      */
     NotificationDAO getNotificationDAO();
+
+    /**
+     * Creates a MatchListingDAO instance reading the listings kept for the
+     * matches of this factory.
+     *
+     * @return a MatchListingDAO implementation
+     */
+    MatchListingDAO getMatchListingDAO();
+
+    /**
+     * Creates the NotificationOutbox the match DAO of this factory writes
+     * the notifications queued on a match to.
+     *
+     * @return a NotificationOutbox implementation
+     */
+    NotificationOutbox getNotificationOutbox();
 }
\ No newline at end of file
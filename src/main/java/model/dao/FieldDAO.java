@@ -6,19 +6,38 @@ import model.domain.Sport;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface FieldDAO {
     List<Field> findAll();
 
+    /** Pages through all fields by id; a null cursor starts from the first page. */
+    Page<Field> findAll(String cursor, int limit);
+
+    /** Streams every field lazily; the stream must be closed after use. */
+    Stream<Field> streamAll();
+
     Field findById(int id);
 
     List<Field> findByCity(String city);
 
+    /** Pages through the fields of a city by id; a null cursor starts from the first page. */
+    Page<Field> findByCity(String city, String cursor, int limit);
+
     List<Field> findAvailableFields(String city, Sport sport, LocalDate date, LocalTime time);
 
+    /** Finds the earliest free slots of a sport in a city, earliest first and by field id on ties. */
+    List<FreeSlot> findEarliestFreeSlots(SlotQuery query);
+
+    /** Typo-tolerant search on field names and addresses, best match first. */
+    List<Field> searchByNameOrAddress(String text, int limit);
+
     List<Field> findByManagerId(int managerId);
 
     void save(Field field);
 
+    /** Saves several new fields as one batch, setting their ids. */
+    void saveAll(List<Field> fields);
+
     void delete(int id);
 }
\ No newline at end of file
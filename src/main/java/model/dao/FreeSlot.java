@@ -0,0 +1,28 @@
+package model.dao;
+
+import model.domain.Field;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A field that is free for one match of its sport from {@code start}.
+ *
+ * @param field the free field
+ * @param start when the match would start
+ */
+public record FreeSlot(Field field, LocalDateTime start) {
+
+    public LocalDate date() {
+        return start.toLocalDate();
+    }
+
+    public LocalTime time() {
+        return start.toLocalTime();
+    }
+
+    public LocalDateTime end() {
+        return start.plusMinutes(field.getSport().getDuration());
+    }
+}
@@ -0,0 +1,137 @@
+package model.dao;
+
+import model.domain.Field;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the K earliest free slots of a {@link SlotQuery} while the fields are
+ * scanned one at a time with their bookings.
+ * The slots kept so far sit in a heap with the latest on top. A field's
+ * scan walks its bookings and the slot grid together in time order, and
+ * stops as soon as the heap is full and the next slot would not be earlier
+ * than its top, so each field costs at most K slots plus its bookings in the
+ * window.
+ */
+public final class FreeSlotCollector {
+    private static final long MINUTES_PER_DAY = 24 * 60;
+    private static final Comparator<FreeSlot> EARLIEST_FIRST = Comparator.comparing(FreeSlot::start)
+            .thenComparingInt(slot -> slot.field().getId());
+
+    private final SlotQuery query;
+    private final long from;
+    private final long to;
+    private final long opensAt;
+    private final long closesAt;
+    private final PriorityQueue<FreeSlot> latestOnTop;
+
+    /**
+     * A booked interval [start, end), in minutes since the epoch.
+     */
+    public record Interval(long start, long end) {
+        public static Interval of(LocalDateTime start, LocalDateTime end) {
+            return new Interval(minutes(start), minutes(end));
+        }
+    }
+
+    public FreeSlotCollector(SlotQuery query) {
+        this.query = query;
+        this.from = minutes(query.from());
+        this.to = minutes(query.to());
+        this.opensAt = query.opensAt().toSecondOfDay() / 60;
+        this.closesAt = query.closesAt().equals(LocalTime.MIDNIGHT) ? MINUTES_PER_DAY
+                : query.closesAt().toSecondOfDay() / 60;
+        this.latestOnTop = new PriorityQueue<>(Math.max(query.limit(), 1), EARLIEST_FIRST.reversed());
+    }
+
+    static long minutes(LocalDateTime dateTime) {
+        return TimeUnit.SECONDS.toMinutes(dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+
+    private static LocalDateTime dateTime(long minutes) {
+        return LocalDateTime.ofEpochSecond(TimeUnit.MINUTES.toSeconds(minutes), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * @return true if the field is of the query's sport and within its price
+     *         ceiling
+     */
+    public boolean accepts(Field field) {
+        return field.getSport() == query.sport()
+                && (query.maxPricePerHour() == null || field.getPricePerHour() <= query.maxPricePerHour());
+    }
+
+    /**
+     * Offers the free slots of one field.
+     *
+     * @param field    an accepted field
+     * @param bookings the field's bookings that may overlap the window,
+     *                 sorted by start
+     */
+    public void scan(Field field, List<Interval> bookings) {
+        if (query.limit() == 0 || !accepts(field)) {
+            return;
+        }
+        long duration = Math.max(field.getSport().getDuration(), 1);
+        int next = 0;
+        long start = alignUp(from);
+        while (start + duration <= to) {
+            if (!canImprove(start, field)) {
+                return;
+            }
+            long timeOfDay = Math.floorMod(start, MINUTES_PER_DAY);
+            if (timeOfDay < opensAt || timeOfDay + duration > closesAt) {
+                long day = start - timeOfDay;
+                start = alignUp(timeOfDay < opensAt ? day + opensAt : day + MINUTES_PER_DAY + opensAt);
+                continue;
+            }
+            while (next < bookings.size() && bookings.get(next).end() <= start) {
+                next++;
+            }
+            Interval booking = next < bookings.size() ? bookings.get(next) : null;
+            if (booking != null && booking.start() < start + duration) {
+                start = alignUp(booking.end());
+                continue;
+            }
+            offer(new FreeSlot(field, dateTime(start)));
+            start += query.stepMinutes();
+        }
+    }
+
+    private long alignUp(long minutes) {
+        return Math.floorDiv(minutes + query.stepMinutes() - 1, query.stepMinutes()) * query.stepMinutes();
+    }
+
+    private boolean canImprove(long start, Field field) {
+        if (latestOnTop.size() < query.limit()) {
+            return true;
+        }
+        FreeSlot latest = Objects.requireNonNull(latestOnTop.peek());
+        long latestStart = minutes(latest.start());
+        return start < latestStart || (start == latestStart && field.getId() < latest.field().getId());
+    }
+
+    private void offer(FreeSlot slot) {
+        latestOnTop.add(slot);
+        if (latestOnTop.size() > query.limit()) {
+            latestOnTop.poll();
+        }
+    }
+
+    /**
+     * @return the earliest slots found, earliest first and by field id on ties
+     */
+    public List<FreeSlot> result() {
+        List<FreeSlot> slots = new ArrayList<>(latestOnTop);
+        slots.sort(EARLIEST_FIRST);
+        return slots;
+    }
+}
@@ -0,0 +1,25 @@
+package model.dao;
+
+/**
+ * Outcome of {@link MatchDAO#tryJoin(int, int)}.
+ */
+public enum JoinResult {
+    JOINED("Joined the match"),
+    FULL("Match is full, cannot join"),
+    ALREADY_JOINED("User has already joined this match"),
+    NOT_FOUND("Match not found");
+
+    private final String message;
+
+    JoinResult(String message) {
+        this.message = message;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isJoined() {
+        return this == JOINED;
+    }
+}
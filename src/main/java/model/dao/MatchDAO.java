@@ -3,7 +3,10 @@ package model.dao;
 import model.domain.Match;
 import model.domain.MatchStatus;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Data Access Object interface for Match entities.
@@ -17,6 +20,13 @@ public interface MatchDAO {
      */
     void save(Match match);
 
+    /**
+     * Saves several new matches as one batch.
+     *
+     * @param matches the matches to save; their ids are set on return
+     */
+    void saveAll(List<Match> matches);
+
     /**
      * Finds a match by its unique ID.
      *
@@ -33,6 +43,18 @@ public interface MatchDAO {
      */
     List<Match> findByOrganizer(int organizerId);
 
+    /**
+     * Finds one page of the matches organized by a specific organizer,
+     * ordered by date, time and id.
+     *
+     * @param organizerId the organizer's user ID
+     * @param cursor      the next cursor of the previous page, or null for the
+     *                    first page
+     * @param limit       the maximum number of matches in the page
+     * @return the page of matches
+     */
+    Page<Match> findByOrganizer(int organizerId, String cursor, int limit);
+
     /**
      * Finds all pending matches for a field manager.
      *
@@ -48,6 +70,35 @@ public interface MatchDAO {
      */
     List<Match> findApprovedMatches();
 
+    /**
+     * Finds one page of approved matches, ordered by date, time and id.
+     *
+     * @param cursor the next cursor of the previous page, or null for the first
+     *               page
+     * @param limit  the maximum number of matches in the page
+     * @return the page of matches
+     */
+    Page<Match> findApprovedMatches(String cursor, int limit);
+
+    /**
+     * Finds the matches satisfying every criterion of the query, ordered by
+     * date, time and id. Backends evaluate the criteria natively, so the
+     * work follows the size of the result rather than of the whole store.
+     *
+     * @param query the search criteria
+     * @return up to {@code query.limit()} matching matches
+     */
+    List<Match> find(MatchQuery query);
+
+    /**
+     * Streams every match without loading them all first.
+     * The stream may hold a connection or file open, so it must be closed,
+     * typically with try-with-resources.
+     *
+     * @return a lazily populated stream of all matches
+     */
+    Stream<Match> streamAll();
+
     /**
      * Updates the status of a match.
      *
@@ -56,6 +107,13 @@ public interface MatchDAO {
      */
     void updateStatus(int matchId, MatchStatus status);
 
+    /**
+     * Updates the status of several matches as one batch.
+     *
+     * @param statuses the new status of each match, by match ID
+     */
+    void updateStatusAll(Map<Integer, MatchStatus> statuses);
+
     /**
      * Updates an existing match entity.
      *
@@ -63,6 +121,24 @@ public interface MatchDAO {
      */
     void update(Match match);
 
+    /**
+     * Updates several existing matches as one batch.
+     *
+     * @param matches the matches with updated information
+     */
+    void updateAll(List<Match> matches);
+
+    /**
+     * Atomically adds a player to a match and takes one missing slot.
+     * Concurrent joins of the same match never lose an update or overfill
+     * it; joins of different matches do not wait for each other.
+     *
+     * @param matchId the match ID
+     * @param userId  the joining player's user ID
+     * @return JOINED on success, otherwise why the player could not join
+     */
+    JoinResult tryJoin(int matchId, int userId);
+
     /**
      * Finds all matches that a player has joined.
      *
@@ -79,8 +155,14 @@ public interface MatchDAO {
     void delete(int id);
 
     /**
-     * Deletes all expired matches from the database.
-     * A match is considered expired if its date/time has passed.
+     * Deletes up to {@code limit} expired matches. A match expires when it
+     * ends, that is its start plus the duration of its sport.
+     * Callers remove a large backlog by repeating the call until it returns
+     * less than the limit, so no single call holds locks for long.
+     *
+     * @param now   the current date and time
+     * @param limit the maximum number of matches to delete
+     * @return the number of matches deleted
      */
-    void deleteExpiredMatches();
+    int deleteExpiredMatches(LocalDateTime now, int limit);
 }
\ No newline at end of file
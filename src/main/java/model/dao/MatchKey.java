@@ -0,0 +1,59 @@
+package model.dao;
+
+import model.domain.Match;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.NavigableSet;
+
+/**
+ * Position of a match in listing order: date, then time, then id.
+ * Paginated match queries resume strictly after the key of the last match
+ * of the previous page.
+ */
+public record MatchKey(LocalDate date, LocalTime time, int id) implements Comparable<MatchKey> {
+    private static final Comparator<MatchKey> ORDER = Comparator.comparing(MatchKey::date)
+            .thenComparing(MatchKey::time)
+            .thenComparingInt(MatchKey::id);
+
+    public static MatchKey of(Match match) {
+        return new MatchKey(match.getDate(), match.getTime(), match.getId());
+    }
+
+    /**
+     * Narrows keys in listing order to the matches between two dates.
+     *
+     * @param from the earliest date, inclusive, or null for no lower bound
+     * @param to   the latest date, inclusive, or null for no upper bound
+     * @return a view of the keys in the range
+     */
+    public static NavigableSet<MatchKey> inDateRange(NavigableSet<MatchKey> keys, LocalDate from, LocalDate to) {
+        MatchKey first = from != null ? new MatchKey(from, LocalTime.MIN, Integer.MIN_VALUE) : null;
+        MatchKey last = to != null ? new MatchKey(to, LocalTime.MAX, Integer.MAX_VALUE) : null;
+        if (first != null && last != null) {
+            return keys.subSet(first, true, last, true);
+        }
+        if (first != null) {
+            return keys.tailSet(first, true);
+        }
+        return last != null ? keys.headSet(last, true) : keys;
+    }
+
+    /**
+     * Narrows keys in listing order to the matches that started by the given
+     * time. A match ends after it starts, so only these can have ended.
+     *
+     * @param now the time of the check, inclusive
+     * @return a view of the keys in the range
+     */
+    public static NavigableSet<MatchKey> startedBy(NavigableSet<MatchKey> keys, LocalDateTime now) {
+        return keys.headSet(new MatchKey(now.toLocalDate(), now.toLocalTime(), Integer.MAX_VALUE), true);
+    }
+
+    @Override
+    public int compareTo(MatchKey other) {
+        return ORDER.compare(this, other);
+    }
+}
@@ -0,0 +1,75 @@
+package model.dao;
+
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Sport;
+import model.domain.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * One row of the match listings: a match flattened with what the listing
+ * screens show of its field and organizer, so a screenful is a single read.
+ * Field and organizer values are null when the match has none.
+ *
+ * @param matchId        the match id
+ * @param date           the match date
+ * @param time           the match start time
+ * @param status         the match status
+ * @param missingPlayers the players still missing
+ * @param joinedPlayers  the ids of the players who joined
+ * @param organizerId    the organizer's user id, 0 if none
+ * @param organizerName  the organizer's name and surname
+ * @param fieldId        the field id, 0 if none
+ * @param fieldName      the field name
+ * @param fieldAddress   the field address
+ * @param city           the field city
+ * @param sport          the field sport
+ * @param pricePerHour   the field's hourly price, 0 if none
+ * @param managerId      the field manager's user id, 0 if none
+ */
+public record MatchListing(int matchId, LocalDate date, LocalTime time, MatchStatus status, int missingPlayers,
+        List<Integer> joinedPlayers, int organizerId, String organizerName, int fieldId, String fieldName,
+        String fieldAddress, String city, Sport sport, double pricePerHour, int managerId) {
+
+    public MatchListing {
+        joinedPlayers = joinedPlayers != null ? List.copyOf(joinedPlayers) : List.of();
+    }
+
+    /**
+     * Flattens a match whose field and organizer are loaded.
+     */
+    public static MatchListing of(Match match) {
+        User organizer = match.getOrganizer();
+        Field field = match.getField();
+        return new MatchListing(match.getId(), match.getDate(), match.getTime(), match.getStatus(),
+                match.getMissingPlayers(), match.getJoinedPlayers(),
+                organizer != null ? organizer.getId() : 0,
+                organizerName(organizer),
+                field != null ? field.getId() : 0,
+                field != null ? field.getName() : null,
+                field != null ? field.getAddress() : null,
+                field != null ? field.getCity() : null,
+                field != null ? field.getSport() : null,
+                field != null ? field.getPricePerHour() : 0,
+                field != null && field.getManager() != null ? field.getManager().getId() : 0);
+    }
+
+    /**
+     * @return "name surname", or null if the organizer or their name is
+     *         unknown
+     */
+    public static String organizerName(User organizer) {
+        if (organizer == null || organizer.getName() == null) {
+            return null;
+        }
+        return organizer.getName() + " " + organizer.getSurname();
+    }
+
+    public MatchKey key() {
+        return new MatchKey(date, time, matchId);
+    }
+}
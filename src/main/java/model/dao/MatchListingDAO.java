@@ -0,0 +1,37 @@
+package model.dao;
+
+import java.util.List;
+
+/**
+ * Read-only access to the match listings, the flattened read model behind
+ * the home and dashboard screens. Listings follow every write made through
+ * the match, field and user DAOs of the same factory.
+ */
+public interface MatchListingDAO {
+    /**
+     * @param matchId the match ID
+     * @return the listing of the match, or null if there is no such match
+     */
+    MatchListing findById(int matchId);
+
+    /**
+     * Finds the listings of the matches satisfying the query, ordered by
+     * date, time and id.
+     *
+     * @param query the search criteria, cursor and limit
+     * @return up to {@code query.limit()} listings
+     */
+    List<MatchListing> find(MatchQuery query);
+
+    /**
+     * @param managerId the field manager's user ID
+     * @return the listings of the pending matches on the manager's fields
+     */
+    List<MatchListing> findPendingForManager(int managerId);
+
+    /**
+     * @param userId the player's user ID
+     * @return the listings of the matches the player has joined
+     */
+    List<MatchListing> findByJoinedPlayer(int userId);
+}
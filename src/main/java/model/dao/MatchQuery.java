@@ -0,0 +1,178 @@
+package model.dao;
+
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Sport;
+import model.utils.TextNormalizer;
+
+import java.time.LocalDate;
+
+/**
+ * Criteria of a match search, evaluated by {@link MatchDAO#find}.
+ * A null criterion does not restrict the search; the others must all hold.
+ * Results come in listing order (date, time, id), at most {@code limit} of
+ * them, resuming strictly after {@code after} when it is set. Queries are
+ * built from {@link #all()} or {@link #approved()} and narrowed with the
+ * {@code with}/{@code excluding} methods.
+ *
+ * @param sport                the sport of the match's field
+ * @param city                 the city of the match's field, compared by
+ *                             {@link TextNormalizer#key search key}
+ * @param fromDate             the earliest match date, inclusive
+ * @param toDate               the latest match date, inclusive
+ * @param status               the match status
+ * @param organizerId          only matches organized by this user
+ * @param excludedOrganizerId  skips matches organized by this user
+ * @param excludedJoinedUserId skips matches this user has joined
+ * @param minPricePerHour      the lowest hourly price of the field
+ * @param maxPricePerHour      the highest hourly price of the field
+ * @param after                the key of the last match already seen
+ * @param limit                the maximum number of matches returned
+ */
+public record MatchQuery(Sport sport, String city, LocalDate fromDate, LocalDate toDate, MatchStatus status,
+        Integer organizerId, Integer excludedOrganizerId, Integer excludedJoinedUserId, Double minPricePerHour,
+        Double maxPricePerHour, MatchKey after, int limit) {
+    public static final int NO_LIMIT = Integer.MAX_VALUE;
+
+    public MatchQuery {
+        if (limit < 0) {
+            throw new IllegalArgumentException("Invalid match query limit: " + limit);
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("Invalid match query dates: " + fromDate + " after " + toDate);
+        }
+        if (city != null && TextNormalizer.key(city).isEmpty()) {
+            city = null;
+        }
+    }
+
+    /**
+     * @return a query matching every match
+     */
+    public static MatchQuery all() {
+        return new MatchQuery(null, null, null, null, null, null, null, null, null, null, null, NO_LIMIT);
+    }
+
+    /**
+     * @return a query matching every approved match
+     */
+    public static MatchQuery approved() {
+        return all().withStatus(MatchStatus.APPROVED);
+    }
+
+    public MatchQuery withSport(Sport sport) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    public MatchQuery withCity(String city) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    /**
+     * @param from the earliest date, or null for no lower bound
+     * @param to   the latest date, or null for no upper bound
+     */
+    public MatchQuery withDates(LocalDate from, LocalDate to) {
+        return new MatchQuery(sport, city, from, to, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    /**
+     * @param date the only date wanted, or null for any date
+     */
+    public MatchQuery onDate(LocalDate date) {
+        return withDates(date, date);
+    }
+
+    public MatchQuery withStatus(MatchStatus status) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    public MatchQuery withOrganizer(int userId) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, userId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    public MatchQuery excludingOrganizer(int userId) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, userId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    public MatchQuery excludingJoinedUser(int userId) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                userId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    /**
+     * @param min the lowest hourly price, or null for no lower bound
+     * @param max the highest hourly price, or null for no upper bound
+     */
+    public MatchQuery withPriceRange(Double min, Double max) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, min, max, after, limit);
+    }
+
+    /**
+     * @param cursor the next cursor of the previous page, or null to start
+     *               from the first match
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public MatchQuery after(String cursor) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, PageCursor.toMatchKey(cursor), limit);
+    }
+
+    public MatchQuery withLimit(int limit) {
+        return new MatchQuery(sport, city, fromDate, toDate, status, organizerId, excludedOrganizerId,
+                excludedJoinedUserId, minPricePerHour, maxPricePerHour, after, limit);
+    }
+
+    /**
+     * @return the search key of the city, or null if any city matches
+     */
+    public String cityKey() {
+        return city != null ? TextNormalizer.key(city) : null;
+    }
+
+    /**
+     * @return true if a criterion concerns the match's field
+     */
+    public boolean hasFieldCriteria() {
+        return sport != null || city != null || minPricePerHour != null || maxPricePerHour != null;
+    }
+
+    /**
+     * @return true if the field satisfies the field criteria
+     */
+    public boolean accepts(Field field) {
+        if (field == null) {
+            return !hasFieldCriteria();
+        }
+        return (sport == null || field.getSport() == sport)
+                && (city == null || TextNormalizer.key(field.getCity()).equals(cityKey()))
+                && (minPricePerHour == null || field.getPricePerHour() >= minPricePerHour)
+                && (maxPricePerHour == null || field.getPricePerHour() <= maxPricePerHour);
+    }
+
+    /**
+     * Checks every criterion against a match, for backends that evaluate a
+     * query in memory or re-check index hits.
+     *
+     * @return true if the match satisfies the query, ignoring the limit
+     */
+    public boolean matches(Match match) {
+        int matchOrganizerId = match.getOrganizer() != null ? match.getOrganizer().getId() : 0;
+        return (status == null || match.getStatus() == status)
+                && (organizerId == null || matchOrganizerId == organizerId)
+                && (excludedOrganizerId == null || matchOrganizerId != excludedOrganizerId)
+                && (fromDate == null || (match.getDate() != null && !match.getDate().isBefore(fromDate)))
+                && (toDate == null || (match.getDate() != null && !match.getDate().isAfter(toDate)))
+                && (after == null || MatchKey.of(match).compareTo(after) > 0)
+                && (excludedJoinedUserId == null || !match.isUserJoined(excludedJoinedUserId))
+                && accepts(match.getField());
+    }
+}
@@ -0,0 +1,81 @@
+package model.dao;
+
+import model.utils.TextNormalizer;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Typo-tolerant text search over entity ids, by trigram overlap.
+ * Each id is indexed under the {@link TextNormalizer#trigrams trigrams} of
+ * its texts; a query scores every id sharing a trigram with it by the share
+ * of the query's trigrams it contains, so a misspelled or partial name
+ * still finds its entity. Safe for concurrent writers of different ids.
+ */
+public final class NGramIndex {
+    /** The share of the query's trigrams an id must contain to match. */
+    public static final double MIN_SIMILARITY = 0.5;
+
+    private final ConcurrentMap<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, Set<String>> gramsById = new ConcurrentHashMap<>();
+
+    /**
+     * Indexes the id under the given texts, replacing its previous ones.
+     */
+    public void put(int id, String... texts) {
+        Set<String> grams = TextNormalizer.trigrams(texts);
+        gramsById.compute(id, (key, old) -> {
+            if (old != null) {
+                old.stream().filter(gram -> !grams.contains(gram)).forEach(gram -> unlink(gram, id));
+            }
+            grams.forEach(gram -> postings.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id));
+            return grams;
+        });
+    }
+
+    public void remove(int id) {
+        gramsById.computeIfPresent(id, (key, old) -> {
+            old.forEach(gram -> unlink(gram, id));
+            return null;
+        });
+    }
+
+    private void unlink(String gram, int id) {
+        postings.computeIfPresent(gram, (g, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    /**
+     * @param query the text to look for
+     * @param limit the maximum number of ids returned
+     * @return the matching ids, best first and by id on ties
+     */
+    public List<Integer> search(String query, int limit) {
+        Set<String> grams = TextNormalizer.trigrams(query);
+        if (grams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids != null) {
+                ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+            }
+        }
+        int required = (int) Math.ceil(grams.size() * MIN_SIMILARITY);
+        return shared.entrySet().stream()
+                .filter(entry -> entry.getValue() >= required)
+                .sorted(Map.Entry.<Integer, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -7,7 +7,45 @@ import java.util.List;
 public interface NotificationDAO {
     void save(Notification notification);
 
+    void saveAll(List<Notification> notifications);
+
     List<Notification> findUnreadByUsername(String username);
 
+    /**
+     * Finds the unread notifications newer than the last one the caller has
+     * seen, so a poll reads only what arrived since the previous one.
+     *
+     * @param username   the recipient's username
+     * @param lastSeenId the highest notification id already seen, 0 for none
+     * @param limit      the maximum number of notifications returned
+     * @return up to {@code limit} unread notifications, oldest first
+     */
+    List<Notification> findSince(String username, int lastSeenId, int limit);
+
+    /**
+     * @param username the recipient's username
+     * @param limit    the maximum number of notifications returned
+     * @return the newest {@code limit} unread notifications, newest first
+     */
+    List<Notification> findLatestUnread(String username, int limit);
+
+    /**
+     * @param username the recipient's username
+     * @return the number of unread notifications, read from a counter kept
+     *         by {@link #save}, {@link #saveAll}, {@link #markAllAsRead} and
+     *         {@link #markReadBetween} rather than counted
+     */
+    int countUnread(String username);
+
     void markAllAsRead(String username);
-}
\ No newline at end of file
+
+    /**
+     * Marks as read only the unread notifications with an id in the range,
+     * so the ones a page did not show stay unread.
+     *
+     * @param username the recipient's username
+     * @param firstId  the lowest id shown
+     * @param lastId   the highest id shown
+     */
+    void markReadBetween(String username, int firstId, int lastId);
+}
@@ -0,0 +1,48 @@
+package model.dao;
+
+import model.domain.Notification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Notifications accepted by a store but not yet delivered to the
+ * {@link NotificationDAO}. Match DAOs add the notifications queued on a
+ * match when they store it; a dispatcher reads the due entries, delivers
+ * them and removes them, so an entry is delivered at least once.
+ */
+public interface NotificationOutbox {
+    /**
+     * Adds notifications due now.
+     *
+     * @param notifications the notifications to deliver
+     * @return the outbox ids of the new entries, in order
+     */
+    List<Long> append(List<Notification> notifications);
+
+    /**
+     * @param now   the current time
+     * @param limit the maximum number of entries returned
+     * @return the entries due by {@code now}, oldest first
+     */
+    List<OutboxEntry> findDue(LocalDateTime now, int limit);
+
+    /**
+     * Removes delivered or withdrawn entries; unknown ids are ignored.
+     */
+    void remove(Collection<Long> ids);
+
+    /**
+     * Records a failed delivery of the entries and postpones them.
+     *
+     * @param ids           the entries that failed
+     * @param nextAttemptAt the earliest time of the next delivery
+     */
+    void retryLater(Collection<Long> ids, LocalDateTime nextAttemptAt);
+
+    /**
+     * @return the number of entries waiting, due or not
+     */
+    int size();
+}
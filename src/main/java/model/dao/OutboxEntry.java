@@ -0,0 +1,17 @@
+package model.dao;
+
+import model.domain.Notification;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification waiting in the {@link NotificationOutbox}.
+ *
+ * @param id            the outbox id, unrelated to the id the notification
+ *                      gets once delivered
+ * @param notification  the notification to deliver
+ * @param attempts      failed deliveries so far
+ * @param nextAttemptAt the earliest time of the next delivery
+ */
+public record OutboxEntry(long id, Notification notification, int attempts, LocalDateTime nextAttemptAt) {
+}
@@ -0,0 +1,133 @@
+package model.dao;
+
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Notification;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * MatchDAO decorator for stores that cannot write the notification outbox
+ * in the same transaction as the match (memory, file system,
+ * memory-mapped). The notifications queued on a match are appended to the
+ * outbox before the match is written and withdrawn if the write fails, so
+ * a crash in between can deliver a notification for a match that was never
+ * stored but never loses one for a match that was.
+ */
+public final class OutboxMatchDAO implements MatchDAO {
+    private final MatchDAO delegate;
+    private final NotificationOutbox outbox;
+
+    public OutboxMatchDAO(MatchDAO delegate, NotificationOutbox outbox) {
+        this.delegate = delegate;
+        this.outbox = outbox;
+    }
+
+    private <T> void writeAhead(List<Match> matches, T target, Consumer<T> write) {
+        List<Notification> notifications = matches.stream()
+                .flatMap(match -> match.getPendingNotifications().stream())
+                .toList();
+        List<Long> ids = notifications.isEmpty() ? List.of() : outbox.append(notifications);
+        try {
+            write.accept(target);
+        } catch (RuntimeException e) {
+            outbox.remove(ids);
+            throw e;
+        }
+        matches.forEach(Match::clearPendingNotifications);
+    }
+
+    @Override
+    public void save(Match match) {
+        writeAhead(List.of(match), match, delegate::save);
+    }
+
+    @Override
+    public void saveAll(List<Match> matches) {
+        writeAhead(matches, matches, delegate::saveAll);
+    }
+
+    @Override
+    public Match findById(int id) {
+        return delegate.findById(id);
+    }
+
+    @Override
+    public List<Match> findByOrganizer(int organizerId) {
+        return delegate.findByOrganizer(organizerId);
+    }
+
+    @Override
+    public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+        return delegate.findByOrganizer(organizerId, cursor, limit);
+    }
+
+    @Override
+    public List<Match> findPendingForManager(int managerId) {
+        return delegate.findPendingForManager(managerId);
+    }
+
+    @Override
+    public List<Match> findApprovedMatches() {
+        return delegate.findApprovedMatches();
+    }
+
+    @Override
+    public Page<Match> findApprovedMatches(String cursor, int limit) {
+        return delegate.findApprovedMatches(cursor, limit);
+    }
+
+    @Override
+    public List<Match> find(MatchQuery query) {
+        return delegate.find(query);
+    }
+
+    @Override
+    public Stream<Match> streamAll() {
+        return delegate.streamAll();
+    }
+
+    @Override
+    public void updateStatus(int matchId, MatchStatus status) {
+        delegate.updateStatus(matchId, status);
+    }
+
+    @Override
+    public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+        delegate.updateStatusAll(statuses);
+    }
+
+    @Override
+    public void update(Match match) {
+        writeAhead(List.of(match), match, delegate::update);
+    }
+
+    @Override
+    public void updateAll(List<Match> matches) {
+        writeAhead(matches, matches, delegate::updateAll);
+    }
+
+    @Override
+    public JoinResult tryJoin(int matchId, int userId) {
+        return delegate.tryJoin(matchId, userId);
+    }
+
+    @Override
+    public List<Match> findByJoinedPlayer(int userId) {
+        return delegate.findByJoinedPlayer(userId);
+    }
+
+    @Override
+    public void delete(int id) {
+        delegate.delete(id);
+    }
+
+    @Override
+    public int deleteExpiredMatches(LocalDateTime now, int limit) {
+        return delegate.deleteExpiredMatches(now, limit);
+    }
+}
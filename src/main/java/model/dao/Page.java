@@ -0,0 +1,35 @@
+package model.dao;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset-paginated query.
+ *
+ * @param items      the items of this page, in query order
+ * @param nextCursor the cursor to pass to fetch the following page, or null if
+ *                   this is the last page
+ */
+public record Page<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Builds a page from up to {@code limit + 1} rows: the extra row only
+     * tells that another page exists and is not returned.
+     *
+     * @param rows     the rows read, in query order
+     * @param limit    the page size
+     * @param cursorOf builds the cursor of a row
+     * @return the page
+     */
+    public static <T> Page<T> of(List<T> rows, int limit, Function<T, String> cursorOf) {
+        if (rows.size() <= limit) {
+            return new Page<>(List.copyOf(rows), null);
+        }
+        List<T> items = List.copyOf(rows.subList(0, limit));
+        return new Page<>(items, cursorOf.apply(items.get(limit - 1)));
+    }
+}
@@ -0,0 +1,80 @@
+package model.dao;
+
+import model.domain.Match;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Encodes and decodes the opaque cursors handed out by paginated queries.
+ * Match cursors carry a {@link MatchKey}; field cursors carry a field id.
+ */
+public final class PageCursor {
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {
+    }
+
+    public static String of(Match match) {
+        return of(MatchKey.of(match));
+    }
+
+    public static String of(MatchKey key) {
+        return encode(key.date() + SEPARATOR + key.time() + SEPARATOR + key.id());
+    }
+
+    public static String of(int id) {
+        return encode(Integer.toString(id));
+    }
+
+    /**
+     * @param cursor a match cursor, or null for the first page
+     * @return the key to resume after, or null for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static MatchKey toMatchKey(String cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String[] parts = decode(cursor).split("\\" + SEPARATOR);
+        try {
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid match cursor: " + cursor);
+            }
+            return new MatchKey(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Integer.parseInt(parts[2]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid match cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * @param cursor a field cursor, or null for the first page
+     * @return the id to resume after, 0 for the first page
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public static int toId(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(decode(cursor));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decode(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
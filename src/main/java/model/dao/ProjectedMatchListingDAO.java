@@ -0,0 +1,38 @@
+package model.dao;
+
+import java.util.List;
+
+/**
+ * Match listings of a store that keeps its matches with field and
+ * organizer already attached (memory, file system, memory-mapped): each
+ * listing is flattened from the match the store returns, so it is as
+ * current as the store and costs no lookup of its own.
+ */
+public final class ProjectedMatchListingDAO implements MatchListingDAO {
+    private final MatchDAO matchDAO;
+
+    public ProjectedMatchListingDAO(MatchDAO matchDAO) {
+        this.matchDAO = matchDAO;
+    }
+
+    @Override
+    public MatchListing findById(int matchId) {
+        var match = matchDAO.findById(matchId);
+        return match != null ? MatchListing.of(match) : null;
+    }
+
+    @Override
+    public List<MatchListing> find(MatchQuery query) {
+        return matchDAO.find(query).stream().map(MatchListing::of).toList();
+    }
+
+    @Override
+    public List<MatchListing> findPendingForManager(int managerId) {
+        return matchDAO.findPendingForManager(managerId).stream().map(MatchListing::of).toList();
+    }
+
+    @Override
+    public List<MatchListing> findByJoinedPlayer(int userId) {
+        return matchDAO.findByJoinedPlayer(userId).stream().map(MatchListing::of).toList();
+    }
+}
@@ -0,0 +1,44 @@
+package model.dao;
+
+import model.domain.Sport;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Search for the earliest free slots of a sport in a city.
+ * A slot starts on the {@code stepMinutes} grid, lies entirely inside
+ * [from, to) and inside the daily opening hours; a {@code closesAt} of
+ * midnight means the fields close at the end of the day.
+ *
+ * @param city            the city of the fields
+ * @param sport           the sport of the fields, which sets the slot length
+ * @param from            the earliest start
+ * @param to              the latest end
+ * @param maxPricePerHour the price ceiling, or null for any price
+ * @param limit           the number of slots wanted
+ * @param opensAt         the earliest start of a day
+ * @param closesAt        the latest end of a day
+ * @param stepMinutes     the spacing of start times, a divisor of a day
+ */
+public record SlotQuery(String city, Sport sport, LocalDateTime from, LocalDateTime to, Double maxPricePerHour,
+        int limit, LocalTime opensAt, LocalTime closesAt, int stepMinutes) {
+    public static final LocalTime DEFAULT_OPENS_AT = LocalTime.of(8, 0);
+    public static final LocalTime DEFAULT_CLOSES_AT = LocalTime.MIDNIGHT;
+    public static final int DEFAULT_STEP_MINUTES = 30;
+
+    public SlotQuery {
+        if (limit < 0 || stepMinutes <= 0 || (24 * 60) % stepMinutes != 0) {
+            throw new IllegalArgumentException("Invalid slot query: limit " + limit + ", step " + stepMinutes);
+        }
+    }
+
+    /**
+     * A query with the default opening hours and a start every half hour.
+     */
+    public static SlotQuery of(String city, Sport sport, LocalDateTime from, LocalDateTime to,
+            Double maxPricePerHour, int limit) {
+        return new SlotQuery(city, sport, from, to, maxPricePerHour, limit, DEFAULT_OPENS_AT, DEFAULT_CLOSES_AT,
+                DEFAULT_STEP_MINUTES);
+    }
+}
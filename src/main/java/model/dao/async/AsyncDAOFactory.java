@@ -0,0 +1,55 @@
+package model.dao.async;
+
+import model.dao.DAOFactory;
+
+/**
+ * Gives non-blocking access to the DAOs of another factory, for callers such
+ * as JavaFX views that must not wait on storage.
+ * Wrapping is cheap: every instance runs its calls on the given executor,
+ * by default the application-wide {@link AsyncExecutor#shared()}.
+ */
+public class AsyncDAOFactory {
+    private final AsyncUserDAO userDAO;
+    private final AsyncMatchDAO matchDAO;
+    private final AsyncFieldDAO fieldDAO;
+    private final AsyncNotificationDAO notificationDAO;
+    private final AsyncMatchListingDAO matchListingDAO;
+    private final AsyncExecutor executor;
+
+    public AsyncDAOFactory(DAOFactory delegate) {
+        this(delegate, AsyncExecutor.shared());
+    }
+
+    public AsyncDAOFactory(DAOFactory delegate, AsyncExecutor executor) {
+        this.executor = executor;
+        this.userDAO = new AsyncUserDAO(delegate.getUserDAO(), executor);
+        this.matchDAO = new AsyncMatchDAO(delegate.getMatchDAO(), executor);
+        this.fieldDAO = new AsyncFieldDAO(delegate.getFieldDAO(), executor);
+        this.notificationDAO = new AsyncNotificationDAO(delegate.getNotificationDAO(), executor);
+        this.matchListingDAO = new AsyncMatchListingDAO(delegate.getMatchListingDAO(), executor);
+    }
+
+    public AsyncExecutor getExecutor() {
+        return executor;
+    }
+
+    public AsyncUserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    public AsyncMatchDAO getMatchDAO() {
+        return matchDAO;
+    }
+
+    public AsyncFieldDAO getFieldDAO() {
+        return fieldDAO;
+    }
+
+    public AsyncNotificationDAO getNotificationDAO() {
+        return notificationDAO;
+    }
+
+    public AsyncMatchListingDAO getMatchListingDAO() {
+        return matchListingDAO;
+    }
+}
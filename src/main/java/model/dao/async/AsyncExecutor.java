@@ -0,0 +1,100 @@
+package model.dao.async;
+
+import model.dao.dbms.SqlTracer;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs blocking DAO calls off the caller's thread, one task per call.
+ * Every returned future times out after the executor's default timeout; a
+ * caller may shorten it with {@link CompletableFuture#orTimeout}. Cancelling
+ * the future or letting it time out interrupts the task if it is still
+ * running. As an {@link Executor} it runs dependent stages, such as
+ * converting results, on the same threads.
+ */
+public final class AsyncExecutor implements Executor {
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(15);
+
+    private static final AsyncExecutor SHARED = new AsyncExecutor(newDaoThreadPool(), DEFAULT_TIMEOUT);
+
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public AsyncExecutor(ExecutorService executor, Duration timeout) {
+        this.executor = executor;
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    /**
+     * @return the executor shared by the whole application
+     */
+    public static AsyncExecutor shared() {
+        return SHARED;
+    }
+
+    /**
+     * A thread per task, reused when idle. DAO calls spend their time waiting
+     * on I/O and the connection pool already bounds database concurrency, so
+     * the pool itself is unbounded. Threads are daemons and never keep the
+     * application alive.
+     */
+    private static ExecutorService newDaoThreadPool() {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "sporty-dao-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        executor.execute(command);
+    }
+
+    /**
+     * Runs the work on a DAO thread. Its SQL is traced as part of the
+     * controller call that submitted it; see {@link SqlTracer#propagate}.
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> work) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Supplier<T> traced = SqlTracer.propagate(work);
+        Future<?> task = executor.submit(() -> {
+            try {
+                result.complete(traced.get());
+            } catch (RuntimeException | Error e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (error instanceof CancellationException || error instanceof TimeoutException) {
+                task.cancel(true);
+            }
+        });
+        return result.orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public CompletableFuture<Void> run(Runnable work) {
+        return supply(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Stops accepting calls and interrupts running ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,75 @@
+package model.dao.async;
+
+import model.dao.FieldDAO;
+import model.dao.FreeSlot;
+import model.dao.Page;
+import model.dao.SlotQuery;
+import model.domain.Field;
+import model.domain.Sport;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link FieldDAO}; see {@link AsyncMatchDAO}.
+ */
+public final class AsyncFieldDAO {
+    private final FieldDAO fieldDAO;
+    private final AsyncExecutor executor;
+
+    public AsyncFieldDAO(FieldDAO fieldDAO, AsyncExecutor executor) {
+        this.fieldDAO = fieldDAO;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<List<Field>> findAll() {
+        return executor.supply(fieldDAO::findAll);
+    }
+
+    public CompletableFuture<Page<Field>> findAll(String cursor, int limit) {
+        return executor.supply(() -> fieldDAO.findAll(cursor, limit));
+    }
+
+    public CompletableFuture<Field> findById(int id) {
+        return executor.supply(() -> fieldDAO.findById(id));
+    }
+
+    public CompletableFuture<List<Field>> findByCity(String city) {
+        return executor.supply(() -> fieldDAO.findByCity(city));
+    }
+
+    public CompletableFuture<Page<Field>> findByCity(String city, String cursor, int limit) {
+        return executor.supply(() -> fieldDAO.findByCity(city, cursor, limit));
+    }
+
+    public CompletableFuture<List<Field>> findAvailableFields(String city, Sport sport, LocalDate date,
+            LocalTime time) {
+        return executor.supply(() -> fieldDAO.findAvailableFields(city, sport, date, time));
+    }
+
+    public CompletableFuture<List<FreeSlot>> findEarliestFreeSlots(SlotQuery query) {
+        return executor.supply(() -> fieldDAO.findEarliestFreeSlots(query));
+    }
+
+    public CompletableFuture<List<Field>> searchByNameOrAddress(String text, int limit) {
+        return executor.supply(() -> fieldDAO.searchByNameOrAddress(text, limit));
+    }
+
+    public CompletableFuture<List<Field>> findByManagerId(int managerId) {
+        return executor.supply(() -> fieldDAO.findByManagerId(managerId));
+    }
+
+    public CompletableFuture<Void> save(Field field) {
+        return executor.run(() -> fieldDAO.save(field));
+    }
+
+    public CompletableFuture<Void> saveAll(List<Field> fields) {
+        return executor.run(() -> fieldDAO.saveAll(fields));
+    }
+
+    public CompletableFuture<Void> delete(int id) {
+        return executor.run(() -> fieldDAO.delete(id));
+    }
+}
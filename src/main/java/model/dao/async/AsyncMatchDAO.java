@@ -0,0 +1,96 @@
+package model.dao.async;
+
+import model.dao.JoinResult;
+import model.dao.MatchDAO;
+import model.dao.MatchQuery;
+import model.dao.Page;
+import model.domain.Match;
+import model.domain.MatchStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link MatchDAO}: each call runs the matching
+ * synchronous method on an {@link AsyncExecutor}. Streaming scans are left
+ * out, since a stream must be consumed on the thread holding it open.
+ */
+public final class AsyncMatchDAO {
+    private final MatchDAO matchDAO;
+    private final AsyncExecutor executor;
+
+    public AsyncMatchDAO(MatchDAO matchDAO, AsyncExecutor executor) {
+        this.matchDAO = matchDAO;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> save(Match match) {
+        return executor.run(() -> matchDAO.save(match));
+    }
+
+    public CompletableFuture<Void> saveAll(List<Match> matches) {
+        return executor.run(() -> matchDAO.saveAll(matches));
+    }
+
+    public CompletableFuture<Match> findById(int id) {
+        return executor.supply(() -> matchDAO.findById(id));
+    }
+
+    public CompletableFuture<List<Match>> findByOrganizer(int organizerId) {
+        return executor.supply(() -> matchDAO.findByOrganizer(organizerId));
+    }
+
+    public CompletableFuture<Page<Match>> findByOrganizer(int organizerId, String cursor, int limit) {
+        return executor.supply(() -> matchDAO.findByOrganizer(organizerId, cursor, limit));
+    }
+
+    public CompletableFuture<List<Match>> findPendingForManager(int managerId) {
+        return executor.supply(() -> matchDAO.findPendingForManager(managerId));
+    }
+
+    public CompletableFuture<List<Match>> findApprovedMatches() {
+        return executor.supply(matchDAO::findApprovedMatches);
+    }
+
+    public CompletableFuture<Page<Match>> findApprovedMatches(String cursor, int limit) {
+        return executor.supply(() -> matchDAO.findApprovedMatches(cursor, limit));
+    }
+
+    public CompletableFuture<List<Match>> find(MatchQuery query) {
+        return executor.supply(() -> matchDAO.find(query));
+    }
+
+    public CompletableFuture<Void> updateStatus(int matchId, MatchStatus status) {
+        return executor.run(() -> matchDAO.updateStatus(matchId, status));
+    }
+
+    public CompletableFuture<Void> updateStatusAll(Map<Integer, MatchStatus> statuses) {
+        return executor.run(() -> matchDAO.updateStatusAll(statuses));
+    }
+
+    public CompletableFuture<Void> update(Match match) {
+        return executor.run(() -> matchDAO.update(match));
+    }
+
+    public CompletableFuture<Void> updateAll(List<Match> matches) {
+        return executor.run(() -> matchDAO.updateAll(matches));
+    }
+
+    public CompletableFuture<JoinResult> tryJoin(int matchId, int userId) {
+        return executor.supply(() -> matchDAO.tryJoin(matchId, userId));
+    }
+
+    public CompletableFuture<List<Match>> findByJoinedPlayer(int userId) {
+        return executor.supply(() -> matchDAO.findByJoinedPlayer(userId));
+    }
+
+    public CompletableFuture<Void> delete(int id) {
+        return executor.run(() -> matchDAO.delete(id));
+    }
+
+    public CompletableFuture<Integer> deleteExpiredMatches(LocalDateTime now, int limit) {
+        return executor.supply(() -> matchDAO.deleteExpiredMatches(now, limit));
+    }
+}
@@ -0,0 +1,38 @@
+package model.dao.async;
+
+import model.dao.MatchListing;
+import model.dao.MatchListingDAO;
+import model.dao.MatchQuery;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link MatchListingDAO}: each call runs the
+ * matching synchronous method on an {@link AsyncExecutor}.
+ */
+public final class AsyncMatchListingDAO {
+    private final MatchListingDAO matchListingDAO;
+    private final AsyncExecutor executor;
+
+    public AsyncMatchListingDAO(MatchListingDAO matchListingDAO, AsyncExecutor executor) {
+        this.matchListingDAO = matchListingDAO;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<MatchListing> findById(int matchId) {
+        return executor.supply(() -> matchListingDAO.findById(matchId));
+    }
+
+    public CompletableFuture<List<MatchListing>> find(MatchQuery query) {
+        return executor.supply(() -> matchListingDAO.find(query));
+    }
+
+    public CompletableFuture<List<MatchListing>> findPendingForManager(int managerId) {
+        return executor.supply(() -> matchListingDAO.findPendingForManager(managerId));
+    }
+
+    public CompletableFuture<List<MatchListing>> findByJoinedPlayer(int userId) {
+        return executor.supply(() -> matchListingDAO.findByJoinedPlayer(userId));
+    }
+}
@@ -0,0 +1,53 @@
+package model.dao.async;
+
+import model.dao.NotificationDAO;
+import model.domain.Notification;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link NotificationDAO}; see
+ * {@link AsyncMatchDAO}.
+ */
+public final class AsyncNotificationDAO {
+    private final NotificationDAO notificationDAO;
+    private final AsyncExecutor executor;
+
+    public AsyncNotificationDAO(NotificationDAO notificationDAO, AsyncExecutor executor) {
+        this.notificationDAO = notificationDAO;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<Void> save(Notification notification) {
+        return executor.run(() -> notificationDAO.save(notification));
+    }
+
+    public CompletableFuture<Void> saveAll(List<Notification> notifications) {
+        return executor.run(() -> notificationDAO.saveAll(notifications));
+    }
+
+    public CompletableFuture<List<Notification>> findUnreadByUsername(String username) {
+        return executor.supply(() -> notificationDAO.findUnreadByUsername(username));
+    }
+
+    public CompletableFuture<List<Notification>> findSince(String username, int lastSeenId, int limit) {
+        return executor.supply(() -> notificationDAO.findSince(username, lastSeenId, limit));
+    }
+
+    public CompletableFuture<List<Notification>> findLatestUnread(String username, int limit) {
+        return executor.supply(() -> notificationDAO.findLatestUnread(username, limit));
+    }
+
+    public CompletableFuture<Integer> countUnread(String username) {
+        return executor.supply(() -> notificationDAO.countUnread(username));
+    }
+
+    public CompletableFuture<Void> markAllAsRead(String username) {
+        return executor.run(() -> notificationDAO.markAllAsRead(username));
+    }
+
+    public CompletableFuture<Void> markReadBetween(String username, int firstId, int lastId) {
+        return executor.run(() -> notificationDAO.markReadBetween(username, firstId, lastId));
+    }
+}
@@ -0,0 +1,35 @@
+package model.dao.async;
+
+import model.dao.UserDAO;
+import model.domain.User;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking counterpart of {@link UserDAO}; see {@link AsyncMatchDAO}.
+ */
+public final class AsyncUserDAO {
+    private final UserDAO userDAO;
+    private final AsyncExecutor executor;
+
+    public AsyncUserDAO(UserDAO userDAO, AsyncExecutor executor) {
+        this.userDAO = userDAO;
+        this.executor = executor;
+    }
+
+    public CompletableFuture<User> authenticate(String username, String password) {
+        return executor.supply(() -> userDAO.authenticate(username, password));
+    }
+
+    public CompletableFuture<User> findById(int id) {
+        return executor.supply(() -> userDAO.findById(id));
+    }
+
+    public CompletableFuture<User> findByUsername(String username) {
+        return executor.supply(() -> userDAO.findByUsername(username));
+    }
+
+    public CompletableFuture<Void> save(User user) {
+        return executor.run(() -> userDAO.save(user));
+    }
+}
@@ -0,0 +1,134 @@
+package model.dao.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache for one kind of lookup.
+ * Entries are evicted least-recently-used once the region is full and are
+ * reloaded after their time-to-live. Null results are not cached.
+ * A load that overlaps an invalidation is returned to its caller but not
+ * stored, so a slow read can never put back a value a write just replaced.
+ */
+public final class CacheRegion<K, V> {
+    private final String name;
+    private final Settings settings;
+    private final Map<K, Entry<V>> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    public CacheRegion(String name, Settings settings) {
+        this.name = name;
+        this.settings = settings;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > settings.maxSize()) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached value for the key, loading and caching it on a miss.
+     *
+     * @param key    the lookup key
+     * @param loader reads the value from the underlying DAO
+     * @return the cached or freshly loaded value, possibly null
+     */
+    public V get(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null && entry.expiresAt() - System.nanoTime() > 0) {
+                hits.increment();
+                return entry.value();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            loadGeneration = generation;
+        }
+        // Loaded outside the lock so a slow query does not block other keys
+        V value = loader.apply(key);
+        if (value != null && settings.maxSize() > 0) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime() + settings.ttlNanos()));
+                }
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Drops every entry whose key or value matches the predicate.
+     */
+    public synchronized void invalidateIf(BiPredicate<K, V> predicate) {
+        generation++;
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (it.hasNext()) {
+            Map.Entry<K, Entry<V>> entry = it.next();
+            if (predicate.test(entry.getKey(), entry.getValue().value())) {
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(name, hits.sum(), misses.sum(), evictions.sum(), entries.size(), settings.maxSize());
+    }
+
+    /**
+     * Size bound and time-to-live of a region.
+     */
+    public record Settings(int maxSize, long ttlMillis) {
+        long ttlNanos() {
+            return TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        }
+
+        /**
+         * Reads {@code cache.<region>.maxSize} and {@code cache.<region>.ttlMs},
+         * falling back to the given defaults.
+         */
+        public static Settings fromProperties(Properties properties, String region, Settings defaults) {
+            String maxSize = properties.getProperty("cache." + region + ".maxSize");
+            String ttl = properties.getProperty("cache." + region + ".ttlMs");
+            return new Settings(
+                    maxSize != null ? Integer.parseInt(maxSize.trim()) : defaults.maxSize(),
+                    ttl != null ? Long.parseLong(ttl.trim()) : defaults.ttlMillis());
+        }
+    }
+
+    public record Stats(String region, long hits, long misses, long evictions, int size, int maxSize) {
+        public double hitRatio() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
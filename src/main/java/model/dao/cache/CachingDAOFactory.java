@@ -0,0 +1,395 @@
+package model.dao.cache;
+
+import model.dao.*;
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Sport;
+import model.domain.User;
+import model.utils.TextNormalizer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * DAOFactory decorator that caches the hot, rarely changing lookups of the
+ * wrapped factory: users and fields by id, users by username, fields by city
+ * and the approved matches shown on the home page.
+ * Writes made through this factory invalidate exactly the entries they can
+ * affect; changes made by other processes become visible after the region's
+ * time-to-live. Cached entities are shared between callers, so they must
+ * be saved after being changed.
+ * <p>
+ * Free fields are not cached: every backend answers them from the bookings
+ * it holds, which a copy here could only let go stale.
+ */
+public class CachingDAOFactory implements DAOFactory {
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+    public static final String FIELDS = "fields";
+    public static final String FIELDS_BY_CITY = "fieldsByCity";
+    public static final String APPROVED_MATCHES = "approvedMatches";
+
+    private static final Object APPROVED_KEY = "approved";
+
+    private final DAOFactory delegate;
+    private final CacheRegion<Integer, User> users;
+    private final CacheRegion<String, User> usersByUsername;
+    private final CacheRegion<Integer, Field> fields;
+    private final CacheRegion<String, List<Field>> fieldsByCity;
+    private final CacheRegion<Object, List<Match>> approvedMatches;
+    private final UserDAO userDAO;
+    private final FieldDAO fieldDAO;
+    private final MatchDAO matchDAO;
+
+    public CachingDAOFactory(DAOFactory delegate) {
+        this(delegate, new Properties());
+    }
+
+    public CachingDAOFactory(DAOFactory delegate, Properties settings) {
+        this.delegate = delegate;
+        this.users = region(settings, USERS, new CacheRegion.Settings(1_000, 600_000));
+        this.usersByUsername = region(settings, USERS_BY_USERNAME, new CacheRegion.Settings(1_000, 600_000));
+        this.fields = region(settings, FIELDS, new CacheRegion.Settings(1_000, 600_000));
+        this.fieldsByCity = region(settings, FIELDS_BY_CITY, new CacheRegion.Settings(200, 300_000));
+        this.approvedMatches = region(settings, APPROVED_MATCHES, new CacheRegion.Settings(1, 30_000));
+        this.userDAO = new CachingUserDAO(delegate.getUserDAO());
+        this.fieldDAO = new CachingFieldDAO(delegate.getFieldDAO());
+        this.matchDAO = new CachingMatchDAO(delegate.getMatchDAO());
+    }
+
+    private static <K, V> CacheRegion<K, V> region(Properties settings, String name,
+            CacheRegion.Settings defaults) {
+        return new CacheRegion<>(name, CacheRegion.Settings.fromProperties(settings, name, defaults));
+    }
+
+    public DAOFactory getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * @return hit, miss and eviction counters of every region
+     */
+    public List<CacheRegion.Stats> getStats() {
+        return List.of(users.getStats(), usersByUsername.getStats(), fields.getStats(),
+                fieldsByCity.getStats(), approvedMatches.getStats());
+    }
+
+    @Override
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    @Override
+    public MatchDAO getMatchDAO() {
+        return matchDAO;
+    }
+
+    @Override
+    public FieldDAO getFieldDAO() {
+        return fieldDAO;
+    }
+
+    @Override
+    public NotificationDAO getNotificationDAO() {
+        return delegate.getNotificationDAO();
+    }
+
+    /**
+     * Listings are not cached: the delegate's are already a single read
+     * that its writers keep current.
+     */
+    @Override
+    public MatchListingDAO getMatchListingDAO() {
+        return delegate.getMatchListingDAO();
+    }
+
+    @Override
+    public NotificationOutbox getNotificationOutbox() {
+        return delegate.getNotificationOutbox();
+    }
+
+    private static boolean isManagedBy(Field field, int userId) {
+        return field != null && field.getManager() != null && field.getManager().getId() == userId;
+    }
+
+    private static boolean refersTo(Match match, int fieldId, int userId) {
+        return (match.getField() != null && match.getField().getId() == fieldId)
+                || (match.getOrganizer() != null && match.getOrganizer().getId() == userId)
+                || isManagedBy(match.getField(), userId);
+    }
+
+    private final class CachingUserDAO implements UserDAO {
+        private final UserDAO target;
+
+        private CachingUserDAO(UserDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public User authenticate(String username, String password) {
+            return target.authenticate(username, password);
+        }
+
+        @Override
+        public User findById(int id) {
+            return users.get(id, target::findById);
+        }
+
+        @Override
+        public User findByUsername(String username) {
+            return usersByUsername.get(username, target::findByUsername);
+        }
+
+        @Override
+        public void save(User user) {
+            target.save(user);
+            int id = user.getId();
+            users.invalidate(id);
+            // The old username of a renamed user is only known from the cached value
+            usersByUsername.invalidateIf((username, cached) -> cached.getId() == id
+                    || (user.getUsername() != null && user.getUsername().equals(username)));
+            fields.invalidateIf((fieldId, field) -> isManagedBy(field, id));
+            fieldsByCity.invalidateIf((city, list) -> list.stream().anyMatch(field -> isManagedBy(field, id)));
+            approvedMatches.invalidateIf((key, list) -> list.stream().anyMatch(match -> refersTo(match, 0, id)));
+        }
+    }
+
+    private final class CachingFieldDAO implements FieldDAO {
+        private final FieldDAO target;
+
+        private CachingFieldDAO(FieldDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public List<Field> findAll() {
+            return target.findAll();
+        }
+
+        @Override
+        public Page<Field> findAll(String cursor, int limit) {
+            return target.findAll(cursor, limit);
+        }
+
+        @Override
+        public Stream<Field> streamAll() {
+            return target.streamAll();
+        }
+
+        @Override
+        public Field findById(int id) {
+            return fields.get(id, target::findById);
+        }
+
+        @Override
+        public List<Field> findByCity(String city) {
+            return new ArrayList<>(fieldsByCity.get(TextNormalizer.key(city), target::findByCity));
+        }
+
+        @Override
+        public Page<Field> findByCity(String city, String cursor, int limit) {
+            return target.findByCity(city, cursor, limit);
+        }
+
+        @Override
+        public List<Field> findAvailableFields(String city, Sport sport, LocalDate date, LocalTime time) {
+            return target.findAvailableFields(city, sport, date, time);
+        }
+
+        @Override
+        public List<FreeSlot> findEarliestFreeSlots(SlotQuery query) {
+            return target.findEarliestFreeSlots(query);
+        }
+
+        @Override
+        public List<Field> searchByNameOrAddress(String text, int limit) {
+            return target.searchByNameOrAddress(text, limit);
+        }
+
+        @Override
+        public List<Field> findByManagerId(int managerId) {
+            return target.findByManagerId(managerId);
+        }
+
+        @Override
+        public void save(Field field) {
+            target.save(field);
+            invalidate(field.getId(), field.getCity());
+        }
+
+        @Override
+        public void saveAll(List<Field> batch) {
+            target.saveAll(batch);
+            batch.forEach(field -> invalidate(field.getId(), field.getCity()));
+        }
+
+        @Override
+        public void delete(int id) {
+            target.delete(id);
+            invalidate(id, null);
+        }
+
+        private void invalidate(int id, String city) {
+            fields.invalidate(id);
+            fieldsByCity.invalidateIf((cityKey, list) -> (city != null && TextNormalizer.key(city).equals(cityKey))
+                    || list.stream().anyMatch(field -> field.getId() == id));
+            approvedMatches.invalidateIf((key, list) -> list.stream().anyMatch(match -> refersTo(match, id, 0)));
+        }
+    }
+
+    private final class CachingMatchDAO implements MatchDAO {
+        private final MatchDAO target;
+
+        private CachingMatchDAO(MatchDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public void save(Match match) {
+            target.save(match);
+            if (match.isApproved()) {
+                approvedMatches.invalidateAll();
+            } else {
+                invalidateIfListed(match.getId());
+            }
+        }
+
+        @Override
+        public void saveAll(List<Match> matches) {
+            target.saveAll(matches);
+            invalidateForWrites(matches);
+        }
+
+        @Override
+        public Match findById(int id) {
+            return target.findById(id);
+        }
+
+        @Override
+        public List<Match> findByOrganizer(int organizerId) {
+            return target.findByOrganizer(organizerId);
+        }
+
+        @Override
+        public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+            return target.findByOrganizer(organizerId, cursor, limit);
+        }
+
+        @Override
+        public List<Match> findPendingForManager(int managerId) {
+            return target.findPendingForManager(managerId);
+        }
+
+        @Override
+        public List<Match> findApprovedMatches() {
+            return new ArrayList<>(approvedMatches.get(APPROVED_KEY, key -> target.findApprovedMatches()));
+        }
+
+        @Override
+        public Page<Match> findApprovedMatches(String cursor, int limit) {
+            return target.findApprovedMatches(cursor, limit);
+        }
+
+        @Override
+        public List<Match> find(MatchQuery query) {
+            return target.find(query);
+        }
+
+        @Override
+        public Stream<Match> streamAll() {
+            return target.streamAll();
+        }
+
+        @Override
+        public void updateStatus(int matchId, MatchStatus status) {
+            target.updateStatus(matchId, status);
+            if (status == MatchStatus.APPROVED) {
+                approvedMatches.invalidateAll();
+            } else {
+                invalidateIfListed(matchId);
+            }
+        }
+
+        @Override
+        public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+            target.updateStatusAll(statuses);
+            if (statuses.containsValue(MatchStatus.APPROVED)) {
+                approvedMatches.invalidateAll();
+            } else {
+                invalidateIfListed(statuses.keySet());
+            }
+        }
+
+        @Override
+        public void updateAll(List<Match> matches) {
+            target.updateAll(matches);
+            invalidateForWrites(matches);
+        }
+
+        @Override
+        public void update(Match match) {
+            target.update(match);
+            if (match.isApproved()) {
+                approvedMatches.invalidateAll();
+            } else {
+                invalidateIfListed(match.getId());
+            }
+        }
+
+        @Override
+        public JoinResult tryJoin(int matchId, int userId) {
+            JoinResult result = target.tryJoin(matchId, userId);
+            if (result.isJoined()) {
+                invalidateIfListed(matchId);
+            }
+            return result;
+        }
+
+        @Override
+        public List<Match> findByJoinedPlayer(int userId) {
+            return target.findByJoinedPlayer(userId);
+        }
+
+        @Override
+        public void delete(int id) {
+            target.delete(id);
+            invalidateIfListed(id);
+        }
+
+        @Override
+        public int deleteExpiredMatches(LocalDateTime now, int limit) {
+            int deleted = target.deleteExpiredMatches(now, limit);
+            if (deleted > 0) {
+                approvedMatches.invalidateIf((key, list) -> list.stream()
+                        .anyMatch(match -> match.hasEndedBy(now)));
+            }
+            return deleted;
+        }
+
+        private void invalidateIfListed(int matchId) {
+            approvedMatches.invalidateIf((key, list) -> list.stream().anyMatch(match -> match.getId() == matchId));
+        }
+
+        private void invalidateIfListed(Set<Integer> matchIds) {
+            approvedMatches.invalidateIf((key, list) -> list.stream()
+                    .anyMatch(match -> matchIds.contains(match.getId())));
+        }
+
+        private void invalidateForWrites(List<Match> matches) {
+            if (matches.stream().anyMatch(Match::isApproved)) {
+                approvedMatches.invalidateAll();
+            } else {
+                invalidateIfListed(matches.stream().map(Match::getId).collect(Collectors.toSet()));
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package model.dao.dbms;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+/**
+ * JDBC batching helpers. Rows are sent in chunks of {@link #BATCH_SIZE} so a
+ * large write neither builds one huge packet nor one round trip per row.
+ */
+final class Batches {
+    static final int BATCH_SIZE = 500;
+
+    private Batches() {
+    }
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    static <T> void execute(PreparedStatement stmt, Iterable<T> items, Binder<T> binder) throws SQLException {
+        int pending = 0;
+        for (T item : items) {
+            binder.bind(stmt, item);
+            stmt.addBatch();
+            if (++pending == BATCH_SIZE) {
+                stmt.executeBatch();
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Executes a batched insert prepared with generated keys and hands each
+     * item its key, in insertion order.
+     */
+    static <T> void executeInsert(PreparedStatement stmt, List<T> items, Binder<T> binder,
+            ObjIntConsumer<T> idSetter) throws SQLException {
+        for (int from = 0; from < items.size(); from += BATCH_SIZE) {
+            List<T> chunk = items.subList(from, Math.min(items.size(), from + BATCH_SIZE));
+            for (T item : chunk) {
+                binder.bind(stmt, item);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (T item : chunk) {
+                    if (!keys.next()) {
+                        throw new SQLException("Missing generated key for batched insert");
+                    }
+                    idSetter.accept(item, keys.getInt(1));
+                }
+            }
+        }
+    }
+}
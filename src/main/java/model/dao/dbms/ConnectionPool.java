@@ -0,0 +1,313 @@
+package model.dao.dbms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded JDBC connection pool.
+ * Callers borrow a connection for a single operation and give it back by
+ * closing it; the physical connection stays open and is lent to the next
+ * caller. Idle and over-aged connections are evicted in the background and
+ * every connection is validated before it is handed out. Lent connections
+ * go through the pool's {@link SqlTracer}, which traces them when enabled.
+ */
+public class ConnectionPool implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final Settings settings;
+    private final SqlTracer tracer;
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger open = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    public ConnectionPool(Settings settings) {
+        this(settings, SqlTracer.DISABLED);
+    }
+
+    public ConnectionPool(Settings settings, SqlTracer tracer) {
+        this.settings = settings;
+        this.tracer = tracer;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sporty-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = settings.evictionIntervalMillis();
+        evictor.scheduleWithFixedDelay(this::evict, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting at most the configured borrow timeout.
+     * Closing the returned connection gives it back to the pool.
+     *
+     * @return a validated connection
+     * @throws SQLException if the pool is closed, the wait times out or a new
+     *                      connection cannot be opened
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(settings.borrowTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTimeoutException("Timed out after " + settings.borrowTimeoutMillis()
+                    + " ms waiting for a database connection");
+        }
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+            active.incrementAndGet();
+            borrowCount.increment();
+            return tracer.wrap(pooled.lend());
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool usage counters.
+     *
+     * @return current pool statistics
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        long timeouts = timeoutCount.sum();
+        long attempts = borrows + timeouts;
+        double averageWaitMillis = attempts == 0 ? 0.0 : totalWaitNanos.sum() / (double) attempts / 1_000_000.0;
+        return new PoolStats(
+                active.get(),
+                idle.size(),
+                open.get(),
+                settings.maxSize(),
+                borrows,
+                timeouts,
+                permits.getQueueLength(),
+                averageWaitMillis,
+                maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    public SqlTracer getTracer() {
+        return tracer;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            discard(pooled);
+        }
+        logger.info(() -> "Connection pool closed: " + getStats());
+    }
+
+    private PooledConnection takeValidIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (!pooled.isExpired(System.currentTimeMillis()) && pooled.isValid()) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+        return null;
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        Connection physical = DriverManager.getConnection(settings.url(), settings.user(), settings.password());
+        open.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        active.decrementAndGet();
+        try {
+            if (closed || pooled.isExpired(System.currentTimeMillis()) || !pooled.reset()) {
+                discard(pooled);
+            } else {
+                pooled.lastUsed = System.currentTimeMillis();
+                idle.offerFirst(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evict() {
+        long now = System.currentTimeMillis();
+        for (PooledConnection pooled : idle) {
+            boolean stale = now - pooled.lastUsed > settings.idleTimeoutMillis() || pooled.isExpired(now);
+            if (stale && idle.remove(pooled)) {
+                discard(pooled);
+            }
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        open.decrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            logger.log(Level.FINE, "Error closing pooled connection", e);
+        }
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    /**
+     * A physical connection owned by the pool.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt;
+        private volatile long lastUsed;
+
+        private PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastUsed = createdAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - createdAt > settings.maxLifetimeMillis();
+        }
+
+        private boolean isValid() {
+            try {
+                return physical.isValid(settings.validationTimeoutSeconds());
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Restores the session state a borrower may have changed.
+         *
+         * @return false if the connection is no longer usable
+         */
+        private boolean reset() {
+            try {
+                if (physical.isClosed()) {
+                    return false;
+                }
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                return true;
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        private Connection lend() {
+            AtomicBoolean returned = new AtomicBoolean();
+            InvocationHandler handler = (proxy, method, args) -> invoke(returned, method, args);
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(), new Class<?>[] { Connection.class }, handler);
+        }
+
+        private Object invoke(AtomicBoolean returned, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || physical.isClosed();
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Connection has already been returned to the pool");
+                    }
+                    try {
+                        return method.invoke(physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+
+    /**
+     * Pool configuration, usually read from {@code db.properties}.
+     */
+    public record Settings(String url, String user, String password, int maxSize, long borrowTimeoutMillis,
+            long idleTimeoutMillis, long maxLifetimeMillis, int validationTimeoutSeconds,
+            long evictionIntervalMillis) {
+
+        public static Settings fromProperties(Properties properties) throws SQLException {
+            String url = properties.getProperty("db.url");
+            String user = properties.getProperty("db.user");
+            String password = properties.getProperty("db.password");
+            if (url == null || user == null || password == null) {
+                throw new SQLException("Database connection properties are not properly configured.");
+            }
+            return new Settings(url, user, password,
+                    intProperty(properties, "db.pool.maxSize", 10),
+                    longProperty(properties, "db.pool.borrowTimeoutMs", 5_000),
+                    longProperty(properties, "db.pool.idleTimeoutMs", 300_000),
+                    longProperty(properties, "db.pool.maxLifetimeMs", 1_800_000),
+                    intProperty(properties, "db.pool.validationTimeoutSeconds", 2),
+                    longProperty(properties, "db.pool.evictionIntervalMs", 30_000));
+        }
+
+        private static int intProperty(Properties properties, String key, int defaultValue) {
+            String value = properties.getProperty(key);
+            return value != null ? Integer.parseInt(value.trim()) : defaultValue;
+        }
+
+        private static long longProperty(Properties properties, String key, long defaultValue) {
+            String value = properties.getProperty(key);
+            return value != null ? Long.parseLong(value.trim()) : defaultValue;
+        }
+    }
+
+    /**
+     * Snapshot of pool usage, used to size {@code db.pool.maxSize}.
+     */
+    public record PoolStats(int active, int idle, int open, int maxSize, long borrowCount, long timeoutCount,
+            int waitingThreads, double averageWaitMillis, double maxWaitMillis) {
+    }
+}
@@ -3,7 +3,6 @@ package model.dao.dbms;
 import java.io.IOException;
 import java.io.InputStream;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -27,24 +26,43 @@ public class DatabaseConnection {
             throw new ExceptionInInitializerError("Error loading database properties: " + e.getMessage());
         }
     }
-    private static Connection connection;
+    private static ConnectionPool pool;
 
-    public static synchronized Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            String url = properties.getProperty("db.url");
-            String user = properties.getProperty("db.user");
-            String password = properties.getProperty("db.password");
-            if (url == null || user == null || password == null) {
-                throw new SQLException("Database connection properties are not properly configured.");
-            }
-            connection = DriverManager.getConnection(url, user, password);
+    /**
+     * Returns the application-wide pool configured from {@code db.properties},
+     * creating it on first use, with SQL tracing as set by its
+     * {@code db.trace.*} keys.
+     *
+     * @return the shared connection pool
+     * @throws SQLException if the connection properties are missing
+     */
+    public static synchronized ConnectionPool getPool() throws SQLException {
+        if (pool == null) {
+            pool = new ConnectionPool(ConnectionPool.Settings.fromProperties(properties),
+                    new SqlTracer(SqlTracer.Settings.fromProperties(properties)));
         }
-        return connection;
+        return pool;
+    }
+
+    /**
+     * Borrows a connection from the shared pool. Callers must close it to give
+     * it back.
+     *
+     * @return a pooled connection
+     * @throws SQLException if no connection can be obtained
+     */
+    public static Connection getConnection() throws SQLException {
+        return getPool().borrow();
+    }
+
+    public static synchronized ConnectionPool.PoolStats getPoolStats() throws SQLException {
+        return getPool().getStats();
     }
 
-    public static synchronized void closeConnection() throws SQLException {
-        if (connection != null && !connection.isClosed()) {
-            connection.close();
+    public static synchronized void closeConnection() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -3,47 +3,64 @@ package model.dao.dbms;
 import exception.DataAccessException;
 import model.dao.*;
 
-import java.sql.Connection;
 import java.sql.SQLException;
 
+/**
+ * DAO factory backed by a relational database.
+ * All DAOs share one bounded connection pool and borrow a connection for each
+ * operation.
+ */
 public class DbmsDAOFactory implements DAOFactory {
-    @Override
-    public UserDAO getUserDAO() {
+    private final ConnectionPool pool;
+
+    public DbmsDAOFactory() {
+        this(sharedPool());
+    }
+
+    public DbmsDAOFactory(ConnectionPool pool) {
+        this.pool = pool;
+        SchemaMigrations.migrate(pool);
+    }
+
+    private static ConnectionPool sharedPool() {
         try {
-            Connection connection = DatabaseConnection.getConnection();
-            return new UserDAODBMS(connection);
+            return DatabaseConnection.getPool();
         } catch (SQLException e) {
-            throw new DataAccessException("Error creating UserDAO: " + e.getMessage(), e);
+            throw new DataAccessException("Error creating connection pool: " + e.getMessage(), e);
         }
     }
 
+    @Override
+    public UserDAO getUserDAO() {
+        return new UserDAODBMS(pool);
+    }
+
     @Override
     public MatchDAO getMatchDAO() {
-        try {
-            Connection connection = DatabaseConnection.getConnection();
-            return new MatchDAODBMS(connection);
-        } catch (SQLException e) {
-            throw new DataAccessException("Error creating MatchDAO: " + e.getMessage(), e);
-        }
+        return new MatchDAODBMS(pool);
     }
 
     @Override
     public FieldDAO getFieldDAO() {
-        try {
-            Connection connection = DatabaseConnection.getConnection();
-            return new FieldDAODBMS(connection);
-        } catch (SQLException e) {
-            throw new DataAccessException("Error creating FieldDAO: " + e.getMessage(), e);
-        }
+        return new FieldDAODBMS(pool);
     }
 
     @Override
     public NotificationDAO getNotificationDAO() {
-        try {
-            Connection connection = DatabaseConnection.getConnection();
-            return new NotificationDAODBMS(connection);
-        } catch (SQLException e) {
-            throw new DataAccessException("Error creating NotificationDAO: " + e.getMessage(), e);
-        }
+        return new NotificationDAODBMS(pool);
+    }
+
+    @Override
+    public MatchListingDAO getMatchListingDAO() {
+        return new MatchListingDAODBMS(pool);
+    }
+
+    @Override
+    public NotificationOutbox getNotificationOutbox() {
+        return new NotificationOutboxDBMS(pool);
+    }
+
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
     }
-}
\ No newline at end of file
+}
@@ -2,32 +2,57 @@ package model.dao.dbms;
 
 import exception.DataAccessException;
 import model.dao.FieldDAO;
+import model.dao.FreeSlot;
+import model.dao.FreeSlotCollector;
+import model.dao.NGramIndex;
+import model.dao.Page;
+import model.dao.PageCursor;
+import model.dao.SlotQuery;
 import model.domain.Field;
 import model.domain.MatchStatus;
 import model.domain.Sport;
-import model.domain.User;
+import model.utils.TextNormalizer;
 
 import java.sql.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Stream;
 
+/**
+ * DBMS FieldDAO. Cities are matched on the normalized city_key column and
+ * name and address search runs on the field_ngrams trigram table, both
+ * written together with the field.
+ */
 public class FieldDAODBMS implements FieldDAO {
-    private final Connection connection;
+    private static final String INSERT_FIELD = "INSERT INTO field (name, city, address, price_per_hour, sport, manager_id, city_key) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_NGRAM = "INSERT INTO field_ngrams (ngram, field_id) VALUES (?, ?)";
 
-    public FieldDAODBMS(Connection connection) {
-        this.connection = connection;
+    private record Ngram(String gram, int fieldId) {
+    }
+
+    private final ConnectionPool pool;
+
+    public FieldDAODBMS(ConnectionPool pool) {
+        this.pool = pool;
     }
 
     @Override
     public List<Field> findAll() {
         List<Field> fields = new ArrayList<>();
-        String query = "SELECT id, name, city, address, price_per_hour, sport, manager_id FROM field";
-        try (PreparedStatement stmt = connection.prepareStatement(query);
+        String query = JoinedRowMapper.FIELD_SELECT;
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query);
                 ResultSet rs = stmt.executeQuery()) {
+            JoinedRowMapper mapper = new JoinedRowMapper();
             while (rs.next()) {
-                fields.add(mapRowToField(rs));
+                fields.add(mapper.mapField(rs));
             }
         } catch (SQLException e) {
             throw new DataAccessException("Error finding all fields", e);
@@ -35,14 +60,32 @@ public class FieldDAODBMS implements FieldDAO {
         return fields;
     }
 
+    @Override
+    public Page<Field> findAll(String cursor, int limit) {
+        return findPage(null, cursor, limit);
+    }
+
+    @Override
+    public Stream<Field> streamAll() {
+        JoinedRowMapper mapper = new JoinedRowMapper();
+        return ResultSetStream.open(pool, JoinedRowMapper.FIELD_SELECT + "ORDER BY f.id", (rs, rowNo) -> {
+            if (rowNo % ResultSetStream.FETCH_SIZE == 0) {
+                // Entities are shared only within a fetched batch, keeping the scan's memory flat
+                mapper.clear();
+            }
+            return mapper.mapField(rs);
+        });
+    }
+
     @Override
     public Field findById(int id) {
-        String query = "SELECT id, name, city, address, price_per_hour, sport, manager_id FROM field WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = JoinedRowMapper.FIELD_SELECT + "WHERE f.id = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapRowToField(rs);
+                    return new JoinedRowMapper().mapField(rs);
                 }
             }
         } catch (SQLException e) {
@@ -54,12 +97,14 @@ public class FieldDAODBMS implements FieldDAO {
     @Override
     public List<Field> findByCity(String city) {
         List<Field> fields = new ArrayList<>();
-        String query = "SELECT id, name, city, address, price_per_hour, sport, manager_id FROM field WHERE city = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, city);
+        String query = JoinedRowMapper.FIELD_SELECT + "WHERE f.city_key = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, TextNormalizer.key(city));
             try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
                 while (rs.next()) {
-                    fields.add(mapRowToField(rs));
+                    fields.add(mapper.mapField(rs));
                 }
             }
         } catch (SQLException e) {
@@ -68,22 +113,64 @@ public class FieldDAODBMS implements FieldDAO {
         return fields;
     }
 
+    @Override
+    public Page<Field> findByCity(String city, String cursor, int limit) {
+        return findPage(city, cursor, limit);
+    }
+
+    /**
+     * Keyset pagination on the field id, optionally restricted to a city.
+     */
+    private Page<Field> findPage(String city, String cursor, int limit) {
+        String query = JoinedRowMapper.FIELD_SELECT + "WHERE f.id > ? "
+                + (city != null ? "AND f.city_key = ? " : "")
+                + "ORDER BY f.id LIMIT ?";
+        List<Field> fields = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            stmt.setInt(index++, PageCursor.toId(cursor));
+            if (city != null) {
+                stmt.setString(index++, TextNormalizer.key(city));
+            }
+            stmt.setInt(index, limit + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
+                while (rs.next()) {
+                    fields.add(mapper.mapField(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding page of fields", e);
+        }
+        return Page.of(fields, limit, field -> PageCursor.of(field.getId()));
+    }
+
     @Override
     public List<Field> findAvailableFields(String city, Sport sport, LocalDate date, LocalTime time) {
         List<Field> fields = new ArrayList<>();
-        String query = "SELECT f.id, f.name, f.city, f.address, f.price_per_hour, f.sport, f.manager_id FROM field f WHERE f.city = ? AND f.sport = ? "
-                +
-                "AND NOT EXISTS (SELECT 1 FROM matches m WHERE m.field_id = f.id " +
-                "AND m.date = ? AND m.time = ? AND m.status = ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setString(1, city);
+        // Every match on a field lasts the duration of the field's sport, so
+        // a booking overlaps [start, start + duration) exactly when it starts
+        // less than one duration before or after the requested start.
+        String query = JoinedRowMapper.FIELD_SELECT + "WHERE f.city_key = ? AND f.sport = ? "
+                + "AND NOT EXISTS (SELECT 1 FROM matches m WHERE m.field_id = f.id AND m.status = ? "
+                + "AND (m.date, m.time) > (?, ?) AND (m.date, m.time) < (?, ?))";
+        LocalDateTime start = LocalDateTime.of(date, time);
+        LocalDateTime earliest = start.minusMinutes(sport.getDuration());
+        LocalDateTime latest = start.plusMinutes(sport.getDuration());
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, TextNormalizer.key(city));
             stmt.setInt(2, sport.getCode());
-            stmt.setDate(3, java.sql.Date.valueOf(date));
-            stmt.setTime(4, java.sql.Time.valueOf(time));
-            stmt.setInt(5, MatchStatus.APPROVED.getCode());
+            stmt.setInt(3, MatchStatus.APPROVED.getCode());
+            stmt.setDate(4, java.sql.Date.valueOf(earliest.toLocalDate()));
+            stmt.setTime(5, java.sql.Time.valueOf(earliest.toLocalTime()));
+            stmt.setDate(6, java.sql.Date.valueOf(latest.toLocalDate()));
+            stmt.setTime(7, java.sql.Time.valueOf(latest.toLocalTime()));
             try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
                 while (rs.next()) {
-                    fields.add(mapRowToField(rs));
+                    fields.add(mapper.mapField(rs));
                 }
             }
         } catch (SQLException e) {
@@ -92,15 +179,131 @@ public class FieldDAODBMS implements FieldDAO {
         return fields;
     }
 
+    /**
+     * Reads the candidate fields and then all their approved bookings in the
+     * window with one ordered query, and scans them in memory. Bookings are
+     * looked up from one duration before the window, the longest a booking
+     * of the sport can reach into it.
+     */
+    @Override
+    public List<FreeSlot> findEarliestFreeSlots(SlotQuery query) {
+        String fieldQuery = JoinedRowMapper.FIELD_SELECT + "WHERE f.city_key = ? AND f.sport = ?"
+                + (query.maxPricePerHour() != null ? " AND f.price_per_hour <= ?" : "") + " ORDER BY f.id";
+        String bookingQuery = "SELECT m.field_id, m.date, m.time FROM matches m JOIN field f ON f.id = m.field_id "
+                + "WHERE f.city_key = ? AND f.sport = ? AND m.status = ? "
+                + "AND (m.date, m.time) > (?, ?) AND (m.date, m.time) < (?, ?) "
+                + "ORDER BY m.field_id, m.date, m.time";
+        int duration = query.sport().getDuration();
+        LocalDateTime earliest = query.from().minusMinutes(duration);
+        List<Field> fields = new ArrayList<>();
+        Map<Integer, List<FreeSlotCollector.Interval>> bookings = new HashMap<>();
+        try (Connection connection = pool.borrow()) {
+            try (PreparedStatement stmt = connection.prepareStatement(fieldQuery)) {
+                stmt.setString(1, TextNormalizer.key(query.city()));
+                stmt.setInt(2, query.sport().getCode());
+                if (query.maxPricePerHour() != null) {
+                    stmt.setDouble(3, query.maxPricePerHour());
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    JoinedRowMapper mapper = new JoinedRowMapper();
+                    while (rs.next()) {
+                        fields.add(mapper.mapField(rs));
+                    }
+                }
+            }
+            if (fields.isEmpty()) {
+                return List.of();
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(bookingQuery)) {
+                stmt.setString(1, TextNormalizer.key(query.city()));
+                stmt.setInt(2, query.sport().getCode());
+                stmt.setInt(3, MatchStatus.APPROVED.getCode());
+                stmt.setDate(4, java.sql.Date.valueOf(earliest.toLocalDate()));
+                stmt.setTime(5, java.sql.Time.valueOf(earliest.toLocalTime()));
+                stmt.setDate(6, java.sql.Date.valueOf(query.to().toLocalDate()));
+                stmt.setTime(7, java.sql.Time.valueOf(query.to().toLocalTime()));
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        LocalDateTime start = LocalDateTime.of(rs.getDate("date").toLocalDate(),
+                                rs.getTime("time").toLocalTime());
+                        bookings.computeIfAbsent(rs.getInt("field_id"), id -> new ArrayList<>())
+                                .add(FreeSlotCollector.Interval.of(start, start.plusMinutes(duration)));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding free slots in " + query.city(), e);
+        }
+        FreeSlotCollector collector = new FreeSlotCollector(query);
+        for (Field field : fields) {
+            collector.scan(field, bookings.getOrDefault(field.getId(), List.of()));
+        }
+        return collector.result();
+    }
+
+    /**
+     * Counts the shared trigrams per field in the database and loads only the
+     * best matches.
+     */
+    @Override
+    public List<Field> searchByNameOrAddress(String text, int limit) {
+        List<String> grams = List.copyOf(TextNormalizer.trigrams(text));
+        if (grams.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String rank = "SELECT field_id FROM field_ngrams WHERE ngram IN ("
+                + String.join(", ", Collections.nCopies(grams.size(), "?")) + ") "
+                + "GROUP BY field_id HAVING COUNT(*) >= ? ORDER BY COUNT(*) DESC, field_id LIMIT ?";
+        List<Integer> ids = new ArrayList<>();
+        Map<Integer, Field> byId = new HashMap<>();
+        try (Connection connection = pool.borrow()) {
+            try (PreparedStatement stmt = connection.prepareStatement(rank)) {
+                int index = 1;
+                for (String gram : grams) {
+                    stmt.setString(index++, gram);
+                }
+                stmt.setInt(index++, (int) Math.ceil(grams.size() * NGramIndex.MIN_SIMILARITY));
+                stmt.setInt(index, limit);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        ids.add(rs.getInt("field_id"));
+                    }
+                }
+            }
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            String load = JoinedRowMapper.FIELD_SELECT + "WHERE f.id IN ("
+                    + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+            try (PreparedStatement stmt = connection.prepareStatement(load)) {
+                for (int i = 0; i < ids.size(); i++) {
+                    stmt.setInt(i + 1, ids.get(i));
+                }
+                try (ResultSet rs = stmt.executeQuery()) {
+                    JoinedRowMapper mapper = new JoinedRowMapper();
+                    while (rs.next()) {
+                        Field field = mapper.mapField(rs);
+                        byId.put(field.getId(), field);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error searching fields for: " + text, e);
+        }
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
     @Override
     public List<Field> findByManagerId(int managerId) {
         List<Field> fields = new ArrayList<>();
-        String query = "SELECT id, name, city, address, price_per_hour, sport, manager_id FROM field WHERE manager_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = JoinedRowMapper.FIELD_SELECT + "WHERE f.manager_id = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, managerId);
             try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
                 while (rs.next()) {
-                    fields.add(mapRowToField(rs));
+                    fields.add(mapper.mapField(rs));
                 }
             }
         } catch (SQLException e) {
@@ -109,54 +312,90 @@ public class FieldDAODBMS implements FieldDAO {
         return fields;
     }
 
+    private static void bindInsert(PreparedStatement stmt, Field field) throws SQLException {
+        stmt.setString(1, field.getName());
+        stmt.setString(2, field.getCity());
+        stmt.setString(3, field.getAddress());
+        stmt.setDouble(4, field.getPricePerHour());
+        stmt.setInt(5, field.getSport().getCode());
+        stmt.setInt(6, field.getManager() != null ? field.getManager().getId() : 0);
+        stmt.setString(7, TextNormalizer.key(field.getCity()));
+    }
+
+    private static void insertNgrams(Connection connection, List<Field> fields) throws SQLException {
+        List<Ngram> ngrams = new ArrayList<>();
+        for (Field field : fields) {
+            TextNormalizer.trigrams(field.getName(), field.getAddress())
+                    .forEach(gram -> ngrams.add(new Ngram(gram, field.getId())));
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_NGRAM)) {
+            Batches.execute(stmt, ngrams, (statement, ngram) -> {
+                statement.setString(1, ngram.gram());
+                statement.setInt(2, ngram.fieldId());
+            });
+        }
+    }
+
     @Override
     public void save(Field field) {
-        String query = "INSERT INTO field (name, city, address, price_per_hour, sport, manager_id) VALUES (?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, field.getName());
-            stmt.setString(2, field.getCity());
-            stmt.setString(3, field.getAddress());
-            stmt.setDouble(4, field.getPricePerHour());
-            stmt.setInt(5, field.getSport().getCode());
-
-            stmt.setInt(6, field.getManager() != null ? field.getManager().getId() : 0);
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        field.setId(generatedKeys.getInt(1));
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_FIELD,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(stmt, field);
+                    int affectedRows = stmt.executeUpdate();
+                    if (affectedRows > 0) {
+                        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                field.setId(generatedKeys.getInt(1));
+                            }
+                        }
                     }
                 }
-            }
+                insertNgrams(connection, List.of(field));
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error saving field", e);
         }
     }
 
     @Override
-    public void delete(int id) {
-        String query = "DELETE FROM field WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+    public void saveAll(List<Field> fields) {
+        if (fields.isEmpty()) {
+            return;
+        }
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_FIELD,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    Batches.executeInsert(stmt, fields, FieldDAODBMS::bindInsert, Field::setId);
+                }
+                insertNgrams(connection, fields);
+                return null;
+            });
         } catch (SQLException e) {
-            throw new DataAccessException("Error deleting field with id: " + id, e);
+            throw new DataAccessException("Error saving " + fields.size() + " fields", e);
         }
     }
 
-    private Field mapRowToField(ResultSet rs) throws SQLException {
-        int managerId = rs.getInt("manager_id");
-
-        UserDAODBMS userDAO = new UserDAODBMS(connection);
-        User manager = userDAO.findById(managerId);
-
-        return new Field(
-                rs.getInt("id"),
-                rs.getString("name"),
-                rs.getString("city"),
-                rs.getString("address"),
-                rs.getDouble("price_per_hour"),
-                Sport.fromCode(rs.getInt("sport")),
-                manager);
+    @Override
+    public void delete(int id) {
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement ngrams = connection.prepareStatement(
+                        "DELETE FROM field_ngrams WHERE field_id = ?");
+                        PreparedStatement stmt = connection.prepareStatement("DELETE FROM field WHERE id = ?")) {
+                    ngrams.setInt(1, id);
+                    ngrams.executeUpdate();
+                    stmt.setInt(1, id);
+                    stmt.executeUpdate();
+                }
+                MatchListings.refreshField(connection, id);
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error deleting field with id: " + id, e);
+        }
     }
-}
\ No newline at end of file
+}
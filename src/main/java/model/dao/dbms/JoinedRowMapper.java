@@ -0,0 +1,108 @@
+package model.dao.dbms;
+
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Role;
+import model.domain.Sport;
+import model.domain.User;
+import model.utils.JsonUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps rows of match and field queries that join the field, the organizer and
+ * the field manager in the same statement.
+ * Users and fields are remembered for the lifetime of the mapper, so every
+ * distinct entity is built once per query instead of once per row.
+ */
+final class JoinedRowMapper {
+    static final String FIELD_COLUMNS = "f.id AS field_id, f.name AS field_name, f.city AS field_city, "
+            + "f.address AS field_address, f.price_per_hour AS field_price_per_hour, f.sport AS field_sport";
+    static final String MANAGER_COLUMNS = "fm.id AS manager_id, fm.username AS manager_username, "
+            + "fm.password AS manager_password, fm.name AS manager_name, fm.surname AS manager_surname, "
+            + "fm.role AS manager_role";
+    static final String ORGANIZER_COLUMNS = "o.id AS organizer_id, o.username AS organizer_username, "
+            + "o.password AS organizer_password, o.name AS organizer_name, o.surname AS organizer_surname, "
+            + "o.role AS organizer_role";
+    static final String MATCH_COLUMNS = "m.id, m.date, m.time, m.missing_players, m.status, m.joined_players";
+
+    static final String FIELD_SELECT = "SELECT " + FIELD_COLUMNS + ", " + MANAGER_COLUMNS + " FROM field f "
+            + "LEFT JOIN user fm ON fm.id = f.manager_id ";
+    static final String MATCH_SELECT = "SELECT " + MATCH_COLUMNS + ", " + ORGANIZER_COLUMNS + ", "
+            + FIELD_COLUMNS + ", " + MANAGER_COLUMNS + " FROM matches m "
+            + "LEFT JOIN user o ON o.id = m.organizer_id "
+            + "LEFT JOIN field f ON f.id = m.field_id "
+            + "LEFT JOIN user fm ON fm.id = f.manager_id ";
+
+    private final Map<Integer, User> users = new HashMap<>();
+    private final Map<Integer, Field> fields = new HashMap<>();
+
+    /**
+     * Forgets the users and fields built so far, bounding memory on long
+     * streamed scans.
+     */
+    void clear() {
+        users.clear();
+        fields.clear();
+    }
+
+    Match mapMatch(ResultSet rs) throws SQLException {
+        Match match = new Match(
+                rs.getInt("id"),
+                mapUser(rs, "organizer_"),
+                mapField(rs),
+                rs.getDate("date").toLocalDate(),
+                rs.getTime("time").toLocalTime(),
+                rs.getInt("missing_players"),
+                MatchStatus.fromCode(rs.getInt("status")));
+
+        String joinedPlayersJson = rs.getString("joined_players");
+        if (joinedPlayersJson != null) {
+            match.setJoinedPlayers(JsonUtils.jsonToList(joinedPlayersJson));
+        }
+        return match;
+    }
+
+    Field mapField(ResultSet rs) throws SQLException {
+        int fieldId = rs.getInt("field_id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        Field field = fields.get(fieldId);
+        if (field == null) {
+            field = new Field(
+                    fieldId,
+                    rs.getString("field_name"),
+                    rs.getString("field_city"),
+                    rs.getString("field_address"),
+                    rs.getDouble("field_price_per_hour"),
+                    Sport.fromCode(rs.getInt("field_sport")),
+                    mapUser(rs, "manager_"));
+            fields.put(fieldId, field);
+        }
+        return field;
+    }
+
+    private User mapUser(ResultSet rs, String prefix) throws SQLException {
+        int userId = rs.getInt(prefix + "id");
+        if (rs.wasNull()) {
+            return null;
+        }
+        User user = users.get(userId);
+        if (user == null) {
+            user = new User(
+                    userId,
+                    rs.getString(prefix + "username"),
+                    rs.getString(prefix + "password"),
+                    rs.getString(prefix + "name"),
+                    rs.getString(prefix + "surname"),
+                    Role.fromCode(rs.getInt(prefix + "role")));
+            users.put(userId, user);
+        }
+        return user;
+    }
+}
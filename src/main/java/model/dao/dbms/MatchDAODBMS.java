@@ -1,57 +1,134 @@
 package model.dao.dbms;
 
 import exception.DataAccessException;
+import model.dao.JoinResult;
 import model.dao.MatchDAO;
-import model.domain.Field;
+import model.dao.MatchKey;
+import model.dao.MatchQuery;
+import model.dao.Page;
+import model.dao.PageCursor;
 import model.domain.Match;
 import model.domain.MatchStatus;
-import model.domain.User;
+import model.domain.Notification;
+import model.domain.Sport;
 import model.utils.JsonUtils;
 
 import java.sql.*;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public class MatchDAODBMS implements MatchDAO {
-    private final Connection connection;
+    private static final String INSERT_MATCH = "INSERT INTO matches (organizer_id, field_id, date, time, missing_players, status, joined_players) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_MATCH = "UPDATE matches SET missing_players = ?, status = ?, joined_players = ? WHERE id = ?";
+    private static final String UPDATE_STATUS = "UPDATE matches SET status = ? WHERE id = ?";
+    private static final String TAKE_SLOT = "UPDATE matches SET missing_players = missing_players - 1 "
+            + "WHERE id = ? AND missing_players > 0 "
+            + "AND NOT EXISTS (SELECT 1 FROM match_players WHERE match_id = ? AND user_id = ?)";
+    private static final String INTEGRITY_VIOLATION = "23";
+    private static final Map<Integer, List<Integer>> SPORT_CODES_BY_DURATION = sportCodesByDuration();
+    private static final String EXPIRED_MATCH_IDS = expiredMatchIdsQuery();
 
-    public MatchDAODBMS(Connection connection) {
-        this.connection = connection;
+    private final ConnectionPool pool;
+
+    public MatchDAODBMS(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    private static List<Integer> ids(List<Match> matches) {
+        return matches.stream().map(Match::getId).toList();
+    }
+
+    private static List<Notification> pendingNotifications(List<Match> matches) {
+        return matches.stream().flatMap(match -> match.getPendingNotifications().stream()).toList();
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Match match) throws SQLException {
+        stmt.setInt(1, match.getOrganizer() != null ? match.getOrganizer().getId() : 0);
+        stmt.setInt(2, match.getField() != null ? match.getField().getId() : 0);
+        stmt.setDate(3, java.sql.Date.valueOf(match.getDate()));
+        stmt.setTime(4, java.sql.Time.valueOf(match.getTime()));
+        stmt.setInt(5, match.getMissingPlayers());
+        stmt.setInt(6, match.getStatus().getCode());
+        stmt.setString(7, JsonUtils.listToJson(match.getJoinedPlayers()));
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Match match) throws SQLException {
+        stmt.setInt(1, match.getMissingPlayers());
+        stmt.setInt(2, match.getStatus().getCode());
+        stmt.setString(3, JsonUtils.listToJson(match.getJoinedPlayers()));
+        stmt.setInt(4, match.getId());
     }
 
     @Override
     public void save(Match match) {
-        String query = "INSERT INTO matches (organizer_id, field_id, date, time, missing_players, status, joined_players) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-
-            stmt.setInt(1, match.getOrganizer() != null ? match.getOrganizer().getId() : 0);
-            stmt.setInt(2, match.getField() != null ? match.getField().getId() : 0);
-            stmt.setDate(3, java.sql.Date.valueOf(match.getDate()));
-            stmt.setTime(4, java.sql.Time.valueOf(match.getTime()));
-            stmt.setInt(5, match.getMissingPlayers());
-            stmt.setInt(6, match.getStatus().getCode());
-            stmt.setString(7, JsonUtils.listToJson(match.getJoinedPlayers()));
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        match.setId(generatedKeys.getInt(1));
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_MATCH,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(stmt, match);
+                    int affectedRows = stmt.executeUpdate();
+                    if (affectedRows > 0) {
+                        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                match.setId(generatedKeys.getInt(1));
+                            }
+                        }
                     }
                 }
-            }
+                insertJoinedPlayers(connection, match.getId(), new LinkedHashSet<>(match.getJoinedPlayers()));
+                MatchListings.refreshMatches(connection, List.of(match.getId()));
+                NotificationOutboxDBMS.append(connection, match.getPendingNotifications());
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error saving match", e);
         }
+        match.clearPendingNotifications();
+    }
+
+    /**
+     * Inserts all matches and their joined players in one transaction, one
+     * batch per statement.
+     */
+    @Override
+    public void saveAll(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_MATCH,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    Batches.executeInsert(stmt, matches, MatchDAODBMS::bindInsert, Match::setId);
+                }
+                insertJoinedPlayers(connection, matches);
+                MatchListings.refreshMatches(connection, ids(matches));
+                NotificationOutboxDBMS.append(connection, pendingNotifications(matches));
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saving " + matches.size() + " matches", e);
+        }
+        matches.forEach(Match::clearPendingNotifications);
     }
 
     @Override
     public Match findById(int id) {
-        String query = "SELECT id, organizer_id, field_id, date, time, missing_players, status, joined_players FROM matches WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = JoinedRowMapper.MATCH_SELECT + "WHERE m.id = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapRowToMatch(rs);
+                    return new JoinedRowMapper().mapMatch(rs);
                 }
             }
         } catch (SQLException e) {
@@ -63,12 +140,14 @@ public class MatchDAODBMS implements MatchDAO {
     @Override
     public List<Match> findByOrganizer(int organizerId) {
         List<Match> matches = new ArrayList<>();
-        String query = "SELECT id, organizer_id, field_id, date, time, missing_players, status, joined_players FROM matches WHERE organizer_id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = JoinedRowMapper.MATCH_SELECT + "WHERE m.organizer_id = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, organizerId);
             try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
                 while (rs.next()) {
-                    matches.add(mapRowToMatch(rs));
+                    matches.add(mapper.mapMatch(rs));
                 }
             }
         } catch (SQLException e) {
@@ -77,19 +156,23 @@ public class MatchDAODBMS implements MatchDAO {
         return matches;
     }
 
+    @Override
+    public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+        return findPage("m.organizer_id = ?", organizerId, cursor, limit);
+    }
+
     @Override
     public List<Match> findPendingForManager(int managerId) {
         List<Match> matches = new ArrayList<>();
-        String query = "SELECT m.id, m.organizer_id, m.field_id, m.date, m.time, m.missing_players, m.status, m.joined_players FROM matches m "
-                +
-                "JOIN field f ON m.field_id = f.id " +
-                "WHERE f.manager_id = ? AND m.status = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = JoinedRowMapper.MATCH_SELECT + "WHERE f.manager_id = ? AND m.status = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, managerId);
             stmt.setInt(2, MatchStatus.PENDING.getCode());
             try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
                 while (rs.next()) {
-                    matches.add(mapRowToMatch(rs));
+                    matches.add(mapper.mapMatch(rs));
                 }
             }
         } catch (SQLException e) {
@@ -100,49 +183,178 @@ public class MatchDAODBMS implements MatchDAO {
 
     @Override
     public void updateStatus(int matchId, MatchStatus status) {
-        String query = "UPDATE matches SET status = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, status.getCode());
-            stmt.setInt(2, matchId);
-            stmt.executeUpdate();
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(UPDATE_STATUS)) {
+                    stmt.setInt(1, status.getCode());
+                    stmt.setInt(2, matchId);
+                    stmt.executeUpdate();
+                }
+                MatchListings.refreshMatches(connection, List.of(matchId));
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error updating match status for match id: " + matchId, e);
         }
     }
 
+    @Override
+    public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+        if (statuses.isEmpty()) {
+            return;
+        }
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(UPDATE_STATUS)) {
+                    Batches.<Map.Entry<Integer, MatchStatus>>execute(stmt, statuses.entrySet(), (s, entry) -> {
+                        s.setInt(1, entry.getValue().getCode());
+                        s.setInt(2, entry.getKey());
+                    });
+                }
+                MatchListings.refreshMatches(connection, statuses.keySet());
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error updating status of " + statuses.size() + " matches", e);
+        }
+    }
+
     @Override
     public void update(Match match) {
-        String query = "UPDATE matches SET missing_players = ?, status = ?, joined_players = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, match.getMissingPlayers());
-            stmt.setInt(2, match.getStatus().getCode());
-            stmt.setString(3, JsonUtils.listToJson(match.getJoinedPlayers()));
-            stmt.setInt(4, match.getId());
-            stmt.executeUpdate();
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(UPDATE_MATCH)) {
+                    bindUpdate(stmt, match);
+                    if (stmt.executeUpdate() > 0) {
+                        syncJoinedPlayers(connection, match.getId(), match.getJoinedPlayers());
+                    }
+                }
+                MatchListings.refreshMatches(connection, List.of(match.getId()));
+                NotificationOutboxDBMS.append(connection, match.getPendingNotifications());
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error updating match with id: " + match.getId(), e);
         }
+        match.clearPendingNotifications();
     }
 
+    /**
+     * Updates all matches in one transaction. Their joined players are
+     * replaced wholesale, which costs two batches instead of one diff query
+     * per match.
+     */
     @Override
-    public List<Match> findByJoinedPlayer(int userId) {
-        List<Match> matches = new ArrayList<>();
-
-        String query = "SELECT id, organizer_id, field_id, date, time, missing_players, status, joined_players " +
-                "FROM matches WHERE joined_players LIKE ?";
+    public void updateAll(List<Match> matches) {
+        if (matches.isEmpty()) {
+            return;
+        }
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(UPDATE_MATCH);
+                        PreparedStatement players = connection.prepareStatement(
+                                "DELETE FROM match_players WHERE match_id = ?")) {
+                    Batches.execute(stmt, matches, MatchDAODBMS::bindUpdate);
+                    Batches.execute(players, matches, (s, match) -> s.setInt(1, match.getId()));
+                }
+                insertJoinedPlayers(connection, matches);
+                MatchListings.refreshMatches(connection, ids(matches));
+                NotificationOutboxDBMS.append(connection, pendingNotifications(matches));
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error updating " + matches.size() + " matches", e);
+        }
+        matches.forEach(Match::clearPendingNotifications);
+    }
 
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            String searchPattern = "%" + userId + "%";
-            stmt.setString(1, searchPattern);
+    /**
+     * Takes the slot with one conditional UPDATE, which also locks the match
+     * row until commit, so concurrent joins of the same match queue on that
+     * row instead of reading stale counts. The primary key of match_players
+     * rejects a duplicate join that slips past the NOT EXISTS check.
+     */
+    @Override
+    public JoinResult tryJoin(int matchId, int userId) {
+        try {
+            return Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(TAKE_SLOT)) {
+                    stmt.setInt(1, matchId);
+                    stmt.setInt(2, matchId);
+                    stmt.setInt(3, userId);
+                    if (stmt.executeUpdate() == 0) {
+                        return joinFailure(connection, matchId, userId);
+                    }
+                }
+                insertJoinedPlayers(connection, matchId, Set.of(userId));
+                appendJoinedPlayerJson(connection, matchId, userId);
+                MatchListings.refreshMatches(connection, List.of(matchId));
+                return JoinResult.JOINED;
+            });
+        } catch (SQLException e) {
+            if (e.getSQLState() != null && e.getSQLState().startsWith(INTEGRITY_VIOLATION)) {
+                return JoinResult.ALREADY_JOINED;
+            }
+            throw new DataAccessException("Error joining match " + matchId + " for user " + userId, e);
+        }
+    }
 
+    private static JoinResult joinFailure(Connection connection, int matchId, int userId) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT 1 FROM match_players WHERE match_id = ? AND user_id = ?")) {
+            stmt.setInt(1, matchId);
+            stmt.setInt(2, userId);
             try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
+                if (rs.next()) {
+                    return JoinResult.ALREADY_JOINED;
+                }
+            }
+        }
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT 1 FROM matches WHERE id = ?")) {
+            stmt.setInt(1, matchId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? JoinResult.FULL : JoinResult.NOT_FOUND;
+            }
+        }
+    }
 
-                    Match match = mapRowToMatch(rs);
+    /**
+     * Keeps the legacy joined_players column in join order. The row is
+     * already locked by the slot update, so the read and write cannot race.
+     */
+    private static void appendJoinedPlayerJson(Connection connection, int matchId, int userId)
+            throws SQLException {
+        List<Integer> joined = new ArrayList<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT joined_players FROM matches WHERE id = ?")) {
+            stmt.setInt(1, matchId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && rs.getString("joined_players") != null) {
+                    joined.addAll(JsonUtils.jsonToList(rs.getString("joined_players")));
+                }
+            }
+        }
+        joined.add(userId);
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "UPDATE matches SET joined_players = ? WHERE id = ?")) {
+            stmt.setString(1, JsonUtils.listToJson(joined));
+            stmt.setInt(2, matchId);
+            stmt.executeUpdate();
+        }
+    }
 
-                    if (match.getJoinedPlayers().contains(userId)) {
-                        matches.add(match);
-                    }
+    @Override
+    public List<Match> findByJoinedPlayer(int userId) {
+        List<Match> matches = new ArrayList<>();
+        String query = JoinedRowMapper.MATCH_SELECT
+                + "JOIN match_players mp ON mp.match_id = m.id WHERE mp.user_id = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
+                while (rs.next()) {
+                    matches.add(mapper.mapMatch(rs));
                 }
             }
         } catch (SQLException e) {
@@ -154,12 +366,14 @@ public class MatchDAODBMS implements MatchDAO {
     @Override
     public List<Match> findApprovedMatches() {
         List<Match> matches = new ArrayList<>();
-        String query = "SELECT id, organizer_id, field_id, date, time, missing_players, status, joined_players FROM matches WHERE status = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        String query = JoinedRowMapper.MATCH_SELECT + "WHERE m.status = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, MatchStatus.APPROVED.getCode());
             try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
                 while (rs.next()) {
-                    matches.add(mapRowToMatch(rs));
+                    matches.add(mapper.mapMatch(rs));
                 }
             }
         } catch (SQLException e) {
@@ -168,51 +382,242 @@ public class MatchDAODBMS implements MatchDAO {
         return matches;
     }
 
+    @Override
+    public Page<Match> findApprovedMatches(String cursor, int limit) {
+        return findPage("m.status = ?", MatchStatus.APPROVED.getCode(), cursor, limit);
+    }
+
+    /**
+     * Keyset pagination: resumes strictly after the cursor's (date, time, id)
+     * and reads one extra row to know whether another page follows.
+     */
+    private Page<Match> findPage(String condition, int value, String cursor, int limit) {
+        MatchKey after = PageCursor.toMatchKey(cursor);
+        String query = JoinedRowMapper.MATCH_SELECT + "WHERE " + condition
+                + (after != null ? " AND (m.date, m.time, m.id) > (?, ?, ?)" : "")
+                + " ORDER BY m.date, m.time, m.id LIMIT ?";
+        List<Match> matches = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            int index = 1;
+            stmt.setInt(index++, value);
+            if (after != null) {
+                stmt.setDate(index++, java.sql.Date.valueOf(after.date()));
+                stmt.setTime(index++, java.sql.Time.valueOf(after.time()));
+                stmt.setInt(index++, after.id());
+            }
+            stmt.setInt(index, limit + 1);
+            try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
+                while (rs.next()) {
+                    matches.add(mapper.mapMatch(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding page of matches", e);
+        }
+        return Page.of(matches, limit, PageCursor::of);
+    }
+
+    /**
+     * Translates the query into one statement: field criteria filter the
+     * joined field row (served by idx_field_city_sport and
+     * idx_matches_field_bookings), the status, organizer, dates and cursor
+     * ride the keyset indexes, and the joined-user exclusion is an anti-join
+     * on the match_players primary key.
+     */
+    @Override
+    public List<Match> find(MatchQuery query) {
+        MatchQuerySql sql = new MatchQuerySql(JoinedRowMapper.MATCH_SELECT, query, MatchQuerySql.MATCHES);
+        List<Match> matches = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(sql.sql())) {
+            sql.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                JoinedRowMapper mapper = new JoinedRowMapper();
+                while (rs.next()) {
+                    matches.add(mapper.mapMatch(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding matches for " + query, e);
+        }
+        return matches;
+    }
+
+    @Override
+    public Stream<Match> streamAll() {
+        JoinedRowMapper mapper = new JoinedRowMapper();
+        return ResultSetStream.open(pool, JoinedRowMapper.MATCH_SELECT + "ORDER BY m.id", (rs, rowNo) -> {
+            if (rowNo % ResultSetStream.FETCH_SIZE == 0) {
+                // Entities are shared only within a fetched batch, keeping the scan's memory flat
+                mapper.clear();
+            }
+            return mapper.mapMatch(rs);
+        });
+    }
+
     @Override
     public void delete(int id) {
-        String query = "DELETE FROM matches WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement players = connection.prepareStatement(
+                        "DELETE FROM match_players WHERE match_id = ?");
+                        PreparedStatement stmt = connection.prepareStatement("DELETE FROM matches WHERE id = ?")) {
+                    players.setInt(1, id);
+                    players.executeUpdate();
+                    stmt.setInt(1, id);
+                    stmt.executeUpdate();
+                }
+                MatchListings.refreshMatches(connection, List.of(id));
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error deleting match with id: " + id, e);
         }
     }
 
+    /**
+     * Selects one chunk of ended matches and deletes them with two batches
+     * in one short transaction.
+     */
     @Override
-    public void deleteExpiredMatches() {
-        String query = "DELETE FROM matches WHERE date < CURDATE()";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
-            stmt.executeUpdate();
+    public int deleteExpiredMatches(LocalDateTime now, int limit) {
+        try {
+            return Transactions.run(pool, connection -> {
+                List<Integer> expired = new ArrayList<>();
+                try (PreparedStatement stmt = connection.prepareStatement(EXPIRED_MATCH_IDS)) {
+                    stmt.setDate(1, java.sql.Date.valueOf(now.toLocalDate()));
+                    int index = 2;
+                    for (int duration : SPORT_CODES_BY_DURATION.keySet()) {
+                        LocalDateTime cutoff = now.minusMinutes(duration);
+                        stmt.setDate(index++, java.sql.Date.valueOf(cutoff.toLocalDate()));
+                        stmt.setDate(index++, java.sql.Date.valueOf(cutoff.toLocalDate()));
+                        stmt.setTime(index++, java.sql.Time.valueOf(cutoff.toLocalTime()));
+                    }
+                    stmt.setInt(index, limit);
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            expired.add(rs.getInt("id"));
+                        }
+                    }
+                }
+                try (PreparedStatement players = connection.prepareStatement(
+                        "DELETE FROM match_players WHERE match_id = ?");
+                        PreparedStatement stmt = connection.prepareStatement("DELETE FROM matches WHERE id = ?")) {
+                    Batches.execute(players, expired, (s, id) -> s.setInt(1, id));
+                    Batches.execute(stmt, expired, (s, id) -> s.setInt(1, id));
+                }
+                MatchListings.refreshMatches(connection, expired);
+                return expired.size();
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error deleting expired matches", e);
         }
     }
 
-    private Match mapRowToMatch(ResultSet rs) throws SQLException {
-        int organizerId = rs.getInt("organizer_id");
-        int fieldId = rs.getInt("field_id");
+    /**
+     * Groups sports by duration. Matches on no field are treated as lasting
+     * zero minutes, so that duration is always present.
+     */
+    private static Map<Integer, List<Integer>> sportCodesByDuration() {
+        Map<Integer, List<Integer>> codes = new TreeMap<>();
+        codes.put(0, new ArrayList<>());
+        for (Sport sport : Sport.values()) {
+            codes.computeIfAbsent(sport.getDuration(), d -> new ArrayList<>()).add(sport.getCode());
+        }
+        return codes;
+    }
 
-        UserDAODBMS userDAO = new UserDAODBMS(connection);
-        FieldDAODBMS fieldDAO = new FieldDAODBMS(connection);
+    /**
+     * A match has ended once its start is at or before now minus its sport's
+     * duration, so the query has one branch per distinct duration.
+     */
+    private static String expiredMatchIdsQuery() {
+        List<String> branches = new ArrayList<>();
+        SPORT_CODES_BY_DURATION.forEach((duration, codes) -> {
+            List<String> sports = new ArrayList<>();
+            if (duration == 0) {
+                sports.add("f.sport IS NULL");
+            }
+            if (!codes.isEmpty()) {
+                sports.add("f.sport IN (" + codes.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                        + ")");
+            }
+            branches.add("((" + String.join(" OR ", sports) + ") AND (m.date < ? OR (m.date = ? AND m.time <= ?)))");
+        });
+        // The bound on the date alone lets idx_matches_date_time skip the matches yet to come
+        return "SELECT m.id FROM matches m LEFT JOIN field f ON f.id = m.field_id WHERE m.date <= ? AND ("
+                + String.join(" OR ", branches) + ") LIMIT ?";
+    }
 
-        User organizer = organizerId != 0 ? userDAO.findById(organizerId) : null;
-        Field field = fieldId != 0 ? fieldDAO.findById(fieldId) : null;
+    /**
+     * Brings match_players in line with the given joined list, touching only
+     * the rows that changed.
+     */
+    private static void syncJoinedPlayers(Connection connection, int matchId, List<Integer> joinedPlayers)
+            throws SQLException {
+        Set<Integer> stored = new HashSet<>();
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT user_id FROM match_players WHERE match_id = ?")) {
+            stmt.setInt(1, matchId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    stored.add(rs.getInt("user_id"));
+                }
+            }
+        }
+        Set<Integer> wanted = new LinkedHashSet<>(joinedPlayers);
+        Set<Integer> added = new LinkedHashSet<>(wanted);
+        added.removeAll(stored);
+        stored.removeAll(wanted);
 
-        Match match = new Match(
-                rs.getInt("id"),
-                organizer,
-                field,
-                rs.getDate("date").toLocalDate(),
-                rs.getTime("time").toLocalTime(),
-                rs.getInt("missing_players"),
-                MatchStatus.fromCode(rs.getInt("status")));
+        insertJoinedPlayers(connection, matchId, added);
+        if (!stored.isEmpty()) {
+            try (PreparedStatement stmt = connection.prepareStatement(
+                    "DELETE FROM match_players WHERE match_id = ? AND user_id = ?")) {
+                for (Integer userId : stored) {
+                    stmt.setInt(1, matchId);
+                    stmt.setInt(2, userId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        }
+    }
 
-        String joinedPlayersJson = rs.getString("joined_players");
-        if (joinedPlayersJson != null) {
-            match.setJoinedPlayers(JsonUtils.jsonToList(joinedPlayersJson));
+    private static void insertJoinedPlayers(Connection connection, List<Match> matches) throws SQLException {
+        List<int[]> rows = new ArrayList<>();
+        for (Match match : matches) {
+            for (Integer userId : new LinkedHashSet<>(match.getJoinedPlayers())) {
+                rows.add(new int[] { match.getId(), userId });
+            }
+        }
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO match_players (match_id, user_id) VALUES (?, ?)")) {
+            Batches.execute(stmt, rows, (s, row) -> {
+                s.setInt(1, row[0]);
+                s.setInt(2, row[1]);
+            });
         }
+    }
 
-        return match;
+    private static void insertJoinedPlayers(Connection connection, int matchId, Set<Integer> userIds)
+            throws SQLException {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO match_players (match_id, user_id) VALUES (?, ?)")) {
+            for (Integer userId : userIds) {
+                stmt.setInt(1, matchId);
+                stmt.setInt(2, userId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package model.dao.dbms;
+
+import exception.DataAccessException;
+import model.dao.MatchListing;
+import model.dao.MatchListingDAO;
+import model.dao.MatchQuery;
+import model.domain.MatchStatus;
+import model.domain.Sport;
+import model.utils.JsonUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Match listings read from match_listings, one denormalized row per match
+ * kept current by the DBMS match, field and user DAOs through
+ * {@link MatchListings}. Every read is a single-table range scan of one of
+ * its indexes; only the joined-player checks probe match_players by key.
+ */
+public class MatchListingDAODBMS implements MatchListingDAO {
+    private static final String LISTING_SELECT = "SELECT " + MatchListings.COLUMNS + " FROM match_listings l ";
+    private static final String ORDER = " ORDER BY l.date, l.time, l.match_id";
+
+    private final ConnectionPool pool;
+
+    public MatchListingDAODBMS(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    private static MatchListing map(ResultSet rs) throws SQLException {
+        String joinedPlayers = rs.getString("joined_players");
+        int sport = rs.getInt("sport");
+        Sport fieldSport = rs.wasNull() ? null : Sport.fromCode(sport);
+        return new MatchListing(
+                rs.getInt("match_id"),
+                rs.getDate("date").toLocalDate(),
+                rs.getTime("time").toLocalTime(),
+                MatchStatus.fromCode(rs.getInt("status")),
+                rs.getInt("missing_players"),
+                joinedPlayers != null ? JsonUtils.jsonToList(joinedPlayers) : List.of(),
+                rs.getInt("organizer_id"),
+                rs.getString("organizer_name"),
+                rs.getInt("field_id"),
+                rs.getString("field_name"),
+                rs.getString("field_address"),
+                rs.getString("city"),
+                fieldSport,
+                rs.getDouble("price_per_hour"),
+                rs.getInt("manager_id"));
+    }
+
+    @Override
+    public MatchListing findById(int matchId) {
+        List<MatchListing> listings = query(LISTING_SELECT + "WHERE l.match_id = ?", matchId,
+                "Error finding listing of match " + matchId);
+        return listings.isEmpty() ? null : listings.get(0);
+    }
+
+    @Override
+    public List<MatchListing> find(MatchQuery query) {
+        MatchQuerySql sql = new MatchQuerySql(LISTING_SELECT, query, MatchQuerySql.LISTINGS);
+        List<MatchListing> listings = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(sql.sql())) {
+            sql.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    listings.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding listings for " + query, e);
+        }
+        return listings;
+    }
+
+    @Override
+    public List<MatchListing> findPendingForManager(int managerId) {
+        return query(LISTING_SELECT + "WHERE l.manager_id = ? AND l.status = " + MatchStatus.PENDING.getCode()
+                + ORDER, managerId, "Error finding pending listings for manager " + managerId);
+    }
+
+    @Override
+    public List<MatchListing> findByJoinedPlayer(int userId) {
+        return query(LISTING_SELECT + "WHERE l.match_id IN (SELECT match_id FROM match_players WHERE user_id = ?)"
+                + ORDER, userId, "Error finding listings joined by user " + userId);
+    }
+
+    private List<MatchListing> query(String sql, int value, String error) {
+        List<MatchListing> listings = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setInt(1, value);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    listings.add(map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException(error, e);
+        }
+        return listings;
+    }
+}
@@ -0,0 +1,74 @@
+package model.dao.dbms;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps match_listings, the denormalized read model of
+ * {@link MatchListingDAODBMS}, in line with matches, field and user.
+ * Writers call it inside their own transaction with the ids they touched;
+ * the affected rows are deleted and re-derived from the joined tables, so
+ * after commit a listing never disagrees with its sources. The DBMS user
+ * and field stores only insert rows no match refers to yet, so among their
+ * writes only a field deletion has listings to refresh.
+ */
+final class MatchListings {
+    static final String COLUMNS = "match_id, date, time, status, missing_players, joined_players, "
+            + "organizer_id, organizer_name, field_id, field_name, field_address, city, city_key, sport, "
+            + "price_per_hour, manager_id";
+    private static final String SOURCE = "SELECT m.id, m.date, m.time, m.status, m.missing_players, "
+            + "m.joined_players, m.organizer_id, "
+            + "CASE WHEN o.id IS NULL THEN NULL ELSE CONCAT(o.name, ' ', o.surname) END, "
+            + "m.field_id, f.name, f.address, f.city, f.city_key, f.sport, f.price_per_hour, f.manager_id "
+            + "FROM matches m "
+            + "LEFT JOIN user o ON o.id = m.organizer_id "
+            + "LEFT JOIN field f ON f.id = m.field_id ";
+    private static final String INSERT = "INSERT INTO match_listings (" + COLUMNS + ") " + SOURCE;
+
+    private MatchListings() {
+    }
+
+    /**
+     * Re-derives the listings of the given matches; a deleted match loses
+     * its listing.
+     */
+    static void refreshMatches(Connection connection, Collection<Integer> matchIds) throws SQLException {
+        refresh(connection, "match_id", "m.id", matchIds);
+    }
+
+    /**
+     * Re-derives the listings of every match on the field.
+     */
+    static void refreshField(Connection connection, int fieldId) throws SQLException {
+        refresh(connection, "field_id", "m.field_id", List.of(fieldId));
+    }
+
+    /**
+     * Replaces every listing, for filling the table when it is created.
+     *
+     * @return the number of listings written
+     */
+    static int rebuild(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM match_listings");
+            return stmt.executeUpdate(INSERT);
+        }
+    }
+
+    private static void refresh(Connection connection, String listingColumn, String matchColumn,
+            Collection<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement delete = connection.prepareStatement(
+                "DELETE FROM match_listings WHERE " + listingColumn + " = ?");
+                PreparedStatement insert = connection.prepareStatement(INSERT + "WHERE " + matchColumn + " = ?")) {
+            Batches.execute(delete, ids, (s, id) -> s.setInt(1, id));
+            Batches.execute(insert, ids, (s, id) -> s.setInt(1, id));
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package model.dao.dbms;
+
+import model.dao.MatchQuery;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders a {@link MatchQuery} as SQL over a table or join exposing the
+ * match columns under the names given by {@link Columns}, so the matches
+ * join and the match_listings read model answer the same criteria.
+ */
+final class MatchQuerySql {
+    static final Columns MATCHES = new Columns("m.id", "m.date", "m.time", "m.status", "m.organizer_id",
+            "f.city_key", "f.sport", "f.price_per_hour");
+    static final Columns LISTINGS = new Columns("l.match_id", "l.date", "l.time", "l.status", "l.organizer_id",
+            "l.city_key", "l.sport", "l.price_per_hour");
+
+    private final MatchQuery query;
+    private final String sql;
+    private final List<Object> params = new ArrayList<>();
+
+    record Columns(String id, String date, String time, String status, String organizerId, String cityKey,
+            String sport, String pricePerHour) {
+    }
+
+    /**
+     * @param select the SELECT and FROM part, ending with a space
+     */
+    MatchQuerySql(String select, MatchQuery query, Columns columns) {
+        this.query = query;
+        List<String> conditions = new ArrayList<>();
+        if (query.status() != null) {
+            conditions.add(columns.status() + " = ?");
+            params.add(query.status().getCode());
+        }
+        if (query.organizerId() != null) {
+            conditions.add(columns.organizerId() + " = ?");
+            params.add(query.organizerId());
+        }
+        if (query.fromDate() != null) {
+            conditions.add(columns.date() + " >= ?");
+            params.add(java.sql.Date.valueOf(query.fromDate()));
+        }
+        if (query.toDate() != null) {
+            conditions.add(columns.date() + " <= ?");
+            params.add(java.sql.Date.valueOf(query.toDate()));
+        }
+        if (query.after() != null) {
+            conditions.add("(" + columns.date() + ", " + columns.time() + ", " + columns.id() + ") > (?, ?, ?)");
+            params.add(java.sql.Date.valueOf(query.after().date()));
+            params.add(java.sql.Time.valueOf(query.after().time()));
+            params.add(query.after().id());
+        }
+        if (query.city() != null) {
+            conditions.add(columns.cityKey() + " = ?");
+            params.add(query.cityKey());
+        }
+        if (query.sport() != null) {
+            conditions.add(columns.sport() + " = ?");
+            params.add(query.sport().getCode());
+        }
+        if (query.minPricePerHour() != null) {
+            conditions.add(columns.pricePerHour() + " >= ?");
+            params.add(query.minPricePerHour());
+        }
+        if (query.maxPricePerHour() != null) {
+            conditions.add(columns.pricePerHour() + " <= ?");
+            params.add(query.maxPricePerHour());
+        }
+        if (query.excludedOrganizerId() != null) {
+            conditions.add(columns.organizerId() + " <> ?");
+            params.add(query.excludedOrganizerId());
+        }
+        if (query.excludedJoinedUserId() != null) {
+            conditions.add("NOT EXISTS (SELECT 1 FROM match_players mp WHERE mp.match_id = " + columns.id()
+                    + " AND mp.user_id = ?)");
+            params.add(query.excludedJoinedUserId());
+        }
+        this.sql = select
+                + (conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions))
+                + " ORDER BY " + columns.date() + ", " + columns.time() + ", " + columns.id()
+                + (query.limit() != MatchQuery.NO_LIMIT ? " LIMIT ?" : "");
+    }
+
+    String sql() {
+        return sql;
+    }
+
+    void bind(PreparedStatement stmt) throws SQLException {
+        int index = 1;
+        for (Object param : params) {
+            stmt.setObject(index++, param);
+        }
+        if (query.limit() != MatchQuery.NO_LIMIT) {
+            stmt.setInt(index, query.limit());
+        }
+    }
+}
@@ -7,44 +7,111 @@ import model.domain.Notification;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 /**
  * DBMS implementation of NotificationDAO.
+ * The unread count of each recipient is kept in notification_counters,
+ * updated in the transaction that saves or reads the notifications, so the
+ * badge on the dashboard costs one primary-key lookup however long the
+ * backlog is.
  */
 public class NotificationDAODBMS implements NotificationDAO {
-    private final Connection connection;
+    private static final String INSERT_NOTIFICATION = "INSERT INTO notifications (recipient_username, title, message, is_read, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String SELECT_NOTIFICATION = "SELECT id, recipient_username, title, message, is_read, "
+            + "created_at FROM notifications ";
+    private static final String ADD_UNREAD = "INSERT INTO notification_counters (recipient_username, unread) "
+            + "VALUES (?, ?) ON DUPLICATE KEY UPDATE unread = unread + ?";
 
-    public NotificationDAODBMS(Connection connection) {
-        this.connection = connection;
+    private final ConnectionPool pool;
+
+    public NotificationDAODBMS(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    private static void bindInsert(PreparedStatement stmt, Notification notification) throws SQLException {
+        stmt.setString(1, notification.getRecipientUsername());
+        stmt.setString(2, notification.getTitle());
+        stmt.setString(3, notification.getMessage());
+        stmt.setBoolean(4, notification.isRead());
+        stmt.setTimestamp(5, Timestamp.valueOf(notification.getCreatedAt()));
+    }
+
+    /**
+     * Adds the unread notifications to their recipients' counters, locking
+     * the counter rows in username order so concurrent batches cannot
+     * deadlock.
+     */
+    private static void addUnread(Connection connection, List<Notification> notifications) throws SQLException {
+        Map<String, Long> unread = notifications.stream()
+                .filter(notification -> !notification.isRead())
+                .collect(Collectors.groupingBy(Notification::getRecipientUsername, TreeMap::new,
+                        Collectors.counting()));
+        if (unread.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(ADD_UNREAD)) {
+            Batches.execute(stmt, unread.entrySet(), (s, entry) -> {
+                s.setString(1, entry.getKey());
+                s.setLong(2, entry.getValue());
+                s.setLong(3, entry.getValue());
+            });
+        }
     }
 
     @Override
     public void save(Notification notification) {
-        String query = "INSERT INTO notifications (recipient_username, title, message, is_read, created_at) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, notification.getRecipientUsername());
-            stmt.setString(2, notification.getTitle());
-            stmt.setString(3, notification.getMessage());
-            stmt.setBoolean(4, notification.isRead());
-            stmt.setTimestamp(5, Timestamp.valueOf(notification.getCreatedAt()));
-            int affectedRows = stmt.executeUpdate();
-            if (affectedRows > 0) {
-                try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        notification.setId(generatedKeys.getInt(1));
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_NOTIFICATION,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    bindInsert(stmt, notification);
+                    int affectedRows = stmt.executeUpdate();
+                    if (affectedRows > 0) {
+                        try (ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+                            if (generatedKeys.next()) {
+                                notification.setId(generatedKeys.getInt(1));
+                            }
+                        }
                     }
                 }
-            }
+                addUnread(connection, List.of(notification));
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error saving notification", e);
         }
     }
 
+    @Override
+    public void saveAll(List<Notification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
+        }
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(INSERT_NOTIFICATION,
+                        Statement.RETURN_GENERATED_KEYS)) {
+                    Batches.executeInsert(stmt, notifications, NotificationDAODBMS::bindInsert,
+                            Notification::setId);
+                }
+                addUnread(connection, notifications);
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error saving " + notifications.size() + " notifications", e);
+        }
+    }
+
     @Override
     public List<Notification> findUnreadByUsername(String username) {
-        String query = "SELECT id, recipient_username, title, message, is_read, created_at FROM notifications WHERE recipient_username = ? AND is_read = false ORDER BY created_at DESC";
+        String query = SELECT_NOTIFICATION
+                + "WHERE recipient_username = ? AND is_read = false ORDER BY created_at DESC";
         List<Notification> notifications = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             try (ResultSet rs = stmt.executeQuery()) {
                 while (rs.next()) {
@@ -58,11 +125,113 @@ public class NotificationDAODBMS implements NotificationDAO {
     }
 
     @Override
-    public void markAllAsRead(String username) {
-        String query = "UPDATE notifications SET is_read = true WHERE recipient_username = ? AND is_read = false";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+    public List<Notification> findSince(String username, int lastSeenId, int limit) {
+        String query = SELECT_NOTIFICATION
+                + "WHERE recipient_username = ? AND is_read = false AND id > ? ORDER BY id LIMIT ?";
+        List<Notification> notifications = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, username);
+            stmt.setInt(2, lastSeenId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    notifications.add(mapRowToNotification(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding notifications for " + username + " after " + lastSeenId, e);
+        }
+        return notifications;
+    }
+
+    @Override
+    public List<Notification> findLatestUnread(String username, int limit) {
+        String query = SELECT_NOTIFICATION
+                + "WHERE recipient_username = ? AND is_read = false ORDER BY id DESC LIMIT ?";
+        List<Notification> notifications = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
-            stmt.executeUpdate();
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    notifications.add(mapRowToNotification(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error finding latest notifications for: " + username, e);
+        }
+        return notifications;
+    }
+
+    @Override
+    public int countUnread(String username) {
+        String query = "SELECT unread FROM notification_counters WHERE recipient_username = ?";
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
+            stmt.setString(1, username);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error counting unread notifications for: " + username, e);
+        }
+    }
+
+    /**
+     * Resets the counter before marking the rows, so a notification saved
+     * meanwhile waits on the counter row and is counted again afterwards.
+     */
+    @Override
+    public void markAllAsRead(String username) {
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement counter = connection.prepareStatement(
+                        "UPDATE notification_counters SET unread = 0 WHERE recipient_username = ?");
+                        PreparedStatement stmt = connection.prepareStatement(
+                                "UPDATE notifications SET is_read = true WHERE recipient_username = ? "
+                                        + "AND is_read = false")) {
+                    counter.setString(1, username);
+                    counter.executeUpdate();
+                    stmt.setString(1, username);
+                    stmt.executeUpdate();
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error marking notifications as read for: " + username, e);
+        }
+    }
+
+    /**
+     * Locks the counter row first, as {@link #markAllAsRead} does, then
+     * takes off exactly the rows this call marked.
+     */
+    @Override
+    public void markReadBetween(String username, int firstId, int lastId) {
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement lock = connection.prepareStatement(
+                        "SELECT unread FROM notification_counters WHERE recipient_username = ? FOR UPDATE");
+                        PreparedStatement stmt = connection.prepareStatement(
+                                "UPDATE notifications SET is_read = true WHERE recipient_username = ? "
+                                        + "AND is_read = false AND id BETWEEN ? AND ?");
+                        PreparedStatement counter = connection.prepareStatement(
+                                "UPDATE notification_counters SET unread = GREATEST(unread - ?, 0) "
+                                        + "WHERE recipient_username = ?")) {
+                    lock.setString(1, username);
+                    lock.executeQuery().close();
+                    stmt.setString(1, username);
+                    stmt.setInt(2, firstId);
+                    stmt.setInt(3, lastId);
+                    int marked = stmt.executeUpdate();
+                    counter.setInt(1, marked);
+                    counter.setString(2, username);
+                    counter.executeUpdate();
+                }
+                return null;
+            });
         } catch (SQLException e) {
             throw new DataAccessException("Error marking notifications as read for: " + username, e);
         }
@@ -0,0 +1,146 @@
+package model.dao.dbms;
+
+import exception.DataAccessException;
+import model.dao.NotificationOutbox;
+import model.dao.OutboxEntry;
+import model.domain.Notification;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * DBMS implementation of NotificationOutbox, backed by the
+ * notification_outbox table. {@link MatchDAODBMS} writes the notifications
+ * queued on a match in the transaction that stores the match, so a match
+ * request is never committed without its notification.
+ */
+public class NotificationOutboxDBMS implements NotificationOutbox {
+    private static final String INSERT_ENTRY = "INSERT INTO notification_outbox (recipient_username, title, "
+            + "message, created_at, attempts, next_attempt_at) VALUES (?, ?, ?, ?, 0, ?)";
+    private static final String SELECT_DUE = "SELECT id, recipient_username, title, message, created_at, attempts, "
+            + "next_attempt_at FROM notification_outbox WHERE next_attempt_at <= ? ORDER BY id LIMIT ?";
+
+    private final ConnectionPool pool;
+
+    public NotificationOutboxDBMS(ConnectionPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Adds notifications due now on the caller's connection, inside the
+     * caller's transaction.
+     *
+     * @return the outbox ids of the new entries, in order
+     */
+    static List<Long> append(Connection connection, List<Notification> notifications) throws SQLException {
+        List<Long> ids = new ArrayList<>(notifications.size());
+        if (notifications.isEmpty()) {
+            return ids;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement stmt = connection.prepareStatement(INSERT_ENTRY, Statement.RETURN_GENERATED_KEYS)) {
+            Batches.executeInsert(stmt, notifications, (s, notification) -> {
+                s.setString(1, notification.getRecipientUsername());
+                s.setString(2, notification.getTitle());
+                s.setString(3, notification.getMessage());
+                s.setTimestamp(4, Timestamp.valueOf(notification.getCreatedAt()));
+                s.setTimestamp(5, now);
+            }, (notification, id) -> ids.add((long) id));
+        }
+        return ids;
+    }
+
+    @Override
+    public List<Long> append(List<Notification> notifications) {
+        try {
+            return Transactions.run(pool, connection -> append(connection, notifications));
+        } catch (SQLException e) {
+            throw new DataAccessException("Error adding " + notifications.size() + " notifications to the outbox", e);
+        }
+    }
+
+    @Override
+    public List<OutboxEntry> findDue(LocalDateTime now, int limit) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(SELECT_DUE)) {
+            stmt.setTimestamp(1, Timestamp.valueOf(now));
+            stmt.setInt(2, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(mapRowToEntry(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Error reading the notification outbox", e);
+        }
+        return entries;
+    }
+
+    @Override
+    public void remove(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "DELETE FROM notification_outbox WHERE id = ?")) {
+                    Batches.execute(stmt, ids, (s, id) -> s.setLong(1, id));
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error removing " + ids.size() + " outbox entries", e);
+        }
+    }
+
+    @Override
+    public void retryLater(Collection<Long> ids, LocalDateTime nextAttemptAt) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp next = Timestamp.valueOf(nextAttemptAt);
+        try {
+            Transactions.run(pool, connection -> {
+                try (PreparedStatement stmt = connection.prepareStatement(
+                        "UPDATE notification_outbox SET attempts = attempts + 1, next_attempt_at = ? WHERE id = ?")) {
+                    Batches.execute(stmt, ids, (s, id) -> {
+                        s.setTimestamp(1, next);
+                        s.setLong(2, id);
+                    });
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new DataAccessException("Error postponing " + ids.size() + " outbox entries", e);
+        }
+    }
+
+    @Override
+    public int size() {
+        try (Connection connection = pool.borrow();
+                Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM notification_outbox")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        } catch (SQLException e) {
+            throw new DataAccessException("Error counting outbox entries", e);
+        }
+    }
+
+    private static OutboxEntry mapRowToEntry(ResultSet rs) throws SQLException {
+        Notification notification = new Notification(rs.getString("recipient_username"), rs.getString("title"),
+                rs.getString("message"));
+        notification.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        return new OutboxEntry(rs.getLong("id"), notification, rs.getInt("attempts"),
+                rs.getTimestamp("next_attempt_at").toLocalDateTime());
+    }
+}
@@ -0,0 +1,107 @@
+package model.dao.dbms;
+
+import exception.DataAccessException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Exposes a forward-only query as a lazily consumed Stream.
+ * The pooled connection stays borrowed until the stream is closed, so
+ * callers must close it, typically with try-with-resources. Rows are fetched
+ * from the server in batches of {@link #FETCH_SIZE}.
+ */
+final class ResultSetStream {
+    static final int FETCH_SIZE = 500;
+
+    private ResultSetStream() {
+    }
+
+    @FunctionalInterface
+    interface StatementBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    @FunctionalInterface
+    interface RowReader<T> {
+        /**
+         * @param rs    the result set positioned on the row
+         * @param rowNo the zero-based number of the row
+         */
+        T read(ResultSet rs, long rowNo) throws SQLException;
+    }
+
+    static <T> Stream<T> open(ConnectionPool pool, String query, RowReader<T> reader) {
+        return open(pool, query, stmt -> {
+            // no parameters to bind
+        }, reader);
+    }
+
+    static <T> Stream<T> open(ConnectionPool pool, String query, StatementBinder binder, RowReader<T> reader) {
+        Connection connection = null;
+        PreparedStatement stmt = null;
+        ResultSet rs = null;
+        try {
+            connection = pool.borrow();
+            stmt = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            stmt.setFetchSize(FETCH_SIZE);
+            binder.bind(stmt);
+            rs = stmt.executeQuery();
+        } catch (SQLException e) {
+            DataAccessException failure = new DataAccessException("Error opening result stream: " + e.getMessage(), e);
+            try {
+                closeAll(rs, stmt, connection);
+            } catch (DataAccessException closeFailure) {
+                failure.addSuppressed(closeFailure);
+            }
+            throw failure;
+        }
+        ResultSet results = rs;
+        PreparedStatement statement = stmt;
+        Connection lent = connection;
+        Spliterator<T> rows = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private long rowNo;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                try {
+                    if (!results.next()) {
+                        return false;
+                    }
+                    action.accept(reader.read(results, rowNo++));
+                    return true;
+                } catch (SQLException e) {
+                    throw new DataAccessException("Error reading result stream: " + e.getMessage(), e);
+                }
+            }
+        };
+        return StreamSupport.stream(rows, false).onClose(() -> closeAll(results, statement, lent));
+    }
+
+    private static void closeAll(AutoCloseable... resources) {
+        DataAccessException failure = null;
+        for (AutoCloseable resource : resources) {
+            if (resource == null) {
+                continue;
+            }
+            try {
+                resource.close();
+            } catch (Exception e) {
+                if (failure == null) {
+                    failure = new DataAccessException("Error closing result stream", e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,412 @@
+package model.dao.dbms;
+
+import exception.DataAccessException;
+import model.utils.JsonUtils;
+import model.utils.TextNormalizer;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.logging.Logger;
+
+/**
+ * Idempotent schema upgrades applied when a DBMS factory is created.
+ * Each step checks whether it already ran, so it is safe to run on every
+ * start-up.
+ */
+final class SchemaMigrations {
+    private static final Logger logger = Logger.getLogger(SchemaMigrations.class.getName());
+    private static final int BATCH_SIZE = 500;
+    private static final String MATCH_PLAYERS_BACKFILL = "match_players_backfill";
+    private static final String FIELD_CITY_KEY_BACKFILL = "field_city_key_backfill";
+    private static final String FIELD_NGRAMS_BACKFILL = "field_ngrams_backfill";
+
+    /**
+     * A one-off data migration, returning how many rows it wrote.
+     */
+    @FunctionalInterface
+    private interface Backfill {
+        int run(Connection connection) throws SQLException;
+    }
+
+    private SchemaMigrations() {
+    }
+
+    static void migrate(ConnectionPool pool) {
+        try (Connection connection = pool.borrow()) {
+            createSchemaMigrations(connection);
+            createMatchPlayers(connection);
+            createIndex(connection, "matches", "idx_matches_status_keyset", "status, date, time, id");
+            createIndex(connection, "matches", "idx_matches_organizer_keyset", "organizer_id, date, time, id");
+            createIndex(connection, "matches", "idx_matches_field_bookings", "field_id, status, date, time");
+            createIndex(connection, "matches", "idx_matches_date_time", "date, time");
+            addFieldCityKey(connection);
+            createIndex(connection, "field", "idx_field_city_sport", "city_key, sport, id");
+            createFieldNgrams(connection);
+            createMatchListings(connection);
+            createIndex(connection, "match_listings", "idx_listings_status", "status, date, time, match_id");
+            createIndex(connection, "match_listings", "idx_listings_organizer", "organizer_id, date, time, match_id");
+            createIndex(connection, "match_listings", "idx_listings_city", "city_key, status, date, time");
+            createIndex(connection, "match_listings", "idx_listings_manager", "manager_id, status");
+            createIndex(connection, "match_listings", "idx_listings_field", "field_id");
+            createNotificationOutbox(connection);
+            createIndex(connection, "notifications", "idx_notifications_unread", "recipient_username, is_read, id");
+            createNotificationCounters(connection);
+        } catch (SQLException e) {
+            throw new DataAccessException("Error migrating database schema: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates schema_migrations, which records the one-off data migrations
+     * that have run, for steps whose completion cannot be told from the
+     * schema or the data.
+     */
+    private static void createSchemaMigrations(Connection connection) throws SQLException {
+        if (tableExists(connection, "schema_migrations")) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE schema_migrations ("
+                    + "name VARCHAR(100) NOT NULL PRIMARY KEY, "
+                    + "applied_at TIMESTAMP NOT NULL)");
+        }
+    }
+
+    /**
+     * Creates the match_players relation and fills it from the legacy
+     * joined_players JSON column. The copy is recorded in schema_migrations
+     * in the same transaction, so it runs exactly once: an interrupted copy
+     * is redone on the next start and a database without joined players is
+     * not scanned again.
+     */
+    private static void createMatchPlayers(Connection connection) throws SQLException {
+        if (!tableExists(connection, "match_players")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE match_players ("
+                        + "match_id INT NOT NULL, "
+                        + "user_id INT NOT NULL, "
+                        + "PRIMARY KEY (match_id, user_id))");
+                stmt.executeUpdate("CREATE INDEX idx_match_players_user ON match_players (user_id, match_id)");
+            }
+        }
+        // Databases migrated before the marker existed already hold the copy
+        int copied = runOnce(connection, MATCH_PLAYERS_BACKFILL,
+                c -> isEmpty(c, "match_players") ? copyJoinedPlayers(c) : 0);
+        if (copied > 0) {
+            logger.info(() -> "Migrated " + copied + " joined players into match_players");
+        }
+    }
+
+    /**
+     * Adds the normalized city column and fills it once for the rows that
+     * lack it; fields saved afterwards carry their key.
+     * The key is computed in Java, as accent folding is not portable SQL.
+     */
+    private static void addFieldCityKey(Connection connection) throws SQLException {
+        if (!columnExists(connection, "field", "city_key")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("ALTER TABLE field ADD COLUMN city_key VARCHAR(100)");
+            }
+        }
+        int updated = runOnce(connection, FIELD_CITY_KEY_BACKFILL, SchemaMigrations::fillCityKeys);
+        if (updated > 0) {
+            logger.info(() -> "Normalized the city of " + updated + " fields");
+        }
+    }
+
+    private static int fillCityKeys(Connection connection) throws SQLException {
+        String select = "SELECT id, city FROM field WHERE city_key IS NULL";
+        String update = "UPDATE field SET city_key = ? WHERE id = ?";
+        int updated = 0;
+        try (PreparedStatement selectStmt = connection.prepareStatement(select);
+                PreparedStatement updateStmt = connection.prepareStatement(update);
+                ResultSet rs = selectStmt.executeQuery()) {
+            while (rs.next()) {
+                updateStmt.setString(1, TextNormalizer.key(rs.getString("city")));
+                updateStmt.setInt(2, rs.getInt("id"));
+                updateStmt.addBatch();
+                if (++updated % BATCH_SIZE == 0) {
+                    updateStmt.executeBatch();
+                }
+            }
+            updateStmt.executeBatch();
+        }
+        return updated;
+    }
+
+    /**
+     * Creates the trigram index of field names and addresses and builds it
+     * once, from scratch, so a build interrupted before the marker existed
+     * is completed rather than taken for done.
+     */
+    private static void createFieldNgrams(Connection connection) throws SQLException {
+        if (!tableExists(connection, "field_ngrams")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE field_ngrams ("
+                        + "ngram VARCHAR(3) NOT NULL, "
+                        + "field_id INT NOT NULL, "
+                        + "PRIMARY KEY (ngram, field_id))");
+                stmt.executeUpdate("CREATE INDEX idx_field_ngrams_field ON field_ngrams (field_id)");
+            }
+        }
+        int copied = runOnce(connection, FIELD_NGRAMS_BACKFILL, SchemaMigrations::indexFieldNgrams);
+        if (copied > 0) {
+            logger.info(() -> "Indexed " + copied + " field trigrams");
+        }
+    }
+
+    private static int indexFieldNgrams(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("DELETE FROM field_ngrams");
+        }
+        String select = "SELECT id, name, address FROM field";
+        String insert = "INSERT INTO field_ngrams (ngram, field_id) VALUES (?, ?)";
+        int copied = 0;
+        try (PreparedStatement selectStmt = connection.prepareStatement(select);
+                PreparedStatement insertStmt = connection.prepareStatement(insert);
+                ResultSet rs = selectStmt.executeQuery()) {
+            while (rs.next()) {
+                for (String gram : TextNormalizer.trigrams(rs.getString("name"), rs.getString("address"))) {
+                    insertStmt.setString(1, gram);
+                    insertStmt.setInt(2, rs.getInt("id"));
+                    insertStmt.addBatch();
+                    if (++copied % BATCH_SIZE == 0) {
+                        insertStmt.executeBatch();
+                    }
+                }
+            }
+            insertStmt.executeBatch();
+        }
+        return copied;
+    }
+
+    /**
+     * Creates the match listings read model and fills it from the matches
+     * while it is empty.
+     */
+    private static void createMatchListings(Connection connection) throws SQLException {
+        if (!tableExists(connection, "match_listings")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE match_listings ("
+                        + "match_id INT NOT NULL PRIMARY KEY, "
+                        + "date DATE, "
+                        + "time TIME, "
+                        + "status INT, "
+                        + "missing_players INT, "
+                        + "joined_players TEXT, "
+                        + "organizer_id INT, "
+                        + "organizer_name VARCHAR(101), "
+                        + "field_id INT, "
+                        + "field_name VARCHAR(100), "
+                        + "field_address VARCHAR(200), "
+                        + "city VARCHAR(100), "
+                        + "city_key VARCHAR(100), "
+                        + "sport INT, "
+                        + "price_per_hour DOUBLE, "
+                        + "manager_id INT)");
+            }
+        }
+        if (!isEmpty(connection, "match_listings")) {
+            return;
+        }
+        connection.setAutoCommit(false);
+        try {
+            int copied = MatchListings.rebuild(connection);
+            connection.commit();
+            if (copied > 0) {
+                logger.info(() -> "Built " + copied + " match listings");
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Creates the outbox the match DAO writes notifications to, see
+     * {@link NotificationOutboxDBMS}.
+     */
+    private static void createNotificationOutbox(Connection connection) throws SQLException {
+        if (tableExists(connection, "notification_outbox")) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE notification_outbox ("
+                    + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "recipient_username VARCHAR(50), "
+                    + "title VARCHAR(100), "
+                    + "message TEXT, "
+                    + "created_at TIMESTAMP, "
+                    + "attempts INT NOT NULL DEFAULT 0, "
+                    + "next_attempt_at TIMESTAMP NOT NULL)");
+            stmt.executeUpdate("CREATE INDEX idx_outbox_due ON notification_outbox (next_attempt_at)");
+        }
+    }
+
+    /**
+     * Creates the per-recipient unread counters of
+     * {@link NotificationDAODBMS} and fills them from the unread
+     * notifications while the table is empty.
+     */
+    private static void createNotificationCounters(Connection connection) throws SQLException {
+        if (!tableExists(connection, "notification_counters")) {
+            try (Statement stmt = connection.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE notification_counters ("
+                        + "recipient_username VARCHAR(50) NOT NULL PRIMARY KEY, "
+                        + "unread INT NOT NULL DEFAULT 0)");
+            }
+        }
+        if (!isEmpty(connection, "notification_counters")) {
+            return;
+        }
+        connection.setAutoCommit(false);
+        try (Statement stmt = connection.createStatement()) {
+            int counted = stmt.executeUpdate("INSERT INTO notification_counters (recipient_username, unread) "
+                    + "SELECT recipient_username, COUNT(*) FROM notifications "
+                    + "WHERE is_read = false AND recipient_username IS NOT NULL GROUP BY recipient_username");
+            connection.commit();
+            if (counted > 0) {
+                logger.info(() -> "Counted unread notifications of " + counted + " recipients");
+            }
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static int copyJoinedPlayers(Connection connection) throws SQLException {
+        String select = "SELECT id, joined_players FROM matches WHERE joined_players IS NOT NULL";
+        String insert = "INSERT INTO match_players (match_id, user_id) VALUES (?, ?)";
+        int copied = 0;
+        try (PreparedStatement selectStmt = connection.prepareStatement(select);
+                PreparedStatement insertStmt = connection.prepareStatement(insert);
+                ResultSet rs = selectStmt.executeQuery()) {
+            while (rs.next()) {
+                int matchId = rs.getInt("id");
+                for (Integer userId : JsonUtils.jsonToList(rs.getString("joined_players")).stream()
+                        .distinct().toList()) {
+                    insertStmt.setInt(1, matchId);
+                    insertStmt.setInt(2, userId);
+                    insertStmt.addBatch();
+                    if (++copied % BATCH_SIZE == 0) {
+                        insertStmt.executeBatch();
+                    }
+                }
+            }
+            insertStmt.executeBatch();
+        }
+        return copied;
+    }
+
+    /**
+     * Creates an index unless one with the same name already exists.
+     */
+    private static void createIndex(Connection connection, String table, String index, String columns)
+            throws SQLException {
+        if (indexExists(connection, table, index)) {
+            return;
+        }
+        try (Statement stmt = connection.createStatement()) {
+            stmt.executeUpdate("CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+        logger.info(() -> "Created index " + index);
+    }
+
+    /**
+     * Runs the backfill unless schema_migrations records it, and records it
+     * in the same transaction, so an interrupted backfill is rolled back and
+     * redone on the next start.
+     *
+     * @return the rows the backfill wrote, 0 if it had already run
+     */
+    private static int runOnce(Connection connection, String migration, Backfill backfill) throws SQLException {
+        if (migrationApplied(connection, migration)) {
+            return 0;
+        }
+        connection.setAutoCommit(false);
+        try {
+            int written = backfill.run(connection);
+            recordMigration(connection, migration);
+            connection.commit();
+            return written;
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    private static boolean migrationApplied(Connection connection, String migration) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT 1 FROM schema_migrations WHERE name = ?")) {
+            stmt.setString(1, migration);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    private static void recordMigration(Connection connection, String migration) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO schema_migrations (name, applied_at) VALUES (?, CURRENT_TIMESTAMP)")) {
+            stmt.setString(1, migration);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static boolean isEmpty(Connection connection, String table) throws SQLException {
+        try (Statement stmt = connection.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT 1 FROM " + table + " LIMIT 1")) {
+            return !rs.next();
+        }
+    }
+
+    private static boolean indexExists(Connection connection, String table, String index) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] { table, table.toUpperCase() }) {
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), null, name, false, false)) {
+                while (rs.next()) {
+                    if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean columnExists(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] { table, table.toUpperCase() }) {
+            for (String columnName : new String[] { column, column.toUpperCase() }) {
+                try (ResultSet rs = metaData.getColumns(connection.getCatalog(), null, name, columnName)) {
+                    if (rs.next()) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] { table, table.toUpperCase() }) {
+            try (ResultSet rs = metaData.getTables(connection.getCatalog(), null, name, new String[] { "TABLE" })) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,521 @@
+package model.dao.dbms;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Traces the statements run on the connections of a {@link ConnectionPool}.
+ * Each execution is recorded with its SQL text, the types of its bound
+ * parameters (never their values), its row count, the time spent executing
+ * it and the time spent fetching its rows, and the controller method it ran
+ * for. Every execution is logged at FINE to {@value #TRACE_LOG}; one taking
+ * longer than {@link Settings#slowQueryMillis()} is logged at WARNING to
+ * {@value #SLOW_LOG}.
+ * <p>
+ * Statements are grouped into controller calls. A call is either the
+ * explicit {@link #scope(String)} around it, which {@code AsyncExecutor}
+ * opens for every task submitted from a controller, or else the run of
+ * statements on one thread below the same controller method with no pause
+ * longer than {@link Settings#callGapMillis()}. When a call ends, every
+ * SELECT it ran at least {@link Settings#nPlusOneThreshold()} times is
+ * reported with its count to {@value #N_PLUS_ONE_LOG}. An implicit call is
+ * only known to have ended when the thread runs its next statement, so its
+ * report may come late.
+ */
+public class SqlTracer {
+    public static final String TRACE_LOG = "sporty.sql";
+    public static final String SLOW_LOG = "sporty.sql.slow";
+    public static final String N_PLUS_ONE_LOG = "sporty.sql.nplusone";
+    public static final SqlTracer DISABLED = new SqlTracer(Settings.DISABLED);
+
+    private static final Logger traceLog = Logger.getLogger(TRACE_LOG);
+    private static final Logger slowLog = Logger.getLogger(SLOW_LOG);
+    private static final Logger nPlusOneLog = Logger.getLogger(N_PLUS_ONE_LOG);
+    private static final String CONTROLLER_PACKAGE = "controller.";
+    private static final StackWalker walker = StackWalker.getInstance();
+    private static final ThreadLocal<Call> current = new ThreadLocal<>();
+    private static volatile boolean anyEnabled;
+
+    private final Settings settings;
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder slowQueries = new LongAdder();
+    private final LongAdder nPlusOneReports = new LongAdder();
+
+    /**
+     * @param enabled            whether connections are traced at all
+     * @param slowQueryMillis    execution plus fetch time from which a
+     *                           statement goes to the slow log
+     * @param nPlusOneThreshold  executions of one SELECT within a controller
+     *                           call from which it is reported
+     * @param callGapMillis      pause after which the next statement of the
+     *                           same controller method starts a new call
+     */
+    public record Settings(boolean enabled, long slowQueryMillis, int nPlusOneThreshold, long callGapMillis) {
+        public static final Settings DISABLED = new Settings(false, 200, 10, 500);
+
+        /**
+         * Reads {@code db.trace.enabled}, {@code db.trace.slowQueryMs},
+         * {@code db.trace.nPlusOneThreshold} and {@code db.trace.callGapMs},
+         * keeping the default for any key not set; tracing is off unless
+         * enabled.
+         */
+        public static Settings fromProperties(Properties properties) {
+            return new Settings(
+                    Boolean.parseBoolean(properties.getProperty("db.trace.enabled", "false").trim()),
+                    Long.parseLong(properties.getProperty("db.trace.slowQueryMs",
+                            String.valueOf(DISABLED.slowQueryMillis())).trim()),
+                    Integer.parseInt(properties.getProperty("db.trace.nPlusOneThreshold",
+                            String.valueOf(DISABLED.nPlusOneThreshold())).trim()),
+                    Long.parseLong(properties.getProperty("db.trace.callGapMs",
+                            String.valueOf(DISABLED.callGapMillis())).trim()));
+        }
+    }
+
+    /**
+     * @param statements     executions traced
+     * @param slowQueries    executions written to the slow log
+     * @param nPlusOneReports repeated SELECTs reported
+     */
+    public record Stats(long statements, long slowQueries, long nPlusOneReports) {
+    }
+
+    /**
+     * A controller call opened by {@link #scope(String)}; closing it ends
+     * the call.
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    public SqlTracer(Settings settings) {
+        this.settings = settings;
+        if (settings.enabled()) {
+            anyEnabled = true;
+        }
+    }
+
+    public Settings getSettings() {
+        return settings;
+    }
+
+    public Stats getStats() {
+        return new Stats(statements.sum(), slowQueries.sum(), nPlusOneReports.sum());
+    }
+
+    /**
+     * @return the connection, traced if this tracer is enabled
+     */
+    Connection wrap(Connection connection) {
+        if (!settings.enabled()) {
+            return connection;
+        }
+        InvocationHandler handler = (proxy, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && !(result instanceof CallableStatement)) {
+                String sql = method.getName().equals("prepareStatement") ? (String) args[0] : null;
+                return new TracedStatement(statement, sql).proxy();
+            }
+            return result;
+        };
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, handler);
+    }
+
+    /**
+     * Opens a controller call on this thread. Scopes opened inside it join
+     * it, so only the outermost one ends the call.
+     *
+     * @param caller the controller method, as {@code Class.method}
+     */
+    public static Scope scope(String caller) {
+        Call call = current.get();
+        if (call != null && call.explicit) {
+            call.depth++;
+            return call;
+        }
+        if (call != null) {
+            call.end();
+        }
+        call = new Call(caller, true);
+        current.set(call);
+        return call;
+    }
+
+    /**
+     * Wraps work handed to another thread so its statements are counted in
+     * the controller call of the submitting thread. Returns the work as is
+     * when no tracer is enabled or no controller is on the stack.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> work) {
+        if (!anyEnabled) {
+            return work;
+        }
+        Call call = current.get();
+        String caller = call != null && call.explicit ? call.caller : findController();
+        if (caller == null) {
+            return work;
+        }
+        return () -> {
+            try (Scope ignored = scope(caller)) {
+                return work.get();
+            }
+        };
+    }
+
+    /**
+     * @return the innermost controller method on the stack, or null
+     */
+    private static String findController() {
+        return walker.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(CONTROLLER_PACKAGE))
+                .findFirst()
+                .map(frame -> describe(frame.getClassName(), frame.getMethodName()))
+                .orElse(null));
+    }
+
+    /**
+     * Names a frame {@code Class.method}, dropping the package, the suffix
+     * of nested classes and the lambda wrapper around a method's name.
+     */
+    private static String describe(String className, String methodName) {
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simpleName.indexOf('$');
+        if (nested > 0) {
+            simpleName = simpleName.substring(0, nested);
+        }
+        if (methodName.startsWith("lambda$")) {
+            int end = methodName.indexOf('$', "lambda$".length());
+            methodName = methodName.substring("lambda$".length(), end > 0 ? end : methodName.length());
+        }
+        return simpleName + "." + methodName;
+    }
+
+    private Call enterCall() {
+        Call call = current.get();
+        if (call != null && call.explicit) {
+            return call;
+        }
+        String controller = findController();
+        String caller = controller != null ? controller : "[" + Thread.currentThread().getName() + "]";
+        long now = System.nanoTime();
+        if (call != null && (!call.caller.equals(caller)
+                || now - call.lastNanos > TimeUnit.MILLISECONDS.toNanos(settings.callGapMillis()))) {
+            call.end();
+            call = null;
+        }
+        if (call == null) {
+            call = new Call(caller, false);
+            current.set(call);
+        }
+        return call;
+    }
+
+    private void finish(Execution execution) {
+        statements.increment();
+        Call call = execution.call;
+        call.record(this, execution.sql);
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(execution.executeNanos + execution.fetchNanos);
+        boolean slow = totalMillis >= settings.slowQueryMillis();
+        if (slow) {
+            slowQueries.increment();
+            slowLog.warning(() -> "Slow query in " + call.caller + ": " + execution.describe());
+        } else if (traceLog.isLoggable(Level.FINE)) {
+            traceLog.fine(call.caller + ": " + execution.describe());
+        }
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * The statements of one controller call, counted by SQL text.
+     */
+    private static final class Call implements Scope {
+        private final String caller;
+        private final boolean explicit;
+        private final Map<String, Integer> selects = new LinkedHashMap<>();
+        private SqlTracer tracer;
+        private int depth = 1;
+        private long lastNanos = System.nanoTime();
+
+        private Call(String caller, boolean explicit) {
+            this.caller = caller;
+            this.explicit = explicit;
+        }
+
+        private void record(SqlTracer by, String sql) {
+            if (tracer == null) {
+                tracer = by;
+            }
+            lastNanos = System.nanoTime();
+            if (sql != null && sql.regionMatches(true, 0, "SELECT", 0, 6)) {
+                selects.merge(sql, 1, Integer::sum);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (--depth == 0) {
+                current.remove();
+                end();
+            }
+        }
+
+        private void end() {
+            if (tracer == null) {
+                return;
+            }
+            int threshold = tracer.settings.nPlusOneThreshold();
+            selects.forEach((sql, count) -> {
+                if (count >= threshold) {
+                    tracer.nPlusOneReports.increment();
+                    nPlusOneLog.warning(() -> "Possible N+1 in " + caller + ": " + count + " executions of "
+                            + sql);
+                }
+            });
+            selects.clear();
+        }
+    }
+
+    /**
+     * One execution of a statement, finished when its rows have been read.
+     */
+    private static final class Execution {
+        private final Call call;
+        private final String sql;
+        private final String parameters;
+        private final int batchSize;
+        private long rows;
+        private long executeNanos;
+        private long fetchNanos;
+        private boolean failed;
+
+        private Execution(Call call, String sql, String parameters, int batchSize) {
+            this.call = call;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.batchSize = batchSize;
+        }
+
+        private String describe() {
+            return String.format(Locale.ROOT, "%s %s%s rows=%d execute=%.3fms fetch=%.3fms%s", sql, parameters,
+                    batchSize > 0 ? " batch=" + batchSize : "", rows, executeNanos / 1_000_000.0,
+                    fetchNanos / 1_000_000.0, failed ? " failed" : "");
+        }
+    }
+
+    /**
+     * Records the parameters bound to a statement and times its executions
+     * and the reading of their results.
+     */
+    private final class TracedStatement {
+        private final Statement target;
+        private String sql;
+        private final List<String> parameterTypes = new ArrayList<>();
+        private int batchSize;
+        private Execution pending;
+
+        private TracedStatement(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        private Statement proxy() {
+            Class<?> type = target instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, args) -> handle(method, args));
+        }
+
+        private Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                bind(index, name, args[1]);
+                return invoke(target, method, args);
+            }
+            switch (name) {
+                case "addBatch":
+                    if (args != null) {
+                        sql = (String) args[0];
+                    }
+                    batchSize++;
+                    return invoke(target, method, args);
+                case "clearBatch":
+                    batchSize = 0;
+                    return invoke(target, method, args);
+                case "executeQuery":
+                    return query(method, args);
+                case "execute":
+                    return execute(method, args);
+                case "executeUpdate":
+                case "executeLargeUpdate":
+                case "executeBatch":
+                case "executeLargeBatch":
+                    return update(method, args);
+                case "getResultSet":
+                    Object resultSet = invoke(target, method, args);
+                    return pending != null && resultSet != null ? traced((ResultSet) resultSet) : resultSet;
+                case "close":
+                    completePending();
+                    return invoke(target, method, args);
+                default:
+                    return invoke(target, method, args);
+            }
+        }
+
+        private void bind(int index, String setter, Object value) {
+            while (parameterTypes.size() < index) {
+                parameterTypes.add("?");
+            }
+            String type;
+            if (setter.equals("setNull") || value == null) {
+                type = "null";
+            } else if (setter.equals("setObject")) {
+                type = value.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+            } else {
+                type = setter.substring(3).toLowerCase(Locale.ROOT);
+            }
+            parameterTypes.set(index - 1, type);
+        }
+
+        private Execution start(Object[] args) {
+            completePending();
+            if (args != null && args.length > 0 && args[0] instanceof String text) {
+                sql = text;
+            }
+            String parameters = "(" + String.join(", ", parameterTypes) + ")";
+            return new Execution(enterCall(), sql, parameters, batchSize);
+        }
+
+        private Object query(Method method, Object[] args) throws Throwable {
+            Execution execution = start(args);
+            long begin = System.nanoTime();
+            try {
+                ResultSet resultSet = (ResultSet) invoke(target, method, args);
+                execution.executeNanos = System.nanoTime() - begin;
+                pending = execution;
+                return traced(resultSet);
+            } catch (Throwable e) {
+                execution.executeNanos = System.nanoTime() - begin;
+                execution.failed = true;
+                finish(execution);
+                throw e;
+            }
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            Execution execution = start(args);
+            long begin = System.nanoTime();
+            try {
+                boolean hasResultSet = (Boolean) invoke(target, method, args);
+                execution.executeNanos = System.nanoTime() - begin;
+                if (hasResultSet) {
+                    pending = execution;
+                } else {
+                    execution.rows = target.getUpdateCount();
+                    finish(execution);
+                }
+                return hasResultSet;
+            } catch (Throwable e) {
+                execution.executeNanos = System.nanoTime() - begin;
+                execution.failed = true;
+                finish(execution);
+                throw e;
+            }
+        }
+
+        private Object update(Method method, Object[] args) throws Throwable {
+            Execution execution = start(args);
+            batchSize = 0;
+            long begin = System.nanoTime();
+            try {
+                Object result = invoke(target, method, args);
+                execution.executeNanos = System.nanoTime() - begin;
+                execution.rows = countRows(result);
+                return result;
+            } catch (Throwable e) {
+                execution.executeNanos = System.nanoTime() - begin;
+                execution.failed = true;
+                throw e;
+            } finally {
+                finish(execution);
+            }
+        }
+
+        private static long countRows(Object result) {
+            if (result instanceof Number count) {
+                return count.longValue();
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+
+        private ResultSet traced(ResultSet resultSet) {
+            Execution execution = pending;
+            return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "next": {
+                                long begin = System.nanoTime();
+                                boolean hasRow = (Boolean) invoke(resultSet, method, args);
+                                execution.fetchNanos += System.nanoTime() - begin;
+                                if (hasRow) {
+                                    execution.rows++;
+                                }
+                                return hasRow;
+                            }
+                            case "close":
+                                try {
+                                    return invoke(resultSet, method, args);
+                                } finally {
+                                    if (pending == execution) {
+                                        completePending();
+                                    }
+                                }
+                            default:
+                                return invoke(resultSet, method, args);
+                        }
+                    });
+        }
+
+        private void completePending() {
+            if (pending != null) {
+                Execution execution = pending;
+                pending = null;
+                finish(execution);
+            }
+        }
+    }
+}
@@ -8,16 +8,17 @@ import model.domain.User;
 import java.sql.*;
 
 public class UserDAODBMS implements UserDAO {
-    private final Connection connection;
+    private final ConnectionPool pool;
 
-    public UserDAODBMS(Connection connection) {
-        this.connection = connection;
+    public UserDAODBMS(ConnectionPool pool) {
+        this.pool = pool;
     }
 
     @Override
     public User authenticate(String username, String password) {
         String query = "SELECT id, username, password, name, surname, role FROM user WHERE username = ? AND password = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             stmt.setString(2, password);
             try (ResultSet rs = stmt.executeQuery()) {
@@ -34,7 +35,8 @@ public class UserDAODBMS implements UserDAO {
     @Override
     public User findById(int id) {
         String query = "SELECT id, username, password, name, surname, role FROM user WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setInt(1, id);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -50,7 +52,8 @@ public class UserDAODBMS implements UserDAO {
     @Override
     public User findByUsername(String username) {
         String query = "SELECT id, username, password, name, surname, role FROM user WHERE username = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query)) {
             stmt.setString(1, username);
             try (ResultSet rs = stmt.executeQuery()) {
                 if (rs.next()) {
@@ -66,7 +69,8 @@ public class UserDAODBMS implements UserDAO {
     @Override
     public void save(User user) {
         String query = "INSERT INTO user (username, password, name, surname, role) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+        try (Connection connection = pool.borrow();
+                PreparedStatement stmt = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
             stmt.setString(1, user.getUsername());
             stmt.setString(2, user.getPassword());
             stmt.setString(3, user.getName());
@@ -0,0 +1,89 @@
+package model.dao.filesystem;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.domain.Field;
+import model.domain.Sport;
+import model.domain.User;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a {@link Field} field by field, in the same JSON layout
+ * Gson's reflective adapter produces, with its manager written by a
+ * {@link UserAdapter}.
+ */
+public class FieldAdapter extends TypeAdapter<Field> {
+    private final TypeAdapter<User> userAdapter;
+
+    public FieldAdapter() {
+        this(new UserAdapter());
+    }
+
+    public FieldAdapter(TypeAdapter<User> userAdapter) {
+        this.userAdapter = userAdapter;
+    }
+
+    @Override
+    public void write(JsonWriter out, Field value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        UserAdapter.writeString(out, "name", value.getName());
+        UserAdapter.writeString(out, "city", value.getCity());
+        UserAdapter.writeString(out, "address", value.getAddress());
+        out.name("pricePerHour").value(value.getPricePerHour());
+        if (value.getSport() != null) {
+            out.name("sport").value(value.getSport().name());
+        }
+        if (value.getManager() != null) {
+            out.name("manager");
+            userAdapter.write(out, value.getManager());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public Field read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        Field field = new Field();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> field.setId(in.nextInt());
+                case "name" -> field.setName(in.nextString());
+                case "city" -> field.setCity(in.nextString());
+                case "address" -> field.setAddress(in.nextString());
+                case "pricePerHour" -> field.setPricePerHour(in.nextDouble());
+                case "sport" -> field.setSport(readSport(in));
+                case "manager" -> field.setManager(userAdapter.read(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return field;
+    }
+
+    private static Sport readSport(JsonReader in) throws IOException {
+        String name = in.nextString();
+        try {
+            return Sport.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown sport " + name + " at " + in.getPath(), e);
+        }
+    }
+}
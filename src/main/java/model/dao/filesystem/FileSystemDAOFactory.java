@@ -4,6 +4,9 @@ import model.dao.*;
 
 public class FileSystemDAOFactory implements DAOFactory {
     private final DAOFactory dbmsDelegate;
+    private MatchDAOFileSystem store;
+    private MatchDAO matchDAO;
+    private FieldDAO fieldDAO;
 
     public FileSystemDAOFactory(DAOFactory dbmsDelegate) {
         this.dbmsDelegate = dbmsDelegate;
@@ -14,18 +17,46 @@ public class FileSystemDAOFactory implements DAOFactory {
         return dbmsDelegate.getUserDAO();
     }
 
+    private synchronized MatchDAOFileSystem store() {
+        // One store per factory: it owns the journal and the in-memory index
+        if (store == null) {
+            store = new MatchDAOFileSystem();
+        }
+        return store;
+    }
+
     @Override
-    public MatchDAO getMatchDAO() {
-        return new MatchDAOFileSystem();
+    public synchronized MatchDAO getMatchDAO() {
+        if (matchDAO == null) {
+            matchDAO = new OutboxMatchDAO(store(), getNotificationOutbox());
+        }
+        return matchDAO;
     }
 
+    /**
+     * Fields are kept by the delegate, but are booked by the matches of this
+     * factory's store.
+     */
     @Override
-    public FieldDAO getFieldDAO() {
-        return dbmsDelegate.getFieldDAO();
+    public synchronized FieldDAO getFieldDAO() {
+        if (fieldDAO == null) {
+            fieldDAO = new AvailabilityFieldDAO(dbmsDelegate.getFieldDAO(), store().getAvailability());
+        }
+        return fieldDAO;
     }
 
     @Override
     public NotificationDAO getNotificationDAO() {
         return dbmsDelegate.getNotificationDAO();
     }
+
+    @Override
+    public MatchListingDAO getMatchListingDAO() {
+        return new ProjectedMatchListingDAO(getMatchDAO());
+    }
+
+    @Override
+    public NotificationOutbox getNotificationOutbox() {
+        return dbmsDelegate.getNotificationOutbox();
+    }
 }
\ No newline at end of file
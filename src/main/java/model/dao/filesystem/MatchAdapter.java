@@ -0,0 +1,189 @@
+package model.dao.filesystem;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.User;
+
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes a {@link Match} without reflection, in the same JSON
+ * layout as Gson's reflective adapter with {@link LocalDateAdapter} and
+ * {@link LocalTimeAdapter}, so snapshots and journals written by either
+ * can be read by the other. Dates and times in their usual ISO form are
+ * parsed digit by digit rather than through a {@code DateTimeFormatter}.
+ * A match is built through its constructor, so reading it neither
+ * validates its missing players nor notifies observers.
+ */
+public class MatchAdapter extends TypeAdapter<Match> {
+    private final TypeAdapter<User> userAdapter;
+    private final TypeAdapter<Field> fieldAdapter;
+
+    public MatchAdapter() {
+        UserAdapter users = new UserAdapter();
+        this.userAdapter = users;
+        this.fieldAdapter = new FieldAdapter(users);
+    }
+
+    @Override
+    public void write(JsonWriter out, Match value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        if (value.getOrganizer() != null) {
+            out.name("organizer");
+            userAdapter.write(out, value.getOrganizer());
+        }
+        if (value.getField() != null) {
+            out.name("field");
+            fieldAdapter.write(out, value.getField());
+        }
+        if (value.getDate() != null) {
+            out.name("date").value(value.getDate().toString());
+        }
+        if (value.getTime() != null) {
+            out.name("time").value(value.getTime().toString());
+        }
+        out.name("missingPlayers").value(value.getMissingPlayers());
+        if (value.getStatus() != null) {
+            out.name("status").value(value.getStatus().name());
+        }
+        out.name("joinedPlayers").beginArray();
+        for (int userId : value.getJoinedPlayers()) {
+            out.value(userId);
+        }
+        out.endArray();
+        out.endObject();
+    }
+
+    @Override
+    public Match read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        int id = 0;
+        User organizer = null;
+        Field field = null;
+        LocalDate date = null;
+        LocalTime time = null;
+        int missingPlayers = 0;
+        MatchStatus status = null;
+        List<Integer> joinedPlayers = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> id = in.nextInt();
+                case "organizer" -> organizer = userAdapter.read(in);
+                case "field" -> field = fieldAdapter.read(in);
+                case "date" -> date = readDate(in);
+                case "time" -> time = readTime(in);
+                case "missingPlayers" -> missingPlayers = in.nextInt();
+                case "status" -> status = readStatus(in);
+                case "joinedPlayers" -> joinedPlayers = readIds(in);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        Match match = new Match(id, organizer, field, date, time, missingPlayers, status);
+        match.setJoinedPlayers(joinedPlayers);
+        return match;
+    }
+
+    private static List<Integer> readIds(JsonReader in) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            ids.add(in.nextInt());
+        }
+        in.endArray();
+        return ids;
+    }
+
+    private static MatchStatus readStatus(JsonReader in) throws IOException {
+        String name = in.nextString();
+        try {
+            return MatchStatus.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown match status " + name + " at " + in.getPath(), e);
+        }
+    }
+
+    /**
+     * Parses {@code yyyy-MM-dd} directly, falling back to
+     * {@link LocalDate#parse} for any other ISO form.
+     */
+    private static LocalDate readDate(JsonReader in) throws IOException {
+        String text = in.nextString();
+        try {
+            if (text.length() == 10 && text.charAt(4) == '-' && text.charAt(7) == '-') {
+                int year = digits(text, 0, 4);
+                int month = digits(text, 5, 7);
+                int day = digits(text, 8, 10);
+                if (year >= 0 && month >= 0 && day >= 0) {
+                    return LocalDate.of(year, month, day);
+                }
+            }
+            return LocalDate.parse(text);
+        } catch (DateTimeException e) {
+            throw new JsonParseException("Invalid date " + text + " at " + in.getPath(), e);
+        }
+    }
+
+    /**
+     * Parses {@code HH:mm} and {@code HH:mm:ss} directly, falling back to
+     * {@link LocalTime#parse} for fractions of a second.
+     */
+    private static LocalTime readTime(JsonReader in) throws IOException {
+        String text = in.nextString();
+        try {
+            int length = text.length();
+            if ((length == 5 || length == 8) && text.charAt(2) == ':') {
+                int hour = digits(text, 0, 2);
+                int minute = digits(text, 3, 5);
+                int second = length == 8 && text.charAt(5) == ':' ? digits(text, 6, 8) : 0;
+                if (hour >= 0 && minute >= 0 && second >= 0 && (length == 5 || text.charAt(5) == ':')) {
+                    return LocalTime.of(hour, minute, second);
+                }
+            }
+            return LocalTime.parse(text);
+        } catch (DateTimeException e) {
+            throw new JsonParseException("Invalid time " + text + " at " + in.getPath(), e);
+        }
+    }
+
+    /**
+     * @return the decimal value of {@code text[from, to)}, or -1 if it holds
+     *         anything but digits
+     */
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
@@ -2,165 +2,738 @@ package model.dao.filesystem;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
-import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import exception.DataAccessException;
+import exception.ValidationException;
+import model.dao.AvailabilityIndex;
+import model.dao.JoinResult;
 import model.dao.MatchDAO;
+import model.dao.MatchKey;
+import model.dao.MatchQuery;
+import model.dao.Page;
+import model.dao.PageCursor;
 import model.domain.Match;
 import model.domain.MatchStatus;
 
 import java.io.*;
-import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
 
+/**
+ * File system implementation of MatchDAO backed by a snapshot plus an
+ * append-only journal.
+ * The snapshot ({@code matches.json}) and the journal
+ * ({@code matches.journal}) are read once at start-up into an id-keyed index
+ * with secondary indexes on organizer, status and field manager, each sorted
+ * by {@link MatchKey} so listings come out in date order and pages can
+ * resume from a cursor. Reads are
+ * served from memory; every mutation appends one compact JSON line to the
+ * journal. A background task folds the journal into a new snapshot, written
+ * to a temporary file and atomically renamed into place.
+ * The store is single-process: the files are read only at start-up, so
+ * a second process sharing the data directory would not see this one's
+ * writes, and each one's compaction would drop the other's journal. Appends
+ * are serialized by the write lock of this instance alone.
+ * Every append is forced to disk before it returns. A new snapshot is
+ * forced to disk before it is renamed into place, and the rename is synced
+ * through the directory before the journal it replaces is deleted, so a
+ * crash at any point leaves either the old or the new state readable.
+ * The same index keeps an {@link AvailabilityIndex} of field bookings.
+ * Matches are encoded by {@link MatchAdapter} rather than by reflection.
+ * The snapshot is written compact unless pretty printing is asked for,
+ * through the constructor or the {@value #PRETTY_PRINT_PROPERTY} system
+ * property; either form is read back.
+ */
 public class MatchDAOFileSystem implements MatchDAO {
+    private static final Logger logger = Logger.getLogger(MatchDAOFileSystem.class.getName());
     private static final String DATA_FILE = "data/matches.json";
+    private static final int COMPACTION_THRESHOLD = 500;
+    private static final long COMPACTION_CHECK_SECONDS = 30;
+    public static final String PRETTY_PRINT_PROPERTY = "sporty.filesystem.prettyPrint";
+
+    private final Path snapshotFile;
+    private final Path journalFile;
+    private final Path compactingFile;
     private final Gson gson;
-    private final Type matchListType;
+    private final Gson journalGson;
+    private final MatchAdapter matchAdapter = new MatchAdapter();
     private final AtomicInteger idGenerator;
 
+    private final Map<Integer, Match> matchesById = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableSet<MatchKey>> keysByOrganizer = new ConcurrentHashMap<>();
+    private final Map<MatchStatus, NavigableSet<MatchKey>> keysByStatus = new ConcurrentHashMap<>();
+    private final Map<Integer, NavigableSet<MatchKey>> keysByManager = new ConcurrentHashMap<>();
+    private final AvailabilityIndex availability = new AvailabilityIndex(() -> matchesById.values().stream());
+
+    private final Object writeLock = new Object();
+    private final Object compactionLock = new Object();
+    private final ScheduledExecutorService compactor;
+    private FileChannel journalChannel;
+    private Writer journal;
+    private int journalRecords;
+
     public MatchDAOFileSystem() {
-        this.gson = new GsonBuilder()
+        this(Paths.get(DATA_FILE));
+    }
+
+    /**
+     * @return the bookings of the approved matches stored here
+     */
+    public AvailabilityIndex getAvailability() {
+        return availability;
+    }
+
+    public MatchDAOFileSystem(Path snapshotFile) {
+        this(snapshotFile, Boolean.getBoolean(PRETTY_PRINT_PROPERTY));
+    }
+
+    /**
+     * @param prettyPrint whether snapshots are indented for reading by hand;
+     *                    a compact snapshot is smaller and faster to write
+     */
+    public MatchDAOFileSystem(Path snapshotFile, boolean prettyPrint) {
+        this.snapshotFile = snapshotFile;
+        String baseName = snapshotFile.getFileName().toString().replaceFirst("\\.json$", "");
+        this.journalFile = snapshotFile.resolveSibling(baseName + ".journal");
+        this.compactingFile = snapshotFile.resolveSibling(baseName + ".journal.compacting");
+        GsonBuilder builder = new GsonBuilder()
                 .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
                 .registerTypeAdapter(LocalTime.class, new LocalTimeAdapter())
-                .setPrettyPrinting()
-                .create();
-        this.matchListType = new TypeToken<List<Match>>() {
-        }.getType();
+                .registerTypeAdapter(Match.class, matchAdapter);
+        this.journalGson = builder.create();
+        this.gson = prettyPrint ? builder.setPrettyPrinting().create() : journalGson;
         ensureDataFileExists();
+        loadSnapshot();
+        replayJournal(compactingFile);
+        this.journalRecords = replayJournal(journalFile);
         this.idGenerator = new AtomicInteger(getMaxId() + 1);
+        openJournal();
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sporty-match-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactIfNeeded, 0, COMPACTION_CHECK_SECONDS, TimeUnit.SECONDS);
     }
 
     private void ensureDataFileExists() {
         try {
-            java.nio.file.Path path = Paths.get(DATA_FILE);
-            if (!Files.exists(path.getParent())) {
-                Files.createDirectories(path.getParent());
+            Path parent = snapshotFile.toAbsolutePath().getParent();
+            if (!Files.exists(parent)) {
+                Files.createDirectories(parent);
             }
-            if (!Files.exists(path)) {
-                Files.createFile(path);
+            if (!Files.exists(snapshotFile)) {
                 // Write empty JSON array
-                try (FileWriter writer = new FileWriter(DATA_FILE)) {
-                    writer.write("[]");
-                }
+                Files.writeString(snapshotFile, "[]", StandardCharsets.UTF_8);
             }
         } catch (IOException e) {
-            throw new DataAccessException("Error creating data file: " + DATA_FILE, e);
+            throw new DataAccessException("Error creating data file: " + snapshotFile, e);
         }
     }
 
-    private synchronized List<Match> loadMatches() {
-        try (Reader reader = new FileReader(DATA_FILE)) {
-            List<Match> matches = gson.fromJson(reader, matchListType);
-            return matches != null ? matches : new ArrayList<>();
-        } catch (IOException e) {
+    /**
+     * Reads the snapshot one match at a time, so loading never holds the
+     * parsed array and the index at once.
+     */
+    private void loadSnapshot() {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(snapshotFile, StandardCharsets.UTF_8))) {
+            reader.beginArray();
+            while (reader.hasNext()) {
+                Match match = matchAdapter.read(reader);
+                if (match != null) {
+                    index(match);
+                }
+            }
+            reader.endArray();
+        } catch (IOException | JsonParseException | IllegalStateException e) {
             throw new DataAccessException("Error loading matches from file", e);
         }
     }
 
-    private synchronized void saveMatches(List<Match> matches) {
-        try (Writer writer = new FileWriter(DATA_FILE)) {
-            gson.toJson(matches, writer);
+    /**
+     * Applies the records of a journal file to the in-memory index.
+     * A torn last line, left by a crash in the middle of an append, is
+     * skipped.
+     *
+     * @return the number of records applied
+     */
+    private int replayJournal(Path file) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int applied = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    apply(journalGson.fromJson(line, JournalRecord.class));
+                    applied++;
+                } catch (JsonParseException e) {
+                    logger.log(Level.WARNING, "Skipping unreadable journal record in {0}", file);
+                }
+            }
         } catch (IOException e) {
-            throw new DataAccessException("Error saving matches to file", e);
+            throw new DataAccessException("Error replaying match journal: " + file, e);
+        }
+        return applied;
+    }
+
+    private void apply(JournalRecord rec) {
+        switch (rec.op) {
+            case JournalRecord.PUT -> index(rec.match);
+            case JournalRecord.DELETE -> unindex(rec.id);
+            case JournalRecord.EXPIRE -> expiredIds(rec.before).forEach(this::unindex);
+            default -> logger.log(Level.WARNING, "Unknown journal operation: {0}", rec.op);
+        }
+    }
+
+    private void openJournal() {
+        try {
+            journalChannel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+            journal = new BufferedWriter(new OutputStreamWriter(Channels.newOutputStream(journalChannel),
+                    StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new DataAccessException("Error opening match journal: " + journalFile, e);
         }
     }
 
     private int getMaxId() {
-        List<Match> matches = loadMatches();
-        return matches.stream()
-                .mapToInt(Match::getId)
+        return matchesById.keySet().stream()
+                .mapToInt(Integer::intValue)
                 .max()
                 .orElse(0);
     }
 
+    /**
+     * Appends a record to the journal and applies it to the index. Callers
+     * hold the write lock, so the journal order matches the index order.
+     */
+    private void append(JournalRecord rec) {
+        appendAll(List.of(rec));
+    }
+
+    /**
+     * Appends several records with a single flush and sync, so a batch
+     * costs one write to the disk.
+     */
+    private void appendAll(List<JournalRecord> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+        try {
+            for (JournalRecord rec : records) {
+                journalGson.toJson(rec, JournalRecord.class, journal);
+                journal.write('\n');
+            }
+            journal.flush();
+            journalChannel.force(false);
+        } catch (IOException | JsonIOException e) {
+            throw new DataAccessException("Error appending to match journal", e);
+        }
+        records.forEach(this::apply);
+        journalRecords += records.size();
+    }
+
+    private void index(Match match) {
+        Match stored = copyOf(match);
+        Match previous = matchesById.put(stored.getId(), stored);
+        if (previous != null) {
+            removeFromSecondaryIndexes(previous);
+        }
+        MatchKey key = MatchKey.of(stored);
+        addTo(keysByOrganizer, organizerId(stored), key);
+        addTo(keysByStatus, stored.getStatus(), key);
+        addTo(keysByManager, managerId(stored), key);
+        availability.put(stored);
+    }
+
+    private void unindex(int id) {
+        Match previous = matchesById.remove(id);
+        if (previous != null) {
+            removeFromSecondaryIndexes(previous);
+        }
+        availability.remove(id);
+    }
+
+    private void removeFromSecondaryIndexes(Match match) {
+        MatchKey key = MatchKey.of(match);
+        removeFrom(keysByOrganizer, organizerId(match), key);
+        removeFrom(keysByStatus, match.getStatus(), key);
+        removeFrom(keysByManager, managerId(match), key);
+    }
+
+    private static <K> void addTo(Map<K, NavigableSet<MatchKey>> index, K key, MatchKey matchKey) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>()).add(matchKey);
+        }
+    }
+
+    private static <K> void removeFrom(Map<K, NavigableSet<MatchKey>> index, K key, MatchKey matchKey) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, keys) -> {
+                keys.remove(matchKey);
+                return keys.isEmpty() ? null : keys;
+            });
+        }
+    }
+
+    private static Integer organizerId(Match match) {
+        return match.getOrganizer() != null ? match.getOrganizer().getId() : null;
+    }
+
+    private static Integer managerId(Match match) {
+        return match.getField() != null && match.getField().getManager() != null
+                ? match.getField().getManager().getId()
+                : null;
+    }
+
+    /**
+     * Stored matches are private copies, so callers mutating a returned match
+     * cannot change the index behind the journal's back.
+     */
+    private static Match copyOf(Match match) {
+        Match copy = new Match(match.getId(), match.getOrganizer(), match.getField(), match.getDate(),
+                match.getTime(), match.getMissingPlayers(), match.getStatus());
+        copy.setJoinedPlayers(new ArrayList<>(match.getJoinedPlayers()));
+        return copy;
+    }
+
+    private List<Match> lookup(NavigableSet<MatchKey> keys) {
+        if (keys == null) {
+            return List.of();
+        }
+        List<Match> result = new ArrayList<>(keys.size());
+        for (MatchKey key : keys) {
+            Match match = matchesById.get(key.id());
+            if (match != null) {
+                result.add(copyOf(match));
+            }
+        }
+        return result;
+    }
+
+    private Page<Match> lookupPage(NavigableSet<MatchKey> keys, String cursor, int limit) {
+        if (keys == null) {
+            return new Page<>(List.of(), null);
+        }
+        MatchKey after = PageCursor.toMatchKey(cursor);
+        List<Match> rows = new ArrayList<>(limit + 1);
+        for (MatchKey key : after != null ? keys.tailSet(after, false) : keys) {
+            Match match = matchesById.get(key.id());
+            if (match != null) {
+                rows.add(copyOf(match));
+                if (rows.size() > limit) {
+                    break;
+                }
+            }
+        }
+        return Page.of(rows, limit, PageCursor::of);
+    }
+
+    private List<Integer> expiredIds(LocalDate before) {
+        return matchesById.values().stream()
+                .filter(m -> m.getDate() != null && m.getDate().isBefore(before))
+                .map(Match::getId)
+                .toList();
+    }
+
+    private void compactIfNeeded() {
+        boolean due;
+        synchronized (writeLock) {
+            due = journalRecords >= COMPACTION_THRESHOLD || (journalRecords > 0 && Files.exists(compactingFile));
+        }
+        if (due) {
+            try {
+                compact();
+            } catch (DataAccessException e) {
+                logger.log(Level.WARNING, "Match journal compaction failed", e);
+            }
+        }
+    }
+
+    /**
+     * Folds the journal into a new snapshot.
+     * The journal is rotated under the write lock so that appends can continue
+     * while the snapshot is written; the rotated segment is deleted only after
+     * the new snapshot has been renamed into place.
+     */
+    public void compact() {
+        synchronized (compactionLock) {
+            List<Match> snapshot;
+            synchronized (writeLock) {
+                try {
+                    journal.close();
+                    if (Files.exists(compactingFile)) {
+                        // A previous compaction did not finish: keep its records ahead of the new ones.
+                        appendDurably(compactingFile, Files.readAllBytes(journalFile));
+                        Files.delete(journalFile);
+                    } else {
+                        Files.move(journalFile, compactingFile, StandardCopyOption.ATOMIC_MOVE);
+                    }
+                    syncDirectory();
+                } catch (IOException e) {
+                    throw new DataAccessException("Error rotating match journal", e);
+                } finally {
+                    openJournal();
+                }
+                journalRecords = 0;
+                snapshot = new ArrayList<>(matchesById.values());
+            }
+            snapshot.sort(Comparator.comparingInt(Match::getId));
+            writeSnapshot(snapshot);
+            try {
+                Files.deleteIfExists(compactingFile);
+                syncDirectory();
+            } catch (IOException e) {
+                throw new DataAccessException("Error removing compacted match journal", e);
+            }
+        }
+    }
+
+    private void writeSnapshot(List<Match> matches) {
+        Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+                JsonWriter writer = gson.newJsonWriter(new BufferedWriter(new OutputStreamWriter(
+                        Channels.newOutputStream(channel), StandardCharsets.UTF_8)))) {
+            writer.beginArray();
+            for (Match match : matches) {
+                matchAdapter.write(writer, match);
+            }
+            writer.endArray();
+            writer.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new DataAccessException("Error saving matches to file", e);
+        }
+        try {
+            Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory();
+        } catch (IOException e) {
+            throw new DataAccessException("Error replacing match snapshot", e);
+        }
+    }
+
+    private static void appendDurably(Path file, byte[] bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Syncs the data directory, so the renames and deletions made in it
+     * survive a crash. Some platforms cannot open a directory for syncing;
+     * there the file system orders metadata updates itself.
+     */
+    private void syncDirectory() {
+        Path directory = snapshotFile.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.log(Level.FINE, "Cannot sync directory " + directory, e);
+        }
+    }
+
+    /**
+     * Compacts the journal and releases the file handles.
+     */
+    public void close() {
+        compactor.shutdownNow();
+        compact();
+        synchronized (writeLock) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                throw new DataAccessException("Error closing match journal", e);
+            }
+        }
+    }
+
     @Override
     public void save(Match match) {
-        List<Match> matches = loadMatches();
-        if (match.getId() == 0) {
-            match.setId(idGenerator.getAndIncrement());
+        synchronized (writeLock) {
+            if (match.getId() == 0) {
+                match.setId(idGenerator.getAndIncrement());
+            }
+            append(JournalRecord.put(match));
+        }
+    }
+
+    @Override
+    public void saveAll(List<Match> matches) {
+        synchronized (writeLock) {
+            List<JournalRecord> records = new ArrayList<>(matches.size());
+            for (Match match : matches) {
+                if (match.getId() == 0) {
+                    match.setId(idGenerator.getAndIncrement());
+                }
+                records.add(JournalRecord.put(match));
+            }
+            appendAll(records);
         }
-        matches.add(match);
-        saveMatches(matches);
     }
 
     @Override
     public Match findById(int id) {
-        return loadMatches().stream()
-                .filter(m -> m.getId() == id)
-                .findFirst()
-                .orElse(null);
+        Match match = matchesById.get(id);
+        return match != null ? copyOf(match) : null;
     }
 
     @Override
     public List<Match> findByOrganizer(int organizerId) {
-        return loadMatches().stream()
-                .filter(m -> m.getOrganizer() != null && m.getOrganizer().getId() == organizerId)
-                .toList();
+        return lookup(keysByOrganizer.get(organizerId));
+    }
+
+    @Override
+    public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+        return lookupPage(keysByOrganizer.get(organizerId), cursor, limit);
     }
 
     @Override
     public List<Match> findPendingForManager(int managerId) {
-        return loadMatches().stream()
+        return lookup(keysByManager.get(managerId)).stream()
                 .filter(m -> m.getStatus() == MatchStatus.PENDING)
-                .filter(m -> m.getField() != null && m.getField().getManager() != null &&
-                        m.getField().getManager().getId() == managerId)
                 .toList();
     }
 
     @Override
     public List<Match> findApprovedMatches() {
-        return loadMatches().stream()
-                .filter(m -> m.getStatus() == MatchStatus.APPROVED)
-                .toList();
+        return lookup(keysByStatus.get(MatchStatus.APPROVED));
+    }
+
+    @Override
+    public Page<Match> findApprovedMatches(String cursor, int limit) {
+        return lookupPage(keysByStatus.get(MatchStatus.APPROVED), cursor, limit);
+    }
+
+    /**
+     * Walks the date range of the organizer or status index, or of every
+     * match in listing order when neither is given, from the cursor on, and
+     * copies only the matches that pass.
+     */
+    @Override
+    public List<Match> find(MatchQuery query) {
+        NavigableSet<MatchKey> keys;
+        if (query.organizerId() != null) {
+            keys = keysByOrganizer.get(query.organizerId());
+        } else if (query.status() != null) {
+            keys = keysByStatus.get(query.status());
+        } else {
+            keys = new TreeSet<>();
+            matchesById.values().forEach(match -> keys.add(MatchKey.of(match)));
+        }
+        if (keys == null || query.limit() == 0) {
+            return List.of();
+        }
+        List<Match> result = new ArrayList<>();
+        NavigableSet<MatchKey> candidates = MatchKey.inDateRange(keys, query.fromDate(), query.toDate());
+        for (MatchKey key : query.after() != null ? candidates.tailSet(query.after(), false) : candidates) {
+            Match match = matchesById.get(key.id());
+            if (match != null && query.matches(match)) {
+                result.add(copyOf(match));
+                if (result.size() == query.limit()) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Streams copies of the stored matches one at a time; the stream holds no
+     * file open and closing it is a no-op.
+     */
+    @Override
+    public Stream<Match> streamAll() {
+        return matchesById.values().stream().map(MatchDAOFileSystem::copyOf);
     }
 
     @Override
     public void updateStatus(int matchId, MatchStatus status) {
-        List<Match> matches = loadMatches();
-        matches.stream()
-                .filter(m -> m.getId() == matchId)
-                .findFirst()
-                .ifPresent(m -> m.setStatus(status));
-        saveMatches(matches);
+        synchronized (writeLock) {
+            Match match = matchesById.get(matchId);
+            if (match != null) {
+                Match updated = copyOf(match);
+                updated.setStatus(status);
+                append(JournalRecord.put(updated));
+            }
+        }
+    }
+
+    @Override
+    public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+        synchronized (writeLock) {
+            List<JournalRecord> records = new ArrayList<>(statuses.size());
+            statuses.forEach((matchId, status) -> {
+                Match match = matchesById.get(matchId);
+                if (match != null) {
+                    Match updated = copyOf(match);
+                    updated.setStatus(status);
+                    records.add(JournalRecord.put(updated));
+                }
+            });
+            appendAll(records);
+        }
     }
 
     @Override
     public void delete(int id) {
-        List<Match> matches = loadMatches();
-        matches.removeIf(m -> m.getId() == id);
-        saveMatches(matches);
+        synchronized (writeLock) {
+            if (matchesById.containsKey(id)) {
+                append(JournalRecord.delete(id));
+            }
+        }
     }
 
+    /**
+     * Finds the expired matches without the write lock, walking only the
+     * matches that started by {@code now}, then takes the lock to re-check
+     * them and write one delete record each, all in a single append.
+     */
     @Override
-    public void deleteExpiredMatches() {
-        List<Match> matches = loadMatches();
-        LocalDate today = LocalDate.now();
-        matches.removeIf(m -> m.getDate() != null && m.getDate().isBefore(today));
-        saveMatches(matches);
+    public int deleteExpiredMatches(LocalDateTime now, int limit) {
+        List<Integer> candidates = new ArrayList<>(limit);
+        for (NavigableSet<MatchKey> keys : keysByStatus.values()) {
+            for (MatchKey key : MatchKey.startedBy(keys, now)) {
+                if (candidates.size() == limit) {
+                    break;
+                }
+                Match match = matchesById.get(key.id());
+                if (match != null && match.hasEndedBy(now)) {
+                    candidates.add(key.id());
+                }
+            }
+        }
+        synchronized (writeLock) {
+            List<JournalRecord> records = candidates.stream()
+                    .filter(id -> {
+                        Match match = matchesById.get(id);
+                        return match != null && match.hasEndedBy(now);
+                    })
+                    .map(JournalRecord::delete)
+                    .toList();
+            appendAll(records);
+            return records.size();
+        }
     }
 
     @Override
     public void update(Match match) {
-        List<Match> matches = loadMatches();
-        for (int i = 0; i < matches.size(); i++) {
-            if (matches.get(i).getId() == match.getId()) {
-                matches.set(i, match);
-                saveMatches(matches);
-                return;
+        synchronized (writeLock) {
+            if (matchesById.containsKey(match.getId())) {
+                append(JournalRecord.put(match));
             }
         }
     }
 
+    @Override
+    public void updateAll(List<Match> matches) {
+        synchronized (writeLock) {
+            appendAll(matches.stream()
+                    .filter(match -> matchesById.containsKey(match.getId()))
+                    .map(JournalRecord::put)
+                    .toList());
+        }
+    }
+
+    /**
+     * Checks and appends under the write lock, so the in-memory state the
+     * check reads is the state the journal record extends.
+     */
+    @Override
+    public JoinResult tryJoin(int matchId, int userId) {
+        synchronized (writeLock) {
+            Match match = matchesById.get(matchId);
+            if (match == null) {
+                return JoinResult.NOT_FOUND;
+            }
+            if (match.isUserJoined(userId)) {
+                return JoinResult.ALREADY_JOINED;
+            }
+            if (match.getMissingPlayers() <= 0) {
+                return JoinResult.FULL;
+            }
+            Match updated = copyOf(match);
+            try {
+                updated.addJoinedPlayer(userId);
+            } catch (ValidationException e) {
+                return JoinResult.FULL;
+            }
+            append(JournalRecord.put(updated));
+            return JoinResult.JOINED;
+        }
+    }
+
     @Override
     public List<Match> findByJoinedPlayer(int userId) {
-        return loadMatches().stream()
+        return matchesById.values().stream()
                 .filter(m -> m.getJoinedPlayers().contains(userId))
+                .map(MatchDAOFileSystem::copyOf)
                 .toList();
     }
-}
\ No newline at end of file
+
+    /**
+     * One line of the journal.
+     */
+    private static final class JournalRecord {
+        private static final String PUT = "PUT";
+        private static final String DELETE = "DELETE";
+        // Written by earlier versions, which expired whole days in one record
+        private static final String EXPIRE = "EXPIRE";
+
+        private String op;
+        private Match match;
+        private int id;
+        private LocalDate before;
+
+        private static JournalRecord put(Match match) {
+            JournalRecord rec = new JournalRecord();
+            rec.op = PUT;
+            rec.match = match;
+            return rec;
+        }
+
+        private static JournalRecord delete(int id) {
+            JournalRecord rec = new JournalRecord();
+            rec.op = DELETE;
+            rec.id = id;
+            return rec;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package model.dao.filesystem;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import model.domain.Role;
+import model.domain.User;
+
+import java.io.IOException;
+
+/**
+ * Reads and writes a {@link User} field by field, in the same JSON layout
+ * Gson's reflective adapter produces: the role by name and no member for a
+ * null value. Unknown members are skipped.
+ */
+public class UserAdapter extends TypeAdapter<User> {
+
+    @Override
+    public void write(JsonWriter out, User value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        out.name("id").value(value.getId());
+        writeString(out, "username", value.getUsername());
+        writeString(out, "password", value.getPassword());
+        writeString(out, "name", value.getName());
+        writeString(out, "surname", value.getSurname());
+        if (value.getRole() != null) {
+            out.name("role").value(value.getRole().name());
+        }
+        out.endObject();
+    }
+
+    @Override
+    public User read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        User user = new User();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                continue;
+            }
+            switch (name) {
+                case "id" -> user.setId(in.nextInt());
+                case "username" -> user.setUsername(in.nextString());
+                case "password" -> user.setPassword(in.nextString());
+                case "name" -> user.setName(in.nextString());
+                case "surname" -> user.setSurname(in.nextString());
+                case "role" -> user.setRole(readRole(in));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+        return user;
+    }
+
+    private static Role readRole(JsonReader in) throws IOException {
+        String name = in.nextString();
+        try {
+            return Role.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException("Unknown role " + name + " at " + in.getPath(), e);
+        }
+    }
+
+    static void writeString(JsonWriter out, String name, String value) throws IOException {
+        if (value != null) {
+            out.name(name).value(value);
+        }
+    }
+}
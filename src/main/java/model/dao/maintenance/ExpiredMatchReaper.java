@@ -0,0 +1,142 @@
+package model.dao.maintenance;
+
+import model.dao.MatchDAO;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Deletes expired matches in the background, so no user-facing request
+ * pays for the scan.
+ * Each run deletes in chunks of {@link Settings#chunkSize()}, one DAO call
+ * per chunk, until a chunk comes back short; other writers interleave
+ * between chunks. Runs are timed and counted, see {@link #getStats()}.
+ */
+public class ExpiredMatchReaper implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ExpiredMatchReaper.class.getName());
+
+    private final MatchDAO matchDAO;
+    private final Settings settings;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder deleted = new LongAdder();
+    private final AtomicLong lastDeleted = new AtomicLong();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong maxRunMillis = new AtomicLong();
+
+    /**
+     * @param intervalMillis delay between the end of a run and the next one
+     * @param chunkSize      the maximum number of matches deleted per DAO call
+     */
+    public record Settings(long intervalMillis, int chunkSize) {
+        public static final Settings DEFAULTS = new Settings(300_000, 200);
+
+        /**
+         * Reads {@code sporty.reaper.intervalMs} and
+         * {@code sporty.reaper.chunkSize}, keeping the default for any key not
+         * set.
+         */
+        public static Settings fromProperties(Properties properties) {
+            return new Settings(
+                    Long.parseLong(properties.getProperty("sporty.reaper.intervalMs",
+                            String.valueOf(DEFAULTS.intervalMillis()))),
+                    Integer.parseInt(properties.getProperty("sporty.reaper.chunkSize",
+                            String.valueOf(DEFAULTS.chunkSize()))));
+        }
+    }
+
+    /**
+     * @param runs          completed runs
+     * @param failures      runs that stopped on an error
+     * @param deleted       matches deleted by all runs
+     * @param lastDeleted   matches deleted by the last run
+     * @param lastRunMillis duration of the last run
+     * @param maxRunMillis  duration of the longest run
+     */
+    public record Stats(long runs, long failures, long deleted, long lastDeleted, long lastRunMillis,
+            long maxRunMillis) {
+    }
+
+    public ExpiredMatchReaper(MatchDAO matchDAO, Settings settings) {
+        this(matchDAO, settings, Clock.systemDefaultZone());
+    }
+
+    public ExpiredMatchReaper(MatchDAO matchDAO, Settings settings, Clock clock) {
+        this.matchDAO = matchDAO;
+        this.settings = settings;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sporty-match-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a first run now and then one every interval.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::runQuietly, 0, settings.intervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runQuietly() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Expired match cleanup failed", e);
+        }
+    }
+
+    /**
+     * Deletes every match that has ended by now.
+     *
+     * @return the number of matches deleted
+     */
+    public int runOnce() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            int chunk;
+            do {
+                chunk = matchDAO.deleteExpiredMatches(now, settings.chunkSize());
+                total += chunk;
+            } while (chunk >= settings.chunkSize() && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            runs.increment();
+            deleted.add(total);
+            lastDeleted.set(total);
+            lastRunMillis.set(elapsed);
+            maxRunMillis.accumulateAndGet(elapsed, Math::max);
+            if (total > 0) {
+                int count = total;
+                logger.info(() -> "Deleted " + count + " expired matches in " + elapsed + " ms");
+            }
+        }
+        return total;
+    }
+
+    public Stats getStats() {
+        return new Stats(runs.sum(), failures.sum(), deleted.sum(), lastDeleted.get(), lastRunMillis.get(),
+                maxRunMillis.get());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,200 @@
+package model.dao.maintenance;
+
+import model.dao.NotificationDAO;
+import model.dao.NotificationOutbox;
+import model.dao.OutboxEntry;
+import model.domain.Notification;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Delivers the notifications waiting in a {@link NotificationOutbox} in the
+ * background, so storing a match never waits for its notifications.
+ * Each run saves the due entries in batches of {@link Settings#batchSize()},
+ * one {@link NotificationDAO#saveAll} per batch, and removes them from the
+ * outbox once saved. A batch that fails is retried one entry at a time;
+ * the entries that still fail are postponed with an exponential backoff and
+ * stay in the outbox until delivered. An entry saved just before a crash
+ * may be delivered twice, never zero times.
+ */
+public class NotificationDispatcher implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(NotificationDispatcher.class.getName());
+
+    private final NotificationOutbox outbox;
+    private final NotificationDAO notificationDAO;
+    private final Settings settings;
+    private final Clock clock;
+    private final ScheduledExecutorService scheduler;
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder postponed = new LongAdder();
+    private final AtomicLong lastRunMillis = new AtomicLong();
+    private final AtomicLong maxRunMillis = new AtomicLong();
+
+    /**
+     * @param intervalMillis  delay between the end of a run and the next one
+     * @param batchSize       the maximum number of notifications saved per DAO call
+     * @param retryBaseMillis the delay before retrying an entry that failed once,
+     *                        doubled for every further failure
+     * @param retryMaxMillis  the longest delay between two attempts
+     */
+    public record Settings(long intervalMillis, int batchSize, long retryBaseMillis, long retryMaxMillis) {
+        public static final Settings DEFAULTS = new Settings(1_000, 100, 5_000, 600_000);
+
+        /**
+         * Reads {@code sporty.notifications.intervalMs},
+         * {@code sporty.notifications.batchSize},
+         * {@code sporty.notifications.retryBaseMs} and
+         * {@code sporty.notifications.retryMaxMs}, keeping the default for
+         * any key not set.
+         */
+        public static Settings fromProperties(Properties properties) {
+            return new Settings(
+                    Long.parseLong(properties.getProperty("sporty.notifications.intervalMs",
+                            String.valueOf(DEFAULTS.intervalMillis()))),
+                    Integer.parseInt(properties.getProperty("sporty.notifications.batchSize",
+                            String.valueOf(DEFAULTS.batchSize()))),
+                    Long.parseLong(properties.getProperty("sporty.notifications.retryBaseMs",
+                            String.valueOf(DEFAULTS.retryBaseMillis()))),
+                    Long.parseLong(properties.getProperty("sporty.notifications.retryMaxMs",
+                            String.valueOf(DEFAULTS.retryMaxMillis()))));
+        }
+
+        /**
+         * @return the delay before the next attempt of an entry that has
+         *         already failed {@code attempts} times, before this failure
+         */
+        long retryDelayMillis(int attempts) {
+            int doublings = Math.min(attempts, 30);
+            return Math.min(retryMaxMillis, retryBaseMillis << doublings);
+        }
+    }
+
+    /**
+     * @param runs          completed runs
+     * @param failures      runs that stopped on an error
+     * @param delivered     notifications delivered by all runs
+     * @param postponed     failed deliveries postponed for a retry
+     * @param lastRunMillis duration of the last run
+     * @param maxRunMillis  duration of the longest run
+     */
+    public record Stats(long runs, long failures, long delivered, long postponed, long lastRunMillis,
+            long maxRunMillis) {
+    }
+
+    public NotificationDispatcher(NotificationOutbox outbox, NotificationDAO notificationDAO, Settings settings) {
+        this(outbox, notificationDAO, settings, Clock.systemDefaultZone());
+    }
+
+    public NotificationDispatcher(NotificationOutbox outbox, NotificationDAO notificationDAO, Settings settings,
+            Clock clock) {
+        this.outbox = outbox;
+        this.notificationDAO = notificationDAO;
+        this.settings = settings;
+        this.clock = clock;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sporty-notification-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a first run now and then one every interval.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::runQuietly, 0, settings.intervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void runQuietly() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Notification delivery failed", e);
+        }
+    }
+
+    /**
+     * Delivers every notification due by now, stopping early at the first
+     * batch with a failure.
+     *
+     * @return the number of notifications delivered
+     */
+    public int runOnce() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        long start = System.nanoTime();
+        int total = 0;
+        try {
+            int sent;
+            do {
+                sent = deliver(outbox.findDue(now, settings.batchSize()), now);
+                total += sent;
+            } while (sent >= settings.batchSize() && !Thread.currentThread().isInterrupted());
+        } catch (RuntimeException e) {
+            failures.increment();
+            throw e;
+        } finally {
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            runs.increment();
+            delivered.add(total);
+            lastRunMillis.set(elapsed);
+            maxRunMillis.accumulateAndGet(elapsed, Math::max);
+            if (total > 0) {
+                int count = total;
+                logger.fine(() -> "Delivered " + count + " notifications in " + elapsed + " ms");
+            }
+        }
+        return total;
+    }
+
+    private int deliver(List<OutboxEntry> batch, LocalDateTime now) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            notificationDAO.saveAll(batch.stream().map(OutboxEntry::notification).toList());
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                postpone(batch.get(0), now, e);
+                return 0;
+            }
+            int count = 0;
+            for (OutboxEntry entry : batch) {
+                count += deliver(List.of(entry), now);
+            }
+            return count;
+        }
+        outbox.remove(batch.stream().map(OutboxEntry::id).toList());
+        return batch.size();
+    }
+
+    private void postpone(OutboxEntry entry, LocalDateTime now, RuntimeException cause) {
+        long delay = settings.retryDelayMillis(entry.attempts());
+        outbox.retryLater(List.of(entry.id()), now.plusNanos(TimeUnit.MILLISECONDS.toNanos(delay)));
+        postponed.increment();
+        Notification notification = entry.notification();
+        logger.log(Level.WARNING, "Could not deliver notification to " + notification.getRecipientUsername()
+                + ", retrying in " + delay + " ms", cause);
+    }
+
+    public Stats getStats() {
+        return new Stats(runs.sum(), failures.sum(), delivered.sum(), postponed.sum(), lastRunMillis.get(),
+                maxRunMillis.get());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,62 @@
+package model.dao.mapped;
+
+import model.dao.*;
+
+public class MappedDAOFactory implements DAOFactory {
+    private final DAOFactory delegate;
+    private MatchDAOMapped store;
+    private MatchDAO matchDAO;
+    private FieldDAO fieldDAO;
+
+    public MappedDAOFactory(DAOFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public UserDAO getUserDAO() {
+        return delegate.getUserDAO();
+    }
+
+    private synchronized MatchDAOMapped store() {
+        // One store per factory: it owns the mapped files and the slot index
+        if (store == null) {
+            store = new MatchDAOMapped(delegate.getUserDAO(), delegate.getFieldDAO());
+        }
+        return store;
+    }
+
+    @Override
+    public synchronized MatchDAO getMatchDAO() {
+        if (matchDAO == null) {
+            matchDAO = new OutboxMatchDAO(store(), getNotificationOutbox());
+        }
+        return matchDAO;
+    }
+
+    /**
+     * Fields are kept by the delegate, but are booked by the matches of this
+     * factory's store.
+     */
+    @Override
+    public synchronized FieldDAO getFieldDAO() {
+        if (fieldDAO == null) {
+            fieldDAO = new AvailabilityFieldDAO(delegate.getFieldDAO(), store().getAvailability());
+        }
+        return fieldDAO;
+    }
+
+    @Override
+    public NotificationDAO getNotificationDAO() {
+        return delegate.getNotificationDAO();
+    }
+
+    @Override
+    public MatchListingDAO getMatchListingDAO() {
+        return new ProjectedMatchListingDAO(getMatchDAO());
+    }
+
+    @Override
+    public NotificationOutbox getNotificationOutbox() {
+        return delegate.getNotificationOutbox();
+    }
+}
@@ -0,0 +1,830 @@
+package model.dao.mapped;
+
+import exception.DataAccessException;
+import model.dao.AvailabilityIndex;
+import model.dao.FieldDAO;
+import model.dao.JoinResult;
+import model.dao.MatchDAO;
+import model.dao.MatchKey;
+import model.dao.MatchQuery;
+import model.dao.Page;
+import model.dao.PageCursor;
+import model.dao.UserDAO;
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.User;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Binary MatchDAO backed by two memory-mapped files.
+ * {@code matches.bin} holds fixed-size 32-byte records (id, organizer id,
+ * field id, epoch day, minute of day, missing players, status code and the
+ * offset of the joined-player block). {@code match_players.bin} holds the
+ * joined-player ids in blocks sized for the match's capacity.
+ * Record data lives in the page cache rather than on the heap; the only heap
+ * structure is a primitive id to slot index. Deleted records are tombstoned
+ * and their slots and player blocks are recycled through free lists, which
+ * are rebuilt by a scan at start-up. Users and fields are not stored here:
+ * they are resolved through the delegate DAOs, once per call.
+ * Every write forces the dirty pages of both files to disk before it
+ * returns, player blocks before the records that point to them, so an
+ * acknowledged match survives an OS crash or a power loss. A crash in the
+ * middle of a write can still leave that one record half written.
+ * Writes keep an {@link AvailabilityIndex} of field bookings current after
+ * releasing the store lock, as the index loads itself through
+ * {@link #streamAll()}.
+ */
+public class MatchDAOMapped implements MatchDAO {
+    private static final String MATCHES_FILE = "data/matches.bin";
+    private static final String PLAYERS_FILE = "data/match_players.bin";
+
+    private static final int MAGIC = 0x53505254;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int HEADER_COUNT = 8;
+    private static final int HEADER_NEXT_ID = 12;
+    private static final int PLAYERS_HEADER_END = 8;
+
+    private static final int RECORD_SIZE = 32;
+    private static final int STATE = 0;
+    private static final int STATUS = 1;
+    private static final int MINUTE = 2;
+    private static final int ID = 4;
+    private static final int ORGANIZER = 8;
+    private static final int FIELD = 12;
+    private static final int EPOCH_DAY = 16;
+    private static final int MISSING = 20;
+    private static final int JOINED = 24;
+    private static final byte FREE = 0;
+    private static final byte LIVE = 1;
+
+    private static final int BLOCK_HEADER = 8;
+    private static final int FREE_BLOCK = -1;
+    private static final int MIN_BLOCK_CAPACITY = 4;
+    private static final long INITIAL_MAP_SIZE = 1L << 20;
+
+    private final UserDAO userDAO;
+    private final FieldDAO fieldDAO;
+    private final FileChannel matchesChannel;
+    private final FileChannel playersChannel;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntIntHashMap slotsById;
+    private final Map<Integer, ArrayDeque<Long>> freeBlocks = new HashMap<>();
+    private final AvailabilityIndex availability = new AvailabilityIndex(this::streamAll);
+    private MappedByteBuffer records;
+    private MappedByteBuffer players;
+    private int slotCount;
+    private int nextId;
+    private long playersEnd;
+    private int[] freeSlots = new int[64];
+    private int freeSlotCount;
+
+    public MatchDAOMapped(UserDAO userDAO, FieldDAO fieldDAO) {
+        this(Paths.get(MATCHES_FILE), Paths.get(PLAYERS_FILE), userDAO, fieldDAO);
+    }
+
+    public MatchDAOMapped(Path matchesFile, Path playersFile, UserDAO userDAO, FieldDAO fieldDAO) {
+        this.userDAO = userDAO;
+        this.fieldDAO = fieldDAO;
+        try {
+            Path parent = matchesFile.toAbsolutePath().getParent();
+            if (!Files.exists(parent)) {
+                Files.createDirectories(parent);
+            }
+            this.matchesChannel = FileChannel.open(matchesFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.playersChannel = FileChannel.open(playersFile,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.records = map(matchesChannel, Math.max(INITIAL_MAP_SIZE, matchesChannel.size()));
+            this.players = map(playersChannel, Math.max(INITIAL_MAP_SIZE, playersChannel.size()));
+        } catch (IOException e) {
+            throw new DataAccessException("Error opening binary match store: " + matchesFile, e);
+        }
+        this.slotsById = new IntIntHashMap(readHeaders());
+        scanRecords();
+        scanBlocks();
+    }
+
+    /**
+     * @return the bookings of the approved matches stored here
+     */
+    public AvailabilityIndex getAvailability() {
+        return availability;
+    }
+
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new DataAccessException("Binary match store is full");
+        }
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+
+    /**
+     * Forces the pages written under the write lock to disk.
+     */
+    private void sync() {
+        players.force();
+        records.force();
+    }
+
+    /**
+     * Reads or initializes the file headers.
+     *
+     * @return the number of record slots in use
+     */
+    private int readHeaders() {
+        if (records.getInt(0) == 0) {
+            records.putInt(0, MAGIC);
+            records.putInt(4, VERSION);
+            records.putInt(HEADER_COUNT, 0);
+            records.putInt(HEADER_NEXT_ID, 1);
+            players.putInt(0, MAGIC);
+            players.putInt(4, VERSION);
+            players.putLong(PLAYERS_HEADER_END, HEADER_SIZE);
+        } else if (records.getInt(0) != MAGIC || players.getInt(0) != MAGIC) {
+            throw new DataAccessException("Not a binary match store");
+        }
+        slotCount = records.getInt(HEADER_COUNT);
+        nextId = records.getInt(HEADER_NEXT_ID);
+        playersEnd = players.getLong(PLAYERS_HEADER_END);
+        return slotCount;
+    }
+
+    private void scanRecords() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            int base = offset(slot);
+            if (records.get(base + STATE) == LIVE) {
+                slotsById.put(records.getInt(base + ID), slot);
+            } else {
+                pushFreeSlot(slot);
+            }
+        }
+    }
+
+    private void scanBlocks() {
+        long pos = HEADER_SIZE;
+        while (pos < playersEnd) {
+            int capacity = players.getInt((int) pos);
+            if (players.getInt((int) pos + 4) == FREE_BLOCK) {
+                freeBlocks.computeIfAbsent(capacity, c -> new ArrayDeque<>()).push(pos);
+            }
+            pos += BLOCK_HEADER + 4L * capacity;
+        }
+    }
+
+    private static int offset(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private void pushFreeSlot(int slot) {
+        if (freeSlotCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeSlotCount * 2);
+        }
+        freeSlots[freeSlotCount++] = slot;
+    }
+
+    private int allocateSlot() throws IOException {
+        if (freeSlotCount > 0) {
+            return freeSlots[--freeSlotCount];
+        }
+        long needed = HEADER_SIZE + (long) (slotCount + 1) * RECORD_SIZE;
+        if (needed > records.capacity()) {
+            records.force();
+            records = map(matchesChannel, Math.max(needed, records.capacity() * 2L));
+        }
+        int slot = slotCount++;
+        records.putInt(HEADER_COUNT, slotCount);
+        return slot;
+    }
+
+    /**
+     * Blocks are sized for every player the match can hold (joined plus
+     * missing), rounded up to a power of two so freed blocks are reused.
+     */
+    private static int blockCapacity(Match match) {
+        int needed = match.getJoinedPlayersCount() + Math.max(0, match.getMissingPlayers());
+        return Math.max(MIN_BLOCK_CAPACITY, Integer.highestOneBit(Math.max(1, needed - 1)) << 1);
+    }
+
+    private long allocateBlock(int capacity) throws IOException {
+        ArrayDeque<Long> free = freeBlocks.get(capacity);
+        if (free != null && !free.isEmpty()) {
+            return free.pop();
+        }
+        long pos = playersEnd;
+        long needed = pos + BLOCK_HEADER + 4L * capacity;
+        if (needed > players.capacity()) {
+            players.force();
+            players = map(playersChannel, Math.max(needed, players.capacity() * 2L));
+        }
+        players.putInt((int) pos, capacity);
+        playersEnd = needed;
+        players.putLong(PLAYERS_HEADER_END, playersEnd);
+        return pos;
+    }
+
+    private void freeBlock(long pos) {
+        players.putInt((int) pos + 4, FREE_BLOCK);
+        freeBlocks.computeIfAbsent(players.getInt((int) pos), c -> new ArrayDeque<>()).push(pos);
+    }
+
+    private long writePlayers(long pos, Match match) throws IOException {
+        List<Integer> joined = match.getJoinedPlayers();
+        if (pos < 0 || players.getInt((int) pos) < joined.size()) {
+            if (pos >= 0) {
+                freeBlock(pos);
+            }
+            pos = allocateBlock(Math.max(blockCapacity(match), joined.size()));
+        }
+        int base = (int) pos;
+        players.putInt(base + 4, joined.size());
+        for (int i = 0; i < joined.size(); i++) {
+            players.putInt(base + BLOCK_HEADER + 4 * i, joined.get(i));
+        }
+        return pos;
+    }
+
+    private List<Integer> readPlayers(long pos) {
+        int base = (int) pos;
+        int count = players.getInt(base + 4);
+        List<Integer> joined = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            joined.add(players.getInt(base + BLOCK_HEADER + 4 * i));
+        }
+        return joined;
+    }
+
+    private boolean blockContains(long pos, int userId) {
+        int base = (int) pos;
+        int count = players.getInt(base + 4);
+        for (int i = 0; i < count; i++) {
+            if (players.getInt(base + BLOCK_HEADER + 4 * i) == userId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds one player to a block in place, moving it to a larger block only
+     * when it is full.
+     *
+     * @return the position of the block now holding the players
+     */
+    private long appendPlayer(long pos, int userId) throws IOException {
+        int count = players.getInt((int) pos + 4);
+        if (count >= players.getInt((int) pos)) {
+            List<Integer> joined = readPlayers(pos);
+            freeBlock(pos);
+            pos = allocateBlock(Integer.highestOneBit(count) << 1);
+            for (int i = 0; i < count; i++) {
+                players.putInt((int) pos + BLOCK_HEADER + 4 * i, joined.get(i));
+            }
+        }
+        players.putInt((int) pos + BLOCK_HEADER + 4 * count, userId);
+        players.putInt((int) pos + 4, count + 1);
+        return pos;
+    }
+
+    private void writeRecord(int slot, Match match, long playersPos) {
+        int base = offset(slot);
+        records.putInt(base + ID, match.getId());
+        records.putInt(base + ORGANIZER, match.getOrganizer() != null ? match.getOrganizer().getId() : 0);
+        records.putInt(base + FIELD, match.getField() != null ? match.getField().getId() : 0);
+        records.putInt(base + EPOCH_DAY, (int) match.getDate().toEpochDay());
+        records.putShort(base + MINUTE, (short) (match.getTime().toSecondOfDay() / 60));
+        records.putInt(base + MISSING, match.getMissingPlayers());
+        records.put(base + STATUS, (byte) match.getStatus().getCode());
+        records.putLong(base + JOINED, playersPos);
+        records.put(base + STATE, LIVE);
+    }
+
+    private void freeSlot(int slot) {
+        int base = offset(slot);
+        records.put(base + STATE, FREE);
+        freeBlock(records.getLong(base + JOINED));
+        slotsById.remove(records.getInt(base + ID));
+        pushFreeSlot(slot);
+    }
+
+    /**
+     * Resolves users and fields through the delegate DAOs, once per id for
+     * the duration of one call.
+     */
+    private final class Hydrator {
+        private final Map<Integer, User> users = new HashMap<>();
+        private final Map<Integer, Field> fields = new HashMap<>();
+
+        private Match read(int slot) {
+            int base = offset(slot);
+            int organizerId = records.getInt(base + ORGANIZER);
+            int fieldId = records.getInt(base + FIELD);
+            Match match = new Match(
+                    records.getInt(base + ID),
+                    organizerId != 0 ? users.computeIfAbsent(organizerId, userDAO::findById) : null,
+                    fieldId != 0 ? fields.computeIfAbsent(fieldId, fieldDAO::findById) : null,
+                    LocalDate.ofEpochDay(records.getInt(base + EPOCH_DAY)),
+                    LocalTime.ofSecondOfDay(records.getShort(base + MINUTE) * 60L),
+                    records.getInt(base + MISSING),
+                    MatchStatus.fromCode(records.get(base + STATUS)));
+            match.setJoinedPlayers(readPlayers(records.getLong(base + JOINED)));
+            return match;
+        }
+    }
+
+    private List<Match> scan(IntPredicate slotFilter) {
+        lock.readLock().lock();
+        try {
+            Hydrator hydrator = new Hydrator();
+            List<Match> result = new ArrayList<>();
+            for (int slot = 0; slot < slotCount; slot++) {
+                if (records.get(offset(slot) + STATE) == LIVE && slotFilter.test(slot)) {
+                    result.add(hydrator.read(slot));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Position of a slot in listing order, compared on the raw record fields
+     * so a page scan does not build dates for records it skips.
+     */
+    private record Candidate(int epochDay, int minute, int id, int slot) {
+        static final Comparator<Candidate> ORDER = Comparator.comparingInt(Candidate::epochDay)
+                .thenComparingInt(Candidate::minute)
+                .thenComparingInt(Candidate::id);
+    }
+
+    /**
+     * Keeps the {@code limit + 1} smallest keys after the cursor in a bounded
+     * max-heap, then hydrates only those records.
+     */
+    private Page<Match> scanPage(IntPredicate slotFilter, String cursor, int limit) {
+        MatchKey after = PageCursor.toMatchKey(cursor);
+        Candidate from = after != null
+                ? new Candidate((int) after.date().toEpochDay(), after.time().toSecondOfDay() / 60, after.id(), -1)
+                : null;
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Candidate> smallest = new PriorityQueue<>(limit + 2, Candidate.ORDER.reversed());
+            for (int slot = 0; slot < slotCount; slot++) {
+                int base = offset(slot);
+                if (records.get(base + STATE) != LIVE || !slotFilter.test(slot)) {
+                    continue;
+                }
+                Candidate candidate = new Candidate(records.getInt(base + EPOCH_DAY), records.getShort(base + MINUTE),
+                        records.getInt(base + ID), slot);
+                if (from != null && Candidate.ORDER.compare(candidate, from) <= 0) {
+                    continue;
+                }
+                smallest.add(candidate);
+                if (smallest.size() > limit + 1) {
+                    smallest.poll();
+                }
+            }
+            List<Candidate> ordered = new ArrayList<>(smallest);
+            ordered.sort(Candidate.ORDER);
+            Hydrator hydrator = new Hydrator();
+            List<Match> rows = new ArrayList<>(ordered.size());
+            for (Candidate candidate : ordered) {
+                rows.add(hydrator.read(candidate.slot()));
+            }
+            return Page.of(rows, limit, PageCursor::of);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int intAt(int slot, int field) {
+        return records.getInt(offset(slot) + field);
+    }
+
+    private byte statusAt(int slot) {
+        return records.get(offset(slot) + STATUS);
+    }
+
+    /**
+     * Flushes any dirty pages left to disk and closes the files.
+     */
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            records.force();
+            players.force();
+            matchesChannel.close();
+            playersChannel.close();
+        } catch (IOException e) {
+            throw new DataAccessException("Error closing binary match store", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void save(Match match) {
+        lock.writeLock().lock();
+        try {
+            saveLocked(match);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        availability.put(match);
+    }
+
+    private void saveLocked(Match match) {
+        try {
+            if (match.getId() == 0) {
+                match.setId(nextId++);
+                records.putInt(HEADER_NEXT_ID, nextId);
+            } else if (match.getId() >= nextId) {
+                nextId = match.getId() + 1;
+                records.putInt(HEADER_NEXT_ID, nextId);
+            }
+            int slot = slotsById.get(match.getId());
+            long playersPos = -1;
+            if (slot < 0) {
+                slot = allocateSlot();
+                slotsById.put(match.getId(), slot);
+            } else {
+                playersPos = records.getLong(offset(slot) + JOINED);
+            }
+            writeRecord(slot, match, writePlayers(playersPos, match));
+        } catch (IOException e) {
+            throw new DataAccessException("Error saving match", e);
+        }
+    }
+
+    @Override
+    public void saveAll(List<Match> matches) {
+        lock.writeLock().lock();
+        try {
+            matches.forEach(this::saveLocked);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        matches.forEach(availability::put);
+    }
+
+    @Override
+    public Match findById(int id) {
+        lock.readLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            return slot >= 0 ? new Hydrator().read(slot) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Match> findByOrganizer(int organizerId) {
+        return scan(slot -> intAt(slot, ORGANIZER) == organizerId);
+    }
+
+    @Override
+    public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+        return scanPage(slot -> intAt(slot, ORGANIZER) == organizerId, cursor, limit);
+    }
+
+    @Override
+    public List<Match> findPendingForManager(int managerId) {
+        Set<Integer> fieldIds = new HashSet<>();
+        for (Field field : fieldDAO.findByManagerId(managerId)) {
+            fieldIds.add(field.getId());
+        }
+        if (fieldIds.isEmpty()) {
+            return List.of();
+        }
+        byte pending = (byte) MatchStatus.PENDING.getCode();
+        return scan(slot -> statusAt(slot) == pending && fieldIds.contains(intAt(slot, FIELD)));
+    }
+
+    @Override
+    public List<Match> findApprovedMatches() {
+        byte approved = (byte) MatchStatus.APPROVED.getCode();
+        return scan(slot -> statusAt(slot) == approved);
+    }
+
+    @Override
+    public Page<Match> findApprovedMatches(String cursor, int limit) {
+        byte approved = (byte) MatchStatus.APPROVED.getCode();
+        return scanPage(slot -> statusAt(slot) == approved, cursor, limit);
+    }
+
+    /**
+     * Resolves the field criteria to a set of field ids through the field
+     * DAO, then tests every criterion on the raw record, so only the
+     * matches returned are hydrated.
+     */
+    @Override
+    public List<Match> find(MatchQuery query) {
+        if (query.limit() == 0) {
+            return List.of();
+        }
+        Set<Integer> fieldIds = null;
+        if (query.hasFieldCriteria()) {
+            fieldIds = new HashSet<>();
+            for (Field field : query.city() != null ? fieldDAO.findByCity(query.city()) : fieldDAO.findAll()) {
+                if (query.accepts(field)) {
+                    fieldIds.add(field.getId());
+                }
+            }
+            if (fieldIds.isEmpty()) {
+                return List.of();
+            }
+        }
+        Set<Integer> acceptedFields = fieldIds;
+        int fromDay = query.fromDate() != null ? (int) query.fromDate().toEpochDay() : Integer.MIN_VALUE;
+        int toDay = query.toDate() != null ? (int) query.toDate().toEpochDay() : Integer.MAX_VALUE;
+        MatchKey after = query.after();
+        Candidate from = after != null
+                ? new Candidate((int) after.date().toEpochDay(), after.time().toSecondOfDay() / 60, after.id(), -1)
+                : null;
+        IntPredicate filter = slot -> {
+            int base = offset(slot);
+            int epochDay = records.getInt(base + EPOCH_DAY);
+            return epochDay >= fromDay && epochDay <= toDay
+                    && (from == null || Candidate.ORDER.compare(new Candidate(epochDay, records.getShort(base + MINUTE),
+                            records.getInt(base + ID), slot), from) > 0)
+                    && (query.status() == null || statusAt(slot) == (byte) query.status().getCode())
+                    && (query.organizerId() == null || records.getInt(base + ORGANIZER) == query.organizerId())
+                    && (acceptedFields == null || acceptedFields.contains(records.getInt(base + FIELD)))
+                    && (query.excludedOrganizerId() == null
+                            || records.getInt(base + ORGANIZER) != query.excludedOrganizerId())
+                    && (query.excludedJoinedUserId() == null
+                            || !blockContains(records.getLong(base + JOINED), query.excludedJoinedUserId()));
+        };
+        if (query.limit() == MatchQuery.NO_LIMIT) {
+            List<Match> matches = scan(filter);
+            matches.sort(Comparator.comparing(MatchKey::of));
+            return matches;
+        }
+        return scanPage(filter, null, query.limit()).items();
+    }
+
+    /**
+     * Streams the live records in slot order. Each record is read under a
+     * short read lock, so an open stream never blocks writers; records
+     * written while it is consumed may or may not be seen.
+     */
+    @Override
+    public Stream<Match> streamAll() {
+        Spliterator<Match> slots = new Spliterators.AbstractSpliterator<>(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private static final int HYDRATOR_BATCH = 500;
+            private int slot;
+            private Hydrator hydrator;
+
+            @Override
+            public boolean tryAdvance(Consumer<? super Match> action) {
+                Match match = null;
+                lock.readLock().lock();
+                try {
+                    while (match == null && slot < slotCount) {
+                        if (slot % HYDRATOR_BATCH == 0 || hydrator == null) {
+                            hydrator = new Hydrator();
+                        }
+                        if (records.get(offset(slot) + STATE) == LIVE) {
+                            match = hydrator.read(slot);
+                        }
+                        slot++;
+                    }
+                } finally {
+                    lock.readLock().unlock();
+                }
+                if (match == null) {
+                    return false;
+                }
+                action.accept(match);
+                return true;
+            }
+        };
+        return StreamSupport.stream(slots, false);
+    }
+
+    @Override
+    public void updateStatus(int matchId, MatchStatus status) {
+        lock.writeLock().lock();
+        try {
+            updateStatusLocked(matchId, status);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        updateAvailability(matchId, status);
+    }
+
+    private void updateStatusLocked(int matchId, MatchStatus status) {
+        int slot = slotsById.get(matchId);
+        if (slot >= 0) {
+            records.put(offset(slot) + STATUS, (byte) status.getCode());
+        }
+    }
+
+    /**
+     * An approved match is read back for its field, date and time, which
+     * the status change alone does not carry.
+     */
+    private void updateAvailability(int matchId, MatchStatus status) {
+        if (status == MatchStatus.APPROVED) {
+            availability.put(findById(matchId));
+        } else {
+            availability.remove(matchId);
+        }
+    }
+
+    @Override
+    public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+        lock.writeLock().lock();
+        try {
+            statuses.forEach(this::updateStatusLocked);
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        statuses.forEach(this::updateAvailability);
+    }
+
+    @Override
+    public void update(Match match) {
+        lock.writeLock().lock();
+        try {
+            if (!updateLocked(match)) {
+                return;
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        availability.put(match);
+    }
+
+    private boolean updateLocked(Match match) {
+        try {
+            int slot = slotsById.get(match.getId());
+            if (slot < 0) {
+                return false;
+            }
+            long playersPos = records.getLong(offset(slot) + JOINED);
+            writeRecord(slot, match, writePlayers(playersPos, match));
+            return true;
+        } catch (IOException e) {
+            throw new DataAccessException("Error updating match with id: " + match.getId(), e);
+        }
+    }
+
+    @Override
+    public void updateAll(List<Match> matches) {
+        List<Match> updated = new ArrayList<>(matches.size());
+        lock.writeLock().lock();
+        try {
+            for (Match match : matches) {
+                if (updateLocked(match)) {
+                    updated.add(match);
+                }
+            }
+            sync();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        updated.forEach(availability::put);
+    }
+
+    /**
+     * Checks and updates the record in place under the write lock; no match
+     * is hydrated.
+     */
+    @Override
+    public JoinResult tryJoin(int matchId, int userId) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(matchId);
+            if (slot < 0) {
+                return JoinResult.NOT_FOUND;
+            }
+            int base = offset(slot);
+            long playersPos = records.getLong(base + JOINED);
+            if (blockContains(playersPos, userId)) {
+                return JoinResult.ALREADY_JOINED;
+            }
+            int missing = records.getInt(base + MISSING);
+            if (missing <= 0) {
+                return JoinResult.FULL;
+            }
+            records.putLong(base + JOINED, appendPlayer(playersPos, userId));
+            records.putInt(base + MISSING, missing - 1);
+            sync();
+            return JoinResult.JOINED;
+        } catch (IOException e) {
+            throw new DataAccessException("Error joining match with id: " + matchId, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Match> findByJoinedPlayer(int userId) {
+        return scan(slot -> blockContains(records.getLong(offset(slot) + JOINED), userId));
+    }
+
+    @Override
+    public void delete(int id) {
+        lock.writeLock().lock();
+        try {
+            int slot = slotsById.get(id);
+            if (slot >= 0) {
+                freeSlot(slot);
+                sync();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        availability.remove(id);
+    }
+
+    /**
+     * Finds the expired records under the read lock, since that may look up
+     * fields, and takes the write lock only to free them.
+     */
+    @Override
+    public int deleteExpiredMatches(LocalDateTime now, int limit) {
+        Map<Integer, Integer> durations = new HashMap<>();
+        List<Integer> expired = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int slot = 0; slot < slotCount && expired.size() < limit; slot++) {
+                int base = offset(slot);
+                if (records.get(base + STATE) == LIVE && !endOf(base, durations).isAfter(now)) {
+                    expired.add(records.getInt(base + ID));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        int deleted = 0;
+        lock.writeLock().lock();
+        try {
+            for (int id : expired) {
+                int slot = slotsById.get(id);
+                if (slot >= 0) {
+                    freeSlot(slot);
+                    deleted++;
+                }
+            }
+            if (deleted > 0) {
+                sync();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        expired.forEach(availability::remove);
+        return deleted;
+    }
+
+    /**
+     * Computes the end of a record from its field's sport, looking each
+     * field up once per call.
+     */
+    private LocalDateTime endOf(int base, Map<Integer, Integer> durations) {
+        int duration = durations.computeIfAbsent(records.getInt(base + FIELD), fieldId -> {
+            Field field = fieldId != 0 ? fieldDAO.findById(fieldId) : null;
+            return field != null && field.getSport() != null ? field.getSport().getDuration() : 0;
+        });
+        return LocalDateTime.of(LocalDate.ofEpochDay(records.getInt(base + EPOCH_DAY)),
+                LocalTime.ofSecondOfDay(records.getShort(base + MINUTE) * 60L)).plusMinutes(duration);
+    }
+}
@@ -1,39 +1,97 @@
 package model.dao.memory;
 
+import model.dao.AvailabilityIndex;
 import model.dao.FieldDAO;
+import model.dao.FreeSlot;
+import model.dao.NGramIndex;
+import model.dao.Page;
+import model.dao.PageCursor;
+import model.dao.SlotQuery;
 import model.domain.Field;
 import model.domain.Sport;
 import model.domain.User;
+import model.utils.TextNormalizer;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
-import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+/**
+ * In-memory FieldDAO safe for concurrent sessions, with manager, city and
+ * city+sport indexes and a trigram index of names and addresses maintained
+ * on write. Cities are keyed by {@link TextNormalizer#key}, so lookups
+ * ignore case, accents and punctuation. Follows the same scheme as
+ * {@link MatchDAOMemory}: fields are copied on the way in and on the way
+ * out, index keys are remembered per field, emptied index entries are
+ * dropped and hits are re-checked before being returned. Index entries are
+ * sorted by id for paging. Free fields are found in the {@link AvailabilityIndex} kept by the
+ * match store.
+ */
 public class FieldDAOMemory implements FieldDAO {
-        private static final Map<Integer, Field> fields = new HashMap<>();
-        private static int idCounter = 1;
         private static final String DEMO_CITY = "Milano";
-        static {
+
+        private final ConcurrentMap<Integer, Field> fields = new ConcurrentHashMap<>();
+        private final ConcurrentMap<Integer, IndexKeys> indexedKeys = new ConcurrentHashMap<>();
+        private final NavigableSet<Integer> allIds = new ConcurrentSkipListSet<>();
+        private final ConcurrentMap<Integer, NavigableSet<Integer>> byManager = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, NavigableSet<Integer>> byCity = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, NavigableSet<Integer>> byCitySport = new ConcurrentHashMap<>();
+        private final NGramIndex byText = new NGramIndex();
+        private final AtomicInteger idCounter = new AtomicInteger(1);
+        private final AvailabilityIndex availability;
+
+        private record IndexKeys(int managerId, String city, String citySport) {
+                static IndexKeys of(Field field) {
+                        String city = cityKey(field.getCity());
+                        return new IndexKeys(
+                                        field.getManager() != null ? field.getManager().getId() : 0,
+                                        city,
+                                        citySportKey(city, field.getSport()));
+                }
+        }
+
+        /**
+         * Creates a field store without bookings, every field is always free.
+         */
+        public FieldDAOMemory() {
+                this(new AvailabilityIndex(Stream::empty));
+        }
+
+        /**
+         * @param availability the bookings of the match store the fields are
+         *                     booked in
+         */
+        public FieldDAOMemory(AvailabilityIndex availability) {
+                this.availability = availability;
                 initializeDemoFields();
         }
 
-        private static void createAndAddField(String name, Sport sport, String city, String address,
+        private static String cityKey(String city) {
+                return TextNormalizer.key(city);
+        }
+
+        private static String citySportKey(String cityKey, Sport sport) {
+                return cityKey + "|" + (sport != null ? sport.name() : "");
+        }
+
+        private void createAndAddField(String name, Sport sport, String city, String address,
                         double pricePerHour,
                         int managerId) {
-                int id = nextId();
                 User manager = new User();
                 manager.setId(managerId);
-                Field field = new Field(id, name, city, address, pricePerHour, sport, manager);
-                fields.put(id, field);
-        }
-
-        private static synchronized int nextId() {
-                return idCounter++;
+                save(new Field(0, name, city, address, pricePerHour, sport, manager));
         }
 
-        private static void initializeDemoFields() {
+        private void initializeDemoFields() {
                 createAndAddField("City Sports Center", Sport.FOOTBALL_5, DEMO_CITY,
                                 "Via Centrale 15, Milano", 100.0, 3);
                 createAndAddField("Arena Calcetto Centrale", Sport.FOOTBALL_5, DEMO_CITY,
@@ -66,54 +124,167 @@ public class FieldDAOMemory implements FieldDAO {
                                 "Via Lambrate 88, Milano", 40.0, 3);
         }
 
+        private static <K> void add(ConcurrentMap<K, NavigableSet<Integer>> index, K key, int fieldId) {
+                index.compute(key, (k, ids) -> {
+                        NavigableSet<Integer> entry = ids != null ? ids : new ConcurrentSkipListSet<>();
+                        entry.add(fieldId);
+                        return entry;
+                });
+        }
+
+        private static <K> void remove(ConcurrentMap<K, NavigableSet<Integer>> index, K key, int fieldId) {
+                index.computeIfPresent(key, (k, ids) -> {
+                        ids.remove(fieldId);
+                        return ids.isEmpty() ? null : ids;
+                });
+        }
+
+        private static Field copyOf(Field field) {
+                return new Field(field.getId(), field.getName(), field.getCity(), field.getAddress(),
+                                field.getPricePerHour(), field.getSport(), field.getManager());
+        }
+
+        /**
+         * Moves the field from its previous index entries to the current ones,
+         * inside the primary map's compute for that id.
+         */
+        private void reindex(int fieldId, Field field) {
+                IndexKeys old = field != null
+                                ? indexedKeys.put(fieldId, IndexKeys.of(field))
+                                : indexedKeys.remove(fieldId);
+                if (old != null) {
+                        remove(byManager, old.managerId(), fieldId);
+                        remove(byCity, old.city(), fieldId);
+                        remove(byCitySport, old.citySport(), fieldId);
+                }
+                if (field != null) {
+                        allIds.add(fieldId);
+                        IndexKeys keys = indexedKeys.get(fieldId);
+                        add(byManager, keys.managerId(), fieldId);
+                        add(byCity, keys.city(), fieldId);
+                        add(byCitySport, keys.citySport(), fieldId);
+                        byText.put(fieldId, field.getName(), field.getAddress());
+                } else {
+                        allIds.remove(fieldId);
+                        byText.remove(fieldId);
+                }
+        }
+
+        private List<Field> resolve(Collection<Integer> ids, Predicate<Field> stillMatches) {
+                if (ids == null) {
+                        return List.of();
+                }
+                List<Field> result = new ArrayList<>(ids.size());
+                for (Integer id : ids) {
+                        Field field = fields.get(id);
+                        if (field != null && stillMatches.test(field)) {
+                                result.add(copyOf(field));
+                        }
+                }
+                return List.copyOf(result);
+        }
+
+        private Page<Field> page(NavigableSet<Integer> ids, String cursor, int limit, Predicate<Field> stillMatches) {
+                if (ids == null) {
+                        return new Page<>(List.of(), null);
+                }
+                List<Field> rows = new ArrayList<>(limit + 1);
+                for (Integer id : ids.tailSet(PageCursor.toId(cursor), false)) {
+                        Field field = fields.get(id);
+                        if (field != null && stillMatches.test(field)) {
+                                rows.add(copyOf(field));
+                                if (rows.size() > limit) {
+                                        break;
+                                }
+                        }
+                }
+                return Page.of(rows, limit, field -> PageCursor.of(field.getId()));
+        }
+
         @Override
         public List<Field> findAll() {
-                return List.copyOf(fields.values());
+                return fields.values().stream().map(FieldDAOMemory::copyOf).toList();
+        }
+
+        @Override
+        public Page<Field> findAll(String cursor, int limit) {
+                return page(allIds, cursor, limit, field -> true);
+        }
+
+        @Override
+        public Stream<Field> streamAll() {
+                return fields.values().stream().map(FieldDAOMemory::copyOf);
         }
 
         @Override
         public Field findById(int id) {
-                return fields.get(id);
+                Field field = fields.get(id);
+                return field != null ? copyOf(field) : null;
         }
 
         @Override
         public List<Field> findByCity(String city) {
-                return fields.values().stream()
-                                .filter(field -> field.getCity().equalsIgnoreCase(city))
-                                .filter(field -> field.getCity() != null)
-                                .toList();
+                String key = cityKey(city);
+                return resolve(byCity.get(key), field -> cityKey(field.getCity()).equals(key));
+        }
+
+        @Override
+        public Page<Field> findByCity(String city, String cursor, int limit) {
+                String key = cityKey(city);
+                return page(byCity.get(key), cursor, limit, field -> cityKey(field.getCity()).equals(key));
         }
 
         @Override
         public List<Field> findAvailableFields(String city, Sport sport, LocalDate date, LocalTime time) {
-                return fields.values().stream()
-                                .filter(field -> field.getCity().equalsIgnoreCase(city))
-                                .filter(field -> field.getSport() == sport)
-                                .toList();
+                String key = cityKey(city);
+                List<Field> candidates = resolve(byCitySport.get(citySportKey(key, sport)),
+                                field -> field.getSport() == sport && cityKey(field.getCity()).equals(key));
+                return availability.filterFree(candidates, sport, date, time);
+        }
+
+        @Override
+        public List<FreeSlot> findEarliestFreeSlots(SlotQuery query) {
+                String key = cityKey(query.city());
+                List<Field> candidates = resolve(byCitySport.get(citySportKey(key, query.sport())),
+                                field -> field.getSport() == query.sport() && cityKey(field.getCity()).equals(key));
+                return availability.findEarliestFreeSlots(candidates, query);
+        }
+
+        @Override
+        public List<Field> searchByNameOrAddress(String text, int limit) {
+                return resolve(byText.search(text, limit), field -> true);
         }
 
         @Override
         public List<Field> findByManagerId(int managerId) {
-                return fields.values().stream()
-                                .filter(field -> field.getManager() != null && field.getManager().getId() == managerId)
-                                .toList();
+                return resolve(byManager.get(managerId),
+                                field -> field.getManager() != null && field.getManager().getId() == managerId);
         }
 
         @Override
         public void save(Field field) {
                 if (field.getId() == 0) {
-                        field.setId(nextId());
+                        field.setId(idCounter.getAndIncrement());
+                } else {
+                        idCounter.accumulateAndGet(field.getId() + 1, Math::max);
                 }
-                fields.put(field.getId(), field);
+                Field stored = copyOf(field);
+                fields.compute(stored.getId(), (id, old) -> {
+                        reindex(id, stored);
+                        return stored;
+                });
         }
 
         @Override
-        public void delete(int id) {
-                fields.remove(id);
+        public void saveAll(List<Field> fields) {
+                fields.forEach(this::save);
         }
 
-        public static void clearAll() {
-                fields.clear();
-                initializeDemoFields();
+        @Override
+        public void delete(int id) {
+                fields.computeIfPresent(id, (key, field) -> {
+                        reindex(key, null);
+                        return null;
+                });
         }
-}
\ No newline at end of file
+}
@@ -1,108 +1,384 @@
 package model.dao.memory;
 
+import exception.ValidationException;
+import model.dao.AvailabilityIndex;
+import model.dao.JoinResult;
 import model.dao.MatchDAO;
+import model.dao.MatchKey;
+import model.dao.MatchQuery;
+import model.dao.Page;
+import model.dao.PageCursor;
 import model.domain.Field;
 import model.domain.Match;
 import model.domain.MatchStatus;
+import model.utils.TextNormalizer;
 
-import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
+/**
+ * In-memory MatchDAO safe for concurrent sessions.
+ * Writes to one match are serialized by the primary map, which also updates
+ * the secondary indexes (organizer, status, field manager, field city,
+ * joined player).
+ * Matches are copied on the way in and on the way out, and a write replaces
+ * the stored copy rather than changing it, so readers never see a match
+ * half updated and callers cannot move a match away from its index entries.
+ * The keys a match was indexed under are remembered, so a replaced copy can
+ * be removed from its old entries.
+ * Index hits are re-checked against the match, so a reader racing a writer
+ * never returns a match that no longer qualifies. Index entries are sorted
+ * by {@link MatchKey}, which lets pages resume from a cursor and a
+ * {@link MatchQuery} walk only the date range of its most selective index,
+ * probing the others per candidate. The same
+ * writes keep the {@link AvailabilityIndex} of field bookings current.
+ */
 public class MatchDAOMemory implements MatchDAO {
-    private static final Map<Integer, Match> matches = new HashMap<>();
-    private static int nextId = 1;
+    private final ConcurrentMap<Integer, Match> matches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, IndexKeys> indexedKeys = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<MatchKey>> byOrganizer = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<MatchKey>> byManager = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, NavigableSet<MatchKey>> byJoinedPlayer = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, NavigableSet<MatchKey>> byCity = new ConcurrentHashMap<>();
+    private final Map<MatchStatus, NavigableSet<MatchKey>> byStatus = new EnumMap<>(MatchStatus.class);
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final AvailabilityIndex availability = new AvailabilityIndex(() -> matches.values().stream());
 
-    private static synchronized int nextId() {
-        return nextId++;
+    private record IndexKeys(MatchKey key, int organizerId, int managerId, String cityKey, MatchStatus status,
+            List<Integer> joinedPlayers) {
+        static IndexKeys of(Match match) {
+            Field field = match.getField();
+            return new IndexKeys(
+                    MatchKey.of(match),
+                    match.getOrganizer() != null ? match.getOrganizer().getId() : 0,
+                    field != null && field.getManager() != null ? field.getManager().getId() : 0,
+                    field != null ? TextNormalizer.key(field.getCity()) : "",
+                    match.getStatus(),
+                    List.copyOf(match.getJoinedPlayers()));
+        }
+    }
+
+    public MatchDAOMemory() {
+        for (MatchStatus status : MatchStatus.values()) {
+            byStatus.put(status, new ConcurrentSkipListSet<>());
+        }
+        availability.load();
+    }
+
+    /**
+     * @return the bookings of the approved matches stored here
+     */
+    public AvailabilityIndex getAvailability() {
+        return availability;
+    }
+
+    /**
+     * Adds and removes inside the index's compute, so an entry emptied by
+     * {@link #remove} is dropped without losing a concurrent add to it.
+     */
+    private static <K> void add(ConcurrentMap<K, NavigableSet<MatchKey>> index, K key, MatchKey matchKey) {
+        index.compute(key, (k, keys) -> {
+            NavigableSet<MatchKey> entry = keys != null ? keys : new ConcurrentSkipListSet<>();
+            entry.add(matchKey);
+            return entry;
+        });
+    }
+
+    private static <K> void remove(ConcurrentMap<K, NavigableSet<MatchKey>> index, K key, MatchKey matchKey) {
+        index.computeIfPresent(key, (k, keys) -> {
+            keys.remove(matchKey);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Moves the match from its previous index entries to the current ones.
+     * Called inside the primary map's compute, so it never runs concurrently
+     * for the same id.
+     */
+    private void reindex(int matchId, Match match) {
+        IndexKeys old = match != null ? indexedKeys.put(matchId, IndexKeys.of(match)) : indexedKeys.remove(matchId);
+        if (old != null) {
+            MatchKey key = old.key();
+            remove(byOrganizer, old.organizerId(), key);
+            remove(byManager, old.managerId(), key);
+            remove(byCity, old.cityKey(), key);
+            byStatus.get(old.status()).remove(key);
+            old.joinedPlayers().forEach(userId -> remove(byJoinedPlayer, userId, key));
+        }
+        if (match != null) {
+            IndexKeys keys = indexedKeys.get(matchId);
+            MatchKey key = keys.key();
+            add(byOrganizer, keys.organizerId(), key);
+            add(byManager, keys.managerId(), key);
+            add(byCity, keys.cityKey(), key);
+            byStatus.get(keys.status()).add(key);
+            keys.joinedPlayers().forEach(userId -> add(byJoinedPlayer, userId, key));
+            availability.put(match);
+        } else {
+            availability.remove(matchId);
+        }
+    }
+
+    private static Match copyOf(Match match) {
+        Match copy = new Match(match.getId(), match.getOrganizer(), match.getField(), match.getDate(),
+                match.getTime(), match.getMissingPlayers(), match.getStatus());
+        copy.setJoinedPlayers(new ArrayList<>(match.getJoinedPlayers()));
+        return copy;
+    }
+
+    private List<Match> resolve(Collection<MatchKey> keys, Predicate<Match> stillMatches) {
+        if (keys == null) {
+            return List.of();
+        }
+        List<Match> result = new ArrayList<>(keys.size());
+        for (MatchKey key : keys) {
+            Match match = matches.get(key.id());
+            if (match != null && stillMatches.test(match)) {
+                result.add(copyOf(match));
+            }
+        }
+        return List.copyOf(result);
+    }
+
+    private Page<Match> page(NavigableSet<MatchKey> keys, String cursor, int limit, Predicate<Match> stillMatches) {
+        if (keys == null) {
+            return new Page<>(List.of(), null);
+        }
+        MatchKey after = PageCursor.toMatchKey(cursor);
+        List<Match> rows = new ArrayList<>(limit + 1);
+        for (MatchKey key : after != null ? keys.tailSet(after, false) : keys) {
+            Match match = matches.get(key.id());
+            if (match != null && stillMatches.test(match)) {
+                rows.add(copyOf(match));
+                if (rows.size() > limit) {
+                    break;
+                }
+            }
+        }
+        return Page.of(rows, limit, PageCursor::of);
     }
 
     @Override
     public void save(Match match) {
         if (match.getId() == 0) {
-            match.setId(nextId());
+            match.setId(nextId.getAndIncrement());
+        } else {
+            nextId.accumulateAndGet(match.getId() + 1, Math::max);
         }
-        matches.put(match.getId(), match);
+        Match stored = copyOf(match);
+        matches.compute(stored.getId(), (id, old) -> {
+            reindex(id, stored);
+            return stored;
+        });
+    }
+
+    @Override
+    public void saveAll(List<Match> matches) {
+        matches.forEach(this::save);
     }
 
     @Override
     public Match findById(int id) {
-        return matches.get(id);
+        Match match = matches.get(id);
+        return match != null ? copyOf(match) : null;
     }
 
     @Override
     public List<Match> findByOrganizer(int organizerId) {
-        return matches.values().stream()
-                .filter(match -> match.getOrganizer() != null && match.getOrganizer().getId() == organizerId)
-                .toList();
+        return resolve(byOrganizer.get(organizerId),
+                match -> match.getOrganizer() != null && match.getOrganizer().getId() == organizerId);
+    }
+
+    @Override
+    public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+        return page(byOrganizer.get(organizerId), cursor, limit,
+                match -> match.getOrganizer() != null && match.getOrganizer().getId() == organizerId);
     }
 
     @Override
     public List<Match> findPendingForManager(int managerId) {
-        List<Match> pendingMatches = new ArrayList<>();
-        for (Match match : matches.values()) {
-            if (match.getStatus() == MatchStatus.PENDING) {
-                Field field = match.getField();
-                if (field != null && field.getManager() != null && field.getManager().getId() == managerId) {
-                    pendingMatches.add(match);
-                }
-            }
-        }
-        return List.copyOf(pendingMatches);
+        return resolve(byManager.get(managerId), match -> match.getStatus() == MatchStatus.PENDING
+                && match.getField() != null && match.getField().getManager() != null
+                && match.getField().getManager().getId() == managerId);
     }
 
     @Override
     public List<Match> findApprovedMatches() {
-        List<Match> approvedMatches = new ArrayList<>();
-        for (Match match : matches.values()) {
-            if (match.getStatus() == MatchStatus.APPROVED) {
-                approvedMatches.add(match);
+        return resolve(byStatus.get(MatchStatus.APPROVED), Match::isApproved);
+    }
+
+    @Override
+    public Page<Match> findApprovedMatches(String cursor, int limit) {
+        return page(byStatus.get(MatchStatus.APPROVED), cursor, limit, Match::isApproved);
+    }
+
+    /**
+     * Walks the date range of the organizer index, the city index or the
+     * status index, the first one the query constrains, from the cursor on,
+     * and probes the status, organizer and joined-player indexes for each
+     * candidate before touching the match itself.
+     */
+    @Override
+    public List<Match> find(MatchQuery query) {
+        NavigableSet<MatchKey> driver;
+        if (query.organizerId() != null) {
+            driver = byOrganizer.get(query.organizerId());
+        } else if (query.city() != null) {
+            driver = byCity.get(query.cityKey());
+        } else if (query.status() != null) {
+            driver = byStatus.get(query.status());
+        } else {
+            driver = new TreeSet<>();
+            indexedKeys.values().forEach(keys -> driver.add(keys.key()));
+        }
+        if (driver == null || query.limit() == 0) {
+            return List.of();
+        }
+        NavigableSet<MatchKey> statusKeys = query.status() != null ? byStatus.get(query.status()) : null;
+        NavigableSet<MatchKey> organizerKeys = query.excludedOrganizerId() != null
+                ? byOrganizer.get(query.excludedOrganizerId()) : null;
+        NavigableSet<MatchKey> joinedKeys = query.excludedJoinedUserId() != null
+                ? byJoinedPlayer.get(query.excludedJoinedUserId()) : null;
+        List<Match> result = new ArrayList<>();
+        NavigableSet<MatchKey> candidates = MatchKey.inDateRange(driver, query.fromDate(), query.toDate());
+        for (MatchKey key : query.after() != null ? candidates.tailSet(query.after(), false) : candidates) {
+            if ((statusKeys != null && statusKeys != driver && !statusKeys.contains(key))
+                    || (organizerKeys != null && organizerKeys.contains(key))
+                    || (joinedKeys != null && joinedKeys.contains(key))) {
+                continue;
+            }
+            Match match = matches.get(key.id());
+            if (match != null && query.matches(match)) {
+                result.add(copyOf(match));
+                if (result.size() == query.limit()) {
+                    break;
+                }
             }
         }
-        return List.copyOf(approvedMatches);
+        return List.copyOf(result);
+    }
+
+    @Override
+    public Stream<Match> streamAll() {
+        return matches.values().stream().map(MatchDAOMemory::copyOf);
     }
 
     @Override
     public void updateStatus(int matchId, MatchStatus status) {
-        Match match = matches.get(matchId);
-        if (match != null) {
-            match.setStatus(status);
-        }
+        matches.computeIfPresent(matchId, (id, match) -> {
+            Match updated = copyOf(match);
+            updated.setStatus(status);
+            reindex(id, updated);
+            return updated;
+        });
+    }
+
+    @Override
+    public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+        statuses.forEach(this::updateStatus);
     }
 
     @Override
     public void delete(int id) {
-        matches.remove(id);
+        matches.computeIfPresent(id, (key, match) -> {
+            reindex(key, null);
+            return null;
+        });
     }
 
+    /**
+     * Walks only the matches that started by {@code now}, oldest first, and
+     * deletes each under its own bin lock, re-checking it has ended.
+     */
     @Override
-    public void deleteExpiredMatches() {
-        LocalDate today = LocalDate.now();
-        List<Integer> toDelete = matches.values().stream()
-                .filter(match -> match.getDate().isBefore(today))
-                .map(Match::getId)
-                .toList();
-        toDelete.forEach(matches::remove);
+    public int deleteExpiredMatches(LocalDateTime now, int limit) {
+        List<Integer> expired = new ArrayList<>(limit);
+        for (NavigableSet<MatchKey> keys : byStatus.values()) {
+            for (MatchKey key : MatchKey.startedBy(keys, now)) {
+                if (expired.size() == limit) {
+                    break;
+                }
+                Match match = matches.get(key.id());
+                if (match != null && match.hasEndedBy(now)) {
+                    expired.add(key.id());
+                }
+            }
+        }
+        int[] deleted = { 0 };
+        for (int id : expired) {
+            matches.computeIfPresent(id, (key, match) -> {
+                if (!match.hasEndedBy(now)) {
+                    return match;
+                }
+                reindex(key, null);
+                deleted[0]++;
+                return null;
+            });
+        }
+        return deleted[0];
     }
 
     @Override
     public void update(Match match) {
-        if (match != null && matches.containsKey(match.getId())) {
-            matches.put(match.getId(), match);
+        if (match != null) {
+            Match stored = copyOf(match);
+            matches.computeIfPresent(stored.getId(), (id, old) -> {
+                reindex(id, stored);
+                return stored;
+            });
         }
     }
 
     @Override
-    public List<Match> findByJoinedPlayer(int userId) {
-        return matches.values().stream()
-                .filter(match -> match.getJoinedPlayers().contains(userId))
-                .toList();
+    public void updateAll(List<Match> matches) {
+        matches.forEach(this::update);
+    }
+
+    /**
+     * Runs inside the primary map's compute, which locks only the bin of this
+     * match: joins of one match are serialized, joins of others proceed.
+     * The joined copy replaces the stored one, so readers holding the
+     * previous copy are not affected.
+     */
+    @Override
+    public JoinResult tryJoin(int matchId, int userId) {
+        JoinResult[] result = { JoinResult.NOT_FOUND };
+        matches.computeIfPresent(matchId, (id, match) -> {
+            if (match.isUserJoined(userId)) {
+                result[0] = JoinResult.ALREADY_JOINED;
+            } else if (match.getMissingPlayers() <= 0) {
+                result[0] = JoinResult.FULL;
+            } else {
+                try {
+                    Match joined = copyOf(match);
+                    joined.addJoinedPlayer(userId);
+                    reindex(id, joined);
+                    result[0] = JoinResult.JOINED;
+                    return joined;
+                } catch (ValidationException e) {
+                    result[0] = JoinResult.FULL;
+                }
+            }
+            return match;
+        });
+        return result[0];
     }
 
-    public static void clearAll() {
-        matches.clear();
-        nextId = 1;
+    @Override
+    public List<Match> findByJoinedPlayer(int userId) {
+        return resolve(byJoinedPlayer.get(userId), match -> match.isUserJoined(userId));
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,12 @@ import model.dao.*;
 
 public class MemoryDAOFactory implements DAOFactory {
     private final UserDAO userDAO = new UserDAOMemory();
-    private final MatchDAO matchDAO = new MatchDAOMemory();
-    private final FieldDAO fieldDAO = new FieldDAOMemory();
+    private final MatchDAOMemory matchStore = new MatchDAOMemory();
+    private final FieldDAO fieldDAO = new FieldDAOMemory(matchStore.getAvailability());
     private final NotificationDAO notificationDAO = new NotificationDAOMemory();
+    private final NotificationOutbox notificationOutbox = new NotificationOutboxMemory();
+    private final MatchDAO matchDAO = new OutboxMatchDAO(matchStore, notificationOutbox);
+    private final MatchListingDAO matchListingDAO = new ProjectedMatchListingDAO(matchStore);
 
     @Override
     public UserDAO getUserDAO() {
@@ -27,4 +30,14 @@ public class MemoryDAOFactory implements DAOFactory {
     public NotificationDAO getNotificationDAO() {
         return notificationDAO;
     }
+
+    @Override
+    public MatchListingDAO getMatchListingDAO() {
+        return matchListingDAO;
+    }
+
+    @Override
+    public NotificationOutbox getNotificationOutbox() {
+        return notificationOutbox;
+    }
 }
\ No newline at end of file
@@ -4,46 +4,112 @@ import model.dao.NotificationDAO;
 import model.domain.Notification;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * In-memory implementation of NotificationDAO for testing/demo purposes.
+ * Unread notifications are indexed by recipient and then by id, so reading,
+ * counting and clearing a user's inbox does not scan everyone else's, and
+ * polling for new notifications does not re-read the user's backlog.
  */
 public class NotificationDAOMemory implements NotificationDAO {
-    private static final Map<Integer, Notification> notifications = new HashMap<>();
-    private static final AtomicInteger idGenerator = new AtomicInteger(1);
+    private final ConcurrentMap<String, Inbox> unreadByRecipient = new ConcurrentHashMap<>();
+    private final AtomicInteger idGenerator = new AtomicInteger(1);
+
+    /**
+     * A recipient's unread notifications and their count. Both change only
+     * inside {@code compute} on the recipient's entry, so they stay in step.
+     */
+    private static final class Inbox {
+        private final NavigableMap<Integer, Notification> byId = new ConcurrentSkipListMap<>();
+        private final AtomicInteger unread = new AtomicInteger();
+
+        private void add(Notification notification) {
+            byId.put(notification.getId(), notification);
+            unread.incrementAndGet();
+        }
+    }
 
     @Override
     public void save(Notification notification) {
         notification.setId(idGenerator.getAndIncrement());
-        notifications.put(notification.getId(), notification);
+        if (!notification.isRead()) {
+            unreadByRecipient.compute(notification.getRecipientUsername(), (recipient, inbox) -> {
+                Inbox target = inbox != null ? inbox : new Inbox();
+                target.add(notification);
+                return target;
+            });
+        }
+    }
+
+    @Override
+    public void saveAll(List<Notification> notifications) {
+        notifications.forEach(this::save);
     }
 
     @Override
     public List<Notification> findUnreadByUsername(String username) {
-        List<Notification> result = new ArrayList<>();
-        for (Notification n : notifications.values()) {
-            if (n.getRecipientUsername().equals(username) && !n.isRead()) {
-                result.add(n);
-            }
+        Inbox inbox = unreadByRecipient.get(username);
+        if (inbox == null) {
+            return new ArrayList<>();
         }
+        List<Notification> result = new ArrayList<>(inbox.byId.values());
+        result.sort(Comparator.comparing(Notification::getCreatedAt)
+                .thenComparing(Notification::getId).reversed());
         return result;
     }
 
+    @Override
+    public List<Notification> findSince(String username, int lastSeenId, int limit) {
+        Inbox inbox = unreadByRecipient.get(username);
+        if (inbox == null) {
+            return new ArrayList<>();
+        }
+        return inbox.byId.tailMap(lastSeenId, false).values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Notification> findLatestUnread(String username, int limit) {
+        Inbox inbox = unreadByRecipient.get(username);
+        if (inbox == null) {
+            return new ArrayList<>();
+        }
+        return inbox.byId.descendingMap().values().stream()
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public int countUnread(String username) {
+        Inbox inbox = unreadByRecipient.get(username);
+        return inbox != null ? inbox.unread.get() : 0;
+    }
+
     @Override
     public void markAllAsRead(String username) {
-        for (Notification n : notifications.values()) {
-            if (n.getRecipientUsername().equals(username)) {
-                n.setRead(true);
-            }
+        Inbox inbox = unreadByRecipient.remove(username);
+        if (inbox != null) {
+            inbox.byId.values().forEach(n -> n.setRead(true));
         }
     }
 
-    // For testing: clear all notifications
-    public static void clear() {
-        notifications.clear();
+    @Override
+    public void markReadBetween(String username, int firstId, int lastId) {
+        unreadByRecipient.computeIfPresent(username, (recipient, inbox) -> {
+            Map<Integer, Notification> shown = inbox.byId.subMap(firstId, true, lastId, true);
+            shown.values().forEach(n -> n.setRead(true));
+            inbox.unread.addAndGet(-shown.size());
+            shown.clear();
+            return inbox.byId.isEmpty() ? null : inbox;
+        });
     }
-}
\ No newline at end of file
+}
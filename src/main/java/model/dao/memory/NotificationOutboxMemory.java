@@ -0,0 +1,66 @@
+package model.dao.memory;
+
+import model.dao.NotificationOutbox;
+import model.dao.OutboxEntry;
+import model.domain.Notification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory implementation of NotificationOutbox for testing/demo purposes.
+ * Entries are kept in id order, which is also their age order.
+ */
+public class NotificationOutboxMemory implements NotificationOutbox {
+    private final ConcurrentNavigableMap<Long, OutboxEntry> entries = new ConcurrentSkipListMap<>();
+    private final AtomicLong idGenerator = new AtomicLong(1);
+
+    @Override
+    public List<Long> append(List<Notification> notifications) {
+        List<Long> ids = new ArrayList<>(notifications.size());
+        LocalDateTime now = LocalDateTime.now();
+        for (Notification notification : notifications) {
+            long id = idGenerator.getAndIncrement();
+            entries.put(id, new OutboxEntry(id, notification, 0, now));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @Override
+    public List<OutboxEntry> findDue(LocalDateTime now, int limit) {
+        List<OutboxEntry> due = new ArrayList<>();
+        for (OutboxEntry entry : entries.values()) {
+            if (due.size() >= limit) {
+                break;
+            }
+            if (!entry.nextAttemptAt().isAfter(now)) {
+                due.add(entry);
+            }
+        }
+        return due;
+    }
+
+    @Override
+    public void remove(Collection<Long> ids) {
+        ids.forEach(entries::remove);
+    }
+
+    @Override
+    public void retryLater(Collection<Long> ids, LocalDateTime nextAttemptAt) {
+        for (Long id : ids) {
+            entries.computeIfPresent(id, (k, entry) -> new OutboxEntry(k, entry.notification(),
+                    entry.attempts() + 1, nextAttemptAt));
+        }
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+}
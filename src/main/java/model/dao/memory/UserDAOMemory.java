@@ -4,31 +4,19 @@ import model.dao.UserDAO;
 import model.domain.Role;
 import model.domain.User;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class UserDAOMemory implements UserDAO {
-    private static final Map<String, User> usersByUsername = new HashMap<>();
-    private static final Map<Integer, User> usersById = new HashMap<>();
-    private static int idCounter = 1;
-
-    static {
-        addStaticUser(new User(idCounter++, "demo", "demo123", "Demo", "Player", Role.PLAYER));
-        addStaticUser(new User(idCounter++, "organizer", "org123", "Test", "Organizer", Role.ORGANIZER));
-        addStaticUser(new User(idCounter++, "manager", "man123", "Test", "Manager", Role.FIELD_MANAGER));
-    }
-
-    private static void addStaticUser(User user) {
-        usersByUsername.put(user.getUsername(), user);
-        usersById.put(user.getId(), user);
-    }
-
-    private static synchronized int getNextId() {
-        return idCounter++;
-    }
+    private final ConcurrentMap<String, User> usersByUsername = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Integer, User> usersById = new ConcurrentHashMap<>();
+    private final AtomicInteger idCounter = new AtomicInteger(1);
 
     public UserDAOMemory() {
-        // Default constructor
+        save(new User(0, "demo", "demo123", "Demo", "Player", Role.PLAYER));
+        save(new User(0, "organizer", "org123", "Test", "Organizer", Role.ORGANIZER));
+        save(new User(0, "manager", "man123", "Test", "Manager", Role.FIELD_MANAGER));
     }
 
     @Override
@@ -47,14 +35,25 @@ public class UserDAOMemory implements UserDAO {
 
     @Override
     public User findByUsername(String username) {
-        return usersByUsername.get(username);
+        return username != null ? usersByUsername.get(username) : null;
     }
 
     @Override
     public void save(User user) {
         if (user.getId() == 0) {
-            user.setId(getNextId());
+            user.setId(idCounter.getAndIncrement());
+        } else {
+            idCounter.accumulateAndGet(user.getId() + 1, Math::max);
         }
-        addStaticUser(user);
+        // The id entry serializes saves of one user while the username index moves
+        usersById.compute(user.getId(), (id, old) -> {
+            if (old != null && old.getUsername() != null && !old.getUsername().equals(user.getUsername())) {
+                usersByUsername.remove(old.getUsername(), old);
+            }
+            if (user.getUsername() != null) {
+                usersByUsername.put(user.getUsername(), user);
+            }
+            return user;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,99 @@
+package model.dao.metrics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Writes the counters of an {@link InstrumentedDAOFactory} to the log at a
+ * fixed interval, one line per method called since the previous dump.
+ * Counts and percentiles are totals since start-up.
+ */
+public class DAOMetricsReporter implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(DAOMetricsReporter.class.getName());
+
+    private final InstrumentedDAOFactory factory;
+    private final Settings settings;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Long> reportedCalls = new HashMap<>();
+
+    /**
+     * @param intervalMillis delay between two dumps
+     */
+    public record Settings(long intervalMillis) {
+        public static final Settings DEFAULTS = new Settings(300_000);
+
+        /**
+         * Reads {@code sporty.metrics.logIntervalMs}, keeping the default if
+         * it is not set.
+         */
+        public static Settings fromProperties(Properties properties) {
+            return new Settings(Long.parseLong(properties.getProperty("sporty.metrics.logIntervalMs",
+                    String.valueOf(DEFAULTS.intervalMillis()))));
+        }
+    }
+
+    public DAOMetricsReporter(InstrumentedDAOFactory factory, Settings settings) {
+        this.factory = factory;
+        this.settings = settings;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sporty-dao-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a dump every interval, the first one interval from now.
+     */
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::runQuietly, settings.intervalMillis(), settings.intervalMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private void runQuietly() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "DAO metrics dump failed", e);
+        }
+    }
+
+    /**
+     * Logs the methods called since the previous dump.
+     *
+     * @return the number of methods logged
+     */
+    public synchronized int runOnce() {
+        List<MethodMetrics.Stats> stats = factory.getStats();
+        int logged = 0;
+        for (MethodMetrics.Stats method : stats) {
+            String key = method.dao() + "." + method.method();
+            Long previous = reportedCalls.put(key, method.calls());
+            if (method.calls() > (previous != null ? previous : 0)) {
+                logger.info(format(method));
+                logged++;
+            }
+        }
+        return logged;
+    }
+
+    static String format(MethodMetrics.Stats method) {
+        return String.format(Locale.ROOT, "DAO %s %s.%s: calls=%d errors=%d p50=%.1fus p95=%.1fus p99=%.1fus max=%.1fus",
+                method.backend(), method.dao(), method.method(), method.calls(), method.errors(),
+                method.p50Nanos() / 1_000.0, method.p95Nanos() / 1_000.0, method.p99Nanos() / 1_000.0,
+                method.maxNanos() / 1_000.0);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
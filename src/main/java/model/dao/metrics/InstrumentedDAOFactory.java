@@ -0,0 +1,454 @@
+package model.dao.metrics;
+
+import model.dao.*;
+import model.domain.Field;
+import model.domain.Match;
+import model.domain.MatchStatus;
+import model.domain.Notification;
+import model.domain.Sport;
+import model.domain.User;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * DAOFactory decorator that measures every method of the user, match, field
+ * and notification DAOs of the wrapped factory: calls, errors and a
+ * {@link LatencyHistogram} per method, labeled with the backend's name.
+ * Recording takes two clock reads and a few uncontended atomic updates, so
+ * the decorator can stay on in production. The counters can be read through
+ * {@link #getStats()}, as JMX MBeans named
+ * {@code sporty:type=DAO,backend=...,dao=...,method=...} once
+ * {@link #registerMBeans()} is called, and in the log through a
+ * {@link DAOMetricsReporter}.
+ * <p>
+ * The {@code streamAll} methods are timed up to the return of the stream,
+ * not while it is consumed. Overloads taking a page cursor are labeled with
+ * a {@code (page)} suffix. Listings and the outbox are passed through.
+ */
+public class InstrumentedDAOFactory implements DAOFactory {
+    private static final Logger logger = Logger.getLogger(InstrumentedDAOFactory.class.getName());
+    private static final String DOMAIN = "sporty";
+
+    private final DAOFactory delegate;
+    private final String backend;
+    private final List<MethodMetrics> methods = new ArrayList<>();
+    private final List<ObjectName> registered = new ArrayList<>();
+    private final UserDAO userDAO;
+    private final MatchDAO matchDAO;
+    private final FieldDAO fieldDAO;
+    private final NotificationDAO notificationDAO;
+
+    /**
+     * @param backend the label of the wrapped backend, such as {@code dbms}
+     */
+    public InstrumentedDAOFactory(DAOFactory delegate, String backend) {
+        this.delegate = delegate;
+        this.backend = backend;
+        this.userDAO = new InstrumentedUserDAO(delegate.getUserDAO());
+        this.matchDAO = new InstrumentedMatchDAO(delegate.getMatchDAO());
+        this.fieldDAO = new InstrumentedFieldDAO(delegate.getFieldDAO());
+        this.notificationDAO = new InstrumentedNotificationDAO(delegate.getNotificationDAO());
+    }
+
+    public DAOFactory getDelegate() {
+        return delegate;
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    /**
+     * @return the counters of every method, in DAO and declaration order
+     */
+    public List<MethodMetrics.Stats> getStats() {
+        return methods.stream().map(MethodMetrics::getStats).toList();
+    }
+
+    /**
+     * Registers one MBean per method with the platform MBean server,
+     * replacing those of an earlier factory for the same backend. A failed
+     * registration is logged and skipped, since the DAOs work without it.
+     */
+    public synchronized void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (MethodMetrics method : methods) {
+            try {
+                ObjectName name = objectName(method);
+                if (server.isRegistered(name)) {
+                    server.unregisterMBean(name);
+                }
+                server.registerMBean(method, name);
+                registered.add(name);
+            } catch (JMException e) {
+                logger.log(Level.WARNING, "Could not register DAO metrics for " + method.getMethod(), e);
+            }
+        }
+    }
+
+    public synchronized void unregisterMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException e) {
+                logger.log(Level.FINE, "DAO metrics already unregistered: {0}", name);
+            }
+        }
+        registered.clear();
+    }
+
+    public static ObjectName objectName(String backend, String dao, String method) throws JMException {
+        return new ObjectName(DOMAIN + ":type=DAO,backend=" + backend + ",dao=" + dao + ",method=" + method);
+    }
+
+    private static ObjectName objectName(MethodMetrics method) throws JMException {
+        return objectName(method.getBackend(), method.getDao(), method.getMethod());
+    }
+
+    private MethodMetrics method(String dao, String name) {
+        MethodMetrics metrics = new MethodMetrics(backend, dao, name);
+        methods.add(metrics);
+        return metrics;
+    }
+
+    @Override
+    public UserDAO getUserDAO() {
+        return userDAO;
+    }
+
+    @Override
+    public MatchDAO getMatchDAO() {
+        return matchDAO;
+    }
+
+    @Override
+    public FieldDAO getFieldDAO() {
+        return fieldDAO;
+    }
+
+    @Override
+    public NotificationDAO getNotificationDAO() {
+        return notificationDAO;
+    }
+
+    @Override
+    public MatchListingDAO getMatchListingDAO() {
+        return delegate.getMatchListingDAO();
+    }
+
+    @Override
+    public NotificationOutbox getNotificationOutbox() {
+        return delegate.getNotificationOutbox();
+    }
+
+    private final class InstrumentedUserDAO implements UserDAO {
+        private static final String DAO = "UserDAO";
+
+        private final UserDAO target;
+        private final MethodMetrics authenticate = method(DAO, "authenticate");
+        private final MethodMetrics findById = method(DAO, "findById");
+        private final MethodMetrics findByUsername = method(DAO, "findByUsername");
+        private final MethodMetrics save = method(DAO, "save");
+
+        private InstrumentedUserDAO(UserDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public User authenticate(String username, String password) {
+            return authenticate.time(() -> target.authenticate(username, password));
+        }
+
+        @Override
+        public User findById(int id) {
+            return findById.time(() -> target.findById(id));
+        }
+
+        @Override
+        public User findByUsername(String username) {
+            return findByUsername.time(() -> target.findByUsername(username));
+        }
+
+        @Override
+        public void save(User user) {
+            save.run(() -> target.save(user));
+        }
+    }
+
+    private final class InstrumentedMatchDAO implements MatchDAO {
+        private static final String DAO = "MatchDAO";
+
+        private final MatchDAO target;
+        private final MethodMetrics save = method(DAO, "save");
+        private final MethodMetrics saveAll = method(DAO, "saveAll");
+        private final MethodMetrics findById = method(DAO, "findById");
+        private final MethodMetrics findByOrganizer = method(DAO, "findByOrganizer");
+        private final MethodMetrics findByOrganizerPage = method(DAO, "findByOrganizer(page)");
+        private final MethodMetrics findPendingForManager = method(DAO, "findPendingForManager");
+        private final MethodMetrics findApprovedMatches = method(DAO, "findApprovedMatches");
+        private final MethodMetrics findApprovedMatchesPage = method(DAO, "findApprovedMatches(page)");
+        private final MethodMetrics find = method(DAO, "find");
+        private final MethodMetrics streamAll = method(DAO, "streamAll");
+        private final MethodMetrics updateStatus = method(DAO, "updateStatus");
+        private final MethodMetrics updateStatusAll = method(DAO, "updateStatusAll");
+        private final MethodMetrics update = method(DAO, "update");
+        private final MethodMetrics updateAll = method(DAO, "updateAll");
+        private final MethodMetrics tryJoin = method(DAO, "tryJoin");
+        private final MethodMetrics findByJoinedPlayer = method(DAO, "findByJoinedPlayer");
+        private final MethodMetrics delete = method(DAO, "delete");
+        private final MethodMetrics deleteExpiredMatches = method(DAO, "deleteExpiredMatches");
+
+        private InstrumentedMatchDAO(MatchDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public void save(Match match) {
+            save.run(() -> target.save(match));
+        }
+
+        @Override
+        public void saveAll(List<Match> matches) {
+            saveAll.run(() -> target.saveAll(matches));
+        }
+
+        @Override
+        public Match findById(int id) {
+            return findById.time(() -> target.findById(id));
+        }
+
+        @Override
+        public List<Match> findByOrganizer(int organizerId) {
+            return findByOrganizer.time(() -> target.findByOrganizer(organizerId));
+        }
+
+        @Override
+        public Page<Match> findByOrganizer(int organizerId, String cursor, int limit) {
+            return findByOrganizerPage.time(() -> target.findByOrganizer(organizerId, cursor, limit));
+        }
+
+        @Override
+        public List<Match> findPendingForManager(int managerId) {
+            return findPendingForManager.time(() -> target.findPendingForManager(managerId));
+        }
+
+        @Override
+        public List<Match> findApprovedMatches() {
+            return findApprovedMatches.time(target::findApprovedMatches);
+        }
+
+        @Override
+        public Page<Match> findApprovedMatches(String cursor, int limit) {
+            return findApprovedMatchesPage.time(() -> target.findApprovedMatches(cursor, limit));
+        }
+
+        @Override
+        public List<Match> find(MatchQuery query) {
+            return find.time(() -> target.find(query));
+        }
+
+        @Override
+        public Stream<Match> streamAll() {
+            return streamAll.time(target::streamAll);
+        }
+
+        @Override
+        public void updateStatus(int matchId, MatchStatus status) {
+            updateStatus.run(() -> target.updateStatus(matchId, status));
+        }
+
+        @Override
+        public void updateStatusAll(Map<Integer, MatchStatus> statuses) {
+            updateStatusAll.run(() -> target.updateStatusAll(statuses));
+        }
+
+        @Override
+        public void update(Match match) {
+            update.run(() -> target.update(match));
+        }
+
+        @Override
+        public void updateAll(List<Match> matches) {
+            updateAll.run(() -> target.updateAll(matches));
+        }
+
+        @Override
+        public JoinResult tryJoin(int matchId, int userId) {
+            return tryJoin.time(() -> target.tryJoin(matchId, userId));
+        }
+
+        @Override
+        public List<Match> findByJoinedPlayer(int userId) {
+            return findByJoinedPlayer.time(() -> target.findByJoinedPlayer(userId));
+        }
+
+        @Override
+        public void delete(int id) {
+            delete.run(() -> target.delete(id));
+        }
+
+        @Override
+        public int deleteExpiredMatches(LocalDateTime now, int limit) {
+            return deleteExpiredMatches.timeInt(() -> target.deleteExpiredMatches(now, limit));
+        }
+    }
+
+    private final class InstrumentedFieldDAO implements FieldDAO {
+        private static final String DAO = "FieldDAO";
+
+        private final FieldDAO target;
+        private final MethodMetrics findAll = method(DAO, "findAll");
+        private final MethodMetrics findAllPage = method(DAO, "findAll(page)");
+        private final MethodMetrics streamAll = method(DAO, "streamAll");
+        private final MethodMetrics findById = method(DAO, "findById");
+        private final MethodMetrics findByCity = method(DAO, "findByCity");
+        private final MethodMetrics findByCityPage = method(DAO, "findByCity(page)");
+        private final MethodMetrics findAvailableFields = method(DAO, "findAvailableFields");
+        private final MethodMetrics findEarliestFreeSlots = method(DAO, "findEarliestFreeSlots");
+        private final MethodMetrics searchByNameOrAddress = method(DAO, "searchByNameOrAddress");
+        private final MethodMetrics findByManagerId = method(DAO, "findByManagerId");
+        private final MethodMetrics save = method(DAO, "save");
+        private final MethodMetrics saveAll = method(DAO, "saveAll");
+        private final MethodMetrics delete = method(DAO, "delete");
+
+        private InstrumentedFieldDAO(FieldDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public List<Field> findAll() {
+            return findAll.time(target::findAll);
+        }
+
+        @Override
+        public Page<Field> findAll(String cursor, int limit) {
+            return findAllPage.time(() -> target.findAll(cursor, limit));
+        }
+
+        @Override
+        public Stream<Field> streamAll() {
+            return streamAll.time(target::streamAll);
+        }
+
+        @Override
+        public Field findById(int id) {
+            return findById.time(() -> target.findById(id));
+        }
+
+        @Override
+        public List<Field> findByCity(String city) {
+            return findByCity.time(() -> target.findByCity(city));
+        }
+
+        @Override
+        public Page<Field> findByCity(String city, String cursor, int limit) {
+            return findByCityPage.time(() -> target.findByCity(city, cursor, limit));
+        }
+
+        @Override
+        public List<Field> findAvailableFields(String city, Sport sport, LocalDate date, LocalTime time) {
+            return findAvailableFields.time(() -> target.findAvailableFields(city, sport, date, time));
+        }
+
+        @Override
+        public List<FreeSlot> findEarliestFreeSlots(SlotQuery query) {
+            return findEarliestFreeSlots.time(() -> target.findEarliestFreeSlots(query));
+        }
+
+        @Override
+        public List<Field> searchByNameOrAddress(String text, int limit) {
+            return searchByNameOrAddress.time(() -> target.searchByNameOrAddress(text, limit));
+        }
+
+        @Override
+        public List<Field> findByManagerId(int managerId) {
+            return findByManagerId.time(() -> target.findByManagerId(managerId));
+        }
+
+        @Override
+        public void save(Field field) {
+            save.run(() -> target.save(field));
+        }
+
+        @Override
+        public void saveAll(List<Field> fields) {
+            saveAll.run(() -> target.saveAll(fields));
+        }
+
+        @Override
+        public void delete(int id) {
+            delete.run(() -> target.delete(id));
+        }
+    }
+
+    private final class InstrumentedNotificationDAO implements NotificationDAO {
+        private static final String DAO = "NotificationDAO";
+
+        private final NotificationDAO target;
+        private final MethodMetrics save = method(DAO, "save");
+        private final MethodMetrics saveAll = method(DAO, "saveAll");
+        private final MethodMetrics findUnreadByUsername = method(DAO, "findUnreadByUsername");
+        private final MethodMetrics findSince = method(DAO, "findSince");
+        private final MethodMetrics findLatestUnread = method(DAO, "findLatestUnread");
+        private final MethodMetrics countUnread = method(DAO, "countUnread");
+        private final MethodMetrics markAllAsRead = method(DAO, "markAllAsRead");
+        private final MethodMetrics markReadBetween = method(DAO, "markReadBetween");
+
+        private InstrumentedNotificationDAO(NotificationDAO target) {
+            this.target = target;
+        }
+
+        @Override
+        public void save(Notification notification) {
+            save.run(() -> target.save(notification));
+        }
+
+        @Override
+        public void saveAll(List<Notification> notifications) {
+            saveAll.run(() -> target.saveAll(notifications));
+        }
+
+        @Override
+        public List<Notification> findUnreadByUsername(String username) {
+            return findUnreadByUsername.time(() -> target.findUnreadByUsername(username));
+        }
+
+        @Override
+        public List<Notification> findSince(String username, int lastSeenId, int limit) {
+            return findSince.time(() -> target.findSince(username, lastSeenId, limit));
+        }
+
+        @Override
+        public List<Notification> findLatestUnread(String username, int limit) {
+            return findLatestUnread.time(() -> target.findLatestUnread(username, limit));
+        }
+
+        @Override
+        public int countUnread(String username) {
+            return countUnread.timeInt(() -> target.countUnread(username));
+        }
+
+        @Override
+        public void markAllAsRead(String username) {
+            markAllAsRead.run(() -> target.markAllAsRead(username));
+        }
+
+        @Override
+        public void markReadBetween(String username, int firstId, int lastId) {
+            markReadBetween.run(() -> target.markReadBetween(username, firstId, lastId));
+        }
+    }
+}
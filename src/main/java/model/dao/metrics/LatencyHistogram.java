@@ -0,0 +1,84 @@
+package model.dao.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of durations in nanoseconds.
+ * Values below 16 ns are counted exactly; above, every power of two is split
+ * into 16 linear buckets, so a percentile is reported within about 6% of the
+ * true value while the whole range of a {@code long} fits in 960 counters.
+ * Recording is one atomic increment, plus a compare-and-set when a new
+ * maximum is seen; percentiles are read from a weakly consistent pass over
+ * the counters and may miss values recorded during the pass.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS * (64 - SUB_BUCKET_BITS);
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * @param p50Nanos the median, rounded up to its bucket's upper bound
+     * @param p95Nanos the 95th percentile
+     * @param p99Nanos the 99th percentile
+     * @param maxNanos the exact longest value
+     */
+    public record Snapshot(long count, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+    }
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            total += copy[i];
+        }
+        long maxNanos = max.get();
+        return new Snapshot(total, percentile(copy, total, 0.50, maxNanos), percentile(copy, total, 0.95, maxNanos),
+                percentile(copy, total, 0.99, maxNanos), maxNanos);
+    }
+
+    private static long percentile(long[] counts, long total, double fraction, long maxNanos) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(fraction * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + (bucket % SUB_BUCKETS)) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,126 @@
+package model.dao.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Call count, error count and latency of one DAO method of one backend.
+ * A call that throws is counted as an error and its duration is recorded
+ * like any other.
+ */
+public final class MethodMetrics implements MethodMetricsMBean {
+    private final String backend;
+    private final String dao;
+    private final String method;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Durations in nanoseconds.
+     */
+    public record Stats(String backend, String dao, String method, long calls, long errors, long p50Nanos,
+            long p95Nanos, long p99Nanos, long maxNanos) {
+    }
+
+    MethodMetrics(String backend, String dao, String method) {
+        this.backend = backend;
+        this.dao = dao;
+        this.method = method;
+    }
+
+    public <T> T time(Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    public int timeInt(IntSupplier call) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            int result = call.getAsInt();
+            failed = false;
+            return result;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    public void run(Runnable call) {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            call.run();
+            failed = false;
+        } finally {
+            record(System.nanoTime() - start, failed);
+        }
+    }
+
+    private void record(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            errors.increment();
+        }
+        latency.record(nanos);
+    }
+
+    public Stats getStats() {
+        LatencyHistogram.Snapshot snapshot = latency.snapshot();
+        return new Stats(backend, dao, method, calls.sum(), errors.sum(), snapshot.p50Nanos(), snapshot.p95Nanos(),
+                snapshot.p99Nanos(), snapshot.maxNanos());
+    }
+
+    @Override
+    public String getBackend() {
+        return backend;
+    }
+
+    @Override
+    public String getDao() {
+        return dao;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.snapshot().p50Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP95Micros() {
+        return latency.snapshot().p95Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.snapshot().p99Nanos() / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.snapshot().maxNanos() / 1_000.0;
+    }
+}
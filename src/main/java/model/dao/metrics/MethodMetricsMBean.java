@@ -0,0 +1,24 @@
+package model.dao.metrics;
+
+/**
+ * JMX view of one instrumented DAO method. Durations are in microseconds.
+ */
+public interface MethodMetricsMBean {
+    String getBackend();
+
+    String getDao();
+
+    String getMethod();
+
+    long getCalls();
+
+    long getErrors();
+
+    double getP50Micros();
+
+    double getP95Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+}
@@ -4,6 +4,7 @@ import exception.ValidationException;
 import model.observer.Subject;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +18,7 @@ public class Match extends Subject {
     private int missingPlayers;
     private MatchStatus status;
     private List<Integer> joinedPlayers;
+    private transient List<Notification> pendingNotifications;
 
     public Match() {
         this.status = MatchStatus.PENDING;
@@ -106,10 +108,48 @@ public class Match extends Subject {
         }
     }
 
+    /**
+     * Queues a notification to be written to the outbox together with the
+     * next save or update of this match.
+     */
+    public void addPendingNotification(Notification notification) {
+        if (pendingNotifications == null) {
+            pendingNotifications = new ArrayList<>();
+        }
+        pendingNotifications.add(notification);
+    }
+
+    /**
+     * @return the notifications queued since the match was last stored
+     */
+    public List<Notification> getPendingNotifications() {
+        return pendingNotifications != null ? List.copyOf(pendingNotifications) : List.of();
+    }
+
+    /**
+     * Forgets the queued notifications once the store has taken them.
+     */
+    public void clearPendingNotifications() {
+        pendingNotifications = null;
+    }
+
     public boolean isApproved() {
         return status == MatchStatus.APPROVED;
     }
 
+    /**
+     * @return the start plus the duration of the field's sport; a match with
+     *         no field ends when it starts
+     */
+    public LocalDateTime getEndDateTime() {
+        int duration = field != null && field.getSport() != null ? field.getSport().getDuration() : 0;
+        return LocalDateTime.of(date, time).plusMinutes(duration);
+    }
+
+    public boolean hasEndedBy(LocalDateTime now) {
+        return !getEndDateTime().isAfter(now);
+    }
+
     public List<Integer> getJoinedPlayers() {
         return List.copyOf(joinedPlayers);
     }
@@ -1,16 +1,19 @@
 package model.observer;
 
-import model.dao.NotificationDAO;
 import model.domain.Match;
 import model.domain.Notification;
 
+/**
+ * Tells the field manager about a new match request. The notification is
+ * queued on the match rather than sent, so the match DAO writes it to the
+ * notification outbox with the match itself and a dispatcher delivers it
+ * afterwards.
+ */
 public class MatchNotificationObserver implements Observer {
     private final Match match;
-    private final NotificationDAO notificationDAO;
 
-    public MatchNotificationObserver(Match match, NotificationDAO notificationDAO) {
+    public MatchNotificationObserver(Match match) {
         this.match = match;
-        this.notificationDAO = notificationDAO;
     }
 
     @Override
@@ -29,7 +32,6 @@ public class MatchNotificationObserver implements Observer {
                 match.getDate(),
                 match.getTime());
 
-        Notification notification = new Notification(fieldManagerUsername, title, message);
-        notificationDAO.save(notification);
+        match.addPendingNotification(new Notification(fieldManagerUsername, title, message));
     }
 }
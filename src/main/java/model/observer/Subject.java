@@ -10,7 +10,7 @@ import java.util.List;
  * This follows the Gang of Four (GoF) Observer design pattern.
  */
 public abstract class Subject {
-    private List<Observer> observers = new ArrayList<>();
+    private transient List<Observer> observers = new ArrayList<>();
 
     /**
      * Attaches an observer to this subject.
@@ -0,0 +1,137 @@
+package model.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, accent-insensitive lookup of city names.
+ * Names are kept in an array sorted by their {@link TextNormalizer#key},
+ * so the completions of a prefix form one contiguous run found by binary
+ * search. Exact lookups go through a hash of the keys and cost one pass
+ * over the input.
+ */
+final class CityIndex {
+    private final List<String> names;
+    private final String[] sortedKeys;
+    private final String[] sortedNames;
+    private final Map<String, String> namesByKey;
+
+    CityIndex(List<String> names) {
+        this.names = List.copyOf(names);
+        Integer[] order = new Integer[names.size()];
+        String[] keys = new String[names.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            keys[i] = TextNormalizer.key(names.get(i));
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> keys[i]).thenComparing(i -> i));
+        this.sortedKeys = new String[order.length];
+        this.sortedNames = new String[order.length];
+        this.namesByKey = new HashMap<>();
+        for (int i = 0; i < order.length; i++) {
+            sortedKeys[i] = keys[order[i]];
+            sortedNames[i] = names.get(order[i]);
+            namesByKey.putIfAbsent(sortedKeys[i], sortedNames[i]);
+        }
+    }
+
+    /**
+     * Reads one name per line from a UTF-8 classpath resource, skipping blank
+     * lines and lines starting with {@code #}.
+     */
+    static CityIndex load(String resource) {
+        InputStream in = CityIndex.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Missing city resource " + resource);
+        }
+        List<String> names = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String name = line.strip();
+                if (!name.isEmpty() && !name.startsWith("#")) {
+                    names.add(name);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read city resource " + resource, e);
+        }
+        return new CityIndex(names);
+    }
+
+    /**
+     * @return every name, in resource order
+     */
+    List<String> names() {
+        return names;
+    }
+
+    /**
+     * @return the name with the same key as the text, or null if none
+     */
+    String find(String text) {
+        return text != null ? namesByKey.get(TextNormalizer.key(text)) : null;
+    }
+
+    /**
+     * Finds the best completions of a prefix: an exact match first, then
+     * shorter names, then in key order. Only the run of matching names is
+     * scanned and only {@code limit} positions are kept while scanning.
+     */
+    List<String> complete(String prefix, int limit) {
+        String key = TextNormalizer.key(prefix);
+        if (limit <= 0) {
+            return List.of();
+        }
+        int[] best = new int[limit];
+        int found = 0;
+        for (int i = lowerBound(key); i < sortedKeys.length && sortedKeys[i].startsWith(key); i++) {
+            if (found < limit) {
+                best[found++] = i;
+            } else if (ranksBefore(i, best[limit - 1])) {
+                best[limit - 1] = i;
+            } else {
+                continue;
+            }
+            for (int j = found - 1; j > 0 && ranksBefore(best[j], best[j - 1]); j--) {
+                int swap = best[j];
+                best[j] = best[j - 1];
+                best[j - 1] = swap;
+            }
+        }
+        String[] completions = new String[found];
+        for (int i = 0; i < found; i++) {
+            completions[i] = sortedNames[best[i]];
+        }
+        return List.of(completions);
+    }
+
+    private boolean ranksBefore(int a, int b) {
+        int byLength = Integer.compare(sortedKeys[a].length(), sortedKeys[b].length());
+        return byLength != 0 ? byLength < 0 : a < b;
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = sortedKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sortedKeys[mid].compareTo(key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
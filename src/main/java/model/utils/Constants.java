@@ -72,6 +72,7 @@ public final class Constants {
     public static final String ERROR_TIME_IN_PAST = "Time cannot be in the past.";
     public static final String ERROR_INVALID_PARTICIPANTS = "Invalid number of participants for ";
     public static final int PAYMENT_SUCCESS_DELAY_MS = 1500;
+    public static final int NOTIFICATION_POLL_INTERVAL_MS = 10_000;
     public static final String INFO_INVITE_COMING_SOON = "Invite players feature coming soon!";
     public static final String INFO_PARTICIPANTS_TO_NOTIFY = "Participants to notify: ";
     public static final String PROMPT_CHOOSE_OPTION = "Choose an option: ";
@@ -1,10 +1,13 @@
 package model.utils;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
+/**
+ * Encodes the joined player ids of a match as a JSON array of integers, the
+ * form they take in the joined_players column. Both directions work on the
+ * characters in place, since they run once per row read or written.
+ */
 public class JsonUtils {
 
     private JsonUtils() {
@@ -15,26 +18,51 @@ public class JsonUtils {
         if (list == null || list.isEmpty()) {
             return "[]";
         }
-        return "[" + list.stream()
-                .map(String::valueOf)
-                .collect(Collectors.joining(",")) + "]";
+        StringBuilder json = new StringBuilder(2 + list.size() * 8);
+        json.append('[');
+        for (int i = 0; i < list.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(list.get(i).intValue());
+        }
+        return json.append(']').toString();
     }
 
+    /**
+     * Reads the ids between the commas, ignoring brackets and whitespace.
+     *
+     * @throws NumberFormatException if an element is not an integer
+     */
     public static List<Integer> jsonToList(String json) {
-        if (json == null || json.trim().isEmpty() || json.equals("[]")) {
-            return new ArrayList<>();
+        List<Integer> list = new ArrayList<>();
+        if (json == null) {
+            return list;
         }
-
-        String content = json.replaceAll("[\\[\\]]", "").trim();
-
-        if (content.isEmpty()) {
-            return new ArrayList<>();
+        int length = json.length();
+        int start = 0;
+        while (start < length) {
+            int end = json.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            int from = start;
+            int to = end;
+            while (from < to && isPadding(json.charAt(from))) {
+                from++;
+            }
+            while (to > from && isPadding(json.charAt(to - 1))) {
+                to--;
+            }
+            if (from < to) {
+                list.add(Integer.parseInt(json, from, to, 10));
+            }
+            start = end + 1;
         }
+        return list;
+    }
 
-        return Arrays.stream(content.split(","))
-                .map(String::trim)
-                .filter(s -> !s.isEmpty())
-                .map(Integer::parseInt)
-                .toList();
+    private static boolean isPadding(char c) {
+        return c == '[' || c == ']' || Character.isWhitespace(c);
     }
 }
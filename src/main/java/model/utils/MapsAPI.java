@@ -1,46 +1,51 @@
 package model.utils;
 
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 
+/**
+ * Italian cities, loaded once from {@value #CITIES_RESOURCE}.
+ * Lookups ignore case, accents and punctuation, so "forli cesena" finds
+ * "Forlì-Cesena".
+ */
 public final class MapsAPI {
+    public static final String CITIES_RESOURCE = "/data/italian_cities.txt";
+    public static final int DEFAULT_SUGGESTIONS = 10;
+
+    private static final CityIndex CITIES = CityIndex.load(CITIES_RESOURCE);
+
+    public static final List<String> ITALIAN_CITIES = CITIES.names();
 
     private MapsAPI() {
         // Utility class
     }
 
-    public static final List<String> ITALIAN_CITIES = Collections.unmodifiableList(Arrays.asList(
-            "Agrigento", "Alessandria", "Ancona", "Aosta", "Arezzo", "Ascoli Piceno", "Asti",
-            "Avellino", "Bari", "Barletta-Andria-Trani", "Belluno", "Benevento", "Bergamo",
-            "Biella", "Bologna", "Bolzano", "Brescia", "Brindisi", "Cagliari", "Caltanissetta",
-            "Campobasso", "Caserta", "Catania", "Catanzaro", "Chieti", "Como", "Cosenza",
-            "Cremona", "Crotone", "Cuneo", "Enna", "Fermo", "Ferrara", "Firenze", "Foggia",
-            "Forlì-Cesena", "Frosinone", "Genova", "Gorizia", "Grosseto", "Imperia", "Isernia",
-            "L'Aquila", "La Spezia", "Latina", "Lecce", "Lecco", "Livorno", "Lodi", "Lucca",
-            "Macerata", "Mantova", "Massa-Carrara", "Matera", "Messina", "Milano", "Modena",
-            "Monza e Brianza", "Napoli", "Novara", "Nuoro", "Oristano", "Padova", "Palermo",
-            "Parma", "Pavia", "Perugia", "Pesaro e Urbino", "Pescara", "Piacenza", "Pisa",
-            "Pistoia", "Pordenone", "Potenza", "Prato", "Ragusa", "Ravenna", "Reggio Calabria",
-            "Reggio Emilia", "Rieti", "Rimini", "Roma", "Rovigo", "Salerno", "Sassari",
-            "Savona", "Siena", "Siracusa", "Sondrio", "Sud Sardegna", "Taranto", "Teramo",
-            "Terni", "Torino", "Trapani", "Trento", "Treviso", "Trieste", "Udine", "Varese",
-            "Venezia", "Verbano-Cusio-Ossola", "Vercelli", "Verona", "Vibo Valentia", "Vicenza", "Viterbo"));
-
+    /**
+     * @return the best {@value #DEFAULT_SUGGESTIONS} completions of the
+     *         prefix, or every city for an empty prefix
+     */
     public static List<String> searchCitiesByPrefix(String prefix) {
         if (prefix == null || prefix.trim().isEmpty()) {
             return ITALIAN_CITIES;
         }
-        String lower = prefix.toLowerCase();
-        return ITALIAN_CITIES.stream()
-                .filter(city -> city.toLowerCase().startsWith(lower))
-                .toList();
+        return searchCitiesByPrefix(prefix, DEFAULT_SUGGESTIONS);
+    }
+
+    /**
+     * @return up to {@code limit} cities starting with the prefix: an exact
+     *         match first, then shorter names, then alphabetically
+     */
+    public static List<String> searchCitiesByPrefix(String prefix, int limit) {
+        return CITIES.complete(prefix, limit);
     }
 
     public static boolean isValidCity(String city) {
-        if (city == null) {
-            return false;
-        }
-        return ITALIAN_CITIES.stream().anyMatch(c -> c.equalsIgnoreCase(city.trim()));
+        return CITIES.find(city) != null;
+    }
+
+    /**
+     * @return the official spelling of the city, or null if it is unknown
+     */
+    public static String canonicalCity(String city) {
+        return CITIES.find(city);
     }
 }
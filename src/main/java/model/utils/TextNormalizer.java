@@ -0,0 +1,79 @@
+package model.utils;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Search keys for free text such as city, field and address names.
+ * A key is folded to lower case without accents, with every run of
+ * punctuation and spaces turned into a single space, so "Forlì-Cesena",
+ * "forli cesena" and " FORLI  CESENA " share the key "forli cesena".
+ */
+public final class TextNormalizer {
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final char WORD_BOUNDARY = '$';
+
+    private TextNormalizer() {
+        // Utility class
+    }
+
+    /**
+     * @return the search key of the text, empty for null or blank text
+     */
+    public static String key(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = isAscii(text) ? text
+                : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        StringBuilder key = new StringBuilder(folded.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && key.length() > 0) {
+                    key.append(' ');
+                }
+                pendingSpace = false;
+                key.append(Character.toLowerCase(c));
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 127) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Splits the key of each text into trigrams. Every word is padded with a
+     * boundary marker, so short words still produce grams and word starts
+     * and ends weigh in.
+     *
+     * @return the distinct trigrams, in order of first appearance
+     */
+    public static Set<String> trigrams(String... texts) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String word : key(text).split(" ")) {
+                if (word.isEmpty()) {
+                    continue;
+                }
+                String padded = WORD_BOUNDARY + word + WORD_BOUNDARY;
+                for (int i = 0; i + 3 <= padded.length(); i++) {
+                    grams.add(padded.substring(i, i + 3));
+                }
+            }
+        }
+        return grams;
+    }
+}
@@ -4,6 +4,7 @@ import controller.ApplicationController;
 import controller.BookFieldController;
 import exception.ValidationException;
 import model.bean.FieldBean;
+import model.bean.SlotBean;
 import model.domain.Sport;
 
 import java.time.LocalDate;
@@ -48,7 +49,9 @@ public class CLIBookFieldView implements BookFieldView {
         }
         if (fields == null || fields.isEmpty()) {
             displayError("No fields available for the selected criteria.");
-            bookFieldController.navigateBack();
+            if (!offerSuggestedSlots()) {
+                bookFieldController.navigateBack();
+            }
             return;
         }
         displaySuccess(FOUND_PREFIX + fields.size() + " available fields!");
@@ -105,12 +108,58 @@ public class CLIBookFieldView implements BookFieldView {
             displayError("Invalid time format");
             return Collections.emptyList();
         }
+        System.out.print("Field name or address (optional): ");
+        String nameOrAddress = scanner.nextLine().trim();
         System.out.println("\nSearching for available fields...");
         return bookFieldController.searchFieldsForDirectBooking(
                 sports[sportChoice - 1],
                 city,
                 bookFieldController.getCurrentMatchBean().getMatchDate(),
-                bookFieldController.getCurrentMatchBean().getMatchTime());
+                bookFieldController.getCurrentMatchBean().getMatchTime(),
+                nameOrAddress);
+    }
+
+    /**
+     * Lists the earliest free slots and lets the user book one.
+     *
+     * @return true if a slot was booked
+     */
+    private boolean offerSuggestedSlots() {
+        var match = bookFieldController.getCurrentMatchBean();
+        if (match == null || match.getSport() == null || match.getCity() == null || match.getMatchDate() == null
+                || match.getMatchTime() == null) {
+            return false;
+        }
+        List<SlotBean> slots = bookFieldController.findSuggestedSlots(match.getSport(), match.getCity(),
+                match.getMatchDate(), match.getMatchTime(), null);
+        if (slots.isEmpty()) {
+            return false;
+        }
+        System.out.println("\n" + SEPARATOR);
+        System.out.println("    SUGGESTED SLOTS");
+        System.out.println(SEPARATOR);
+        for (int i = 0; i < slots.size(); i++) {
+            SlotBean slot = slots.get(i);
+            System.out.printf("%d. %s %s - %s (%s)%n", (i + 1), slot.getDate(), slot.getTime(),
+                    slot.getField().getName(), slot.getField().getCity());
+        }
+        System.out.print("Choose a slot number, or press Enter to go back: ");
+        String choice = scanner.nextLine().trim();
+        try {
+            int index = Integer.parseInt(choice) - 1;
+            if (index < 0 || index >= slots.size()) {
+                return false;
+            }
+            bookFieldController.selectSuggestedSlot(slots.get(index));
+            System.out.println("\nProceeding to payment...");
+            bookFieldController.proceedToPayment();
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        } catch (ValidationException e) {
+            displayError(e.getMessage());
+            return false;
+        }
     }
 
     @Override
@@ -16,6 +16,7 @@ import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
 import model.bean.FieldBean;
 import model.bean.MatchBean;
+import model.bean.SlotBean;
 import model.domain.Sport;
 import model.utils.Constants;
 import view.ViewUtils;
@@ -24,7 +25,6 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
 
 public class GraphicBookFieldView implements BookFieldView {
@@ -129,6 +129,8 @@ public class GraphicBookFieldView implements BookFieldView {
             timeCombo.getItems().add(String.format("%02d:00", h));
         }
         timeCombo.setPromptText("Select Time");
+        TextField nameField = new TextField();
+        nameField.setPromptText("Name or address (optional)");
         GridPane grid = new GridPane();
         grid.setHgap(10);
         grid.setVgap(10);
@@ -140,6 +142,8 @@ public class GraphicBookFieldView implements BookFieldView {
         grid.add(datePicker, 1, 2);
         grid.add(new Label("Time:"), 0, 3);
         grid.add(timeCombo, 1, 3);
+        grid.add(new Label("Field:"), 0, 4);
+        grid.add(nameField, 1, 4);
         dialog.getDialogPane().setContent(grid);
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
         ViewUtils.applyStylesheets(dialog.getDialogPane());
@@ -158,24 +162,22 @@ public class GraphicBookFieldView implements BookFieldView {
                         contextBean.getCity(),
                         contextBean.getMatchDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
                         contextBean.getMatchTime().format(DateTimeFormatter.ofPattern("HH:mm"))));
-                searchFieldsStandalone(contextBean.getSport(), contextBean.getCity());
+                searchFieldsStandalone(contextBean.getSport(), contextBean.getCity(), nameField.getText().trim());
             } else {
                 controller.navigateBack();
             }
         });
     }
 
-    private void searchFieldsStandalone(Sport sport, String city) {
+    private void searchFieldsStandalone(Sport sport, String city, String nameOrAddress) {
         if (resultsLabel != null) {
             resultsLabel.setText("Searching available fields...");
         }
         if (fieldsContainer != null) {
             fieldsContainer.getChildren().clear();
         }
-        CompletableFuture.supplyAsync(() -> {
-            MatchBean mb = controller.getCurrentMatchBean();
-            return controller.searchFieldsForDirectBooking(sport, city, mb.getMatchDate(), mb.getMatchTime());
-        })
+        MatchBean mb = controller.getCurrentMatchBean();
+        controller.searchFieldsForDirectBookingAsync(sport, city, mb.getMatchDate(), mb.getMatchTime(), nameOrAddress)
                 .thenAcceptAsync(this::handleSearchResults, Platform::runLater)
                 .exceptionally(ex -> {
                     Platform.runLater(() -> {
@@ -191,7 +193,7 @@ public class GraphicBookFieldView implements BookFieldView {
     private void searchFields() {
         resultsLabel.setText("Searching available fields...");
         fieldsContainer.getChildren().clear();
-        CompletableFuture.supplyAsync(controller::searchAvailableFields)
+        controller.searchAvailableFieldsAsync()
                 .thenAcceptAsync(this::handleSearchResults, Platform::runLater)
                 .exceptionally(ex -> {
                     Platform.runLater(() -> {
@@ -206,12 +208,49 @@ public class GraphicBookFieldView implements BookFieldView {
         if (fields.isEmpty()) {
             resultsLabel.setText("No fields found");
             fieldsContainer.getChildren().add(new Label("😕 No fields found for this criteria"));
+            searchSuggestedSlots();
         } else {
             resultsLabel.setText(fields.size() + " field(s) found");
             fields.forEach(field -> fieldsContainer.getChildren().add(createFieldCard(field)));
         }
     }
 
+    private void searchSuggestedSlots() {
+        MatchBean match = controller.getCurrentMatchBean();
+        if (match == null || match.getSport() == null || match.getCity() == null) {
+            return;
+        }
+        controller.findSuggestedSlotsAsync(match.getSport(), match.getCity(), match.getMatchDate(),
+                match.getMatchTime(), null)
+                .thenAcceptAsync(this::displaySuggestedSlots, Platform::runLater)
+                .exceptionally(ex -> {
+                    logger.warning(() -> "Suggested slots failed: " + ex.getMessage());
+                    return null;
+                });
+    }
+
+    private void displaySuggestedSlots(List<SlotBean> slots) {
+        if (slots.isEmpty()) {
+            return;
+        }
+        resultsLabel.setText("No fields found, " + slots.size() + " suggested slot(s)");
+        fieldsContainer.getChildren().add(createLabel("Suggested slots", "title-4"));
+        for (SlotBean slot : slots) {
+            VBox card = createFieldCard(slot.getField());
+            card.getChildren().add(1, createLabel("🕒 "
+                    + slot.getDate().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")) + " "
+                    + slot.getTime().format(DateTimeFormatter.ofPattern("HH:mm")), "text-bold"));
+            card.setOnMouseClicked(e -> selectSuggestedSlot(slot, card));
+            fieldsContainer.getChildren().add(card);
+        }
+    }
+
+    private void selectSuggestedSlot(SlotBean slot, VBox card) {
+        controller.selectSuggestedSlot(slot);
+        displayMatchInfo();
+        selectField(slot.getField(), card);
+    }
+
     private VBox createFieldCard(FieldBean field) {
         VBox card = new VBox(10);
         card.getStyleClass().addAll("card", "elevated-1");
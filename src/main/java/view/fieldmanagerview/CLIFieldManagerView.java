@@ -190,32 +190,39 @@ public class CLIFieldManagerView implements FieldManagerView {
         }
         notificationsShown = true;
 
-        List<NotificationBean> unread = controller.getUnreadNotifications();
-        if (unread.isEmpty()) {
+        int unreadCount = controller.countUnreadNotifications();
+        if (unreadCount == 0) {
             return;
         }
 
-        System.out.println("\n🔔 YOU HAVE " + unread.size() + " NEW NOTIFICATION(S):");
-        for (NotificationBean n : unread) {
-            System.out.println("  • " + n.getTitle() + ": " + n.getMessage());
-        }
-        controller.markNotificationsAsRead();
+        System.out.println("\n🔔 YOU HAVE " + unreadCount + " NEW NOTIFICATION(S):");
+        List<NotificationBean> unread = controller.getUnreadNotifications();
+        printNotifications(unread, unreadCount);
+        controller.markNotificationsAsRead(unread);
     }
 
     /**
      * Shows all notifications (can be called from menu).
      */
     private void showNotifications() {
-        List<NotificationBean> unread = controller.getUnreadNotifications();
-        if (unread.isEmpty()) {
+        int unreadCount = controller.countUnreadNotifications();
+        if (unreadCount == 0) {
             System.out.println("\n✓ No new notifications.");
             return;
         }
         System.out.println("\n🔔 NOTIFICATIONS:");
+        List<NotificationBean> unread = controller.getUnreadNotifications();
+        printNotifications(unread, unreadCount);
+        controller.markNotificationsAsRead(unread);
+    }
+
+    private void printNotifications(List<NotificationBean> unread, int unreadCount) {
         for (NotificationBean n : unread) {
             System.out.println("  • " + n.getTitle() + ": " + n.getMessage());
         }
-        controller.markNotificationsAsRead();
+        if (unreadCount > unread.size()) {
+            System.out.println("  … and " + (unreadCount - unread.size()) + " older, shown next time");
+        }
     }
 
     private int readInt(String prompt) {
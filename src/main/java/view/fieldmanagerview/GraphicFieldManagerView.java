@@ -2,6 +2,9 @@ package view.fieldmanagerview;
 
 import controller.ApplicationController;
 import controller.FieldManagerController;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
@@ -19,6 +22,7 @@ import javafx.scene.layout.Region;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Circle;
 import javafx.stage.Stage;
+import javafx.util.Duration;
 import model.bean.MatchBean;
 import model.bean.NotificationBean;
 import model.utils.Constants;
@@ -35,6 +39,8 @@ public class GraphicFieldManagerView implements FieldManagerView {
     private Stage stage;
     private final Logger logger = Logger.getLogger(getClass().getName());
     private boolean notificationsShown = false;
+    private int lastSeenNotificationId;
+    private Timeline notificationPoll;
 
     @FXML
     private Label managerNameLabel;
@@ -99,6 +105,8 @@ public class GraphicFieldManagerView implements FieldManagerView {
 
     @Override
     public void close() {
+        if (notificationPoll != null)
+            notificationPoll.stop();
         if (stage != null)
             stage.close();
     }
@@ -110,10 +118,15 @@ public class GraphicFieldManagerView implements FieldManagerView {
             totalFieldsLabel.setText(String.valueOf(stats.totalFields()));
             pendingRequestsLabel.setText(String.valueOf(stats.pendingRequests()));
             todayBookingsLabel.setText(String.valueOf(stats.todayBookings()));
-            bookingsList.setAll(controller.getPendingRequests());
         } catch (Exception e) {
             displayError(e.getMessage());
         }
+        controller.getPendingRequestsAsync()
+                .thenAcceptAsync(this::displayPendingRequests, Platform::runLater)
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> displayError("Error loading requests: " + ex.getMessage()));
+                    return null;
+                });
     }
 
     @Override
@@ -157,10 +170,13 @@ public class GraphicFieldManagerView implements FieldManagerView {
         setupTable();
         loadData();
         Platform.runLater(this::showUnreadNotificationsOnce);
+        startNotificationPolling();
 
-        if (!controller.getPendingRequests().isEmpty()) {
-            Platform.runLater(() -> showNotificationsDialog(0));
-        }
+        controller.getPendingRequestsAsync().thenAcceptAsync(requests -> {
+            if (!requests.isEmpty()) {
+                showNotificationsDialog(0);
+            }
+        }, Platform::runLater);
     }
 
     private void showUnreadNotificationsOnce() {
@@ -169,28 +185,67 @@ public class GraphicFieldManagerView implements FieldManagerView {
         }
         notificationsShown = true;
 
-        List<NotificationBean> unread = controller.getUnreadNotifications();
-        if (unread.isEmpty()) {
+        int unreadCount = controller.countUnreadNotifications();
+        if (unreadCount == 0) {
             updateNotificationButton(0);
             return;
         }
+        List<NotificationBean> unread = controller.getUnreadNotifications();
+        rememberSeen(unread);
 
         // Show popup with unread notifications
         Alert alert = new Alert(Alert.AlertType.INFORMATION);
         alert.setTitle("New Notifications");
-        alert.setHeaderText("🔔 You have " + unread.size() + " new notification(s)!");
+        alert.setHeaderText("🔔 You have " + unreadCount + " new notification(s)!");
 
         StringBuilder content = new StringBuilder();
         for (NotificationBean n : unread) {
             content.append("• ").append(n.getTitle()).append("\n  ").append(n.getMessage()).append("\n\n");
         }
+        if (unreadCount > unread.size()) {
+            content.append("… and ").append(unreadCount - unread.size()).append(" older, shown next time");
+        }
         alert.setContentText(content.toString());
         ViewUtils.applyStylesheets(alert.getDialogPane());
         alert.showAndWait();
 
-        // Mark as read after showing
-        controller.markNotificationsAsRead();
-        updateNotificationButton(0);
+        // Mark as read only what was shown
+        controller.markNotificationsAsRead(unread);
+        updateNotificationButton(controller.countUnreadNotifications());
+    }
+
+    /**
+     * Polls for notifications newer than the last one seen: while nothing
+     * arrives each poll is an empty index probe, and the badge is refreshed
+     * from the unread counter only when something did.
+     */
+    private void startNotificationPolling() {
+        notificationPoll = new Timeline(new KeyFrame(Duration.millis(Constants.NOTIFICATION_POLL_INTERVAL_MS),
+                e -> pollNotifications()));
+        notificationPoll.setCycleCount(Animation.INDEFINITE);
+        notificationPoll.play();
+    }
+
+    private void pollNotifications() {
+        controller.getNotificationsSinceAsync(lastSeenNotificationId)
+                .thenAcceptAsync(fresh -> {
+                    if (fresh.isEmpty()) {
+                        return;
+                    }
+                    rememberSeen(fresh);
+                    controller.countUnreadNotificationsAsync()
+                            .thenAcceptAsync(this::updateNotificationButton, Platform::runLater);
+                }, Platform::runLater)
+                .exceptionally(ex -> {
+                    logger.warning("Notification poll failed: " + ex.getMessage());
+                    return null;
+                });
+    }
+
+    private void rememberSeen(List<NotificationBean> notifications) {
+        for (NotificationBean n : notifications) {
+            lastSeenNotificationId = Math.max(lastSeenNotificationId, n.getId());
+        }
     }
 
     private void updateNotificationButton(int unreadCount) {
@@ -232,24 +287,30 @@ public class GraphicFieldManagerView implements FieldManagerView {
         Tab alertsTab = new Tab("Alerts");
         VBox alertsBox = new VBox(10);
         alertsBox.setPadding(new javafx.geometry.Insets(10));
-        List<NotificationBean> unread = controller.getUnreadNotifications();
-        populateAlertsBox(alertsBox, unread);
+        int unreadCount = controller.countUnreadNotifications();
+        List<NotificationBean> unread = unreadCount > 0 ? controller.getUnreadNotifications() : List.of();
+        populateAlertsBox(alertsBox, unread, unreadCount);
         alertsTab.setContent(new ScrollPane(alertsBox));
         return alertsTab;
     }
 
-    private void populateAlertsBox(VBox alertsBox, List<NotificationBean> unread) {
+    private void populateAlertsBox(VBox alertsBox, List<NotificationBean> unread, int unreadCount) {
         if (unread.isEmpty()) {
             alertsBox.getChildren().add(new Label("No new notifications."));
             return;
         }
+        rememberSeen(unread);
         for (NotificationBean note : unread) {
             Label l = new Label("🔔 " + note.getTitle() + ": " + note.getMessage());
             l.setWrapText(true);
             alertsBox.getChildren().add(l);
         }
-        controller.markNotificationsAsRead();
-        updateNotificationButton(0);
+        if (unreadCount > unread.size()) {
+            alertsBox.getChildren().add(new Label("… and " + (unreadCount - unread.size())
+                    + " older, shown next time"));
+        }
+        controller.markNotificationsAsRead(unread);
+        updateNotificationButton(controller.countUnreadNotifications());
     }
 
     private Tab createRequestsTab() {
@@ -326,6 +387,7 @@ public class GraphicFieldManagerView implements FieldManagerView {
         timeColumn.setCellValueFactory(
                 d -> new SimpleStringProperty(d.getValue().getMatchTime().toString()));
         bookingsTable.setItems(bookingsList);
+        bookingsTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
         bookingsTable.getSelectionModel().selectedItemProperty().addListener((obs, old, selected) -> {
             boolean active = selected != null;
             approveButton.setDisable(!active);
@@ -337,14 +399,20 @@ public class GraphicFieldManagerView implements FieldManagerView {
         displayDashboard();
     }
 
+    private List<Integer> selectedMatchIds() {
+        return bookingsTable.getSelectionModel().getSelectedItems().stream()
+                .map(MatchBean::getMatchId)
+                .toList();
+    }
+
     @FXML
     private void handleApprove() {
-        MatchBean selected = bookingsTable.getSelectionModel().getSelectedItem();
-        if (selected == null)
+        List<Integer> selected = selectedMatchIds();
+        if (selected.isEmpty())
             return;
         try {
-            controller.approveMatch(selected.getMatchId());
-            displaySuccess("Match approved!");
+            controller.approveMatches(selected);
+            displaySuccess(selected.size() == 1 ? "Match approved!" : selected.size() + " matches approved!");
             loadData();
         } catch (Exception e) {
             displayError("Approval failed: " + e.getMessage());
@@ -353,12 +421,12 @@ public class GraphicFieldManagerView implements FieldManagerView {
 
     @FXML
     private void handleReject() {
-        MatchBean selected = bookingsTable.getSelectionModel().getSelectedItem();
-        if (selected == null)
+        List<Integer> selected = selectedMatchIds();
+        if (selected.isEmpty())
             return;
         try {
-            controller.rejectMatch(selected.getMatchId());
-            displaySuccess("Match rejected");
+            controller.rejectMatches(selected);
+            displaySuccess(selected.size() == 1 ? "Match rejected" : selected.size() + " matches rejected");
             loadData();
         } catch (Exception e) {
             displayError("Rejection failed: " + e.getMessage());
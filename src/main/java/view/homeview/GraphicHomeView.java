@@ -26,6 +26,8 @@ import view.ViewUtils;
 import java.io.IOException;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -37,6 +39,8 @@ public class GraphicHomeView implements HomeView {
     private static final String CSS_SEARCH_FIELD_CONTAINER = Constants.CSS_SEARCH_FIELD_CONTAINER;
     private static final String CSS_TEXT_CAPTION = Constants.CSS_TEXT_CAPTION;
     private static final String CSS_TEXT_MUTED = Constants.CSS_TEXT_MUTED;
+    private static final int MATCH_COLUMNS = 3;
+    private static final double LOAD_MORE_SCROLL_THRESHOLD = 0.9;
     @FXML
     private Label welcomeLabel;
     @FXML
@@ -61,6 +65,10 @@ public class GraphicHomeView implements HomeView {
     private ComboBox<Sport> sportFilter;
     private DatePicker dateFilter;
     private boolean isUpdatingCityComboBox = false;
+    private boolean pagingMatches = false;
+    private int displayedMatches = 0;
+    private CompletableFuture<List<MatchBean>> matchesLoad;
+    private boolean loadingNextPage = false;
     private VBox joinedMatchesSection;
     private GridPane joinedMatchesContainer;
 
@@ -104,7 +112,12 @@ public class GraphicHomeView implements HomeView {
         buildSearchCapsule();
         createJoinedMatchesSection();
         updateViewMode();
-        displayMatches(homeController.getMatches());
+        mainScrollPane.vvalueProperty().addListener((obs, oldValue, newValue) -> {
+            if (newValue.doubleValue() >= LOAD_MORE_SCROLL_THRESHOLD) {
+                displayNextMatchesPage();
+            }
+        });
+        displayFirstMatchesPage();
         displayJoinedMatches();
     }
 
@@ -131,7 +144,7 @@ public class GraphicHomeView implements HomeView {
                 btnPlayer.getStyleClass().add(CSS_ACTIVE);
                 btnOrg.getStyleClass().remove(CSS_ACTIVE);
                 updateViewMode();
-                displayMatches(homeController.getMatches());
+                displayFirstMatchesPage();
             }
         });
         btnOrg.setOnAction(e -> {
@@ -140,7 +153,7 @@ public class GraphicHomeView implements HomeView {
                 btnOrg.getStyleClass().add(CSS_ACTIVE);
                 btnPlayer.getStyleClass().remove(CSS_ACTIVE);
                 updateViewMode();
-                displayMatches(homeController.getMatches());
+                displayFirstMatchesPage();
             }
         });
         toggleBox.getChildren().addAll(btnPlayer, btnOrg);
@@ -284,12 +297,7 @@ public class GraphicHomeView implements HomeView {
     private void updateCityAutocomplete(String input) {
         isUpdatingCityComboBox = true;
         ObservableList<String> filtered = FXCollections.observableArrayList();
-        if (input == null || input.isEmpty())
-            filtered.addAll(MapsAPI.ITALIAN_CITIES);
-        else
-            for (String c : MapsAPI.ITALIAN_CITIES)
-                if (c.toLowerCase().startsWith(input.toLowerCase()))
-                    filtered.add(c);
+        filtered.addAll(MapsAPI.searchCitiesByPrefix(input));
         cityFilter.setItems(filtered);
         if (!filtered.isEmpty())
             cityFilter.show();
@@ -297,8 +305,39 @@ public class GraphicHomeView implements HomeView {
     }
 
     private void applyFilters() {
-        displayMatches(homeController.filterMatches(sportFilter.getValue(), cityFilter.getEditor().getText(),
-                dateFilter.getValue()));
+        loadMatches(homeController.filterMatchesAsync(sportFilter.getValue(), cityFilter.getEditor().getText(),
+                dateFilter.getValue()), false);
+    }
+
+    /**
+     * Shows the matches once loaded, off the FX thread. A newer load cancels
+     * the previous one, so a slow answer never overwrites a newer listing.
+     */
+    private void loadMatches(CompletableFuture<List<MatchBean>> load, boolean paging) {
+        if (matchesLoad != null) {
+            matchesLoad.cancel(true);
+        }
+        matchesLoad = load;
+        loadingNextPage = false;
+        load.thenAcceptAsync(matches -> {
+            if (matchesLoad == load) {
+                pagingMatches = paging;
+                displayMatches(matches);
+            }
+        }, Platform::runLater).exceptionally(ex -> {
+            if (!load.isCancelled()) {
+                Platform.runLater(() -> displayError("Error loading matches: " + rootMessage(ex)));
+            }
+            return null;
+        });
+    }
+
+    private static String rootMessage(Throwable ex) {
+        Throwable cause = ex;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
     }
 
     @Override
@@ -326,6 +365,7 @@ public class GraphicHomeView implements HomeView {
     @Override
     public void displayMatches(List<MatchBean> matches) {
         matchesContainer.getChildren().clear();
+        displayedMatches = 0;
         if (matches == null || matches.isEmpty()) {
             Label empty = new Label(Constants.LABEL_NO_MATCHES_FOUND);
             empty.getStyleClass().addAll(Constants.CSS_TEXT_MUTED, Constants.CSS_TITLE_4);
@@ -333,17 +373,43 @@ public class GraphicHomeView implements HomeView {
             matchesContainer.add(empty, 0, 0);
             return;
         }
-        int column = 0;
-        int row = 0;
+        appendMatches(matches);
+    }
+
+    private void appendMatches(List<MatchBean> matches) {
         for (MatchBean match : matches) {
             VBox card = createGridMatchCard(match);
-            matchesContainer.add(card, column, row);
-            column++;
-            if (column >= 3) {
-                column = 0;
-                row++;
-            }
+            matchesContainer.add(card, displayedMatches % MATCH_COLUMNS, displayedMatches / MATCH_COLUMNS);
+            displayedMatches++;
+        }
+    }
+
+    private void displayFirstMatchesPage() {
+        loadMatches(homeController.getFirstMatchesPageAsync(), true);
+    }
+
+    /**
+     * Appends the next page when the user scrolls near the bottom; filtered
+     * results are shown in full and are not paged.
+     */
+    private void displayNextMatchesPage() {
+        if (!pagingMatches || loadingNextPage || !homeController.hasMoreMatches()) {
+            return;
         }
+        CompletableFuture<List<MatchBean>> listing = matchesLoad;
+        loadingNextPage = true;
+        homeController.getNextMatchesPageAsync().thenAcceptAsync(matches -> {
+            if (matchesLoad == listing) {
+                loadingNextPage = false;
+                appendMatches(matches);
+            }
+        }, Platform::runLater).exceptionally(ex -> {
+            Platform.runLater(() -> {
+                loadingNextPage = false;
+                displayError("Error loading matches: " + rootMessage(ex));
+            });
+            return null;
+        });
     }
 
     private void updateViewMode() {
@@ -363,7 +429,7 @@ public class GraphicHomeView implements HomeView {
 
     @Override
     public void refreshMatches() {
-        displayMatches(homeController.getMatches());
+        displayFirstMatchesPage();
     }
 
     @Override
@@ -436,7 +502,7 @@ public class GraphicHomeView implements HomeView {
 
     @FXML
     private void handleRefresh() {
-        displayMatches(homeController.getMatches());
+        displayFirstMatchesPage();
     }
 
     @FXML
@@ -507,9 +573,16 @@ public class GraphicHomeView implements HomeView {
             return;
         }
 
-        joinedMatchesContainer.getChildren().clear();
-        List<MatchBean> joinedMatches = homeController.getJoinedMatches();
+        homeController.getJoinedMatchesAsync()
+                .thenAcceptAsync(this::showJoinedMatches, Platform::runLater)
+                .exceptionally(ex -> {
+                    Platform.runLater(() -> displayError("Error loading joined matches: " + rootMessage(ex)));
+                    return null;
+                });
+    }
 
+    private void showJoinedMatches(List<MatchBean> joinedMatches) {
+        joinedMatchesContainer.getChildren().clear();
         if (joinedMatches == null || joinedMatches.isEmpty()) {
             joinedMatchesSection.setVisible(false);
             joinedMatchesSection.setManaged(false);
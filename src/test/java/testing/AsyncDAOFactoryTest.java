@@ -0,0 +1,65 @@
+package testing;
+
+import model.dao.async.AsyncDAOFactory;
+import model.dao.async.AsyncExecutor;
+import model.dao.memory.MemoryDAOFactory;
+import model.domain.Field;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the non-blocking DAO facade
+ * Tests results, timeouts and cancellation of asynchronous DAO calls
+ */
+class AsyncDAOFactoryTest {
+
+    private final AsyncExecutor executor = new AsyncExecutor(Executors.newCachedThreadPool(),
+            Duration.ofMillis(200));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void testCallsCompleteOffTheCallerThread() throws Exception {
+        MemoryDAOFactory daoFactory = new MemoryDAOFactory();
+        AsyncDAOFactory asyncDAOs = new AsyncDAOFactory(daoFactory, executor);
+        Thread caller = Thread.currentThread();
+
+        List<Field> fields = asyncDAOs.getFieldDAO().findByCity("Milano").get(1, TimeUnit.SECONDS);
+        Thread worker = executor.supply(Thread::currentThread).get(1, TimeUnit.SECONDS);
+
+        assertEquals(daoFactory.getFieldDAO().findByCity("Milano").stream().map(Field::getId).toList(),
+                fields.stream().map(Field::getId).toList());
+        assertNotSame(caller, worker, "Calls should not run on the caller");
+    }
+
+    @Test
+    void testTimeoutInterruptsTheCall() throws Exception {
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        var future = executor.supply(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return null;
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(interrupted.await(1, TimeUnit.SECONDS), "The running call should be interrupted");
+    }
+}
@@ -0,0 +1,129 @@
+package testing;
+
+import model.dao.FieldDAO;
+import model.dao.MatchDAO;
+import model.dao.cache.CacheRegion;
+import model.dao.cache.CachingDAOFactory;
+import model.dao.memory.MemoryDAOFactory;
+import model.domain.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the caching DAO factory
+ * Tests hit counting, write invalidation and the size bound
+ */
+class CachingDAOFactoryTest {
+
+    private CachingDAOFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        Properties settings = new Properties();
+        settings.setProperty("cache.fields.maxSize", "2");
+        factory = new CachingDAOFactory(new MemoryDAOFactory(), settings);
+    }
+
+    private CacheRegion.Stats stats(String region) {
+        return factory.getStats().stream()
+                .filter(stats -> stats.region().equals(region))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void testRepeatedLookupsAreServedFromCache() {
+        factory.getUserDAO().findById(1);
+        factory.getUserDAO().findById(1);
+        factory.getUserDAO().findById(1);
+
+        CacheRegion.Stats users = stats(CachingDAOFactory.USERS);
+        assertEquals(1, users.misses());
+        assertEquals(2, users.hits());
+    }
+
+    @Test
+    void testFieldSaveInvalidatesByIdAndByCity() {
+        FieldDAO fieldDAO = factory.getFieldDAO();
+        int milanoFields = fieldDAO.findByCity("Milano").size();
+        Field field = fieldDAO.findById(1);
+
+        field.setCity("Roma");
+        fieldDAO.save(field);
+
+        assertEquals(milanoFields - 1, fieldDAO.findByCity("Milano").size(),
+                "The old city list should be reloaded");
+        assertEquals(1, fieldDAO.findByCity("Roma").size());
+        assertEquals(3, stats(CachingDAOFactory.FIELDS_BY_CITY).misses(),
+                "Both city lookups after the save should miss");
+    }
+
+    @Test
+    void testApprovalInvalidatesApprovedMatches() {
+        MatchDAO matchDAO = factory.getMatchDAO();
+        User organizer = factory.getUserDAO().findById(2);
+        Match match = new Match(0, organizer, factory.getFieldDAO().findById(1), LocalDate.now().plusDays(1),
+                LocalTime.of(19, 0), 6, MatchStatus.PENDING);
+        matchDAO.save(match);
+        assertTrue(matchDAO.findApprovedMatches().isEmpty());
+
+        matchDAO.updateStatus(match.getId(), MatchStatus.APPROVED);
+
+        assertEquals(1, matchDAO.findApprovedMatches().size(), "The approval should be visible at once");
+    }
+
+    @Test
+    void testAvailabilityFollowsApprovalRejectionAndDelete() {
+        MatchDAO matchDAO = factory.getMatchDAO();
+        FieldDAO fieldDAO = factory.getFieldDAO();
+        Field field = fieldDAO.findById(1);
+        LocalDate day = LocalDate.now().plusDays(1);
+        Match match = new Match(0, factory.getUserDAO().findById(2), field, day, LocalTime.of(18, 0), 6,
+                MatchStatus.PENDING);
+        matchDAO.save(match);
+        assertTrue(isFree(fieldDAO, field, day, LocalTime.of(19, 0)),
+                "A pending match should not occupy the field");
+
+        matchDAO.updateStatus(match.getId(), MatchStatus.APPROVED);
+
+        assertFalse(isFree(fieldDAO, field, day, LocalTime.of(19, 0)),
+                "A booking starting inside the match should overlap it");
+        assertFalse(isFree(fieldDAO, field, day, LocalTime.of(16, 30)),
+                "A booking ending inside the match should overlap it");
+        assertTrue(isFree(fieldDAO, field, day, LocalTime.of(20, 0)),
+                "A booking starting when the match ends should be free");
+        assertTrue(isFree(fieldDAO, field, day, LocalTime.of(16, 0)),
+                "A booking ending when the match starts should be free");
+
+        matchDAO.updateStatus(match.getId(), MatchStatus.REJECTED);
+        assertTrue(isFree(fieldDAO, field, day, LocalTime.of(19, 0)),
+                "A rejection should free the field");
+
+        matchDAO.updateStatus(match.getId(), MatchStatus.APPROVED);
+        matchDAO.delete(match.getId());
+        assertTrue(isFree(fieldDAO, field, day, LocalTime.of(19, 0)),
+                "A deletion should free the field");
+    }
+
+    private static boolean isFree(FieldDAO fieldDAO, Field field, LocalDate day, LocalTime time) {
+        return fieldDAO.findAvailableFields("Milano", field.getSport(), day, time).stream()
+                .anyMatch(free -> free.getId() == field.getId());
+    }
+
+    @Test
+    void testRegionsAreBounded() {
+        for (int id = 1; id <= 5; id++) {
+            factory.getFieldDAO().findById(id);
+        }
+
+        CacheRegion.Stats fields = stats(CachingDAOFactory.FIELDS);
+        assertEquals(2, fields.size());
+        assertEquals(3, fields.evictions());
+    }
+}
@@ -0,0 +1,76 @@
+package testing;
+
+import model.dao.dbms.ConnectionPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the DBMS connection pool
+ * Tests borrowing, returning, bounding and statistics
+ */
+class ConnectionPoolTest {
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ConnectionPool(new ConnectionPool.Settings(
+                "jdbc:h2:mem:pool_test;DB_CLOSE_DELAY=-1", "sa", "", 2, 100, 60_000, 600_000, 1, 60_000));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    @Test
+    void testClosedConnectionIsReused() throws Exception {
+        try (Connection connection = pool.borrow()) {
+            assertTrue(connection.isValid(1), "The borrowed connection should be usable");
+        }
+        try (Connection connection = pool.borrow()) {
+            assertFalse(connection.isClosed());
+        }
+
+        ConnectionPool.PoolStats stats = pool.getStats();
+        assertEquals(1, stats.open(), "The physical connection should be reused");
+        assertEquals(0, stats.active(), "No connection should be lent out");
+        assertEquals(1, stats.idle(), "The returned connection should be idle");
+        assertEquals(2, stats.borrowCount(), "Both borrows should be counted");
+    }
+
+    @Test
+    void testBorrowTimesOutWhenPoolIsExhausted() throws Exception {
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+
+        assertThrows(SQLTimeoutException.class, () -> pool.borrow(),
+                "Borrowing beyond the maximum size should time out");
+        assertEquals(1, pool.getStats().timeoutCount(), "The timeout should be counted");
+
+        first.close();
+        try (Connection third = pool.borrow()) {
+            assertNotNull(third, "A returned connection should be lent again");
+        }
+        second.close();
+    }
+
+    @Test
+    void testReturnedConnectionCannotBeUsed() throws Exception {
+        Connection connection = pool.borrow();
+        connection.close();
+
+        assertTrue(connection.isClosed(), "A returned connection should report closed");
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"),
+                "A returned connection should not be usable");
+        assertDoesNotThrow(connection::close, "Closing twice should be harmless");
+        assertEquals(1, pool.getStats().idle(), "Closing twice should not return it twice");
+    }
+}
@@ -0,0 +1,67 @@
+package testing;
+
+import model.dao.MatchDAO;
+import model.dao.maintenance.ExpiredMatchReaper;
+import model.dao.memory.MemoryDAOFactory;
+import model.domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the background cleanup of expired matches
+ * Tests sport-aware expiry, chunked deletes and the reported metrics
+ */
+class ExpiredMatchReaperTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 15, 18, 0);
+
+    private Match newMatch(MemoryDAOFactory factory, LocalDateTime start) {
+        Field field = factory.getFieldDAO().findById(1);
+        Match match = new Match(0, null, field, start.toLocalDate(), start.toLocalTime(), 4, MatchStatus.APPROVED);
+        factory.getMatchDAO().save(match);
+        return match;
+    }
+
+    @Test
+    void testMatchesExpireWhenTheyEnd() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        MatchDAO matchDAO = factory.getMatchDAO();
+        int duration = factory.getFieldDAO().findById(1).getSport().getDuration();
+        Match ended = newMatch(factory, NOW.minusMinutes(duration));
+        Match playing = newMatch(factory, NOW.minusMinutes(duration - 1L));
+        Match yesterday = newMatch(factory, NOW.minusDays(1));
+
+        ExpiredMatchReaper reaper = new ExpiredMatchReaper(matchDAO, new ExpiredMatchReaper.Settings(60_000, 10),
+                Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+        assertEquals(2, reaper.runOnce());
+        assertNull(matchDAO.findById(ended.getId()), "A match that has ended should be deleted");
+        assertNull(matchDAO.findById(yesterday.getId()));
+        assertNotNull(matchDAO.findById(playing.getId()), "A match still being played should be kept");
+    }
+
+    @Test
+    void testLargeBacklogIsDeletedInChunks() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        for (int i = 0; i < 7; i++) {
+            newMatch(factory, NOW.minusDays(i + 1L));
+        }
+        ExpiredMatchReaper reaper = new ExpiredMatchReaper(factory.getMatchDAO(),
+                new ExpiredMatchReaper.Settings(60_000, 3),
+                Clock.fixed(NOW.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault()));
+
+        assertEquals(7, reaper.runOnce());
+        assertEquals(0, reaper.runOnce());
+
+        ExpiredMatchReaper.Stats stats = reaper.getStats();
+        assertEquals(2, stats.runs());
+        assertEquals(7, stats.deleted());
+        assertEquals(0, stats.lastDeleted());
+        assertEquals(0, stats.failures());
+    }
+}
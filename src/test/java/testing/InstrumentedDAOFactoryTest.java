@@ -0,0 +1,101 @@
+package testing;
+
+import model.dao.NotificationDAO;
+import model.dao.memory.MemoryDAOFactory;
+import model.dao.memory.NotificationDAOMemory;
+import model.dao.metrics.DAOMetricsReporter;
+import model.dao.metrics.InstrumentedDAOFactory;
+import model.dao.metrics.LatencyHistogram;
+import model.dao.metrics.MethodMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the DAO instrumentation
+ * Tests call and error counting, the histogram percentiles, the JMX view
+ * and the periodic dump
+ */
+class InstrumentedDAOFactoryTest {
+
+    private static MethodMetrics.Stats stats(InstrumentedDAOFactory factory, String dao, String method) {
+        return factory.getStats().stream()
+                .filter(stats -> stats.dao().equals(dao) && stats.method().equals(method))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void testCallsAndErrorsAreCountedPerMethod() {
+        MemoryDAOFactory backend = new MemoryDAOFactory() {
+            private final NotificationDAO notifications = new NotificationDAOMemory() {
+                @Override
+                public void markAllAsRead(String username) {
+                    throw new IllegalStateException("Store unavailable");
+                }
+            };
+
+            @Override
+            public NotificationDAO getNotificationDAO() {
+                return notifications;
+            }
+        };
+        InstrumentedDAOFactory factory = new InstrumentedDAOFactory(backend, "memory");
+
+        factory.getUserDAO().findById(1);
+        factory.getUserDAO().findById(2);
+        factory.getMatchDAO().findApprovedMatches(null, 10);
+        assertThrows(IllegalStateException.class, () -> factory.getNotificationDAO().markAllAsRead("user1"));
+
+        MethodMetrics.Stats findById = stats(factory, "UserDAO", "findById");
+        assertEquals("memory", findById.backend());
+        assertEquals(2, findById.calls());
+        assertEquals(0, findById.errors());
+        assertTrue(findById.p50Nanos() <= findById.p99Nanos() && findById.p99Nanos() <= findById.maxNanos());
+        assertEquals(1, stats(factory, "MatchDAO", "findApprovedMatches(page)").calls());
+        assertEquals(0, stats(factory, "MatchDAO", "findApprovedMatches").calls(),
+                "Overloads should be counted apart");
+        MethodMetrics.Stats failed = stats(factory, "NotificationDAO", "markAllAsRead");
+        assertEquals(1, failed.calls());
+        assertEquals(1, failed.errors());
+    }
+
+    @Test
+    void testPercentilesStayWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int micros = 1; micros <= 1_000; micros++) {
+            histogram.record(micros * 1_000L);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1_000, snapshot.count());
+        assertEquals(500_000, snapshot.p50Nanos(), 500_000 * 0.07);
+        assertEquals(950_000, snapshot.p95Nanos(), 950_000 * 0.07);
+        assertEquals(990_000, snapshot.p99Nanos(), 990_000 * 0.07);
+        assertEquals(1_000_000, snapshot.maxNanos());
+    }
+
+    @Test
+    void testMetricsArePublishedOverJmxAndLogged() throws Exception {
+        InstrumentedDAOFactory factory = new InstrumentedDAOFactory(new MemoryDAOFactory(), "jmxtest");
+        factory.registerMBeans();
+        try {
+            factory.getFieldDAO().findByCity("Milano");
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = InstrumentedDAOFactory.objectName("jmxtest", "FieldDAO", "findByCity");
+            assertEquals(1L, server.getAttribute(name, "Calls"));
+
+            try (DAOMetricsReporter reporter = new DAOMetricsReporter(factory,
+                    DAOMetricsReporter.Settings.DEFAULTS)) {
+                assertEquals(1, reporter.runOnce(), "Only the called method should be logged");
+                assertEquals(0, reporter.runOnce(), "Nothing was called since the last dump");
+            }
+        } finally {
+            factory.unregisterMBeans();
+        }
+    }
+}
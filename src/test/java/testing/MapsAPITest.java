@@ -0,0 +1,33 @@
+package testing;
+
+import model.utils.MapsAPI;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the city lookups
+ * Tests accent-insensitive validity checks and ranked prefix completion
+ */
+class MapsAPITest {
+
+    @Test
+    void testCitiesAreLoadedAndMatchedWithoutAccents() {
+        assertEquals(107, MapsAPI.ITALIAN_CITIES.size());
+        assertTrue(MapsAPI.isValidCity("forli cesena"));
+        assertTrue(MapsAPI.isValidCity(" L'AQUILA "));
+        assertFalse(MapsAPI.isValidCity("Gotham"));
+        assertEquals("Forlì-Cesena", MapsAPI.canonicalCity("FORLI-CESENA"));
+    }
+
+    @Test
+    void testCompletionsAreRankedAndBounded() {
+        assertEquals(List.of("Reggio Emilia", "Reggio Calabria"), MapsAPI.searchCitiesByPrefix("reggio"),
+                "Shorter names should come first");
+        assertEquals(List.of("Roma", "Rieti", "Ragusa"), MapsAPI.searchCitiesByPrefix("r", 3));
+        assertEquals(List.of("Forlì-Cesena"), MapsAPI.searchCitiesByPrefix("forli"));
+        assertTrue(MapsAPI.searchCitiesByPrefix("xyz").isEmpty());
+    }
+}
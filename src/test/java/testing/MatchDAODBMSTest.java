@@ -0,0 +1,452 @@
+package testing;
+
+import model.dao.DAOFactory;
+import model.dao.FreeSlot;
+import model.dao.JoinResult;
+import model.dao.MatchListing;
+import model.dao.MatchListingDAO;
+import model.dao.MatchQuery;
+import model.dao.NotificationDAO;
+import model.dao.NotificationOutbox;
+import model.dao.OutboxEntry;
+import model.dao.Page;
+import model.dao.PageCursor;
+import model.dao.SlotQuery;
+import model.dao.cache.CachingDAOFactory;
+import model.dao.dbms.ConnectionPool;
+import model.dao.dbms.DbmsDAOFactory;
+import model.dao.maintenance.NotificationDispatcher;
+import model.dao.metrics.InstrumentedDAOFactory;
+import model.domain.*;
+import model.observer.MatchNotificationObserver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the DBMS match persistence
+ * Runs the DBMS DAOs against an in-memory H2 database in MySQL mode
+ */
+class MatchDAODBMSTest {
+
+    private ConnectionPool pool;
+    private DAOFactory daoFactory;
+    private User organizer;
+    private User manager;
+    private Field field;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ConnectionPool(new ConnectionPool.Settings(
+                "jdbc:h2:mem:sporty_test;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "sa", "", 4, 1_000, 60_000, 600_000, 1, 60_000));
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("CREATE TABLE user (id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) UNIQUE, "
+                    + "password VARCHAR(50), name VARCHAR(50), surname VARCHAR(50), role INT)");
+            stmt.execute("CREATE TABLE field (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100), "
+                    + "city VARCHAR(100), address VARCHAR(200), price_per_hour DOUBLE, sport INT, manager_id INT)");
+            stmt.execute("CREATE TABLE matches (id INT AUTO_INCREMENT PRIMARY KEY, organizer_id INT, field_id INT, "
+                    + "date DATE, time TIME, missing_players INT, status INT, joined_players TEXT)");
+            stmt.execute("CREATE TABLE notifications (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "recipient_username VARCHAR(50), title VARCHAR(100), message TEXT, is_read BOOLEAN, "
+                    + "created_at TIMESTAMP)");
+        }
+        daoFactory = new DbmsDAOFactory(pool);
+
+        organizer = new User(0, "organizer1", "password", "Luigi", "Rossi", Role.ORGANIZER);
+        daoFactory.getUserDAO().save(organizer);
+        manager = new User(0, "manager1", "password", "Paolo", "Verdi", Role.FIELD_MANAGER);
+        daoFactory.getUserDAO().save(manager);
+
+        field = new Field(0, "Campo di Calcio", "Milano", "Via Milano 1", 60.0, Sport.FOOTBALL_5, manager);
+        daoFactory.getFieldDAO().save(field);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private Match newMatch(MatchStatus status, int daysAhead) {
+        Match match = new Match(0, organizer, field, LocalDate.now().plusDays(daysAhead),
+                LocalTime.of(18, 0), 5, status);
+        daoFactory.getMatchDAO().save(match);
+        return match;
+    }
+
+    @Test
+    void testListedMatchesAreFullyHydrated() {
+        newMatch(MatchStatus.APPROVED, 1);
+        newMatch(MatchStatus.APPROVED, 2);
+        newMatch(MatchStatus.PENDING, 3);
+
+        List<Match> approved = daoFactory.getMatchDAO().findApprovedMatches();
+
+        assertEquals(2, approved.size(), "Only approved matches should be listed");
+        Match first = approved.get(0);
+        assertEquals("organizer1", first.getOrganizer().getUsername(), "The organizer should be loaded");
+        assertEquals("Campo di Calcio", first.getField().getName(), "The field should be loaded");
+        assertEquals("manager1", first.getField().getManager().getUsername(), "The field manager should be loaded");
+        assertSame(first.getField(), approved.get(1).getField(),
+                "The same field should be built only once per query");
+    }
+
+    @Test
+    void testApprovedMatchesArePagedByDateTimeAndId() {
+        Match third = newMatch(MatchStatus.APPROVED, 3);
+        Match first = newMatch(MatchStatus.APPROVED, 1);
+        Match second = newMatch(MatchStatus.APPROVED, 1);
+        newMatch(MatchStatus.PENDING, 2);
+
+        Page<Match> page = daoFactory.getMatchDAO().findApprovedMatches(null, 2);
+        Page<Match> last = daoFactory.getMatchDAO().findApprovedMatches(page.nextCursor(), 2);
+
+        assertEquals(List.of(first.getId(), second.getId()), page.items().stream().map(Match::getId).toList());
+        assertTrue(page.hasNext(), "A second page should follow");
+        assertEquals(List.of(third.getId()), last.items().stream().map(Match::getId).toList());
+        assertFalse(last.hasNext(), "The second page should be the last");
+    }
+
+    @Test
+    void testStreamReleasesConnectionOnClose() {
+        for (int i = 0; i < 5; i++) {
+            newMatch(MatchStatus.APPROVED, i + 1);
+        }
+
+        try (Stream<Match> matches = daoFactory.getMatchDAO().streamAll()) {
+            assertEquals(1, pool.getStats().active(), "The stream should hold one connection");
+            assertEquals(5, matches.filter(m -> m.getField() != null).count());
+        }
+
+        assertEquals(0, pool.getStats().active(), "Closing the stream should return the connection");
+    }
+
+    @Test
+    void testPendingMatchesForManager() {
+        Match pending = newMatch(MatchStatus.PENDING, 1);
+        newMatch(MatchStatus.APPROVED, 2);
+
+        List<Match> result = daoFactory.getMatchDAO().findPendingForManager(manager.getId());
+
+        assertEquals(1, result.size(), "Only the pending match should be returned");
+        assertEquals(pending.getId(), result.get(0).getId());
+        assertTrue(daoFactory.getMatchDAO().findPendingForManager(organizer.getId()).isEmpty(),
+                "Other users should see no pending requests");
+    }
+
+    @Test
+    void testFindByIdWithMissingField() {
+        Match match = new Match(0, organizer, null, LocalDate.now().plusDays(1), LocalTime.of(10, 0), 1,
+                MatchStatus.PENDING);
+        daoFactory.getMatchDAO().save(match);
+
+        Match loaded = daoFactory.getMatchDAO().findById(match.getId());
+
+        assertNotNull(loaded, "The match should be found");
+        assertNull(loaded.getField(), "A match without a field should load with no field");
+        assertEquals(organizer.getId(), loaded.getOrganizer().getId());
+    }
+
+    @Test
+    void testJoinedPlayerLookupHasNoFalsePositives() throws Exception {
+        Match joined = newMatch(MatchStatus.APPROVED, 1);
+        joined.addJoinedPlayer(1);
+        daoFactory.getMatchDAO().update(joined);
+        Match other = newMatch(MatchStatus.APPROVED, 2);
+        other.addJoinedPlayer(11);
+        other.addJoinedPlayer(21);
+        daoFactory.getMatchDAO().update(other);
+
+        List<Match> result = daoFactory.getMatchDAO().findByJoinedPlayer(1);
+
+        assertEquals(1, result.size(), "User 1 should not match users 11 or 21");
+        assertEquals(joined.getId(), result.get(0).getId());
+    }
+
+    @Test
+    void testUpdateRemovesLeftPlayers() throws Exception {
+        Match match = newMatch(MatchStatus.APPROVED, 1);
+        match.addJoinedPlayer(7);
+        match.addJoinedPlayer(8);
+        daoFactory.getMatchDAO().update(match);
+
+        match.setJoinedPlayers(new java.util.ArrayList<>(List.of(8)));
+        daoFactory.getMatchDAO().update(match);
+
+        assertTrue(daoFactory.getMatchDAO().findByJoinedPlayer(7).isEmpty(), "Player 7 should have left");
+        assertEquals(1, daoFactory.getMatchDAO().findByJoinedPlayer(8).size(), "Player 8 should still be joined");
+    }
+
+    @Test
+    void testBatchWritesAssignIdsAndStatuses() throws Exception {
+        Match first = new Match(0, organizer, field, LocalDate.now().plusDays(1), LocalTime.of(18, 0), 5,
+                MatchStatus.PENDING);
+        first.addJoinedPlayer(7);
+        Match second = new Match(0, organizer, field, LocalDate.now().plusDays(2), LocalTime.of(18, 0), 5,
+                MatchStatus.PENDING);
+
+        daoFactory.getMatchDAO().saveAll(List.of(first, second));
+        daoFactory.getMatchDAO().updateStatusAll(java.util.Map.of(
+                first.getId(), MatchStatus.APPROVED, second.getId(), MatchStatus.REJECTED));
+
+        assertTrue(first.getId() > 0 && second.getId() > first.getId(), "Generated ids should be assigned in order");
+        assertEquals(MatchStatus.APPROVED, daoFactory.getMatchDAO().findById(first.getId()).getStatus());
+        assertEquals(MatchStatus.REJECTED, daoFactory.getMatchDAO().findById(second.getId()).getStatus());
+        assertEquals(List.of(first.getId()), daoFactory.getMatchDAO().findByJoinedPlayer(7).stream()
+                .map(Match::getId).toList(), "Joined players should be saved with the batch");
+    }
+
+    @Test
+    void testTryJoinTakesSlotsAndReportsFailures() {
+        Match match = new Match(0, organizer, field, LocalDate.now().plusDays(1), LocalTime.of(18, 0), 1,
+                MatchStatus.APPROVED);
+        daoFactory.getMatchDAO().save(match);
+
+        assertEquals(JoinResult.JOINED, daoFactory.getMatchDAO().tryJoin(match.getId(), 7));
+        assertEquals(JoinResult.ALREADY_JOINED, daoFactory.getMatchDAO().tryJoin(match.getId(), 7));
+        assertEquals(JoinResult.FULL, daoFactory.getMatchDAO().tryJoin(match.getId(), 8));
+        assertEquals(JoinResult.NOT_FOUND, daoFactory.getMatchDAO().tryJoin(match.getId() + 100, 8));
+
+        Match stored = daoFactory.getMatchDAO().findById(match.getId());
+        assertEquals(0, stored.getMissingPlayers(), "The slot should be taken");
+        assertEquals(List.of(7), stored.getJoinedPlayers(), "The legacy column should list the player");
+        assertEquals(1, daoFactory.getMatchDAO().findByJoinedPlayer(7).size());
+    }
+
+    @Test
+    void testExpiredMatchesAreDeletedWhenTheyEnd() {
+        LocalDateTime now = LocalDateTime.now().withSecond(0).withNano(0);
+        int duration = field.getSport().getDuration();
+        Match ended = new Match(0, organizer, field, now.minusMinutes(duration).toLocalDate(),
+                now.minusMinutes(duration).toLocalTime(), 5, MatchStatus.APPROVED);
+        Match playing = new Match(0, organizer, field, now.minusMinutes(duration - 1L).toLocalDate(),
+                now.minusMinutes(duration - 1L).toLocalTime(), 5, MatchStatus.APPROVED);
+        Match noField = new Match(0, organizer, null, now.toLocalDate(), now.toLocalTime(), 5, MatchStatus.APPROVED);
+        daoFactory.getMatchDAO().saveAll(List.of(ended, playing, noField));
+
+        assertEquals(1, daoFactory.getMatchDAO().deleteExpiredMatches(now, 1), "A chunk should respect the limit");
+        assertEquals(1, daoFactory.getMatchDAO().deleteExpiredMatches(now, 10));
+
+        assertNull(daoFactory.getMatchDAO().findById(ended.getId()), "A match that has ended should be deleted");
+        assertNull(daoFactory.getMatchDAO().findById(noField.getId()));
+        assertNotNull(daoFactory.getMatchDAO().findById(playing.getId()), "A match being played should be kept");
+    }
+
+    @Test
+    void testAvailableFieldsExcludeOverlappingBookings() {
+        Match match = newMatch(MatchStatus.APPROVED, 1);
+        LocalDate day = match.getDate();
+
+        assertTrue(daoFactory.getFieldDAO().findAvailableFields("Milano", Sport.FOOTBALL_5, day,
+                LocalTime.of(19, 30)).isEmpty(), "A booking starting inside the match should overlap it");
+        assertTrue(daoFactory.getFieldDAO().findAvailableFields("Milano", Sport.FOOTBALL_5, day,
+                LocalTime.of(16, 30)).isEmpty(), "A booking ending inside the match should overlap it");
+        assertEquals(1, daoFactory.getFieldDAO().findAvailableFields("Milano", Sport.FOOTBALL_5, day,
+                LocalTime.of(20, 0)).size(), "A booking starting when the match ends should be free");
+
+        daoFactory.getMatchDAO().updateStatus(match.getId(), MatchStatus.REJECTED);
+        assertEquals(1, daoFactory.getFieldDAO().findAvailableFields("Milano", Sport.FOOTBALL_5, day,
+                LocalTime.of(19, 30)).size(), "A rejected match should not occupy the field");
+    }
+
+    @Test
+    void testCachedAvailabilitySeesBookingsOfOtherClients() {
+        DAOFactory cached = new CachingDAOFactory(new InstrumentedDAOFactory(daoFactory, "dbms"));
+        LocalDate day = LocalDate.now().plusDays(1);
+        assertEquals(1, cached.getFieldDAO().findAvailableFields("Milano", Sport.FOOTBALL_5, day,
+                LocalTime.of(18, 0)).size());
+
+        newMatch(MatchStatus.APPROVED, 1);
+
+        assertTrue(cached.getFieldDAO().findAvailableFields("Milano", Sport.FOOTBALL_5, day,
+                LocalTime.of(18, 0)).isEmpty(), "A booking made past the cache should be seen at once");
+        assertEquals(LocalTime.of(20, 0), cached.getFieldDAO().findEarliestFreeSlots(SlotQuery.of("Milano",
+                Sport.FOOTBALL_5, LocalDateTime.of(day, LocalTime.of(18, 0)), day.plusDays(1).atStartOfDay(),
+                null, 1)).get(0).time());
+    }
+
+    @Test
+    void testEarliestFreeSlotsStartAfterBookings() {
+        Match match = newMatch(MatchStatus.APPROVED, 1);
+        LocalDate day = match.getDate();
+
+        List<FreeSlot> slots = daoFactory.getFieldDAO().findEarliestFreeSlots(SlotQuery.of("Milano",
+                Sport.FOOTBALL_5, LocalDateTime.of(day, LocalTime.of(16, 30)), day.plusDays(1).atStartOfDay(),
+                null, 2));
+
+        assertEquals(List.of(LocalTime.of(20, 0), LocalTime.of(20, 30)),
+                slots.stream().map(FreeSlot::time).toList());
+        assertTrue(daoFactory.getFieldDAO().findEarliestFreeSlots(SlotQuery.of("Milano", Sport.FOOTBALL_5,
+                LocalDateTime.of(day, LocalTime.of(16, 30)), day.plusDays(1).atStartOfDay(), 50.0, 2)).isEmpty(),
+                "Fields over the price ceiling should not be suggested");
+    }
+
+    @Test
+    void testFieldLookupsUseNormalizedCityAndTrigrams() {
+        assertEquals(1, daoFactory.getFieldDAO().findByCity(" MILANO").size());
+        assertEquals(List.of(field.getId()), daoFactory.getFieldDAO().searchByNameOrAddress("campo calcoi", 5)
+                .stream().map(Field::getId).toList());
+        assertTrue(daoFactory.getFieldDAO().searchByNameOrAddress("tennis club", 5).isEmpty());
+
+        daoFactory.getFieldDAO().delete(field.getId());
+        assertTrue(daoFactory.getFieldDAO().searchByNameOrAddress("campo calcio", 5).isEmpty(),
+                "Deleted fields should leave the trigram index");
+    }
+
+    @Test
+    void testInterruptedTrigramBackfillIsRebuilt() throws Exception {
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            // A backfill cut short before the marker existed left only some trigrams behind
+            stmt.execute("DELETE FROM schema_migrations WHERE name = 'field_ngrams_backfill'");
+            stmt.execute("DELETE FROM field_ngrams WHERE ngram <> 'cam'");
+        }
+        DAOFactory restarted = new DbmsDAOFactory(pool);
+
+        assertEquals(List.of(field.getId()), restarted.getFieldDAO().searchByNameOrAddress("via milano", 5)
+                .stream().map(Field::getId).toList(), "The trigram index should be rebuilt in full");
+    }
+
+    @Test
+    void testMatchQueryFiltersInSql() {
+        Field torino = new Field(0, "Padel Torino", "Torino", "Via Po 3", 40.0, Sport.PADEL_DOUBLE, manager);
+        daoFactory.getFieldDAO().save(torino);
+        Match open = newMatch(MatchStatus.APPROVED, 1);
+        Match joined = newMatch(MatchStatus.APPROVED, 2);
+        newMatch(MatchStatus.PENDING, 1);
+        Match padel = new Match(0, manager, torino, LocalDate.now().plusDays(1), LocalTime.of(9, 0), 3,
+                MatchStatus.APPROVED);
+        daoFactory.getMatchDAO().save(padel);
+        assertEquals(JoinResult.JOINED, daoFactory.getMatchDAO().tryJoin(joined.getId(), manager.getId()));
+
+        assertEquals(List.of(open.getId()), daoFactory.getMatchDAO().find(MatchQuery.approved()
+                .withCity(" milano").withSport(Sport.FOOTBALL_5).excludingJoinedUser(manager.getId()))
+                .stream().map(Match::getId).toList());
+        assertEquals(List.of(padel.getId()), daoFactory.getMatchDAO().find(MatchQuery.approved()
+                .withPriceRange(null, 50.0).excludingOrganizer(organizer.getId()))
+                .stream().map(Match::getId).toList());
+        assertEquals(List.of(padel.getId(), open.getId()), daoFactory.getMatchDAO().find(MatchQuery.approved()
+                .onDate(LocalDate.now().plusDays(1)).withLimit(5)).stream().map(Match::getId).toList(),
+                "Matches of the day should come by time");
+        assertEquals(1, daoFactory.getMatchDAO().find(MatchQuery.all().withLimit(1)).size());
+    }
+
+    @Test
+    void testListingsFollowMatchAndFieldWrites() {
+        MatchListingDAO listings = daoFactory.getMatchListingDAO();
+        Match match = newMatch(MatchStatus.PENDING, 1);
+        Match later = newMatch(MatchStatus.APPROVED, 2);
+
+        MatchListing pending = listings.findPendingForManager(manager.getId()).get(0);
+        assertEquals("Luigi Rossi", pending.organizerName());
+        assertEquals("Campo di Calcio", pending.fieldName());
+        assertEquals(Sport.FOOTBALL_5, pending.sport());
+
+        daoFactory.getMatchDAO().updateStatus(match.getId(), MatchStatus.APPROVED);
+        assertTrue(listings.findPendingForManager(manager.getId()).isEmpty());
+        List<MatchListing> firstPage = listings.find(MatchQuery.approved().withCity("milano").withLimit(1));
+        assertEquals(List.of(match.getId()), firstPage.stream().map(MatchListing::matchId).toList());
+        assertEquals(List.of(later.getId()), listings.find(MatchQuery.approved()
+                .after(PageCursor.of(firstPage.get(0).key()))).stream().map(MatchListing::matchId).toList(),
+                "The next page should resume after the cursor");
+
+        daoFactory.getMatchDAO().tryJoin(match.getId(), manager.getId());
+        assertEquals(4, listings.findByJoinedPlayer(manager.getId()).get(0).missingPlayers());
+        assertEquals(List.of(later.getId()), listings.find(MatchQuery.approved()
+                .excludingJoinedUser(manager.getId())).stream().map(MatchListing::matchId).toList());
+
+        daoFactory.getFieldDAO().delete(field.getId());
+        assertNull(listings.findById(match.getId()).fieldName(), "A deleted field should leave its listings");
+        daoFactory.getMatchDAO().delete(match.getId());
+        assertNull(listings.findById(match.getId()));
+    }
+
+    @Test
+    void testMatchRequestWritesItsNotificationToTheOutbox() {
+        Match match = new Match(0, organizer, field, LocalDate.now().plusDays(1), LocalTime.of(18, 0), 5,
+                MatchStatus.PENDING);
+        match.attach(new MatchNotificationObserver(match));
+        match.setStatus(MatchStatus.PENDING);
+        daoFactory.getMatchDAO().save(match);
+
+        NotificationOutbox outbox = daoFactory.getNotificationOutbox();
+        List<OutboxEntry> due = outbox.findDue(LocalDateTime.now().plusMinutes(1), 10);
+        assertEquals(1, due.size(), "The notification should be committed with the match");
+        assertEquals("manager1", due.get(0).notification().getRecipientUsername());
+        assertTrue(daoFactory.getNotificationDAO().findUnreadByUsername("manager1").isEmpty());
+
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outbox, daoFactory.getNotificationDAO(),
+                NotificationDispatcher.Settings.DEFAULTS);
+        assertEquals(1, dispatcher.runOnce());
+        assertEquals(1, daoFactory.getNotificationDAO().findUnreadByUsername("manager1").size());
+        assertEquals(0, outbox.size());
+    }
+
+    @Test
+    void testUnreadCounterAndFeedFollowSavesAndReads() throws Exception {
+        NotificationDAO notifications = daoFactory.getNotificationDAO();
+        notifications.save(new Notification("manager1", "First", "one"));
+        notifications.saveAll(List.of(new Notification("manager1", "Second", "two"),
+                new Notification("manager1", "Third", "three"), new Notification("organizer1", "Other", "x")));
+
+        assertEquals(3, notifications.countUnread("manager1"));
+        assertEquals(0, notifications.countUnread("nobody"));
+        List<Notification> firstPoll = notifications.findSince("manager1", 0, 2);
+        assertEquals(List.of("First", "Second"), firstPoll.stream().map(Notification::getTitle).toList());
+        assertEquals(List.of("Third"), notifications.findSince("manager1", firstPoll.get(1).getId(), 2).stream()
+                .map(Notification::getTitle).toList(), "A poll should only return what came after the last seen");
+
+        List<Notification> latest = notifications.findLatestUnread("manager1", 2);
+        assertEquals(List.of("Third", "Second"), latest.stream().map(Notification::getTitle).toList());
+        notifications.markReadBetween("manager1", latest.get(1).getId(), latest.get(0).getId());
+        assertEquals(1, notifications.countUnread("manager1"), "Notifications not shown should stay unread");
+        assertEquals(List.of("First"), notifications.findLatestUnread("manager1", 2).stream()
+                .map(Notification::getTitle).toList());
+
+        notifications.markAllAsRead("manager1");
+        assertEquals(0, notifications.countUnread("manager1"));
+        assertTrue(notifications.findSince("manager1", 0, 10).isEmpty());
+        notifications.save(new Notification("manager1", "Fourth", "four"));
+        assertEquals(1, notifications.countUnread("manager1"));
+
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TABLE notification_counters");
+        }
+        DAOFactory migrated = new DbmsDAOFactory(pool);
+        assertEquals(1, migrated.getNotificationDAO().countUnread("manager1"),
+                "Counters should be rebuilt from the unread notifications");
+        assertEquals(1, migrated.getNotificationDAO().countUnread("organizer1"));
+    }
+
+    @Test
+    void testLegacyJoinedPlayersAreMigrated() throws Exception {
+        Match match = newMatch(MatchStatus.APPROVED, 1);
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP TABLE match_players");
+            stmt.execute("DROP TABLE schema_migrations");
+            stmt.execute("UPDATE matches SET joined_players = '[5,6]' WHERE id = " + match.getId());
+        }
+
+        DAOFactory migrated = new DbmsDAOFactory(pool);
+
+        assertEquals(1, migrated.getMatchDAO().findByJoinedPlayer(5).size(), "Player 5 should be migrated");
+        assertEquals(1, migrated.getMatchDAO().findByJoinedPlayer(6).size(), "Player 6 should be migrated");
+
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DELETE FROM match_players");
+        }
+        DAOFactory restarted = new DbmsDAOFactory(pool);
+        assertTrue(restarted.getMatchDAO().findByJoinedPlayer(5).isEmpty(),
+                "The backfill should run only once, even when match_players is empty");
+    }
+}
@@ -0,0 +1,176 @@
+package testing;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import model.dao.AvailabilityFieldDAO;
+import model.dao.FieldDAO;
+import model.dao.filesystem.LocalDateAdapter;
+import model.dao.filesystem.LocalTimeAdapter;
+import model.dao.filesystem.MatchDAOFileSystem;
+import model.dao.memory.FieldDAOMemory;
+import model.domain.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the journaled file system match store
+ * Tests that mutations survive a restart before and after compaction and
+ * that snapshots stay readable by the reflective Gson format
+ */
+class MatchDAOFileSystemTest {
+
+    @TempDir
+    Path dataDir;
+
+    private Match newMatch(int organizerId, MatchStatus status) {
+        User organizer = new User();
+        organizer.setId(organizerId);
+        User manager = new User();
+        manager.setId(9);
+        Field field = new Field(1, "Campo", "Milano", Sport.FOOTBALL_5, manager);
+        return new Match(0, organizer, field, LocalDate.now().plusDays(3), LocalTime.of(18, 0), 5, status);
+    }
+
+    @Test
+    void testJournalIsReplayedOnRestart() {
+        Path snapshot = dataDir.resolve("matches.json");
+        MatchDAOFileSystem store = new MatchDAOFileSystem(snapshot);
+        Match kept = newMatch(1, MatchStatus.PENDING);
+        Match removed = newMatch(1, MatchStatus.PENDING);
+        store.save(kept);
+        store.save(removed);
+        store.updateStatus(kept.getId(), MatchStatus.APPROVED);
+        store.delete(removed.getId());
+
+        MatchDAOFileSystem reopened = new MatchDAOFileSystem(snapshot);
+
+        assertNotNull(reopened.findById(kept.getId()), "The saved match should be replayed");
+        assertNull(reopened.findById(removed.getId()), "The deleted match should stay deleted");
+        assertEquals(MatchStatus.APPROVED, reopened.findById(kept.getId()).getStatus(),
+                "The status update should be replayed");
+        assertEquals(1, reopened.findApprovedMatches().size(), "The status index should be rebuilt");
+        assertTrue(reopened.findPendingForManager(9).isEmpty(), "No pending match should remain");
+    }
+
+    @Test
+    void testCompactionWritesSnapshotAndTruncatesJournal() throws Exception {
+        Path snapshot = dataDir.resolve("matches.json");
+        MatchDAOFileSystem store = new MatchDAOFileSystem(snapshot);
+        Match match = newMatch(2, MatchStatus.PENDING);
+        store.save(match);
+
+        store.compact();
+
+        assertEquals(0, Files.size(dataDir.resolve("matches.journal")), "The journal should be empty");
+        assertTrue(Files.readString(snapshot).contains("\"id\":" + match.getId()),
+                "The snapshot should contain the match");
+        MatchDAOFileSystem reopened = new MatchDAOFileSystem(snapshot);
+        assertEquals(1, reopened.findByOrganizer(2).size(), "The match should be loaded from the snapshot");
+    }
+
+    @Test
+    void testExpiredMatchesAreDeletedInChunks() {
+        Path snapshot = dataDir.resolve("matches.json");
+        MatchDAOFileSystem store = new MatchDAOFileSystem(snapshot);
+        LocalDateTime now = LocalDateTime.of(2030, 6, 15, 18, 0);
+        int duration = Sport.FOOTBALL_5.getDuration();
+        for (int i = 0; i < 3; i++) {
+            Match ended = newMatch(4, i == 0 ? MatchStatus.APPROVED : MatchStatus.PENDING);
+            ended.setDate(now.toLocalDate().minusDays(i + 1L));
+            store.save(ended);
+        }
+        Match playing = newMatch(4, MatchStatus.APPROVED);
+        playing.setDate(now.toLocalDate());
+        playing.setTime(now.toLocalTime().minusMinutes(duration - 1L));
+        store.save(playing);
+        Match upcoming = newMatch(4, MatchStatus.APPROVED);
+        upcoming.setDate(now.toLocalDate().plusDays(1));
+        store.save(upcoming);
+
+        assertEquals(2, store.deleteExpiredMatches(now, 2), "A chunk should respect the limit");
+        assertEquals(1, store.deleteExpiredMatches(now, 2));
+        assertEquals(0, store.deleteExpiredMatches(now, 2));
+        assertEquals(2, new MatchDAOFileSystem(snapshot).findByOrganizer(4).size(),
+                "Matches still being played or yet to come should be kept");
+    }
+
+    private static boolean isFree(FieldDAO fieldDAO, Field field, Match match) {
+        return fieldDAO.findAvailableFields(field.getCity(), field.getSport(), match.getDate(), match.getTime())
+                .stream().anyMatch(free -> free.getId() == field.getId());
+    }
+
+    @Test
+    void testFreeFieldsFollowTheStoredBookings() {
+        Path snapshot = dataDir.resolve("matches.json");
+        FieldDAOMemory fields = new FieldDAOMemory();
+        Field field = fields.findById(1);
+        Match match = newMatch(5, MatchStatus.APPROVED);
+        match.setField(field);
+        new MatchDAOFileSystem(snapshot).save(match);
+
+        MatchDAOFileSystem reopened = new MatchDAOFileSystem(snapshot);
+        FieldDAO fieldDAO = new AvailabilityFieldDAO(fields, reopened.getAvailability());
+        assertFalse(isFree(fieldDAO, field, match), "A replayed booking should occupy the field");
+
+        reopened.updateStatus(match.getId(), MatchStatus.REJECTED);
+        assertTrue(isFree(fieldDAO, field, match), "A rejected match should free the field");
+    }
+
+    @Test
+    void testReturnedMatchesDoNotAlterTheStore() throws Exception {
+        MatchDAOFileSystem store = new MatchDAOFileSystem(dataDir.resolve("matches.json"));
+        Match match = newMatch(3, MatchStatus.APPROVED);
+        store.save(match);
+
+        Match loaded = store.findById(match.getId());
+        loaded.addJoinedPlayer(42);
+
+        assertTrue(store.findByJoinedPlayer(42).isEmpty(), "Unsaved changes should not be visible");
+        store.update(loaded);
+        assertEquals(1, store.findByJoinedPlayer(42).size(), "Saved changes should be visible");
+    }
+
+    @Test
+    void testSnapshotKeepsTheReflectiveFormat() throws Exception {
+        Path snapshot = dataDir.resolve("matches.json");
+        Gson reflective = new GsonBuilder()
+                .registerTypeAdapter(LocalDate.class, new LocalDateAdapter())
+                .registerTypeAdapter(LocalTime.class, new LocalTimeAdapter())
+                .setPrettyPrinting()
+                .create();
+        User manager = new User(9, "manager1", "password", "Paolo", "Verdi", Role.FIELD_MANAGER);
+        User organizer = new User(4, "organizer1", "password", "Luigi", "Rossi", Role.ORGANIZER);
+        Field field = new Field(1, "Campo \"Centrale\"", "Milano", "Via Milano 1", 62.5, Sport.PADEL_DOUBLE, manager);
+        Match written = new Match(7, organizer, field, LocalDate.of(2030, 7, 1), LocalTime.of(18, 30), 2,
+                MatchStatus.APPROVED);
+        written.setJoinedPlayers(new ArrayList<>(List.of(11, 12)));
+        Files.writeString(snapshot, reflective.toJson(List.of(written)));
+
+        MatchDAOFileSystem store = new MatchDAOFileSystem(snapshot);
+        Match loaded = store.findById(7);
+        assertEquals("Campo \"Centrale\"", loaded.getField().getName());
+        assertEquals(62.5, loaded.getField().getPricePerHour());
+        assertEquals(Sport.PADEL_DOUBLE, loaded.getField().getSport());
+        assertEquals(Role.FIELD_MANAGER, loaded.getField().getManager().getRole());
+        assertEquals("organizer1", loaded.getOrganizer().getUsername());
+        assertEquals(LocalTime.of(18, 30), loaded.getTime());
+        assertEquals(List.of(11, 12), loaded.getJoinedPlayers());
+        store.compact();
+
+        String compact = Files.readString(snapshot);
+        assertFalse(compact.contains("\n"), "The snapshot should be compact by default");
+        Match[] reread = reflective.fromJson(compact, Match[].class);
+        assertEquals(reflective.toJson(written), reflective.toJson(reread[0]),
+                "The reflective reader should see the match as it was written");
+    }
+}
@@ -0,0 +1,143 @@
+package testing;
+
+import model.dao.AvailabilityFieldDAO;
+import model.dao.FieldDAO;
+import model.dao.Page;
+import model.dao.mapped.MatchDAOMapped;
+import model.dao.memory.FieldDAOMemory;
+import model.dao.memory.UserDAOMemory;
+import model.domain.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the memory-mapped binary match store
+ * Tests that records survive a reopen and that deleted space is reused
+ */
+class MatchDAOMappedTest {
+
+    @TempDir
+    Path dataDir;
+
+    private MatchDAOMapped open() {
+        return new MatchDAOMapped(dataDir.resolve("matches.bin"), dataDir.resolve("match_players.bin"),
+                new UserDAOMemory(), new FieldDAOMemory());
+    }
+
+    private Match newMatch(LocalDate date, MatchStatus status) {
+        User organizer = new User();
+        organizer.setId(2);
+        Field field = new Field();
+        field.setId(1);
+        return new Match(0, organizer, field, date, LocalTime.of(18, 30), 5, status);
+    }
+
+    @Test
+    void testRecordsSurviveReopen() throws Exception {
+        MatchDAOMapped store = open();
+        Match match = newMatch(LocalDate.now().plusDays(2), MatchStatus.PENDING);
+        match.addJoinedPlayer(1);
+        store.save(match);
+        store.close();
+
+        MatchDAOMapped reopened = open();
+        Match loaded = reopened.findById(match.getId());
+
+        assertNotNull(loaded, "The match should be read back from the file");
+        assertEquals(match.getDate(), loaded.getDate());
+        assertEquals(match.getTime(), loaded.getTime());
+        assertEquals(List.of(1), loaded.getJoinedPlayers());
+        assertEquals("organizer", loaded.getOrganizer().getUsername(), "The organizer should be hydrated");
+        assertEquals(1, reopened.findPendingForManager(3).size(), "The demo manager owns field 1");
+        reopened.close();
+    }
+
+    private static boolean isFree(FieldDAO fieldDAO, Field field, Match match) {
+        return fieldDAO.findAvailableFields(field.getCity(), field.getSport(), match.getDate(), match.getTime())
+                .stream().anyMatch(free -> free.getId() == field.getId());
+    }
+
+    @Test
+    void testFreeFieldsFollowTheStoredBookings() throws Exception {
+        FieldDAOMemory fields = new FieldDAOMemory();
+        MatchDAOMapped store = new MatchDAOMapped(dataDir.resolve("matches.bin"),
+                dataDir.resolve("match_players.bin"), new UserDAOMemory(), fields);
+        FieldDAO fieldDAO = new AvailabilityFieldDAO(fields, store.getAvailability());
+        Field field = fields.findById(1);
+        Match match = newMatch(LocalDate.now().plusDays(2), MatchStatus.PENDING);
+        match.setField(field);
+        store.save(match);
+        assertTrue(isFree(fieldDAO, field, match), "A pending match should not occupy the field");
+
+        store.updateStatus(match.getId(), MatchStatus.APPROVED);
+        assertFalse(isFree(fieldDAO, field, match), "An approved match should occupy the field");
+
+        store.delete(match.getId());
+        assertTrue(isFree(fieldDAO, field, match));
+        store.close();
+    }
+
+    @Test
+    void testJoinedPlayersGrowPastTheirBlock() throws Exception {
+        MatchDAOMapped store = open();
+        Match match = newMatch(LocalDate.now().plusDays(1), MatchStatus.APPROVED);
+        store.save(match);
+        List<Integer> joined = new ArrayList<>();
+        for (int userId = 100; userId < 120; userId++) {
+            joined.add(userId);
+        }
+        match.setJoinedPlayers(joined);
+        store.update(match);
+
+        assertEquals(joined, store.findById(match.getId()).getJoinedPlayers());
+        assertEquals(1, store.findByJoinedPlayer(119).size(), "The last player should be found");
+        store.close();
+    }
+
+    @Test
+    void testDeletedSlotsAreReused() throws Exception {
+        MatchDAOMapped store = open();
+        Match expired = newMatch(LocalDate.now().minusDays(1), MatchStatus.APPROVED);
+        store.save(expired);
+        store.deleteExpiredMatches(LocalDateTime.now(), 100);
+        store.close();
+        long sizeAfterDelete = Files.size(dataDir.resolve("matches.bin"));
+
+        MatchDAOMapped reopened = open();
+        assertNull(reopened.findById(expired.getId()), "The expired match should stay deleted");
+        Match next = newMatch(LocalDate.now().plusDays(1), MatchStatus.APPROVED);
+        reopened.save(next);
+        reopened.close();
+
+        assertNotEquals(expired.getId(), next.getId(), "Ids should not be reused");
+        assertEquals(sizeAfterDelete, Files.size(dataDir.resolve("matches.bin")));
+        assertEquals(1, open().findApprovedMatches().size());
+    }
+
+    @Test
+    void testPagesAreOrderedByDate() throws Exception {
+        MatchDAOMapped store = open();
+        for (int days = 5; days >= 1; days--) {
+            store.save(newMatch(LocalDate.now().plusDays(days), MatchStatus.APPROVED));
+        }
+
+        Page<Match> first = store.findApprovedMatches(null, 3);
+        Page<Match> second = store.findApprovedMatches(first.nextCursor(), 3);
+
+        assertEquals(LocalDate.now().plusDays(1), first.items().get(0).getDate());
+        assertEquals(LocalDate.now().plusDays(4), second.items().get(0).getDate());
+        assertEquals(2, second.items().size());
+        assertFalse(second.hasNext());
+        store.close();
+    }
+}
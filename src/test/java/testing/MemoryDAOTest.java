@@ -0,0 +1,282 @@
+package testing;
+
+import model.dao.FieldDAO;
+import model.dao.FreeSlot;
+import model.dao.JoinResult;
+import model.dao.MatchDAO;
+import model.dao.MatchQuery;
+import model.dao.NotificationDAO;
+import model.dao.Page;
+import model.dao.SlotQuery;
+import model.dao.memory.MemoryDAOFactory;
+import model.domain.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the in-memory DAOs
+ * Tests factory isolation, match and field copy isolation, index
+ * consistency under concurrent writes, free slot search, normalized and
+ * fuzzy field lookups and the unread notification feed
+ */
+class MemoryDAOTest {
+
+    private Match newMatch(MemoryDAOFactory factory, int organizerId) {
+        User organizer = new User();
+        organizer.setId(organizerId);
+        Field field = factory.getFieldDAO().findById(1);
+        return new Match(0, organizer, field, LocalDate.now().plusDays(1), LocalTime.of(20, 0), 4,
+                MatchStatus.PENDING);
+    }
+
+    @Test
+    void testFactoriesDoNotShareState() {
+        MemoryDAOFactory first = new MemoryDAOFactory();
+        MemoryDAOFactory second = new MemoryDAOFactory();
+
+        first.getMatchDAO().save(newMatch(first, 2));
+        first.getNotificationDAO().save(new Notification("manager", "Title", "Message"));
+
+        assertEquals(1, first.getMatchDAO().findByOrganizer(2).size());
+        assertTrue(second.getMatchDAO().findByOrganizer(2).isEmpty(), "Matches should be per factory");
+        assertTrue(second.getNotificationDAO().findUnreadByUsername("manager").isEmpty(),
+                "Notifications should be per factory");
+    }
+
+    @Test
+    void testPagesResumeAfterTheCursor() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        MatchDAO matchDAO = factory.getMatchDAO();
+        for (int i = 0; i < 5; i++) {
+            Match match = newMatch(factory, 2);
+            match.setDate(LocalDate.now().plusDays(5 - i));
+            match.setStatus(MatchStatus.APPROVED);
+            matchDAO.save(match);
+        }
+
+        List<Match> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            Page<Match> page = matchDAO.findApprovedMatches(cursor, 2);
+            seen.addAll(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(5, seen.size(), "Every match should be listed exactly once");
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i - 1).getDate().isBefore(seen.get(i).getDate()), "Pages should be in date order");
+        }
+        assertEquals(3, factory.getFieldDAO().findByCity("milano", null, 3).items().size());
+    }
+
+    @Test
+    void testIndexesStayConsistentUnderConcurrentWrites() throws Exception {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        MatchDAO matchDAO = factory.getMatchDAO();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            int organizerId = 100 + i % 4;
+            boolean approve = i % 2 == 0;
+            futures.add(executor.submit(() -> {
+                Match match = newMatch(factory, organizerId);
+                matchDAO.save(match);
+                if (approve) {
+                    matchDAO.updateStatus(match.getId(), MatchStatus.APPROVED);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(200, matchDAO.findApprovedMatches().size(), "Every approval should be indexed");
+        assertEquals(200, matchDAO.findPendingForManager(3).size(), "Every pending match should be indexed");
+        for (int organizerId = 100; organizerId < 104; organizerId++) {
+            assertEquals(100, matchDAO.findByOrganizer(organizerId).size());
+        }
+    }
+
+    @Test
+    void testConcurrentJoinsNeverOverfillAMatch() throws Exception {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        MatchDAO matchDAO = factory.getMatchDAO();
+        Match match = newMatch(factory, 2);
+        matchDAO.save(match);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<JoinResult>> futures = new ArrayList<>();
+        for (int userId = 10; userId < 60; userId++) {
+            int joiningUser = userId;
+            futures.add(executor.submit(() -> matchDAO.tryJoin(match.getId(), joiningUser)));
+        }
+        int joined = 0;
+        for (Future<JoinResult> future : futures) {
+            JoinResult result = future.get();
+            if (result.isJoined()) {
+                joined++;
+            } else {
+                assertEquals(JoinResult.FULL, result, "Late players should find the match full");
+            }
+        }
+        executor.shutdown();
+
+        Match stored = matchDAO.findById(match.getId());
+        assertEquals(4, joined, "Exactly the missing slots should be taken");
+        assertEquals(0, stored.getMissingPlayers());
+        assertEquals(4, stored.getJoinedPlayersCount());
+        assertEquals(JoinResult.ALREADY_JOINED, matchDAO.tryJoin(match.getId(), stored.getJoinedPlayers().get(0)));
+        assertEquals(JoinResult.NOT_FOUND, matchDAO.tryJoin(999, 10));
+    }
+
+    @Test
+    void testStoredMatchesAreIsolatedFromCallers() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        MatchDAO matchDAO = factory.getMatchDAO();
+        Match match = newMatch(factory, 2);
+        matchDAO.save(match);
+        match.setStatus(MatchStatus.APPROVED);
+
+        Match read = matchDAO.findById(match.getId());
+        assertEquals(MatchStatus.PENDING, read.getStatus(), "Changing the saved instance should not change the store");
+        assertTrue(matchDAO.findApprovedMatches().isEmpty(), "The status index should follow the stored match");
+
+        assertEquals(JoinResult.JOINED, matchDAO.tryJoin(match.getId(), 10));
+        assertEquals(0, read.getJoinedPlayersCount(), "A join should not change copies already handed out");
+        assertEquals(1, matchDAO.findById(match.getId()).getJoinedPlayersCount());
+        assertEquals(1, matchDAO.findByJoinedPlayer(10).size());
+    }
+
+    @Test
+    void testStoredFieldsAreIsolatedFromCallers() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        FieldDAO fieldDAO = factory.getFieldDAO();
+        User manager = new User();
+        manager.setId(7);
+        Field field = new Field(0, "Campo Romagna", "Cesena", "Viale Roma 4", 80.0, Sport.PADEL_DOUBLE, manager);
+        fieldDAO.save(field);
+        field.setCity("Rimini");
+
+        Field read = fieldDAO.findById(field.getId());
+        read.setCity("Rimini");
+        assertEquals("Cesena", fieldDAO.findById(field.getId()).getCity(),
+                "Changing saved or returned instances should not change the store");
+        assertEquals(1, fieldDAO.findByCity("Cesena").size(), "The city index should follow the stored field");
+        assertTrue(fieldDAO.findByCity("Rimini").isEmpty());
+
+        field.setCity("Rimini");
+        fieldDAO.save(field);
+        assertTrue(fieldDAO.findByCity("Cesena").isEmpty(), "A save should move the field to its new city");
+        fieldDAO.delete(field.getId());
+        assertTrue(fieldDAO.findByCity("Rimini").isEmpty());
+        assertTrue(fieldDAO.findByManagerId(7).isEmpty(), "A deletion should leave no index entry behind");
+    }
+
+    @Test
+    void testEarliestFreeSlotsSkipBookingsAndPricierFields() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        LocalDate day = LocalDate.now().plusDays(1);
+        User organizer = new User();
+        organizer.setId(2);
+        factory.getMatchDAO().save(new Match(0, organizer, factory.getFieldDAO().findById(1), day,
+                LocalTime.of(8, 0), 4, MatchStatus.APPROVED));
+        factory.getMatchDAO().save(new Match(0, organizer, factory.getFieldDAO().findById(2), day,
+                LocalTime.of(8, 30), 4, MatchStatus.APPROVED));
+
+        List<FreeSlot> slots = factory.getFieldDAO().findEarliestFreeSlots(SlotQuery.of("Milano", Sport.FOOTBALL_5,
+                LocalDateTime.of(day, LocalTime.of(8, 0)), day.plusDays(1).atStartOfDay(), 100.0, 3));
+
+        assertEquals(List.of("1@10:00", "1@10:30", "2@10:30"), slots.stream()
+                .map(slot -> slot.field().getId() + "@" + slot.time())
+                .toList(), "Slots should start after each booking ends and skip fields over the ceiling");
+    }
+
+    @Test
+    void testCityLookupsIgnoreAccentsAndNameSearchToleratesTypos() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        User manager = new User();
+        manager.setId(3);
+        Field field = new Field(0, "Campo Romagna", "Forlì-Cesena", "Viale Roma 4", 80.0, Sport.PADEL_DOUBLE,
+                manager);
+        factory.getFieldDAO().save(field);
+
+        assertEquals(List.of(field.getId()), factory.getFieldDAO().findByCity("forli cesena")
+                .stream().map(Field::getId).toList());
+        assertEquals(List.of(field.getId()), factory.getFieldDAO().findAvailableFields(" FORLI  CESENA ",
+                Sport.PADEL_DOUBLE, LocalDate.now().plusDays(1), LocalTime.of(18, 0))
+                .stream().map(Field::getId).toList());
+        assertEquals("San Siro Five", factory.getFieldDAO().searchByNameOrAddress("san sro five", 5).get(0).getName(),
+                "A misspelled name should still rank its field first");
+    }
+
+    @Test
+    void testMatchQueryIntersectsCityStatusDateAndExclusions() throws Exception {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        User manager = new User();
+        manager.setId(3);
+        Field field = new Field(0, "Campo Romagna", "Forlì-Cesena", "Viale Roma 4", 80.0, Sport.PADEL_DOUBLE,
+                manager);
+        factory.getFieldDAO().save(field);
+        User organizer = new User();
+        organizer.setId(5);
+        User self = new User();
+        self.setId(2);
+        LocalDate day = LocalDate.now().plusDays(1);
+        Match open = new Match(0, organizer, field, day, LocalTime.of(18, 0), 3, MatchStatus.APPROVED);
+        Match own = new Match(0, self, field, day, LocalTime.of(18, 0), 3, MatchStatus.APPROVED);
+        Match joined = new Match(0, organizer, field, day.plusDays(1), LocalTime.of(18, 0), 3,
+                MatchStatus.APPROVED);
+        joined.addJoinedPlayer(2);
+        Match pending = new Match(0, organizer, field, day, LocalTime.of(20, 0), 3, MatchStatus.PENDING);
+        Match later = new Match(0, organizer, field, day.plusDays(5), LocalTime.of(18, 0), 3, MatchStatus.APPROVED);
+        Match elsewhere = new Match(0, organizer, factory.getFieldDAO().findById(1), day, LocalTime.of(18, 0), 3,
+                MatchStatus.APPROVED);
+        factory.getMatchDAO().saveAll(List.of(open, own, joined, pending, later, elsewhere));
+
+        MatchQuery query = MatchQuery.approved().withCity("FORLI CESENA").withDates(day, day.plusDays(1));
+        assertEquals(List.of(open.getId()), factory.getMatchDAO()
+                .find(query.excludingOrganizer(2).excludingJoinedUser(2))
+                .stream().map(Match::getId).toList());
+        assertEquals(List.of(open.getId(), own.getId()), factory.getMatchDAO().find(query.withLimit(2))
+                .stream().map(Match::getId).toList(), "Results should come in listing order up to the limit");
+        assertTrue(factory.getMatchDAO().find(query.withPriceRange(null, 50.0)).isEmpty(),
+                "Fields over the price ceiling should be left out");
+        assertEquals(3, factory.getMatchDAO().find(MatchQuery.all().withSport(Sport.PADEL_DOUBLE).onDate(day))
+                .size(), "Without city or status every match of the day should be considered");
+    }
+
+    @Test
+    void testUnreadCounterAndFeedFollowSavesAndReads() {
+        NotificationDAO notifications = new MemoryDAOFactory().getNotificationDAO();
+        for (int i = 1; i <= 5; i++) {
+            notifications.save(new Notification("manager", "Request " + i, "message"));
+        }
+
+        assertEquals(5, notifications.countUnread("manager"));
+        List<Notification> firstPoll = notifications.findSince("manager", 0, 3);
+        assertEquals(3, firstPoll.size());
+        assertEquals(List.of("Request 4", "Request 5"), notifications.findSince("manager",
+                firstPoll.get(2).getId(), 3).stream().map(Notification::getTitle).toList());
+
+        List<Notification> latest = notifications.findLatestUnread("manager", 2);
+        assertEquals(List.of("Request 5", "Request 4"), latest.stream().map(Notification::getTitle).toList());
+        notifications.markReadBetween("manager", latest.get(1).getId(), latest.get(0).getId());
+        assertEquals(3, notifications.countUnread("manager"), "Notifications not shown should stay unread");
+        assertEquals(List.of("Request 3", "Request 2"), notifications.findLatestUnread("manager", 2).stream()
+                .map(Notification::getTitle).toList());
+
+        notifications.markAllAsRead("manager");
+        assertEquals(0, notifications.countUnread("manager"));
+        assertTrue(notifications.findSince("manager", 0, 3).isEmpty());
+    }
+}
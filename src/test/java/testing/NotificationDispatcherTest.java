@@ -0,0 +1,103 @@
+package testing;
+
+import model.dao.NotificationDAO;
+import model.dao.NotificationOutbox;
+import model.dao.maintenance.NotificationDispatcher;
+import model.dao.memory.MemoryDAOFactory;
+import model.dao.memory.NotificationDAOMemory;
+import model.domain.*;
+import model.observer.MatchNotificationObserver;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the notification outbox and its background delivery
+ * Tests that match requests queue their notification and that failed
+ * deliveries are retried later
+ */
+class NotificationDispatcherTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 15, 18, 0);
+    private static final NotificationDispatcher.Settings SETTINGS =
+            new NotificationDispatcher.Settings(60_000, 10, 5_000, 60_000);
+
+    private static Clock clockAt(LocalDateTime time) {
+        return Clock.fixed(time.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    }
+
+    private Match requestMatch(MemoryDAOFactory factory, String managerUsername) {
+        User manager = new User(0, managerUsername, "password", "Paolo", "Verdi", Role.FIELD_MANAGER);
+        User organizer = new User(0, "organizer1", "password", "Luigi", "Rossi", Role.ORGANIZER);
+        Field field = new Field(0, "Campo " + managerUsername, "Milano", "Via Milano 1", 60.0, Sport.FOOTBALL_5,
+                manager);
+        Match match = new Match(0, organizer, field, LocalDate.of(2030, 7, 1), LocalTime.of(18, 0), 4,
+                MatchStatus.PENDING);
+        match.attach(new MatchNotificationObserver(match));
+        match.setStatus(MatchStatus.PENDING);
+        factory.getMatchDAO().save(match);
+        return match;
+    }
+
+    @Test
+    void testMatchRequestIsDeliveredFromTheOutbox() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        NotificationOutbox outbox = factory.getNotificationOutbox();
+        NotificationDAO notificationDAO = factory.getNotificationDAO();
+
+        Match match = requestMatch(factory, "manager1");
+
+        assertEquals(1, outbox.size(), "Saving the match should queue its notification");
+        assertTrue(match.getPendingNotifications().isEmpty(), "The store should take the queued notification");
+        assertTrue(notificationDAO.findUnreadByUsername("manager1").isEmpty(),
+                "Nothing should be delivered before the dispatcher runs");
+
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outbox, notificationDAO, SETTINGS,
+                clockAt(NOW));
+        assertEquals(1, dispatcher.runOnce());
+
+        List<Notification> unread = notificationDAO.findUnreadByUsername("manager1");
+        assertEquals(1, unread.size());
+        assertEquals("New Match Request", unread.get(0).getTitle());
+        assertEquals(0, outbox.size(), "A delivered notification should leave the outbox");
+    }
+
+    @Test
+    void testFailedDeliveryIsRetriedWithBackoff() {
+        MemoryDAOFactory factory = new MemoryDAOFactory();
+        NotificationOutbox outbox = factory.getNotificationOutbox();
+        requestMatch(factory, "manager1");
+        requestMatch(factory, "unreachable");
+        boolean[] down = {true};
+        NotificationDAO flaky = new NotificationDAOMemory() {
+            @Override
+            public void saveAll(List<Notification> notifications) {
+                if (down[0] && notifications.stream().anyMatch(n -> n.getRecipientUsername().equals("unreachable"))) {
+                    throw new IllegalStateException("Mail server down");
+                }
+                super.saveAll(notifications);
+            }
+        };
+
+        NotificationDispatcher dispatcher = new NotificationDispatcher(outbox, flaky, SETTINGS, clockAt(NOW));
+        assertEquals(1, dispatcher.runOnce(), "The failing notification should not hold back the others");
+        assertEquals(1, outbox.size(), "The failed notification should stay in the outbox");
+        assertEquals(1, dispatcher.getStats().postponed());
+
+        down[0] = false;
+        assertEquals(0, dispatcher.runOnce(), "A postponed notification should wait for its backoff");
+
+        NotificationDispatcher later = new NotificationDispatcher(outbox, flaky, SETTINGS,
+                clockAt(NOW.plusSeconds(5)));
+        assertEquals(1, later.runOnce());
+        assertEquals(1, flaky.findUnreadByUsername("unreachable").size());
+        assertEquals(0, outbox.size());
+    }
+}
@@ -0,0 +1,131 @@
+package testing;
+
+import model.dao.DAOFactory;
+import model.dao.UserDAO;
+import model.dao.dbms.ConnectionPool;
+import model.dao.dbms.DbmsDAOFactory;
+import model.dao.dbms.SqlTracer;
+import model.domain.Role;
+import model.domain.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the DBMS SQL tracing
+ * Tests the slow-query log and the detection of repeated lookups within a
+ * controller call
+ */
+class SqlTracerTest {
+
+    private final List<String> slowLog = new ArrayList<>();
+    private final List<String> nPlusOneLog = new ArrayList<>();
+    private final Handler slowHandler = collector(slowLog);
+    private final Handler nPlusOneHandler = collector(nPlusOneLog);
+    private ConnectionPool pool;
+    private SqlTracer tracer;
+    private DAOFactory daoFactory;
+
+    private static Handler collector(List<String> messages) {
+        return new Handler() {
+            @Override
+            public void publish(LogRecord logRecord) {
+                messages.add(logRecord.getMessage());
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        tracer = new SqlTracer(new SqlTracer.Settings(true, 0, 5, 60_000));
+        pool = new ConnectionPool(new ConnectionPool.Settings(
+                "jdbc:h2:mem:trace_test;MODE=MySQL;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                "sa", "", 2, 1_000, 60_000, 600_000, 1, 60_000), tracer);
+        try (Connection connection = pool.borrow(); Statement stmt = connection.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("CREATE TABLE user (id INT AUTO_INCREMENT PRIMARY KEY, username VARCHAR(50) UNIQUE, "
+                    + "password VARCHAR(50), name VARCHAR(50), surname VARCHAR(50), role INT)");
+            stmt.execute("CREATE TABLE field (id INT AUTO_INCREMENT PRIMARY KEY, name VARCHAR(100), "
+                    + "city VARCHAR(100), address VARCHAR(200), price_per_hour DOUBLE, sport INT, manager_id INT)");
+            stmt.execute("CREATE TABLE matches (id INT AUTO_INCREMENT PRIMARY KEY, organizer_id INT, field_id INT, "
+                    + "date DATE, time TIME, missing_players INT, status INT, joined_players TEXT)");
+            stmt.execute("CREATE TABLE notifications (id INT AUTO_INCREMENT PRIMARY KEY, "
+                    + "recipient_username VARCHAR(50), title VARCHAR(100), message TEXT, is_read BOOLEAN, "
+                    + "created_at TIMESTAMP)");
+        }
+        daoFactory = new DbmsDAOFactory(pool);
+        Logger.getLogger(SqlTracer.SLOW_LOG).addHandler(slowHandler);
+        Logger.getLogger(SqlTracer.N_PLUS_ONE_LOG).addHandler(nPlusOneHandler);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Logger.getLogger(SqlTracer.SLOW_LOG).removeHandler(slowHandler);
+        Logger.getLogger(SqlTracer.N_PLUS_ONE_LOG).removeHandler(nPlusOneHandler);
+        pool.close();
+    }
+
+    @Test
+    void testSlowQueriesAreLoggedWithTheirShapeAndCaller() {
+        User user = new User(0, "player1", "secret", "Mario", "Bianchi", Role.PLAYER);
+        daoFactory.getUserDAO().save(user);
+        slowLog.clear();
+
+        try (SqlTracer.Scope ignored = SqlTracer.scope("LoginController.login")) {
+            daoFactory.getUserDAO().findById(user.getId());
+        }
+
+        assertEquals(1, slowLog.size(), "With a zero threshold every query should be slow");
+        String entry = slowLog.get(0);
+        assertTrue(entry.contains("LoginController.login"), entry);
+        assertTrue(entry.contains("FROM user WHERE id = ? (int)"), entry);
+        assertTrue(entry.contains("rows=1"), entry);
+        assertFalse(entry.contains("secret"), "Parameter values should never be logged");
+    }
+
+    @Test
+    void testRepeatedLookupsInOneCallAreReported() {
+        UserDAO userDAO = daoFactory.getUserDAO();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            User user = new User(0, "player" + i, "password", "Player", String.valueOf(i), Role.PLAYER);
+            userDAO.save(user);
+            ids.add(user.getId());
+        }
+
+        try (SqlTracer.Scope ignored = SqlTracer.scope("HomeController.getMatches")) {
+            try (SqlTracer.Scope nested = SqlTracer.scope("HomeController.convert")) {
+                ids.forEach(userDAO::findById);
+            }
+            assertTrue(nPlusOneLog.isEmpty(), "A nested scope should not end the call");
+        }
+
+        assertEquals(1, nPlusOneLog.size());
+        assertTrue(nPlusOneLog.get(0).contains("HomeController.getMatches: 6 executions of SELECT"),
+                nPlusOneLog.get(0));
+        assertEquals(1, tracer.getStats().nPlusOneReports());
+
+        try (SqlTracer.Scope ignored = SqlTracer.scope("HomeController.getMatches")) {
+            userDAO.findById(ids.get(0));
+        }
+        assertEquals(1, nPlusOneLog.size(), "A single lookup should not be reported");
+    }
+}